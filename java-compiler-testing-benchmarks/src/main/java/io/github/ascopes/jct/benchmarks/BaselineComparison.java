@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares a set of JMH results against a baseline, and reports any regressions.
+ *
+ * <p>A result is considered to have regressed when its score is worse than the baseline by
+ * more than the tolerance, and the difference is also larger than the combined error margins
+ * of both results. The error margins are capped at a fraction of the baseline score, so that a
+ * noisy run cannot hide a regression entirely. Benchmarks that are only present on one side are
+ * reported, but never considered to be regressions.
+ *
+ * <p>Usage:
+ *
+ * <pre><code>
+ *   java -jar target/benchmarks.jar -rf csv -rff target/results.csv
+ *   java -cp target/benchmarks.jar io.github.ascopes.jct.benchmarks.BaselineComparison \
+ *       baseline.csv target/results.csv [tolerance [maxNoise]]
+ * </code></pre>
+ *
+ * <p>The tolerance is a fraction of the baseline score, and defaults to
+ * {@value #DEFAULT_TOLERANCE}. The maximum noise is also a fraction of the baseline score, and
+ * defaults to {@value #DEFAULT_MAX_NOISE}. The process exits with status 1 if any regressions
+ * are found.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class BaselineComparison {
+
+  /**
+   * The default tolerance, as a fraction of the baseline score.
+   */
+  public static final double DEFAULT_TOLERANCE = 0.1;
+
+  /**
+   * The default cap on the combined error margins, as a fraction of the baseline score.
+   */
+  public static final double DEFAULT_MAX_NOISE = 0.25;
+
+  private static final String ROW_FORMAT = "%-10s %14s %14s %9s  %s%n";
+
+  /**
+   * Entrypoint for the comparison.
+   *
+   * @param args the baseline file, the results file, and optionally the tolerance and the
+   *             maximum noise.
+   * @throws IOException if either file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 4) {
+      System.err.println(
+          "Usage: BaselineComparison <baseline.csv> <results.csv> [tolerance [maxNoise]]"
+      );
+      System.exit(2);
+      return;
+    }
+
+    var tolerance = args.length >= 3 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+    var maxNoise = args.length == 4 ? Double.parseDouble(args[3]) : DEFAULT_MAX_NOISE;
+    var baseline = BenchmarkResult.readCsv(Path.of(args[0]));
+    var results = BenchmarkResult.readCsv(Path.of(args[1]));
+    var regressions = new BaselineComparison(tolerance, maxNoise)
+        .compare(baseline, results, System.out);
+
+    if (regressions > 0) {
+      System.err.printf(Locale.ROOT, "%d benchmark(s) regressed%n", regressions);
+      System.exit(1);
+    }
+  }
+
+  private final double tolerance;
+  private final double maxNoise;
+
+  /**
+   * Initialise the comparison with the default maximum noise.
+   *
+   * @param tolerance the tolerance, as a fraction of the baseline score.
+   * @throws IllegalArgumentException if the tolerance is negative.
+   */
+  public BaselineComparison(double tolerance) {
+    this(tolerance, DEFAULT_MAX_NOISE);
+  }
+
+  /**
+   * Initialise the comparison.
+   *
+   * @param tolerance the tolerance, as a fraction of the baseline score.
+   * @param maxNoise  the cap on the combined error margins, as a fraction of the baseline score.
+   * @throws IllegalArgumentException if the tolerance or the maximum noise is negative.
+   */
+  public BaselineComparison(double tolerance, double maxNoise) {
+    if (!(tolerance >= 0)) {
+      throw new IllegalArgumentException("tolerance cannot be negative");
+    }
+    if (!(maxNoise >= 0)) {
+      throw new IllegalArgumentException("maxNoise cannot be negative");
+    }
+    this.tolerance = tolerance;
+    this.maxNoise = maxNoise;
+  }
+
+  /**
+   * Compare the results against the baseline, writing a report to the given stream.
+   *
+   * @param baseline the baseline results.
+   * @param results  the results to compare.
+   * @param out      the stream to write the report to.
+   * @return the number of regressions found.
+   */
+  int compare(List<BenchmarkResult> baseline, List<BenchmarkResult> results, PrintStream out) {
+    requireNonNull(baseline, "baseline");
+    requireNonNull(results, "results");
+    requireNonNull(out, "out");
+
+    var remaining = new LinkedHashMap<String, BenchmarkResult>();
+    baseline.forEach(result -> remaining.put(result.getKey(), result));
+
+    var regressions = 0;
+    out.printf(Locale.ROOT, ROW_FORMAT, "STATUS", "BASELINE", "CURRENT", "CHANGE", "BENCHMARK");
+
+    for (var result : results) {
+      var previous = remaining.remove(result.getKey());
+
+      if (previous == null) {
+        out.printf(Locale.ROOT, ROW_FORMAT, "NEW", "-", format(result), "-", result.getKey());
+        continue;
+      }
+
+      var status = status(previous, result);
+      if (status == Status.REGRESSED) {
+        ++regressions;
+      }
+
+      out.printf(
+          Locale.ROOT,
+          ROW_FORMAT,
+          status,
+          format(previous),
+          format(result),
+          String.format(Locale.ROOT, "%+.1f%%", change(previous, result) * 100),
+          result.getKey()
+      );
+    }
+
+    for (var previous : remaining.values()) {
+      out.printf(Locale.ROOT, ROW_FORMAT, "MISSING", format(previous), "-", "-", previous.getKey());
+    }
+
+    return regressions;
+  }
+
+  private Status status(BenchmarkResult previous, BenchmarkResult current) {
+    // Positive values mean the result got worse, regardless of the benchmark mode.
+    var worsening = previous.isHigherBetter()
+        ? previous.getScore() - current.getScore()
+        : current.getScore() - previous.getScore();
+
+    var threshold = Math.abs(previous.getScore()) * tolerance;
+    // Without a cap, a sufficiently noisy result could never be flagged as a regression.
+    var noise = Math.min(
+        errorOf(previous) + errorOf(current),
+        Math.abs(previous.getScore()) * maxNoise
+    );
+
+    if (worsening > threshold && worsening > noise) {
+      return Status.REGRESSED;
+    }
+
+    if (-worsening > threshold && -worsening > noise) {
+      return Status.IMPROVED;
+    }
+
+    return Status.OK;
+  }
+
+  private static double change(BenchmarkResult previous, BenchmarkResult current) {
+    return previous.getScore() == 0
+        ? 0
+        : (current.getScore() - previous.getScore()) / Math.abs(previous.getScore());
+  }
+
+  private static double errorOf(BenchmarkResult result) {
+    return Double.isNaN(result.getError()) ? 0 : result.getError();
+  }
+
+  private static String format(BenchmarkResult result) {
+    return String.format(Locale.ROOT, "%.3f %s", result.getScore(), result.getUnit());
+  }
+
+  private enum Status {
+    OK,
+    IMPROVED,
+    REGRESSED,
+  }
+}
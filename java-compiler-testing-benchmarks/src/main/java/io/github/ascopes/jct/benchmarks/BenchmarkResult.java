@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * A single benchmark result, as written by JMH with {@code -rf csv}.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class BenchmarkResult {
+
+  private static final String PARAM_PREFIX = "Param: ";
+
+  private final String benchmark;
+  private final String mode;
+  private final Map<String, String> params;
+  private final double score;
+  private final double error;
+  private final String unit;
+
+  BenchmarkResult(
+      String benchmark,
+      String mode,
+      Map<String, String> params,
+      double score,
+      double error,
+      String unit
+  ) {
+    this.benchmark = requireNonNull(benchmark, "benchmark");
+    this.mode = requireNonNull(mode, "mode");
+    this.params = Collections.unmodifiableMap(new TreeMap<>(params));
+    this.score = score;
+    this.error = error;
+    this.unit = requireNonNull(unit, "unit");
+  }
+
+  /**
+   * Get the key that identifies this benchmark and parameter combination across runs.
+   *
+   * @return the key.
+   */
+  String getKey() {
+    if (params.isEmpty()) {
+      return benchmark + " [" + mode + "]";
+    }
+
+    return params.entrySet()
+        .stream()
+        .map(param -> param.getKey() + "=" + param.getValue())
+        .collect(Collectors.joining(", ", benchmark + " [" + mode + "] {", "}"));
+  }
+
+  String getMode() {
+    return mode;
+  }
+
+  double getScore() {
+    return score;
+  }
+
+  double getError() {
+    return error;
+  }
+
+  String getUnit() {
+    return unit;
+  }
+
+  /**
+   * Determine whether a higher score is better for this result.
+   *
+   * @return {@code true} for throughput results, {@code false} for time-based results.
+   */
+  boolean isHigherBetter() {
+    return mode.equals("thrpt");
+  }
+
+  /**
+   * Read results from a JMH CSV results file.
+   *
+   * @param file the file to read.
+   * @return the results.
+   * @throws IOException if the file cannot be read.
+   */
+  static List<BenchmarkResult> readCsv(Path file) throws IOException {
+    return parseCsv(Files.readAllLines(file, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parse results from the lines of a JMH CSV results file.
+   *
+   * @param lines the lines, including the header.
+   * @return the results.
+   * @throws IllegalArgumentException if the lines are not in the expected format.
+   */
+  static List<BenchmarkResult> parseCsv(List<String> lines) {
+    if (lines.isEmpty()) {
+      throw new IllegalArgumentException("Results are empty, expected a CSV header");
+    }
+
+    var header = splitCsvLine(lines.get(0));
+    var benchmarkIndex = indexOf(header, "Benchmark");
+    var modeIndex = indexOf(header, "Mode");
+    var scoreIndex = indexOf(header, "Score");
+    var errorIndex = indexOf(header, "Score Error (99.9%)");
+    var unitIndex = indexOf(header, "Unit");
+
+    var results = new ArrayList<BenchmarkResult>();
+
+    for (var i = 1; i < lines.size(); ++i) {
+      if (lines.get(i).isBlank()) {
+        continue;
+      }
+
+      var fields = splitCsvLine(lines.get(i));
+
+      if (fields.size() != header.size()) {
+        throw new IllegalArgumentException(
+            "Line " + (i + 1) + " has " + fields.size() + " fields, expected " + header.size()
+        );
+      }
+
+      var params = new TreeMap<String, String>();
+      for (var j = 0; j < header.size(); ++j) {
+        if (header.get(j).startsWith(PARAM_PREFIX) && !fields.get(j).isEmpty()) {
+          params.put(header.get(j).substring(PARAM_PREFIX.length()), fields.get(j));
+        }
+      }
+
+      results.add(new BenchmarkResult(
+          fields.get(benchmarkIndex),
+          fields.get(modeIndex),
+          params,
+          parseDouble(fields.get(scoreIndex)),
+          parseDouble(fields.get(errorIndex)),
+          fields.get(unitIndex)
+      ));
+    }
+
+    return results;
+  }
+
+  private static int indexOf(List<String> header, String column) {
+    var index = header.indexOf(column);
+    if (index < 0) {
+      throw new IllegalArgumentException("Missing CSV column '" + column + "'");
+    }
+    return index;
+  }
+
+  private static double parseDouble(String value) {
+    // JMH writes NaN for errors when there were too few samples to compute them.
+    return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+  }
+
+  private static List<String> splitCsvLine(String line) {
+    var fields = new ArrayList<String>();
+    var field = new StringBuilder();
+    var quoted = false;
+
+    for (var i = 0; i < line.length(); ++i) {
+      var c = line.charAt(i);
+
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          ++i;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+
+    fields.add(field.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+
+/**
+ * Helpers for generating synthetic inputs for benchmarks.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class BenchmarkSources {
+
+  static final String BASE_PACKAGE = "org.example";
+
+  // Spread generated files across a handful of packages so that directory walking has to
+  // descend into more than one directory.
+  private static final int PACKAGE_COUNT = 10;
+
+  private BenchmarkSources() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Create trivial Java source files that compile successfully.
+   *
+   * @param directory the directory to create the sources in.
+   * @param count     the number of sources to create.
+   */
+  static void createSources(ManagedDirectory directory, int count) {
+    for (var i = 0; i < count; ++i) {
+      var packageName = packageName(i);
+      var className = "Generated" + i;
+
+      directory
+          .createFile(packageName.replace('.', '/') + "/" + className + ".java")
+          .withContents(
+              "package " + packageName + ";",
+              "",
+              "public final class " + className + " {",
+              "  public int compute(int value) {",
+              "    return value * " + i + ";",
+              "  }",
+              "}"
+          );
+    }
+  }
+
+  /**
+   * Create placeholder class files. These are not valid class files, but that does not matter
+   * for benchmarks that only index and list files.
+   *
+   * @param directory the directory to create the files in.
+   * @param count     the number of files to create.
+   */
+  static void createClassFiles(ManagedDirectory directory, int count) {
+    var contents = new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+
+    for (var i = 0; i < count; ++i) {
+      directory
+          .createFile(packageName(i).replace('.', '/') + "/Generated" + i + ".class")
+          .withContents(contents);
+    }
+  }
+
+  private static String packageName(int index) {
+    return BASE_PACKAGE + ".pkg" + (index % PACKAGE_COUNT);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.compilers.JctCompilers;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of {@link JctCompiler#compile(Workspace)}.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CompileBenchmark {
+
+  @Param({"RAM_DIRECTORIES", "TEMP_DIRECTORIES"})
+  public PathStrategy pathStrategy;
+
+  @Param("10")
+  public int sourceCount;
+
+  private JctCompiler compiler;
+  private Workspace workspace;
+
+  @Setup
+  public void setUp() {
+    compiler = JctCompilers.newPlatformCompiler();
+    workspace = Workspaces.newWorkspace(pathStrategy);
+    BenchmarkSources.createSources(workspace.createSourcePathPackage(), sourceCount);
+  }
+
+  @TearDown
+  public void tearDown() {
+    workspace.close();
+  }
+
+  @Benchmark
+  public JctCompilation compile() {
+    var compilation = compiler.compile(workspace);
+
+    if (compilation.isFailure()) {
+      throw new IllegalStateException("Benchmark compilation failed: " + compilation);
+    }
+
+    return compilation;
+  }
+}
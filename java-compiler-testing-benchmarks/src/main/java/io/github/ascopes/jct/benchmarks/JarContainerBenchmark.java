@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import static io.github.ascopes.jct.benchmarks.BenchmarkSources.BASE_PACKAGE;
+
+import io.github.ascopes.jct.containers.impl.JarContainerImpl;
+import io.github.ascopes.jct.containers.impl.JarIndexCache;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of opening, indexing, and listing the contents of a JAR with
+ * {@link JarContainerImpl}.
+ *
+ * <p>When {@code cached} is {@code false}, the shared {@link JarIndexCache} is cleared before
+ * every invocation, so each invocation pays for opening and indexing the JAR from scratch.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JarContainerBenchmark {
+
+  @Param({"100", "1000"})
+  public int fileCount;
+
+  @Param({"false", "true"})
+  public boolean cached;
+
+  private Workspace workspace;
+  private PathRoot jarRoot;
+
+  @Setup
+  public void setUp() {
+    // JARs must be on the default file system to be shared by the index cache.
+    workspace = Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES);
+    var classes = workspace.createSourcePathPackage();
+    BenchmarkSources.createClassFiles(classes, fileCount);
+
+    var libs = workspace.createClassPathPackage()
+        .createFile("library.jar")
+        .asJarFrom(classes);
+
+    jarRoot = new WrappingDirectoryImpl(libs.getPath().resolve("library.jar"));
+  }
+
+  @Setup(Level.Invocation)
+  public void clearCache() {
+    if (!cached) {
+      JarIndexCache.getInstance().clear();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    JarIndexCache.getInstance().clear();
+    workspace.close();
+  }
+
+  @Benchmark
+  public int indexAndListFileObjects() throws IOException {
+    var release = Integer.toString(Runtime.version().feature());
+    var fileObjects = new ArrayList<JavaFileObject>();
+
+    try (var container = new JarContainerImpl(StandardLocation.CLASS_PATH, jarRoot, release)) {
+      container.listFileObjects(BASE_PACKAGE, Set.of(Kind.CLASS), true, fileObjects);
+    }
+
+    return fileObjects.size();
+  }
+}
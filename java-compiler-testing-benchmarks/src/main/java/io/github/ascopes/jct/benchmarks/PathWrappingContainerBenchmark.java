@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import static io.github.ascopes.jct.benchmarks.BenchmarkSources.BASE_PACKAGE;
+
+import io.github.ascopes.jct.containers.impl.PathWrappingContainerImpl;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link PathWrappingContainerImpl} walking a source tree and probing it for
+ * classes that do not exist.
+ *
+ * <p>With directory indexing enabled, the index is built during the first invocation, so this
+ * measures the cost of each subsequent query within the same compilation. Probing for missing
+ * classes mirrors how the compiler searches every package on the source path for each name it
+ * needs to resolve.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PathWrappingContainerBenchmark {
+
+  private static final String[] MISSING_CLASS_NAMES = {
+      BASE_PACKAGE + ".Missing",
+      BASE_PACKAGE + ".missing.Missing",
+      "java.lang.String",
+      "java.util.List",
+      "org.example.missing.Missing",
+  };
+
+  @Param({"RAM_DIRECTORIES", "TEMP_DIRECTORIES"})
+  public PathStrategy pathStrategy;
+
+  @Param({"100", "1000"})
+  public int fileCount;
+
+  @Param({"false", "true"})
+  public boolean directoryIndexing;
+
+  private Workspace workspace;
+  private PathWrappingContainerImpl container;
+
+  @Setup
+  public void setUp() {
+    workspace = Workspaces.newWorkspace(pathStrategy);
+    var sources = workspace.createSourcePathPackage();
+    BenchmarkSources.createSources(sources, fileCount);
+    container = PathWrappingContainerImpl.builder(StandardLocation.SOURCE_PATH, sources)
+        .directoryIndexing(directoryIndexing)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    container.close();
+    workspace.close();
+  }
+
+  @Benchmark
+  public int listFileObjects() throws IOException {
+    var fileObjects = new ArrayList<JavaFileObject>();
+    container.listFileObjects(BASE_PACKAGE, Set.of(Kind.SOURCE), true, fileObjects);
+    return fileObjects.size();
+  }
+
+  @Benchmark
+  public int findMissingJavaFiles() {
+    var found = 0;
+    for (var i = 0; i < MISSING_CLASS_NAMES.length; ++i) {
+      if (container.getJavaFileForInput(MISSING_CLASS_NAMES[i], Kind.SOURCE) != null) {
+        ++found;
+      }
+    }
+    return found;
+  }
+}
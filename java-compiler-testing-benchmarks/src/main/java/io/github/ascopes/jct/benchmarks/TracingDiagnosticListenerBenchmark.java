@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
+import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput benchmark of {@link TracingDiagnosticListener#report}.
+ *
+ * <p>Each invocation reports a batch of diagnostics to a fresh listener, so that retained
+ * diagnostics do not accumulate across the whole run. Diagnostics are reported as notes, which
+ * are logged at {@code INFO}. The benchmark logging configuration suppresses this level, so the
+ * cost of writing log output is not included.
+ *
+ * <p>Stack traces are only logged when they are captured in full, matching the
+ * {@link io.github.ascopes.jct.filemanagers.LoggingMode#STACKTRACES} logging mode.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TracingDiagnosticListenerBenchmark {
+
+  private static final int BATCH_SIZE = 1_000;
+  private static final Diagnostic<JavaFileObject> DIAGNOSTIC = new NoteDiagnostic();
+
+  @Param({"false", "true"})
+  public boolean logging;
+
+  @Param({"NONE", "LIMITED", "FULL"})
+  public StackTraceCaptureMode stackTraceCaptureMode;
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public TracingDiagnosticListener<JavaFileObject> report() {
+    var listener = new TracingDiagnosticListener<JavaFileObject>(
+        logging,
+        stackTraceCaptureMode == StackTraceCaptureMode.FULL,
+        stackTraceCaptureMode
+    );
+
+    for (var i = 0; i < BATCH_SIZE; ++i) {
+      listener.report(DIAGNOSTIC);
+    }
+
+    return listener;
+  }
+
+  private static final class NoteDiagnostic implements Diagnostic<JavaFileObject> {
+
+    @Override
+    public Kind getKind() {
+      return Kind.NOTE;
+    }
+
+    @Override
+    public JavaFileObject getSource() {
+      return null;
+    }
+
+    @Override
+    public long getPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getStartPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getEndPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getLineNumber() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getColumnNumber() {
+      return NOPOS;
+    }
+
+    @Override
+    public String getCode() {
+      return "compiler.note.benchmark";
+    }
+
+    @Override
+    public String getMessage(Locale locale) {
+      return "benchmark diagnostic";
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * {@link BaselineComparison} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("BaselineComparison tests")
+class BaselineComparisonTest {
+
+  static final String HEADER = "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\","
+      + "\"Score Error (99.9%)\",\"Unit\",\"Param: size\"";
+
+  @DisplayName("Results within the tolerance are not regressions")
+  @ParameterizedTest(name = "for mode {0} and score {1} vs baseline {2}")
+  @CsvSource({
+      "avgt,  100.0, 105.0",
+      "avgt,  100.0,  50.0",
+      "thrpt, 100.0,  95.0",
+      "thrpt, 100.0, 150.0",
+  })
+  void resultsWithinToleranceAreNotRegressions(String mode, double baseline, double current) {
+    // Given
+    var comparison = new BaselineComparison(0.1);
+
+    // When
+    var regressions = comparison.compare(
+        List.of(result(mode, baseline, 1.0)),
+        List.of(result(mode, current, 1.0)),
+        discardingStream()
+    );
+
+    // Then
+    assertThat(regressions).isZero();
+  }
+
+  @DisplayName("Results worse than the tolerance are regressions")
+  @ParameterizedTest(name = "for mode {0} and score {1} vs baseline {2}")
+  @CsvSource({
+      "avgt,  100.0, 120.0",
+      "thrpt, 100.0,  80.0",
+  })
+  void resultsWorseThanToleranceAreRegressions(String mode, double baseline, double current) {
+    // Given
+    var comparison = new BaselineComparison(0.1);
+
+    // When
+    var regressions = comparison.compare(
+        List.of(result(mode, baseline, 1.0)),
+        List.of(result(mode, current, 1.0)),
+        discardingStream()
+    );
+
+    // Then
+    assertThat(regressions).isOne();
+  }
+
+  @DisplayName("Differences within the error margins are not regressions")
+  @Test
+  void differencesWithinErrorMarginsAreNotRegressions() {
+    // Given
+    var comparison = new BaselineComparison(0.1);
+
+    // When
+    var regressions = comparison.compare(
+        List.of(result("avgt", 100.0, 10.0)),
+        List.of(result("avgt", 115.0, 10.0)),
+        discardingStream()
+    );
+
+    // Then
+    assertThat(regressions).isZero();
+  }
+
+  @DisplayName("Error margins larger than the maximum noise do not hide regressions")
+  @Test
+  void errorMarginsLargerThanMaximumNoiseDoNotHideRegressions() {
+    // Given
+    var comparison = new BaselineComparison(0.1, 0.25);
+
+    // When
+    var regressions = comparison.compare(
+        List.of(result("avgt", 100.0, 175.0)),
+        List.of(result("avgt", 130.0, 300.0)),
+        discardingStream()
+    );
+
+    // Then
+    assertThat(regressions).isOne();
+  }
+
+  @DisplayName("New and missing benchmarks are reported but are not regressions")
+  @Test
+  void newAndMissingBenchmarksAreReportedButAreNotRegressions() {
+    // Given
+    var comparison = new BaselineComparison(0.1);
+    var output = new ByteArrayOutputStream();
+    var baseline = BenchmarkResult.parseCsv(List.of(
+        HEADER,
+        "\"org.example.Old.run\",\"avgt\",1,5,10.0,1.0,\"ms/op\",1"
+    ));
+    var current = BenchmarkResult.parseCsv(List.of(
+        HEADER,
+        "\"org.example.New.run\",\"avgt\",1,5,10.0,1.0,\"ms/op\",1"
+    ));
+
+    // When
+    var regressions = comparison.compare(
+        baseline,
+        current,
+        new PrintStream(output, true, StandardCharsets.UTF_8)
+    );
+
+    // Then
+    assertThat(regressions).isZero();
+    assertThat(output.toString(StandardCharsets.UTF_8))
+        .containsPattern("NEW .* org\\.example\\.New\\.run \\[avgt] \\{size=1}")
+        .containsPattern("MISSING .* org\\.example\\.Old\\.run \\[avgt] \\{size=1}");
+  }
+
+  @DisplayName("JMH CSV results are parsed")
+  @Test
+  void jmhCsvResultsAreParsed() {
+    // When
+    var results = BenchmarkResult.parseCsv(List.of(
+        HEADER,
+        "\"org.example.Foo.bar\",\"thrpt\",1,5,141.415262,53.891374,\"ops/ms\",100",
+        "\"org.example.Foo.baz\",\"avgt\",1,1,2.5,NaN,\"ms/op\",",
+        ""
+    ));
+
+    // Then
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).getKey()).isEqualTo("org.example.Foo.bar [thrpt] {size=100}");
+    assertThat(results.get(0).getScore()).isEqualTo(141.415262);
+    assertThat(results.get(0).getError()).isEqualTo(53.891374);
+    assertThat(results.get(0).getUnit()).isEqualTo("ops/ms");
+    assertThat(results.get(0).isHigherBetter()).isTrue();
+    assertThat(results.get(1).getKey()).isEqualTo("org.example.Foo.baz [avgt]");
+    assertThat(results.get(1).getError()).isNaN();
+    assertThat(results.get(1).isHigherBetter()).isFalse();
+  }
+
+  @DisplayName("CSV results with missing columns are rejected")
+  @Test
+  void csvResultsWithMissingColumnsAreRejected() {
+    // Then
+    assertThatThrownBy(() -> BenchmarkResult.parseCsv(List.of("\"Benchmark\",\"Mode\"")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Missing CSV column 'Score'");
+  }
+
+  @DisplayName("Negative tolerances are rejected")
+  @Test
+  void negativeTolerancesAreRejected() {
+    // Then
+    assertThatThrownBy(() -> new BaselineComparison(-0.1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("tolerance cannot be negative");
+  }
+
+  @DisplayName("Negative maximum noise values are rejected")
+  @Test
+  void negativeMaximumNoiseValuesAreRejected() {
+    // Then
+    assertThatThrownBy(() -> new BaselineComparison(0.1, -0.1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxNoise cannot be negative");
+  }
+
+  static BenchmarkResult result(String mode, double score, double error) {
+    return BenchmarkResult.parseCsv(List.of(
+        HEADER,
+        "\"org.example.Foo.bar\",\"" + mode + "\",1,5," + score + "," + error + ",\"ms/op\",1"
+    )).get(0);
+  }
+
+  static PrintStream discardingStream() {
+    return new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+  }
+}
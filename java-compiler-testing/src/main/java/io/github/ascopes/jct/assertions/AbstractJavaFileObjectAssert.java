@@ -19,6 +19,7 @@ import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.github.ascopes.jct.filemanagers.PathFileObject;
 import java.io.ByteArrayOutputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
@@ -98,6 +99,11 @@ public abstract class AbstractJavaFileObjectAssert<I extends AbstractJavaFileObj
    * @throws UncheckedIOException if an IO error occurs reading the file content.
    */
   public AbstractStringAssert<?> content() {
+    if (actual instanceof PathFileObject pathFileObject) {
+      // These are always UTF-8, so let them reuse any content they have already decoded.
+      return assertThat(uncheckedIo(() -> pathFileObject.getCharContent(false)));
+    }
+
     return content(StandardCharsets.UTF_8);
   }
 
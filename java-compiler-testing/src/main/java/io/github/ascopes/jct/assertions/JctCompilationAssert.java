@@ -135,7 +135,7 @@ public final class JctCompilationAssert
    */
   public TraceDiagnosticListAssert diagnostics() {
     isNotNull();
-    return new TraceDiagnosticListAssert(actual.getDiagnostics());
+    return new TraceDiagnosticListAssert(actual.getDiagnostics(), actual.getDiagnosticCounts());
   }
 
   /**
@@ -20,20 +20,25 @@ import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.repr.TraceDiagnosticListRepresentation;
 import io.github.ascopes.jct.utils.StringUtils;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import org.assertj.core.api.AbstractListAssert;
+import org.assertj.core.api.AbstractLongAssert;
 import org.jspecify.annotations.Nullable;
 
 //@formatter:off
@@ -47,16 +52,38 @@ public final class TraceDiagnosticListAssert
     extends AbstractListAssert<TraceDiagnosticListAssert, List<? extends TraceDiagnostic<? extends JavaFileObject>>, TraceDiagnostic<? extends JavaFileObject>, TraceDiagnosticAssert> {
   //@formatter:on
 
+  private final @Nullable Map<Kind, Long> reportedCounts;
+
   /**
    * Initialize this assertion.
    *
    * @param traceDiagnostics the diagnostics to perform assertions on.
    */
-  @SuppressWarnings("DataFlowIssue")
   public TraceDiagnosticListAssert(
       @Nullable List<? extends TraceDiagnostic<? extends JavaFileObject>> traceDiagnostics
+  ) {
+    this(traceDiagnostics, null);
+  }
+
+  /**
+   * Initialize this assertion.
+   *
+   * <p>The reported counts are used to account for diagnostics that were reported by the
+   * compiler but not retained due to a
+   * {@link io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy retention policy}.
+   *
+   * @param traceDiagnostics the diagnostics to perform assertions on.
+   * @param reportedCounts   the number of diagnostics of each kind that were reported, or
+   *                         {@code null} if only the given diagnostics are known about.
+   * @since 6.1.0
+   */
+  @SuppressWarnings("DataFlowIssue")
+  public TraceDiagnosticListAssert(
+      @Nullable List<? extends TraceDiagnostic<? extends JavaFileObject>> traceDiagnostics,
+      @Nullable Map<Kind, Long> reportedCounts
   ) {
     super(traceDiagnostics, TraceDiagnosticListAssert.class);
+    this.reportedCounts = reportedCounts == null ? null : Map.copyOf(reportedCounts);
     info.useRepresentation(TraceDiagnosticListRepresentation.getInstance());
   }
 
@@ -152,9 +179,12 @@ public final class TraceDiagnosticListAssert
    * @throws AssertionError       if this list is null.
    * @throws NullPointerException if any of the kinds are null.
    */
+  @SuppressWarnings("ConstantValue")  // actual CAN be null, IntelliJ just doesn't realise this.
   public TraceDiagnosticListAssert filteringByKinds(Iterable<Kind> kinds) {
     requireNonNullValues(kinds, "kinds");
-    return filteringBy(kindIsOneOf(kinds));
+    isNotNull();
+    var kindsSet = toSet(kinds);
+    return newFilteredAssert(kindIsOneOf(kindsSet), kindsSet::contains);
   }
 
   /**
@@ -186,11 +216,8 @@ public final class TraceDiagnosticListAssert
   public TraceDiagnosticListAssert excludingKinds(Iterable<Kind> kinds) {
     requireNonNullValues(kinds, "kinds");
     isNotNull();
-    return actual
-        .stream()
-        .filter(Objects::nonNull)
-        .filter(not(kindIsOneOf(kinds)))
-        .collect(collectingAndThen(toUnmodifiableList(), this::newAbstractIterableAssert));
+    var kindsSet = toSet(kinds);
+    return newFilteredAssert(not(kindIsOneOf(kindsSet)), not(kindsSet::contains));
   }
 
   /**
@@ -293,10 +320,12 @@ public final class TraceDiagnosticListAssert
 
     var actualDiagnostics = actual
         .stream()
-        .filter(kindIsOneOf(kinds))
+        .filter(kindIsOneOf(toSet(kinds)))
         .toList();
 
-    if (actualDiagnostics.isEmpty()) {
+    var reportedCount = reportedCountOf(kinds, actualDiagnostics.size());
+
+    if (reportedCount == 0) {
       return myself;
     }
 
@@ -310,15 +339,53 @@ public final class TraceDiagnosticListAssert
             names -> StringUtils.toWordedList(names, ", ", ", or ")
         ));
 
+    var diagnosticsString = TraceDiagnosticListRepresentation.getInstance()
+        .toStringOf(actualDiagnostics);
+
+    if (reportedCount > actualDiagnostics.size()) {
+      throw failureWithActualExpected(
+          reportedCount,
+          0,
+          "Expected no %s diagnostics.\n\n%d were reported, of which %d were not retained."
+              + "\n\nRetained diagnostics:\n%s",
+          allKindsString,
+          reportedCount,
+          reportedCount - actualDiagnostics.size(),
+          diagnosticsString
+      );
+    }
+
     throw failureWithActualExpected(
         actualDiagnostics.size(),
         0,
         "Expected no %s diagnostics.\n\nDiagnostics:\n%s",
         allKindsString,
-        TraceDiagnosticListRepresentation.getInstance().toStringOf(actualDiagnostics)
+        diagnosticsString
     );
   }
 
+  /**
+   * Get assertions on the number of diagnostics that were reported.
+   *
+   * <p>Unlike {@link #hasSize(int)}, this also accounts for diagnostics that were reported by
+   * the compiler but were not retained due to a
+   * {@link io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy retention policy}, as
+   * long as this list has only been filtered by kind.
+   *
+   * @return assertions on the reported count.
+   * @throws AssertionError if the diagnostic list is null.
+   * @since 6.1.0
+   */
+  public AbstractLongAssert<?> reportedCount() {
+    isNotNull();
+    var counts = reportedCounts;
+    var retained = actual.size();
+    var reported = counts == null
+        ? retained
+        : Math.max(retained, counts.values().stream().mapToLong(Long::longValue).sum());
+    return assertThat(reported);
+  }
+
   /**
    * Filter diagnostics by a given predicate and return an assertion object that applies to all
    * diagnostics that match that predicate.
@@ -352,12 +419,56 @@ public final class TraceDiagnosticListAssert
     return new TraceDiagnosticListAssert(list);
   }
 
-  private Predicate<@Nullable TraceDiagnostic<? extends JavaFileObject>> kindIsOneOf(
-      Iterable<Kind> kinds
+  private TraceDiagnosticListAssert newFilteredAssert(
+      Predicate<@Nullable TraceDiagnostic<? extends JavaFileObject>> diagnosticPredicate,
+      Predicate<Kind> kindPredicate
   ) {
+    var diagnostics = actual
+        .stream()
+        .filter(Objects::nonNull)
+        .filter(diagnosticPredicate)
+        .collect(toUnmodifiableList());
+
+    var counts = reportedCounts;
+    if (counts == null) {
+      return new TraceDiagnosticListAssert(diagnostics);
+    }
+
+    var filteredCounts = new EnumMap<Kind, Long>(Kind.class);
+    counts.forEach((kind, count) -> {
+      if (kindPredicate.test(kind)) {
+        filteredCounts.put(kind, count);
+      }
+    });
+
+    return new TraceDiagnosticListAssert(diagnostics, filteredCounts);
+  }
+
+  private long reportedCountOf(Iterable<Kind> kinds, long retainedCount) {
+    var counts = reportedCounts;
+    if (counts == null) {
+      return retainedCount;
+    }
+
+    var reportedCount = toSet(kinds)
+        .stream()
+        .mapToLong(kind -> counts.getOrDefault(kind, 0L))
+        .sum();
+
+    // Counts may be incomplete if the list was not produced by a compilation, so never report
+    // fewer diagnostics than we actually hold.
+    return Math.max(reportedCount, retainedCount);
+  }
+
+  private static Set<Kind> toSet(Iterable<Kind> kinds) {
     var kindsSet = new LinkedHashSet<Kind>();
     kinds.forEach(kindsSet::add);
+    return kindsSet;
+  }
 
-    return diagnostic -> diagnostic != null && kindsSet.contains(diagnostic.getKind());
+  private static Predicate<@Nullable TraceDiagnostic<? extends JavaFileObject>> kindIsOneOf(
+      Set<Kind> kinds
+  ) {
+    return diagnostic -> diagnostic != null && kinds.contains(diagnostic.getKind());
   }
 }
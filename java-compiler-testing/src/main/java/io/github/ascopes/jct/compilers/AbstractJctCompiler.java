@@ -18,22 +18,30 @@ package io.github.ascopes.jct.compilers;
 import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
 import static java.util.Objects.requireNonNull;
 
+import io.github.ascopes.jct.compilers.impl.IncrementalCompilationTracker;
 import io.github.ascopes.jct.compilers.impl.JctCompilationFactoryImpl;
 import io.github.ascopes.jct.compilers.impl.JctCompilationImpl;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.OutputCaptureMode;
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.JctFileManagerFactory;
 import io.github.ascopes.jct.filemanagers.JctFileManagers;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.workspaces.Workspace;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -58,6 +66,7 @@ public abstract class AbstractJctCompiler implements JctCompiler {
   private final List<Processor> annotationProcessors;
   private final List<String> annotationProcessorOptions;
   private final List<String> compilerOptions;
+  private final IncrementalCompilationTracker incrementalCompilationTracker;
 
   private String name;
   private boolean showWarnings;
@@ -69,6 +78,15 @@ public abstract class AbstractJctCompiler implements JctCompiler {
   private boolean verbose;
   private boolean previewFeatures;
   private LoggingMode diagnosticLoggingMode;
+  private TraceDiagnosticCallback diagnosticCallback;
+  private DiagnosticRetentionPolicy diagnosticRetentionPolicy;
+  private OutputCaptureMode outputCaptureMode;
+  private int outputCaptureLineLimit;
+  private int diagnosticStackTraceLimit;
+  private boolean directoryIndexing;
+  private boolean contentCaching;
+  private boolean fileManagerCallCounting;
+  private boolean incrementalCompilation;
   private boolean fixJvmModulePathMismatch;
   private boolean inheritClassPath;
   private boolean inheritModulePath;
@@ -78,6 +96,8 @@ public abstract class AbstractJctCompiler implements JctCompiler {
   private Set<DebuggingInfo> debuggingInfo;
   private boolean parameterInfoEnabled;
 
+  private @Nullable StackTraceCaptureMode diagnosticStackTraceCaptureMode;
+  private @Nullable JctCompilationCache compilationCache;
   private @Nullable String release;
   private @Nullable String source;
   private @Nullable String target;
@@ -93,6 +113,7 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     annotationProcessors = new ArrayList<>();
     annotationProcessorOptions = new ArrayList<>();
     compilerOptions = new ArrayList<>();
+    incrementalCompilationTracker = new IncrementalCompilationTracker();
     showWarnings = DEFAULT_SHOW_WARNINGS;
     showDeprecationWarnings = DEFAULT_SHOW_DEPRECATION_WARNINGS;
     failOnWarnings = DEFAULT_FAIL_ON_WARNINGS;
@@ -102,6 +123,15 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     previewFeatures = DEFAULT_PREVIEW_FEATURES;
     verbose = DEFAULT_VERBOSE;
     diagnosticLoggingMode = DEFAULT_DIAGNOSTIC_LOGGING_MODE;
+    diagnosticCallback = TraceDiagnosticCallback.retainAll();
+    diagnosticRetentionPolicy = DiagnosticRetentionPolicy.keepAll();
+    outputCaptureMode = DEFAULT_OUTPUT_CAPTURE_MODE;
+    outputCaptureLineLimit = DEFAULT_OUTPUT_CAPTURE_LINE_LIMIT;
+    diagnosticStackTraceLimit = DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT;
+    directoryIndexing = DEFAULT_DIRECTORY_INDEXING;
+    contentCaching = DEFAULT_CONTENT_CACHING;
+    fileManagerCallCounting = DEFAULT_FILE_MANAGER_CALL_COUNTING;
+    incrementalCompilation = DEFAULT_INCREMENTAL_COMPILATION;
     fixJvmModulePathMismatch = DEFAULT_FIX_JVM_MODULE_PATH_MISMATCH;
     inheritClassPath = DEFAULT_INHERIT_CLASS_PATH;
     inheritModulePath = DEFAULT_INHERIT_MODULE_PATH;
@@ -112,11 +142,63 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     parameterInfoEnabled = DEFAULT_PARAMETER_INFO_ENABLED;
 
     // If none of these are overridden then we assume the defaults instead.
+    diagnosticStackTraceCaptureMode = null;
+    compilationCache = null;
     release = null;
     source = null;
     target = null;
   }
 
+  /**
+   * Initialize this compiler with a copy of the configuration of another compiler.
+   *
+   * <p>This is intended for implementing {@link #snapshot()}. Incremental compilation tracking
+   * and the compilation cache are shared with the original compiler.
+   *
+   * @param original the compiler to copy the configuration of.
+   * @since 6.1.0
+   */
+  protected AbstractJctCompiler(AbstractJctCompiler original) {
+    requireNonNull(original, "original");
+    name = original.name;
+
+    annotationProcessors = new ArrayList<>(original.annotationProcessors);
+    annotationProcessorOptions = new ArrayList<>(original.annotationProcessorOptions);
+    compilerOptions = new ArrayList<>(original.compilerOptions);
+    incrementalCompilationTracker = original.incrementalCompilationTracker;
+    showWarnings = original.showWarnings;
+    showDeprecationWarnings = original.showDeprecationWarnings;
+    failOnWarnings = original.failOnWarnings;
+    compilationMode = original.compilationMode;
+    locale = original.locale;
+    logCharset = original.logCharset;
+    previewFeatures = original.previewFeatures;
+    verbose = original.verbose;
+    diagnosticLoggingMode = original.diagnosticLoggingMode;
+    diagnosticCallback = original.diagnosticCallback;
+    diagnosticRetentionPolicy = original.diagnosticRetentionPolicy;
+    outputCaptureMode = original.outputCaptureMode;
+    outputCaptureLineLimit = original.outputCaptureLineLimit;
+    diagnosticStackTraceLimit = original.diagnosticStackTraceLimit;
+    directoryIndexing = original.directoryIndexing;
+    contentCaching = original.contentCaching;
+    fileManagerCallCounting = original.fileManagerCallCounting;
+    incrementalCompilation = original.incrementalCompilation;
+    fixJvmModulePathMismatch = original.fixJvmModulePathMismatch;
+    inheritClassPath = original.inheritClassPath;
+    inheritModulePath = original.inheritModulePath;
+    inheritSystemModulePath = original.inheritSystemModulePath;
+    fileManagerLoggingMode = original.fileManagerLoggingMode;
+    annotationProcessorDiscovery = original.annotationProcessorDiscovery;
+    debuggingInfo = original.debuggingInfo;
+    parameterInfoEnabled = original.parameterInfoEnabled;
+    diagnosticStackTraceCaptureMode = original.diagnosticStackTraceCaptureMode;
+    compilationCache = original.compilationCache;
+    release = original.release;
+    source = original.source;
+    target = original.target;
+  }
+
   @Override
   public JctCompilation compile(Workspace workspace) {
     return performCompilation(workspace, null);
@@ -411,6 +493,146 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     return this;
   }
 
+  @Override
+  public StackTraceCaptureMode getDiagnosticStackTraceCaptureMode() {
+    return diagnosticStackTraceCaptureMode == null
+        ? StackTraceCaptureMode.forLoggingMode(diagnosticLoggingMode)
+        : diagnosticStackTraceCaptureMode;
+  }
+
+  @Override
+  public AbstractJctCompiler diagnosticStackTraceCaptureMode(
+      StackTraceCaptureMode diagnosticStackTraceCaptureMode
+  ) {
+    requireNonNull(diagnosticStackTraceCaptureMode, "diagnosticStackTraceCaptureMode");
+    this.diagnosticStackTraceCaptureMode = diagnosticStackTraceCaptureMode;
+    return this;
+  }
+
+  @Override
+  public int getDiagnosticStackTraceLimit() {
+    return diagnosticStackTraceLimit;
+  }
+
+  @Override
+  public AbstractJctCompiler diagnosticStackTraceLimit(int diagnosticStackTraceLimit) {
+    if (diagnosticStackTraceLimit < 1) {
+      throw new IllegalArgumentException("diagnosticStackTraceLimit must be at least 1");
+    }
+
+    this.diagnosticStackTraceLimit = diagnosticStackTraceLimit;
+    return this;
+  }
+
+  @Override
+  public TraceDiagnosticCallback getDiagnosticCallback() {
+    return diagnosticCallback;
+  }
+
+  @Override
+  public AbstractJctCompiler diagnosticCallback(TraceDiagnosticCallback diagnosticCallback) {
+    requireNonNull(diagnosticCallback, "diagnosticCallback");
+    this.diagnosticCallback = diagnosticCallback;
+    return this;
+  }
+
+  @Override
+  public DiagnosticRetentionPolicy getDiagnosticRetentionPolicy() {
+    return diagnosticRetentionPolicy;
+  }
+
+  @Override
+  public AbstractJctCompiler diagnosticRetentionPolicy(
+      DiagnosticRetentionPolicy diagnosticRetentionPolicy
+  ) {
+    requireNonNull(diagnosticRetentionPolicy, "diagnosticRetentionPolicy");
+    this.diagnosticRetentionPolicy = diagnosticRetentionPolicy;
+    return this;
+  }
+
+  @Override
+  public OutputCaptureMode getOutputCaptureMode() {
+    return outputCaptureMode;
+  }
+
+  @Override
+  public AbstractJctCompiler outputCaptureMode(OutputCaptureMode outputCaptureMode) {
+    requireNonNull(outputCaptureMode, "outputCaptureMode");
+    this.outputCaptureMode = outputCaptureMode;
+    return this;
+  }
+
+  @Override
+  public int getOutputCaptureLineLimit() {
+    return outputCaptureLineLimit;
+  }
+
+  @Override
+  public AbstractJctCompiler outputCaptureLineLimit(int outputCaptureLineLimit) {
+    if (outputCaptureLineLimit < 1) {
+      throw new IllegalArgumentException("outputCaptureLineLimit must be at least 1");
+    }
+
+    this.outputCaptureLineLimit = outputCaptureLineLimit;
+    return this;
+  }
+
+  @Override
+  public boolean isDirectoryIndexing() {
+    return directoryIndexing;
+  }
+
+  @Override
+  public AbstractJctCompiler directoryIndexing(boolean enabled) {
+    directoryIndexing = enabled;
+    return this;
+  }
+
+  @Override
+  public boolean isContentCaching() {
+    return contentCaching;
+  }
+
+  @Override
+  public AbstractJctCompiler contentCaching(boolean enabled) {
+    contentCaching = enabled;
+    return this;
+  }
+
+  @Override
+  public boolean isFileManagerCallCounting() {
+    return fileManagerCallCounting;
+  }
+
+  @Override
+  public AbstractJctCompiler fileManagerCallCounting(boolean enabled) {
+    fileManagerCallCounting = enabled;
+    return this;
+  }
+
+  @Override
+  public boolean isIncrementalCompilation() {
+    return incrementalCompilation;
+  }
+
+  @Override
+  public AbstractJctCompiler incrementalCompilation(boolean enabled) {
+    incrementalCompilation = enabled;
+    return this;
+  }
+
+  @Nullable
+  @Override
+  public JctCompilationCache getCompilationCache() {
+    return compilationCache;
+  }
+
+  @Override
+  public AbstractJctCompiler compilationCache(@Nullable JctCompilationCache compilationCache) {
+    this.compilationCache = compilationCache;
+    return this;
+  }
+
   @Override
   public AnnotationProcessorDiscovery getAnnotationProcessorDiscovery() {
     return annotationProcessorDiscovery;
@@ -552,7 +774,11 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     var compilationFactory = getCompilationFactory();
     var flags = buildFlags(flagBuilderFactory.createFlagBuilder());
     var compiler = compilerFactory.createCompiler();
-    var fileManager = fileManagerFactory.createFileManager(workspace);
+    var metrics = new JctCompilationMetricsCollector();
+
+    var startFileManager = System.nanoTime();
+    var fileManager = fileManagerFactory.createFileManager(workspace, metrics);
+    metrics.recordFileManagerBuildTime(Duration.ofNanos(System.nanoTime() - startFileManager));
 
     // Any internal exceptions should be rethrown as a JctCompilerException by the
     // compilation factory, so there is nothing else to worry about here.
@@ -563,7 +789,21 @@ public abstract class AbstractJctCompiler implements JctCompiler {
     // the file manager closure, where it is a bug.
     
     try {
-      return compilationFactory.createCompilation(flags, fileManager, compiler, classNames);
+      if (incrementalCompilation) {
+        return performIncrementalCompilation(
+            compilationFactory, workspace, flags, fileManager, compiler, classNames, metrics
+        );
+      }
+
+      var cache = compilationCache;
+      if (cache != null && cache.getResultCache().isCacheable(this)) {
+        return performCachedCompilation(
+            cache, compilationFactory, flags, fileManager, compiler, classNames, metrics
+        );
+      }
+
+      return compilationFactory
+          .createCompilation(flags, fileManager, compiler, classNames, metrics);
     } finally {
       try {
         fileManager.close();
@@ -575,4 +815,73 @@ public abstract class AbstractJctCompiler implements JctCompiler {
       }
     }
   }
+
+  private JctCompilation performCachedCompilation(
+      JctCompilationCache cache,
+      JctCompilationFactory compilationFactory,
+      List<String> flags,
+      JctFileManager fileManager,
+      JavaCompiler compiler,
+      @Nullable Collection<String> classNames,
+      JctCompilationMetricsCollector metrics
+  ) {
+    var resultCache = cache.getResultCache();
+
+    try {
+      var key = resultCache.computeKey(this, compiler, fileManager, flags, classNames);
+      var cached = resultCache.restore(key, this, fileManager, flags, metrics);
+
+      if (cached != null) {
+        return cached;
+      }
+
+      var compilation = compilationFactory
+          .createCompilation(flags, fileManager, compiler, classNames, metrics);
+      resultCache.store(key, this, compilation);
+      return compilation;
+
+    } catch (IOException ex) {
+      throw new JctCompilerException("Failed to access the compilation cache", ex);
+    }
+  }
+
+  private JctCompilation performIncrementalCompilation(
+      JctCompilationFactory compilationFactory,
+      Workspace workspace,
+      List<String> flags,
+      JctFileManager fileManager,
+      JavaCompiler compiler,
+      @Nullable Collection<String> classNames,
+      JctCompilationMetricsCollector metrics
+  ) {
+    if (classNames != null) {
+      // We cannot tell what the outputs of a partial compilation depend on.
+      incrementalCompilationTracker.forget(workspace);
+      return compilationFactory
+          .createCompilation(flags, fileManager, compiler, classNames, metrics);
+    }
+
+    try {
+      var plan = incrementalCompilationTracker
+          .plan(workspace, fileManager, flags, annotationProcessors);
+
+      if (plan.isUpToDate()) {
+        return plan.getPreviousCompilation();
+      }
+
+      var compilation = compilationFactory
+          .createCompilation(flags, fileManager, compiler, plan.getClassNames(), metrics);
+      incrementalCompilationTracker.record(plan, compilation);
+      return compilation;
+
+    } catch (IOException ex) {
+      incrementalCompilationTracker.forget(workspace);
+      throw new JctCompilerException("Failed to track incremental compilation state", ex);
+
+    } catch (RuntimeException ex) {
+      // Outputs may have already been deleted, so the next compilation must be a full one.
+      incrementalCompilationTracker.forget(workspace);
+      throw ex;
+    }
+  }
 }
@@ -0,0 +1,466 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.ex.JctCompilerException;
+import io.github.ascopes.jct.utils.LoomPolyfill;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runner that performs many compilations concurrently within the current JVM.
+ *
+ * <p>Each {@link Entry entry} pairs a compiler with the workspace to compile. Entries are
+ * compiled on a bounded executor, using virtual threads where the platform supports them, and
+ * the results are returned in the same order as the entries were provided.
+ *
+ * <p>To avoid exhausting the heap, new compilations are held back while the available heap
+ * headroom is below a configurable fraction of the maximum heap size, until at least one
+ * in-flight compilation has completed.
+ *
+ * <pre><code>
+ *   var batchCompiler = JctBatchCompiler.builder()
+ *       .maxConcurrency(8)
+ *       .build();
+ *
+ *   var compilations = batchCompiler.compile(List.of(
+ *       JctBatchCompiler.entry(compiler1, workspace1),
+ *       JctBatchCompiler.entry(compiler2, workspace2)
+ *   ));
+ * </code></pre>
+ *
+ * <p>The configuration of each compiler is {@link JctCompiler#snapshot() snapshotted} before
+ * the batch starts, so a single compiler can safely be shared by many entries and reconfigured
+ * while the batch is running. Workspaces must not be modified while a batch is running.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JctBatchCompiler {
+
+  /**
+   * Default minimum fraction of the maximum heap size that must be free before a new compilation
+   * is started.
+   */
+  public static final double DEFAULT_MIN_HEAP_HEADROOM = 0.1;
+
+  private static final Logger log = LoggerFactory.getLogger(JctBatchCompiler.class);
+  private static final long HEADROOM_POLL_MILLIS = 50;
+
+  /**
+   * Create a new builder for a batch compiler.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Create a new entry to compile.
+   *
+   * @param compiler  the compiler to use.
+   * @param workspace the workspace to compile.
+   * @return the entry.
+   */
+  public static Entry entry(JctCompiler compiler, Workspace workspace) {
+    return new Entry(compiler, workspace);
+  }
+
+  private final int maxConcurrency;
+  private final double minHeapHeadroom;
+  private final boolean virtualThreads;
+  private final LongSupplier freeHeapSupplier;
+  private final LongSupplier maxHeapSupplier;
+
+  private JctBatchCompiler(Builder builder) {
+    maxConcurrency = builder.maxConcurrency;
+    minHeapHeadroom = builder.minHeapHeadroom;
+    virtualThreads = builder.virtualThreads;
+    freeHeapSupplier = builder.freeHeapSupplier;
+    maxHeapSupplier = builder.maxHeapSupplier;
+  }
+
+  /**
+   * Get the maximum number of compilations that may run at once.
+   *
+   * @return the maximum concurrency.
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Get the minimum fraction of the maximum heap size that must be free before a new
+   * compilation is started.
+   *
+   * @return the minimum heap headroom, between 0 and 1.
+   */
+  public double getMinHeapHeadroom() {
+    return minHeapHeadroom;
+  }
+
+  /**
+   * Determine whether virtual threads will be used where the platform supports them.
+   *
+   * @return {@code true} if virtual threads are preferred, {@code false} otherwise.
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Compile all the given entries concurrently.
+   *
+   * <p>This blocks until all entries have completed.
+   *
+   * @param entries the entries to compile.
+   * @return the compilations, in the same order as the entries.
+   * @throws JctCompilerException if any compilation throws an exception rather than producing a
+   *                              result, or if the calling thread is interrupted. Where more than
+   *                              one compilation throws, the first one is reported and the others
+   *                              are added as suppressed exceptions.
+   */
+  public List<JctCompilation> compile(Collection<Entry> entries) {
+    requireNonNull(entries, "entries");
+    entries.forEach(entry -> requireNonNull(entry, "entries[*]"));
+
+    if (entries.isEmpty()) {
+      return List.of();
+    }
+
+    var executor = createExecutor(Math.min(maxConcurrency, entries.size()));
+    var futures = new ArrayList<Future<JctCompilation>>(entries.size());
+    var backPressure = new BackPressure();
+
+    log.debug(
+        "Compiling {} entries with a maximum concurrency of {}",
+        entries.size(),
+        maxConcurrency
+    );
+
+    // Snapshot every compiler up front, so that the whole batch sees a consistent configuration
+    // even if the caller reconfigures a compiler on another thread while we are running.
+    var snapshots = new IdentityHashMap<JctCompiler, JctCompiler>();
+    var compilers = new ArrayList<JctCompiler>(entries.size());
+    for (var entry : entries) {
+      compilers.add(snapshots.computeIfAbsent(entry.compiler, JctCompiler::snapshot));
+    }
+
+    try {
+      var index = 0;
+      for (var entry : entries) {
+        var compiler = compilers.get(index++);
+        backPressure.acquire();
+        futures.add(executor.submit(() -> {
+          try {
+            return compiler.compile(entry.workspace);
+          } finally {
+            backPressure.release();
+          }
+        }));
+      }
+
+      return collect(futures);
+
+    } catch (InterruptedException ex) {
+      futures.forEach(future -> future.cancel(true));
+      // Do not return until every running compilation has stopped, otherwise they could keep
+      // writing to their workspaces after the caller has moved on.
+      executor.shutdownNow();
+      awaitTermination(executor);
+      Thread.currentThread().interrupt();
+      throw new JctCompilerException("Interrupted while running batch compilation", ex);
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxConcurrency", maxConcurrency)
+        .attribute("minHeapHeadroom", minHeapHeadroom)
+        .attribute("virtualThreads", virtualThreads)
+        .toString();
+  }
+
+  private ExecutorService createExecutor(int threads) {
+    if (virtualThreads) {
+      var executor = LoomPolyfill.newVirtualThreadPerTaskExecutor();
+      if (executor != null) {
+        return executor;
+      }
+      log.debug("Virtual threads are not supported, falling back to platform threads");
+    }
+
+    var threadId = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable, "jct-batch-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private void awaitTermination(ExecutorService executor) {
+    // Compilers do not necessarily respond to interrupts, so we may have to wait for running
+    // compilations to finish by themselves. Further interrupts are ignored here, as the caller
+    // restores the interrupt flag once we return.
+    while (true) {
+      try {
+        if (executor.awaitTermination(HEADROOM_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+        log.trace("Waiting for running compilations to stop after interrupt");
+      } catch (InterruptedException ex) {
+        log.trace("Ignoring repeated interrupt while waiting for compilations to stop");
+      }
+    }
+  }
+
+  private List<JctCompilation> collect(
+      List<Future<JctCompilation>> futures
+  ) throws InterruptedException {
+    var results = new ArrayList<JctCompilation>(futures.size());
+    @Nullable JctCompilerException failure = null;
+
+    for (var i = 0; i < futures.size(); ++i) {
+      try {
+        results.add(futures.get(i).get());
+      } catch (ExecutionException ex) {
+        var cause = ex.getCause() == null ? ex : ex.getCause();
+        if (failure == null) {
+          failure = new JctCompilerException("Batch compilation failed for entry " + i, cause);
+        } else {
+          failure.addSuppressed(cause);
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+
+    return results;
+  }
+
+  private boolean hasHeapHeadroom() {
+    var max = maxHeapSupplier.getAsLong();
+    return max <= 0 || freeHeapSupplier.getAsLong() >= max * minHeapHeadroom;
+  }
+
+  /**
+   * Concurrency limiter that additionally holds back new work while the heap is under pressure.
+   */
+  private final class BackPressure {
+
+    private final Semaphore permits;
+    private final Lock lock;
+    private final Condition completed;
+    private int inFlight;
+
+    private BackPressure() {
+      permits = new Semaphore(maxConcurrency);
+      lock = new ReentrantLock();
+      completed = lock.newCondition();
+      inFlight = 0;
+    }
+
+    private void acquire() throws InterruptedException {
+      permits.acquire();
+
+      lock.lock();
+      try {
+        // Always allow at least one compilation to run, otherwise we would never make progress.
+        while (inFlight > 0 && !hasHeapHeadroom()) {
+          log.trace("Waiting for heap headroom before starting a new compilation");
+          completed.await(HEADROOM_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        ++inFlight;
+      } catch (InterruptedException ex) {
+        permits.release();
+        throw ex;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void release() {
+      lock.lock();
+      try {
+        --inFlight;
+        completed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      permits.release();
+    }
+  }
+
+  /**
+   * A single compiler and workspace pair to compile as part of a batch.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Entry {
+
+    private final JctCompiler compiler;
+    private final Workspace workspace;
+
+    private Entry(JctCompiler compiler, Workspace workspace) {
+      this.compiler = requireNonNull(compiler, "compiler");
+      this.workspace = requireNonNull(workspace, "workspace");
+    }
+
+    /**
+     * Get the compiler to use.
+     *
+     * @return the compiler.
+     */
+    public JctCompiler getCompiler() {
+      return compiler;
+    }
+
+    /**
+     * Get the workspace to compile.
+     *
+     * @return the workspace.
+     */
+    public Workspace getWorkspace() {
+      return workspace;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("compiler", compiler)
+          .attribute("workspace", workspace)
+          .toString();
+    }
+  }
+
+  /**
+   * Builder for a batch compiler.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Builder {
+
+    private int maxConcurrency;
+    private double minHeapHeadroom;
+    private boolean virtualThreads;
+    private LongSupplier freeHeapSupplier;
+    private LongSupplier maxHeapSupplier;
+
+    private Builder() {
+      var runtime = Runtime.getRuntime();
+      maxConcurrency = runtime.availableProcessors();
+      minHeapHeadroom = DEFAULT_MIN_HEAP_HEADROOM;
+      virtualThreads = true;
+      freeHeapSupplier = () -> runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+      maxHeapSupplier = runtime::maxMemory;
+    }
+
+    /**
+     * Set the maximum number of compilations that may run at once.
+     *
+     * <p>Defaults to the number of available processors.
+     *
+     * @param maxConcurrency the maximum concurrency.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is less than 1.
+     */
+    public Builder maxConcurrency(int maxConcurrency) {
+      if (maxConcurrency < 1) {
+        throw new IllegalArgumentException("maxConcurrency must be at least 1");
+      }
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /**
+     * Set the minimum fraction of the maximum heap size that must be free before a new
+     * compilation is started.
+     *
+     * <p>Defaults to {@value #DEFAULT_MIN_HEAP_HEADROOM}. Set to 0 to disable heap-based
+     * back-pressure.
+     *
+     * @param minHeapHeadroom the minimum heap headroom, between 0 and 1 inclusive.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is out of range.
+     */
+    public Builder minHeapHeadroom(double minHeapHeadroom) {
+      if (!(minHeapHeadroom >= 0 && minHeapHeadroom <= 1)) {
+        throw new IllegalArgumentException("minHeapHeadroom must be between 0 and 1");
+      }
+      this.minHeapHeadroom = minHeapHeadroom;
+      return this;
+    }
+
+    /**
+     * Set whether to use virtual threads where the platform supports them.
+     *
+     * <p>Defaults to {@code true}. Platform threads are used when this is disabled or on
+     * platforms without virtual threads.
+     *
+     * @param virtualThreads {@code true} to prefer virtual threads.
+     * @return this builder.
+     */
+    public Builder virtualThreads(boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    // Visible for testing only.
+    Builder heapSuppliers(LongSupplier freeHeapSupplier, LongSupplier maxHeapSupplier) {
+      this.freeHeapSupplier = requireNonNull(freeHeapSupplier, "freeHeapSupplier");
+      this.maxHeapSupplier = requireNonNull(maxHeapSupplier, "maxHeapSupplier");
+      return this;
+    }
+
+    /**
+     * Build the batch compiler.
+     *
+     * @return the batch compiler.
+     */
+    public JctBatchCompiler build() {
+      return new JctBatchCompiler(this);
+    }
+  }
+}
@@ -21,7 +21,9 @@ import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 import org.jspecify.annotations.Nullable;
@@ -78,6 +80,19 @@ public interface JctCompilation {
    */
   List<String> getOutputLines();
 
+  /**
+   * Get the number of lines of output that were discarded rather than captured.
+   *
+   * <p>This will only be non-zero when using {@link OutputCaptureMode#CAPTURE_LAST_LINES} and the
+   * compiler wrote more lines than the
+   * {@link JctCompiler#getOutputCaptureLineLimit() output capture line limit}. The lines that were
+   * discarded are always the oldest ones.
+   *
+   * @return the number of discarded lines of output.
+   * @since 6.1.0
+   */
+  long getDiscardedOutputLineCount();
+
   /**
    * Get the compilation units used in the compilation.
    *
@@ -93,6 +108,18 @@ public interface JctCompilation {
    */
   List<TraceDiagnostic<JavaFileObject>> getDiagnostics();
 
+  /**
+   * Get the number of diagnostics of each kind that were reported by the compilation.
+   *
+   * <p>This includes any diagnostics that were not retained due to the
+   * {@link JctCompiler#getDiagnosticRetentionPolicy() diagnostic retention policy}, so may
+   * exceed the number of diagnostics returned by {@link #getDiagnostics()}.
+   *
+   * @return the counts of each kind of diagnostic. Kinds that were not reported are omitted.
+   * @since 6.1.0
+   */
+  Map<Kind, Long> getDiagnosticCounts();
+
   /**
    * Get the file manager that was used to store and manage files.
    *
@@ -103,6 +130,14 @@ public interface JctCompilation {
    */
   JctFileManager getFileManager();
 
+  /**
+   * Get the timings and counters that were collected while performing the compilation.
+   *
+   * @return the metrics.
+   * @since 6.1.0
+   */
+  JctCompilationMetrics getMetrics();
+
   /**
    * Get the output container group for class outputs.
    *
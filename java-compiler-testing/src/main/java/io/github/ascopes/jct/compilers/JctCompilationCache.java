@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.impl.CompilationResultCache;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.processing.Processor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Content-addressed cache of compilation results that can be shared between compilers.
+ *
+ * <p>Each compilation is identified by a hash of its inputs: the source files and other files
+ * in the workspace, the compiler flags, the annotation processors and the bytecode of their
+ * classes, the classes being compiled, the fingerprints of the class path and module path
+ * entries, the compiler implementation, and the JVM version. If a compilation with the same
+ * inputs has already been performed, the class outputs, source outputs, diagnostics, and
+ * output lines of that compilation are restored into the workspace, and the compiler is not
+ * invoked at all.
+ *
+ * <p>Results are held in memory, up to a configurable size. If a directory is provided, results
+ * are also written there, so that they can be reused by other JVMs, such as later builds or
+ * other test forks. The least recently used results are evicted first in both cases.
+ *
+ * <pre><code>
+ *   var cache = JctCompilationCache.builder()
+ *       .directory(Path.of("target", "jct-cache"))
+ *       .build();
+ *
+ *   compiler.compilationCache(cache);
+ * </code></pre>
+ *
+ * <p>Annotation processors that produce different outputs for the same inputs, such as those
+ * that embed timestamps, should be registered with
+ * {@link Builder#nonDeterministicProcessor(Class)}. Compilations using those processors are
+ * never cached.
+ *
+ * <p>Restored compilations do not invoke diagnostic callbacks, and only contain the
+ * diagnostics that were retained by the compilation that populated the cache.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JctCompilationCache {
+
+  /**
+   * Default approximate maximum number of bytes to hold in memory (64 MiB).
+   */
+  public static final long DEFAULT_MAX_MEMORY_BYTES = 64L * 1024 * 1024;
+
+  /**
+   * Default maximum number of bytes to store in the cache directory (512 MiB).
+   */
+  public static final long DEFAULT_MAX_DISK_BYTES = 512L * 1024 * 1024;
+
+  /**
+   * Create a new builder for a compilation cache.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final long maxMemoryBytes;
+  private final @Nullable Path directory;
+  private final long maxDiskBytes;
+  private final Set<Class<? extends Processor>> nonDeterministicProcessors;
+  private final CompilationResultCache resultCache;
+
+  private JctCompilationCache(Builder builder) {
+    maxMemoryBytes = builder.maxMemoryBytes;
+    directory = builder.directory;
+    maxDiskBytes = builder.maxDiskBytes;
+    nonDeterministicProcessors = Set.copyOf(builder.nonDeterministicProcessors);
+    resultCache = new CompilationResultCache(
+        maxMemoryBytes,
+        directory,
+        maxDiskBytes,
+        nonDeterministicProcessors
+    );
+  }
+
+  /**
+   * Get the approximate maximum number of bytes to hold in memory.
+   *
+   * @return the maximum number of bytes.
+   */
+  public long getMaxMemoryBytes() {
+    return maxMemoryBytes;
+  }
+
+  /**
+   * Get the directory that results are stored in.
+   *
+   * @return the directory, or {@code null} if results are only held in memory.
+   */
+  @Nullable
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Get the maximum number of bytes to store in the directory.
+   *
+   * @return the maximum number of bytes.
+   */
+  public long getMaxDiskBytes() {
+    return maxDiskBytes;
+  }
+
+  /**
+   * Get the types of annotation processor that prevent compilations from being cached.
+   *
+   * @return the processor types.
+   */
+  public Set<Class<? extends Processor>> getNonDeterministicProcessors() {
+    return nonDeterministicProcessors;
+  }
+
+  /**
+   * Get the number of compilations that have been restored from this cache.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return resultCache.getHitCount();
+  }
+
+  /**
+   * Get the number of compilations that were not found in this cache.
+   *
+   * <p>Compilations that are never cached, such as those using non-deterministic annotation
+   * processors, are not counted.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return resultCache.getMissCount();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxMemoryBytes", maxMemoryBytes)
+        .attribute("directory", directory)
+        .attribute("maxDiskBytes", maxDiskBytes)
+        .attribute("hits", getHitCount())
+        .attribute("misses", getMissCount())
+        .toString();
+  }
+
+  CompilationResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Builder for a compilation cache.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Builder {
+
+    private long maxMemoryBytes;
+    private @Nullable Path directory;
+    private long maxDiskBytes;
+    private final Set<Class<? extends Processor>> nonDeterministicProcessors;
+
+    private Builder() {
+      maxMemoryBytes = DEFAULT_MAX_MEMORY_BYTES;
+      directory = null;
+      maxDiskBytes = DEFAULT_MAX_DISK_BYTES;
+      nonDeterministicProcessors = new HashSet<>();
+    }
+
+    /**
+     * Set the approximate maximum number of bytes of results to hold in memory.
+     *
+     * <p>Defaults to {@value #DEFAULT_MAX_MEMORY_BYTES}. Set to 0 to only use the directory.
+     *
+     * @param maxMemoryBytes the maximum number of bytes.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public Builder maxMemoryBytes(long maxMemoryBytes) {
+      if (maxMemoryBytes < 0) {
+        throw new IllegalArgumentException("maxMemoryBytes cannot be negative");
+      }
+      this.maxMemoryBytes = maxMemoryBytes;
+      return this;
+    }
+
+    /**
+     * Set the directory to store results in.
+     *
+     * <p>Defaults to {@code null}, which only holds results in memory. The directory is created
+     * when the first result is stored. Many JVMs may safely share the same directory.
+     *
+     * @param directory the directory, or {@code null} to only hold results in memory.
+     * @return this builder.
+     */
+    public Builder directory(@Nullable Path directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of bytes of results to store in the directory.
+     *
+     * <p>Defaults to {@value #DEFAULT_MAX_DISK_BYTES}.
+     *
+     * @param maxDiskBytes the maximum number of bytes.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public Builder maxDiskBytes(long maxDiskBytes) {
+      if (maxDiskBytes < 0) {
+        throw new IllegalArgumentException("maxDiskBytes cannot be negative");
+      }
+      this.maxDiskBytes = maxDiskBytes;
+      return this;
+    }
+
+    /**
+     * Mark a type of annotation processor as non-deterministic.
+     *
+     * <p>Compilations that use an annotation processor of this type, or of a subtype of it, are
+     * always performed by the compiler, and their results are never cached.
+     *
+     * @param processorType the type of annotation processor.
+     * @return this builder.
+     */
+    public Builder nonDeterministicProcessor(Class<? extends Processor> processorType) {
+      requireNonNull(processorType, "processorType");
+      nonDeterministicProcessors.add(processorType);
+      return this;
+    }
+
+    /**
+     * Build the compilation cache.
+     *
+     * @return the compilation cache.
+     */
+    public JctCompilationCache build() {
+      return new JctCompilationCache(this);
+    }
+  }
+}
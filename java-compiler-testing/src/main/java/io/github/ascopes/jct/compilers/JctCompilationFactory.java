@@ -52,4 +52,36 @@ public interface JctCompilationFactory {
       JavaCompiler jsr199Compiler,
       @Nullable Collection<String> classNames
   );
+
+  /**
+   * Create a compilation, recording metrics about the compilation in the given collector.
+   *
+   * <p>The default implementation calls
+   * {@link #createCompilation(List, JctFileManager, JavaCompiler, Collection)} and records no
+   * further metrics.
+   *
+   * @param flags          the flags to pass to the compiler.
+   * @param fileManager    the file manager to use for file management.
+   * @param jsr199Compiler the compiler backend to use.
+   * @param classNames     the binary names of the classes to compile. If this is {@code null}, then
+   *                       classes should be discovered automatically.
+   * @param metrics        the collector to record metrics in. This may already hold metrics
+   *                       about how the file manager was built.
+   * @return the compilation result that contains whether the compiler succeeded or failed, amongst
+   *     other information.
+   * @throws JctCompilerException if any prerequisites fail, such as no compilation units being
+   *                              found, or if the underlying JSR-199 compiler raises an unhandled
+   *                              exception and cannot complete when invoked.
+   * @throws NullPointerException if any inputs are unexpectedly set to {@code null}.
+   * @since 6.1.0
+   */
+  default JctCompilation createCompilation(
+      List<String> flags,
+      JctFileManager fileManager,
+      JavaCompiler jsr199Compiler,
+      @Nullable Collection<String> classNames,
+      JctCompilationMetricsCollector metrics
+  ) {
+    return createCompilation(flags, fileManager, jsr199Compiler, classNames);
+  }
 }
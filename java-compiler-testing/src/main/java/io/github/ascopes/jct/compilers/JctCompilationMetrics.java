@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timings and counters that were collected while performing a compilation.
+ *
+ * <p>These can be used to find out which stages of a slow compilation are responsible for the
+ * time taken, or to enforce a time budget on compilations within tests.
+ *
+ * <p>Compiler-specific phases are only available when the underlying compiler reports them.
+ * For example, {@code javac} reports them via {@code com.sun.source.util.TaskListener}. Phases
+ * that were not reported will not be present.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public interface JctCompilationMetrics {
+
+  /**
+   * Get the time taken to build and configure the file manager.
+   *
+   * @return the file manager build time.
+   */
+  Duration getFileManagerBuildTime();
+
+  /**
+   * Get the time taken by each file manager configurer that was applied, in the order that they
+   * were applied.
+   *
+   * @return the configurer times, keyed by the configurer name.
+   */
+  Map<String, Duration> getConfigurerTimes();
+
+  /**
+   * Get the time taken to discover the compilation units to compile.
+   *
+   * @return the compilation unit discovery time.
+   */
+  Duration getCompilationUnitDiscoveryTime();
+
+  /**
+   * Get the time taken by the compiler itself to perform the compilation.
+   *
+   * @return the compilation time.
+   */
+  Duration getCompilationTime();
+
+  /**
+   * Get the total time spent in each compiler phase that was reported.
+   *
+   * <p>These are a breakdown of the {@link #getCompilationTime() compilation time}.
+   *
+   * @return the phase times.
+   */
+  Map<Phase, Duration> getPhaseTimes();
+
+  /**
+   * Get the time taken by each round of annotation processing, in the order they occurred.
+   *
+   * @return the annotation processing round times.
+   */
+  List<Duration> getAnnotationProcessingRoundTimes();
+
+  /**
+   * Get the number of calls made by the compiler to each file manager method.
+   *
+   * <p>This is only populated when
+   * {@link JctCompiler#fileManagerCallCounting(boolean) file manager call counting} is enabled.
+   *
+   * @return the call counts, keyed by the method name, or an empty map if calls were not
+   *     counted.
+   */
+  Map<String, Long> getFileManagerCallCounts();
+
+  /**
+   * Get the total time taken by the file manager build, compilation unit discovery, and
+   * compilation.
+   *
+   * @return the total time.
+   */
+  default Duration getTotalTime() {
+    return getFileManagerBuildTime()
+        .plus(getCompilationUnitDiscoveryTime())
+        .plus(getCompilationTime());
+  }
+
+  /**
+   * Compiler phases that can be reported.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  enum Phase {
+    /**
+     * Parsing source files.
+     */
+    PARSE,
+
+    /**
+     * Entering symbols for parsed source files.
+     */
+    ENTER,
+
+    /**
+     * Attributing and flow-analysing classes.
+     */
+    ANALYZE,
+
+    /**
+     * Generating class files.
+     */
+    GENERATE,
+
+    /**
+     * Running annotation processors, across all rounds.
+     */
+    ANNOTATION_PROCESSING,
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.JctCompilationMetrics.Phase;
+import io.github.ascopes.jct.filemanagers.JctFileManagerFactory;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe collector of metrics for a single compilation.
+ *
+ * <p>A new collector is created for each compilation, and is passed to the file manager
+ * factory and compilation factory to record into. Once the compilation completes, an immutable
+ * {@link #toMetrics() snapshot} is attached to the resulting {@link JctCompilation}.
+ *
+ * <p>Users will not usually need to interact with this class unless they are providing their
+ * own {@link JctCompilationFactory} or {@link JctFileManagerFactory} implementations.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JctCompilationMetricsCollector {
+
+  private volatile Duration fileManagerBuildTime;
+  private volatile Duration compilationUnitDiscoveryTime;
+  private volatile Duration compilationTime;
+  private final Map<String, Duration> configurerTimes;
+  private final Map<Phase, LongAdder> phaseNanos;
+  private final List<Duration> annotationProcessingRoundTimes;
+  private final Map<String, LongAdder> fileManagerCallCounts;
+
+  /**
+   * Initialise this collector.
+   */
+  public JctCompilationMetricsCollector() {
+    fileManagerBuildTime = Duration.ZERO;
+    compilationUnitDiscoveryTime = Duration.ZERO;
+    compilationTime = Duration.ZERO;
+    configurerTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+    phaseNanos = new ConcurrentHashMap<>();
+    annotationProcessingRoundTimes = new CopyOnWriteArrayList<>();
+    fileManagerCallCounts = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Record the time taken to build and configure the file manager.
+   *
+   * @param duration the duration.
+   */
+  public void recordFileManagerBuildTime(Duration duration) {
+    fileManagerBuildTime = requireNonNull(duration, "duration");
+  }
+
+  /**
+   * Record the time taken by a file manager configurer.
+   *
+   * <p>If the same name is recorded more than once, the times are added together.
+   *
+   * @param name     the name of the configurer.
+   * @param duration the duration.
+   */
+  public void recordConfigurerTime(String name, Duration duration) {
+    requireNonNull(name, "name");
+    requireNonNull(duration, "duration");
+    configurerTimes.merge(name, duration, Duration::plus);
+  }
+
+  /**
+   * Record the time taken to discover compilation units.
+   *
+   * @param duration the duration.
+   */
+  public void recordCompilationUnitDiscoveryTime(Duration duration) {
+    compilationUnitDiscoveryTime = requireNonNull(duration, "duration");
+  }
+
+  /**
+   * Record the time taken by the compiler to perform the compilation.
+   *
+   * @param duration the duration.
+   */
+  public void recordCompilationTime(Duration duration) {
+    compilationTime = requireNonNull(duration, "duration");
+  }
+
+  /**
+   * Record time spent in a compiler phase.
+   *
+   * <p>Phases are usually reported many times (e.g. once per file or class), so the times are
+   * added together.
+   *
+   * @param phase    the phase.
+   * @param duration the duration.
+   */
+  public void recordPhaseTime(Phase phase, Duration duration) {
+    requireNonNull(phase, "phase");
+    requireNonNull(duration, "duration");
+    phaseNanos.computeIfAbsent(phase, unused -> new LongAdder()).add(duration.toNanos());
+  }
+
+  /**
+   * Record the time taken by a single annotation processing round.
+   *
+   * @param duration the duration.
+   */
+  public void recordAnnotationProcessingRoundTime(Duration duration) {
+    annotationProcessingRoundTimes.add(requireNonNull(duration, "duration"));
+  }
+
+  /**
+   * Record a call to a file manager method.
+   *
+   * @param methodName the name of the method that was called.
+   */
+  public void recordFileManagerCall(String methodName) {
+    requireNonNull(methodName, "methodName");
+    fileManagerCallCounts.computeIfAbsent(methodName, unused -> new LongAdder()).increment();
+  }
+
+  /**
+   * Take an immutable snapshot of the metrics collected so far.
+   *
+   * @return the metrics.
+   */
+  public JctCompilationMetrics toMetrics() {
+    return new Snapshot(this);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("fileManagerBuildTime", fileManagerBuildTime)
+        .attribute("compilationUnitDiscoveryTime", compilationUnitDiscoveryTime)
+        .attribute("compilationTime", compilationTime)
+        .toString();
+  }
+
+  private static final class Snapshot implements JctCompilationMetrics {
+
+    private final Duration fileManagerBuildTime;
+    private final Map<String, Duration> configurerTimes;
+    private final Duration compilationUnitDiscoveryTime;
+    private final Duration compilationTime;
+    private final Map<Phase, Duration> phaseTimes;
+    private final List<Duration> annotationProcessingRoundTimes;
+    private final Map<String, Long> fileManagerCallCounts;
+
+    private Snapshot(JctCompilationMetricsCollector collector) {
+      fileManagerBuildTime = collector.fileManagerBuildTime;
+      compilationUnitDiscoveryTime = collector.compilationUnitDiscoveryTime;
+      compilationTime = collector.compilationTime;
+
+      synchronized (collector.configurerTimes) {
+        configurerTimes = Collections.unmodifiableMap(
+            new LinkedHashMap<>(collector.configurerTimes)
+        );
+      }
+
+      var phases = new EnumMap<Phase, Duration>(Phase.class);
+      collector.phaseNanos
+          .forEach((phase, nanos) -> phases.put(phase, Duration.ofNanos(nanos.sum())));
+      phaseTimes = Collections.unmodifiableMap(phases);
+
+      annotationProcessingRoundTimes = List.copyOf(collector.annotationProcessingRoundTimes);
+
+      var callCounts = new TreeMap<String, Long>();
+      collector.fileManagerCallCounts
+          .forEach((method, count) -> callCounts.put(method, count.sum()));
+      fileManagerCallCounts = Collections.unmodifiableMap(callCounts);
+    }
+
+    @Override
+    public Duration getFileManagerBuildTime() {
+      return fileManagerBuildTime;
+    }
+
+    @Override
+    public Map<String, Duration> getConfigurerTimes() {
+      return configurerTimes;
+    }
+
+    @Override
+    public Duration getCompilationUnitDiscoveryTime() {
+      return compilationUnitDiscoveryTime;
+    }
+
+    @Override
+    public Duration getCompilationTime() {
+      return compilationTime;
+    }
+
+    @Override
+    public Map<Phase, Duration> getPhaseTimes() {
+      return phaseTimes;
+    }
+
+    @Override
+    public List<Duration> getAnnotationProcessingRoundTimes() {
+      return annotationProcessingRoundTimes;
+    }
+
+    @Override
+    public Map<String, Long> getFileManagerCallCounts() {
+      return fileManagerCallCounts;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("totalTime", getTotalTime())
+          .attribute("fileManagerBuildTime", fileManagerBuildTime)
+          .attribute("configurerTimes", configurerTimes)
+          .attribute("compilationUnitDiscoveryTime", compilationUnitDiscoveryTime)
+          .attribute("compilationTime", compilationTime)
+          .attribute("phaseTimes", phaseTimes)
+          .attribute("annotationProcessingRoundTimes", annotationProcessingRoundTimes)
+          .attribute("fileManagerCallCounts", fileManagerCallCounts)
+          .toString();
+    }
+  }
+}
@@ -17,6 +17,10 @@ package io.github.ascopes.jct.compilers;
 
 import static io.github.ascopes.jct.utils.IterableUtils.requireAtLeastOne;
 
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.OutputCaptureMode;
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
@@ -28,6 +32,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.processing.Processor;
 import javax.lang.model.SourceVersion;
 import org.jspecify.annotations.Nullable;
@@ -122,6 +127,59 @@ public interface JctCompiler {
    */
   Charset DEFAULT_LOG_CHARSET = StandardCharsets.UTF_8;
 
+  /**
+   * Default setting for handling compiler output ({@link OutputCaptureMode#TEE}).
+   *
+   * @since 6.1.0
+   */
+  OutputCaptureMode DEFAULT_OUTPUT_CAPTURE_MODE = OutputCaptureMode.TEE;
+
+  /**
+   * Default number of output lines to keep when using
+   * {@link OutputCaptureMode#CAPTURE_LAST_LINES} ({@code 1000}).
+   *
+   * @since 6.1.0
+   */
+  int DEFAULT_OUTPUT_CAPTURE_LINE_LIMIT = 1_000;
+
+  /**
+   * Default maximum number of stack frames to capture for each diagnostic when using
+   * {@link StackTraceCaptureMode#LIMITED} ({@code 32}).
+   *
+   * @since 6.1.0
+   */
+  int DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT = 32;
+
+  /**
+   * Default setting for indexing directories within the file manager ({@code false}).
+   *
+   * @since 6.1.0
+   */
+  boolean DEFAULT_DIRECTORY_INDEXING = false;
+
+  /**
+   * Default setting for caching the content of input files within the file manager
+   * ({@code false}).
+   *
+   * @since 6.1.0
+   */
+  boolean DEFAULT_CONTENT_CACHING = false;
+
+  /**
+   * Default setting for incremental compilation of workspaces ({@code false}).
+   *
+   * @since 6.1.0
+   */
+  boolean DEFAULT_INCREMENTAL_COMPILATION = false;
+
+  /**
+   * Default setting for counting calls made to the file manager during compilation
+   * ({@code false}).
+   *
+   * @since 6.1.0
+   */
+  boolean DEFAULT_FILE_MANAGER_CALL_COUNTING = false;
+
   /**
    * Default debugging info to include in the compilation (all possible info).
    */
@@ -204,6 +262,48 @@ public interface JctCompiler {
    */
   JctCompilation compile(Workspace workspace, Collection<String> classNames);
 
+  /**
+   * Invoke a compilation for each of the given workspaces concurrently, and return the results.
+   *
+   * <p>This uses a {@link JctBatchCompiler} with the default settings. Use that class directly
+   * if you need to control the concurrency or to mix different compilers in one batch.
+   *
+   * <p>The configuration of this compiler is {@link #snapshot() snapshotted} before the batch
+   * starts, so reconfiguring it while the batch is running does not affect the batch.
+   *
+   * @param workspaces the workspaces to compile.
+   * @return the compilation results, in the same order as the workspaces.
+   * @throws JctCompilerException if any compiler threw an unhandled exception, or if the calling
+   *                              thread was interrupted.
+   * @throws NullPointerException if the collection or any of the workspaces are null.
+   * @since 6.1.0
+   */
+  default List<JctCompilation> compileAll(Collection<? extends Workspace> workspaces) {
+    var entries = workspaces.stream()
+        .map(workspace -> JctBatchCompiler.entry(this, workspace))
+        .collect(Collectors.toList());
+    return JctBatchCompiler.builder().build().compile(entries);
+  }
+
+  /**
+   * Create a snapshot of the current configuration of this compiler.
+   *
+   * <p>The snapshot is a separate compiler that will not observe any changes made to this
+   * compiler afterwards, and vice versa. State that is not configuration, such as the tracking
+   * used for {@link #incrementalCompilation(boolean) incremental compilation}, is shared between
+   * the two.
+   *
+   * <p>The default implementation returns this compiler itself, for implementations that cannot
+   * be copied. Such compilers must not be reconfigured while compilations are running on other
+   * threads.
+   *
+   * @return the snapshot.
+   * @since 6.1.0
+   */
+  default JctCompiler snapshot() {
+    return this;
+  }
+
   /**
    * Apply a given configurer to this compiler.
    *
@@ -984,6 +1084,356 @@ public interface JctCompiler {
    */
   JctCompiler diagnosticLoggingMode(LoggingMode diagnosticLoggingMode);
 
+  /**
+   * Get how much of the stack trace to capture for each reported diagnostic.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to the result of
+   * {@link StackTraceCaptureMode#forLoggingMode(LoggingMode)} for the current
+   * {@link #getDiagnosticLoggingMode() diagnostic logging mode}.
+   *
+   * @return the current stack trace capture mode.
+   * @since 6.1.0
+   */
+  StackTraceCaptureMode getDiagnosticStackTraceCaptureMode();
+
+  /**
+   * Set how much of the stack trace to capture for each reported diagnostic.
+   *
+   * <p>Compilations that report large numbers of diagnostics can spend a significant amount of
+   * time capturing stack traces. If you do not need to make assertions on the stack traces of
+   * diagnostics, consider setting this to {@link StackTraceCaptureMode#NONE}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to the result of
+   * {@link StackTraceCaptureMode#forLoggingMode(LoggingMode)} for the current
+   * {@link #getDiagnosticLoggingMode() diagnostic logging mode}.
+   *
+   * @param diagnosticStackTraceCaptureMode the stack trace capture mode to use.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler diagnosticStackTraceCaptureMode(
+      StackTraceCaptureMode diagnosticStackTraceCaptureMode
+  );
+
+  /**
+   * Get the maximum number of stack frames to capture for each reported diagnostic when using
+   * {@link StackTraceCaptureMode#LIMITED}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT}.
+   *
+   * @return the stack trace limit.
+   * @since 6.1.0
+   */
+  int getDiagnosticStackTraceLimit();
+
+  /**
+   * Set the maximum number of stack frames to capture for each reported diagnostic when using
+   * {@link StackTraceCaptureMode#LIMITED}.
+   *
+   * <p>This has no effect for other stack trace capture modes.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT}.
+   *
+   * @param diagnosticStackTraceLimit the maximum number of frames to capture.
+   * @return this compiler for further call chaining.
+   * @throws IllegalArgumentException if the limit is less than 1.
+   * @since 6.1.0
+   */
+  JctCompiler diagnosticStackTraceLimit(int diagnosticStackTraceLimit);
+
+  /**
+   * Get the callback that is invoked with each diagnostic as the compiler reports it.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link TraceDiagnosticCallback#retainAll()}.
+   *
+   * @return the current diagnostic callback.
+   * @since 6.1.0
+   */
+  TraceDiagnosticCallback getDiagnosticCallback();
+
+  /**
+   * Set the callback that is invoked with each diagnostic as the compiler reports it.
+   *
+   * <p>The callback can choose to discard diagnostics that are not of interest, or to abort
+   * the compilation early. For example, the following will stop compiling as soon as the first
+   * error is reported, rather than paying for the rest of the compilation:
+   *
+   * <pre><code>
+   *   compiler.diagnosticCallback(TraceDiagnosticCallback.abortOnFirstError());
+   * </code></pre>
+   *
+   * <p>Aborted compilations are reported as being unsuccessful, and contain any diagnostics
+   * that were retained up to that point.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link TraceDiagnosticCallback#retainAll()}.
+   *
+   * @param diagnosticCallback the callback to use.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler diagnosticCallback(TraceDiagnosticCallback diagnosticCallback);
+
+  /**
+   * Get the policy that determines which reported diagnostics are retained on the compilation
+   * result.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link DiagnosticRetentionPolicy#keepAll()}.
+   *
+   * @return the current diagnostic retention policy.
+   * @since 6.1.0
+   */
+  DiagnosticRetentionPolicy getDiagnosticRetentionPolicy();
+
+  /**
+   * Set the policy that determines which reported diagnostics are retained on the compilation
+   * result.
+   *
+   * <p>Compilations that produce a very large number of diagnostics can use a large amount of
+   * memory to hold onto them. A retention policy can cap this. For example, the following will
+   * only keep the first 100 diagnostics of each kind:
+   *
+   * <pre><code>
+   *   compiler.diagnosticRetentionPolicy(DiagnosticRetentionPolicy.firstPerKind(100));
+   * </code></pre>
+   *
+   * <p>Diagnostics that are not retained are still counted, and are reported by
+   * {@link JctCompilation#getDiagnosticCounts()}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link DiagnosticRetentionPolicy#keepAll()}.
+   *
+   * @param diagnosticRetentionPolicy the retention policy to use.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler diagnosticRetentionPolicy(DiagnosticRetentionPolicy diagnosticRetentionPolicy);
+
+  /**
+   * Get how the textual output of the compiler is handled.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_OUTPUT_CAPTURE_MODE}.
+   *
+   * @return the current output capture mode.
+   * @since 6.1.0
+   */
+  OutputCaptureMode getOutputCaptureMode();
+
+  /**
+   * Set how the textual output of the compiler is handled.
+   *
+   * <p>Compilations that produce a lot of output (such as those with {@link #verbose(boolean)}
+   * enabled) can use a significant amount of memory to capture it. Output can be discarded,
+   * captured without being written to {@link System#out}, or bounded to only the last
+   * {@link #outputCaptureLineLimit(int) few lines}:
+   *
+   * <pre><code>
+   *   compiler
+   *       .verbose(true)
+   *       .outputCaptureMode(OutputCaptureMode.CAPTURE_LAST_LINES)
+   *       .outputCaptureLineLimit(200);
+   * </code></pre>
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_OUTPUT_CAPTURE_MODE}.
+   *
+   * @param outputCaptureMode the output capture mode to use.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler outputCaptureMode(OutputCaptureMode outputCaptureMode);
+
+  /**
+   * Get the number of output lines to keep when using
+   * {@link OutputCaptureMode#CAPTURE_LAST_LINES}.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_OUTPUT_CAPTURE_LINE_LIMIT}.
+   *
+   * @return the output capture line limit.
+   * @since 6.1.0
+   */
+  int getOutputCaptureLineLimit();
+
+  /**
+   * Set the number of output lines to keep when using
+   * {@link OutputCaptureMode#CAPTURE_LAST_LINES}.
+   *
+   * <p>This has no effect for other output capture modes.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_OUTPUT_CAPTURE_LINE_LIMIT}.
+   *
+   * @param outputCaptureLineLimit the number of lines to keep.
+   * @return this compiler for further call chaining.
+   * @throws IllegalArgumentException if the limit is less than 1.
+   * @since 6.1.0
+   */
+  JctCompiler outputCaptureLineLimit(int outputCaptureLineLimit);
+
+  /**
+   * Determine whether directories in the workspace are indexed by the file manager.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIRECTORY_INDEXING}.
+   *
+   * @return {@code true} if directory indexing is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  boolean isDirectoryIndexing();
+
+  /**
+   * Set whether directories in the workspace are indexed by the file manager.
+   *
+   * <p>When enabled, each directory is listed once upon first use during a compilation, and
+   * subsequent file lookups and listings are served from memory for as long as the modification
+   * time of the directory is unchanged. This can significantly reduce the number of file system
+   * operations for large workspaces, or workspaces on slower file systems.
+   *
+   * <p>Files that are created or deleted while the compilation is running are picked up,
+   * regardless of whether they were changed by the compiler, by annotation processors, or by
+   * any other means.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_DIRECTORY_INDEXING}.
+   *
+   * @param enabled {@code true} to enable directory indexing, {@code false} to disable it.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler directoryIndexing(boolean enabled);
+
+  /**
+   * Determine whether the decoded content of input files is cached by the file manager.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_CONTENT_CACHING}.
+   *
+   * @return {@code true} if content caching is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  boolean isContentCaching();
+
+  /**
+   * Set whether the decoded content of input files is cached by the file manager.
+   *
+   * <p>When enabled, the character content of files in directories on input locations (such as
+   * the source path) is decoded once and shared between every reader of that file, including
+   * the compiler, annotation processors, and assertions. Cached content is discarded if the
+   * size or last-modified time of the file changes. Output locations are never cached.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_CONTENT_CACHING}.
+   *
+   * @param enabled {@code true} to enable content caching, {@code false} to disable it.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler contentCaching(boolean enabled);
+
+  /**
+   * Determine whether calls made to the file manager are counted during compilation.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_FILE_MANAGER_CALL_COUNTING}.
+   *
+   * @return {@code true} if file manager calls are counted, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  boolean isFileManagerCallCounting();
+
+  /**
+   * Set whether calls made to the file manager are counted during compilation.
+   *
+   * <p>When enabled, the file manager is wrapped in a layer that counts each call made to it,
+   * and the counts are reported by {@link JctCompilationMetrics#getFileManagerCallCounts()}.
+   * When disabled, no wrapping takes place and no counts are reported. All other metrics are
+   * collected regardless of this setting.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_FILE_MANAGER_CALL_COUNTING}.
+   *
+   * @param enabled {@code true} to count file manager calls, {@code false} otherwise.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler fileManagerCallCounting(boolean enabled);
+
+  /**
+   * Determine whether repeated compilations of the same workspace are performed incrementally.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_INCREMENTAL_COMPILATION}.
+   *
+   * @return {@code true} if incremental compilation is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  boolean isIncrementalCompilation();
+
+  /**
+   * Set whether repeated compilations of the same workspace are performed incrementally.
+   *
+   * <p>When enabled, each successful call to {@link #compile(Workspace)} records a dependency
+   * graph between the compilation units and the class outputs. The next call to
+   * {@link #compile(Workspace)} with the same workspace only compiles the compilation units that
+   * were added or changed, along with anything that depends on a changed or deleted compilation
+   * unit. Stale outputs are deleted, and the class outputs of the previous compilation are
+   * placed on the class path. Annotation processors are only run across the compilation units
+   * that are recompiled, much like they would be in an incremental build tool.
+   *
+   * <p>If nothing has changed, the previous compilation result is returned again.
+   *
+   * <p>A full compilation is performed if the compiler flags or annotation processors change,
+   * if a changed compilation unit declares compile-time constants (as these are inlined into
+   * other classes), if the previous compilation failed, or if the workspace uses the module
+   * source path. Calls to {@link #compile(Workspace, Collection)} are never incremental, and
+   * discard any recorded state for the workspace.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to
+   * {@link #DEFAULT_INCREMENTAL_COMPILATION}.
+   *
+   * @param enabled {@code true} to enable incremental compilation, {@code false} to disable it.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler incrementalCompilation(boolean enabled);
+
+  /**
+   * Get the cache that compilation results are shared through.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null}.
+   *
+   * @return the compilation cache, or {@code null} if compilation results are not cached.
+   * @since 6.1.0
+   */
+  @Nullable
+  JctCompilationCache getCompilationCache();
+
+  /**
+   * Set the cache to share compilation results through.
+   *
+   * <p>When set, each compilation is identified by a hash of its inputs. If the cache already
+   * holds the result of a compilation with identical inputs, the outputs, diagnostics, and
+   * output lines of that compilation are restored into the workspace instead of invoking the
+   * compiler. Otherwise, the compiler is invoked and the result is stored in the cache. See
+   * {@link JctCompilationCache} for details on what forms part of the hash.
+   *
+   * <p>A single cache can be shared between many compilers. Compilations are not cached
+   * when {@link #incrementalCompilation(boolean) incremental compilation} is enabled.
+   *
+   * <p>Unless otherwise changed or specified, implementations should default to {@code null}.
+   *
+   * @param compilationCache the cache to use, or {@code null} to disable caching.
+   * @return this compiler for further call chaining.
+   * @since 6.1.0
+   */
+  JctCompiler compilationCache(@Nullable JctCompilationCache compilationCache);
+
   /**
    * Get how to perform annotation processor discovery.
    *
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The dependency information held in a class file.
+ *
+ * <p>This reads just enough of the class file format to find the name of the class, the source
+ * file it was compiled from, the classes it references, and whether it declares any
+ * compile-time constants. References are over-approximated by also scanning type descriptors
+ * and signatures, which is safe for working out what needs recompiling.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class ClassFileDependencies {
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int ACC_MODULE = 0x8000;
+  private static final Pattern DESCRIPTOR_REFERENCE = Pattern.compile("L([^;<>:.\\[]+)[;<]");
+
+  private final String className;
+  private final @Nullable String sourceFile;
+  private final Set<String> referencedClassNames;
+  private final boolean declaresConstants;
+
+  private ClassFileDependencies(
+      String className,
+      @Nullable String sourceFile,
+      Set<String> referencedClassNames,
+      boolean declaresConstants
+  ) {
+    this.className = className;
+    this.sourceFile = sourceFile;
+    this.referencedClassNames = referencedClassNames;
+    this.declaresConstants = declaresConstants;
+  }
+
+  /**
+   * Get the internal name of the class (e.g. {@code org/example/Foo$Bar}).
+   *
+   * @return the class name.
+   */
+  String getClassName() {
+    return className;
+  }
+
+  /**
+   * Get the relative path of the source file that the class was compiled from, if known.
+   *
+   * @return the source file path (e.g. {@code org/example/Foo.java}), or {@code null}.
+   */
+  @Nullable
+  String getSourcePath() {
+    if (sourceFile == null) {
+      return null;
+    }
+
+    var packageEnd = className.lastIndexOf('/');
+    return packageEnd == -1
+        ? sourceFile
+        : className.substring(0, packageEnd + 1) + sourceFile;
+  }
+
+  /**
+   * Get the internal names of all classes that may be referenced by this class.
+   *
+   * @return the referenced class names.
+   */
+  Set<String> getReferencedClassNames() {
+    return referencedClassNames;
+  }
+
+  /**
+   * Determine if the class declares any fields with compile-time constant values.
+   *
+   * <p>These values are inlined into other classes, so those classes will not reference this
+   * class.
+   *
+   * @return {@code true} if constants are declared, or {@code false} otherwise.
+   */
+  boolean isDeclaresConstants() {
+    return declaresConstants;
+  }
+
+  /**
+   * Read the dependency information from a class file.
+   *
+   * @param inputStream the class file contents.
+   * @return the dependency information, or {@code null} if the file describes a module.
+   * @throws IOException if the file cannot be read or is not a valid class file.
+   */
+  @Nullable
+  static ClassFileDependencies read(InputStream inputStream) throws IOException {
+    var input = new DataInputStream(inputStream);
+
+    if (input.readInt() != MAGIC) {
+      throw new IOException("Not a valid class file");
+    }
+
+    // Minor and major version.
+    input.skipNBytes(4);
+
+    var constantPoolCount = input.readUnsignedShort();
+    var utf8Entries = new String[constantPoolCount];
+    var classEntries = new int[constantPoolCount];
+
+    for (var i = 1; i < constantPoolCount; ++i) {
+      var tag = input.readUnsignedByte();
+      switch (tag) {
+        case 1 -> utf8Entries[i] = input.readUTF();
+        case 7 -> classEntries[i] = input.readUnsignedShort();
+        case 8, 16, 19, 20 -> input.skipNBytes(2);
+        case 15 -> input.skipNBytes(3);
+        case 3, 4, 9, 10, 11, 12, 17, 18 -> input.skipNBytes(4);
+        case 5, 6 -> {
+          // Longs and doubles take up two constant pool slots.
+          input.skipNBytes(8);
+          ++i;
+        }
+        default -> throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+      }
+    }
+
+    var accessFlags = input.readUnsignedShort();
+    if ((accessFlags & ACC_MODULE) != 0) {
+      return null;
+    }
+
+    var className = utf8Entries[classEntries[input.readUnsignedShort()]];
+    if (className == null) {
+      throw new IOException("Class file has no valid class name");
+    }
+
+    // Super class and interfaces.
+    input.skipNBytes(2);
+    input.skipNBytes(2L * input.readUnsignedShort());
+
+    var declaresConstants = false;
+    var fieldCount = input.readUnsignedShort();
+    for (var i = 0; i < fieldCount; ++i) {
+      // Access flags, name, and descriptor.
+      input.skipNBytes(6);
+      declaresConstants |= skipAttributes(input, utf8Entries, "ConstantValue") != -1;
+    }
+
+    var methodCount = input.readUnsignedShort();
+    for (var i = 0; i < methodCount; ++i) {
+      input.skipNBytes(6);
+      skipAttributes(input, utf8Entries, null);
+    }
+
+    var sourceFileIndex = skipAttributes(input, utf8Entries, "SourceFile");
+    var sourceFile = sourceFileIndex == -1 ? null : utf8Entries[sourceFileIndex];
+
+    var referencedClassNames = new HashSet<String>();
+    for (var i = 1; i < constantPoolCount; ++i) {
+      if (classEntries[i] != 0) {
+        addReferences(referencedClassNames, utf8Entries[classEntries[i]]);
+      } else if (utf8Entries[i] != null) {
+        addDescriptorReferences(referencedClassNames, utf8Entries[i]);
+      }
+    }
+    referencedClassNames.remove(className);
+
+    return new ClassFileDependencies(
+        className,
+        sourceFile,
+        Set.copyOf(referencedClassNames),
+        declaresConstants
+    );
+  }
+
+  private static int skipAttributes(
+      DataInputStream input,
+      String[] utf8Entries,
+      @Nullable String wantedName
+  ) throws IOException {
+    // Returns the u2 value at the start of the wanted attribute, if found.
+    var result = -1;
+    var attributeCount = input.readUnsignedShort();
+
+    for (var i = 0; i < attributeCount; ++i) {
+      var name = utf8Entries[input.readUnsignedShort()];
+      var length = Integer.toUnsignedLong(input.readInt());
+
+      if (wantedName != null && wantedName.equals(name) && length >= 2) {
+        result = input.readUnsignedShort();
+        length -= 2;
+      }
+
+      input.skipNBytes(length);
+    }
+
+    return result;
+  }
+
+  private static void addReferences(Set<String> referencedClassNames, @Nullable String name) {
+    if (name == null) {
+      return;
+    }
+
+    if (name.startsWith("[")) {
+      // Array types are described using descriptors.
+      addDescriptorReferences(referencedClassNames, name);
+    } else {
+      referencedClassNames.add(name);
+    }
+  }
+
+  private static void addDescriptorReferences(Set<String> referencedClassNames, String value) {
+    if (value.indexOf(';') == -1 && value.indexOf('<') == -1) {
+      // Fast path, can't be a descriptor or signature that references a class.
+      return;
+    }
+
+    var matcher = DESCRIPTOR_REFERENCE.matcher(value);
+    while (matcher.find()) {
+      referencedClassNames.add(matcher.group(1));
+    }
+  }
+}
@@ -0,0 +1,1165 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.OutputContainerGroup;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.filemanagers.impl.PathFileObjectImpl;
+import io.github.ascopes.jct.utils.LoomPolyfill;
+import io.github.ascopes.jct.utils.StringSlicer;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content-addressed cache of compilation results.
+ *
+ * <p>Each compilation is identified by a SHA-256 key built from everything that can affect its
+ * result: the compiler flags, the compiler implementation and JVM version, the annotation
+ * processors and the bytecode of their classes, the classes being compiled, the settings that
+ * affect captured output and stack traces, and the contents of every input location. Files
+ * within the workspace are hashed by content, so keys are stable across workspaces and JVM runs.
+ * Entries inherited from the JVM class path and module path are fingerprinted by their size and
+ * last-modified times once per cache, and the JDK runtime image is identified by the JVM
+ * version.
+ *
+ * <p>A cached result holds the files written to each output location, the diagnostics along
+ * with their stack traces and counts, the output lines, and whether the compilation succeeded.
+ * Restoring a result writes the files into the output locations of the new workspace.
+ *
+ * <p>Results are held in memory up to a limit, evicting the least recently used first. If a
+ * directory is provided, results are also written to disk, so that they can be shared between
+ * JVMs. Once the directory exceeds its size limit, the least recently used files are deleted.
+ * Problems reading or writing the directory are logged and treated as cache misses.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class CompilationResultCache {
+
+  private static final Logger log = LoggerFactory.getLogger(CompilationResultCache.class);
+  private static final int MAGIC = 0x4A435443;
+  private static final int FORMAT_VERSION = 3;
+  private static final String FILE_EXTENSION = ".jctc";
+  private static final String UNIT_PREFIX = "unit|";
+  private static final String OUTPUT_PREFIX = "output|";
+  private static final StringSlicer PATH_SLICER = new StringSlicer("/");
+
+  // Rough allowance for object headers and fields of each cached value.
+  private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+  private final long maxMemoryBytes;
+  private final @Nullable Path directory;
+  private final long maxDiskBytes;
+  private final Set<Class<? extends Processor>> nonDeterministicProcessors;
+  private final Lock lock;
+  private final LinkedHashMap<String, CachedCompilation> entries;
+  private final Map<Path, String> inheritedFingerprints;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private long memoryBytes;
+
+  /**
+   * Initialise this cache.
+   *
+   * @param maxMemoryBytes             the approximate maximum number of bytes to hold in memory.
+   * @param directory                  the directory to store results in, or {@code null} to only
+   *                                   hold results in memory.
+   * @param maxDiskBytes               the maximum number of bytes to store in the directory.
+   * @param nonDeterministicProcessors the types of annotation processor that prevent a
+   *                                   compilation from being cached.
+   */
+  public CompilationResultCache(
+      long maxMemoryBytes,
+      @Nullable Path directory,
+      long maxDiskBytes,
+      Set<Class<? extends Processor>> nonDeterministicProcessors
+  ) {
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.directory = directory;
+    this.maxDiskBytes = maxDiskBytes;
+    this.nonDeterministicProcessors = Set.copyOf(nonDeterministicProcessors);
+    lock = new ReentrantLock();
+    entries = new LinkedHashMap<>(16, 0.75f, true);
+    inheritedFingerprints = new ConcurrentHashMap<>();
+    hits = new LongAdder();
+    misses = new LongAdder();
+    memoryBytes = 0;
+  }
+
+  /**
+   * Determine whether compilations using the given compiler can be cached.
+   *
+   * <p>Compilations are not cached if any of the annotation processors are non-deterministic.
+   * They are also not cached if a custom diagnostic callback or retention policy is in use, as
+   * these are arbitrary code that cannot be part of the key, and a callback would need to observe
+   * every diagnostic as it is reported. This also ensures that aborted compilations are never
+   * cached, as only a custom callback can abort a compilation.
+   *
+   * @param compiler the compiler.
+   * @return {@code true} if the compilation can be cached.
+   */
+  public boolean isCacheable(JctCompiler compiler) {
+    if (compiler.getDiagnosticCallback() != TraceDiagnosticCallback.retainAll()) {
+      return false;
+    }
+
+    if (compiler.getDiagnosticRetentionPolicy() != DiagnosticRetentionPolicy.keepAll()) {
+      return false;
+    }
+
+    return compiler.getAnnotationProcessors().stream()
+        .noneMatch(processor -> nonDeterministicProcessors.stream()
+            .anyMatch(type -> type.isInstance(processor)));
+  }
+
+  /**
+   * Compute the key for a compilation.
+   *
+   * @param compiler       the compiler being used.
+   * @param jsr199Compiler the underlying compiler implementation.
+   * @param fileManager    the file manager for the compilation.
+   * @param flags          the compiler flags.
+   * @param classNames     the binary names of the classes to compile, or {@code null} to compile
+   *                       everything.
+   * @return the key.
+   * @throws IOException if an IO error occurs reading the inputs.
+   */
+  public String computeKey(
+      JctCompiler compiler,
+      JavaCompiler jsr199Compiler,
+      JctFileManager fileManager,
+      List<String> flags,
+      @Nullable Collection<String> classNames
+  ) throws IOException {
+    var digest = newDigest();
+
+    update(digest, "format:" + FORMAT_VERSION);
+    update(digest, "jvm:" + Runtime.version());
+    update(digest, "compiler:" + jsr199Compiler.getClass().getName());
+    update(digest, "locale:" + compiler.getLocale().toLanguageTag());
+    update(digest, "outputCaptureMode:" + compiler.getOutputCaptureMode());
+    update(digest, "outputCaptureLineLimit:" + compiler.getOutputCaptureLineLimit());
+    update(digest, "stackTraceCaptureMode:" + compiler.getDiagnosticStackTraceCaptureMode());
+    update(digest, "stackTraceLimit:" + compiler.getDiagnosticStackTraceLimit());
+    update(digest, "release:" + fileManager.getEffectiveRelease());
+
+    update(digest, "flags:" + flags.size());
+    for (var flag : flags) {
+      update(digest, flag);
+    }
+
+    if (classNames == null) {
+      update(digest, "classNames:*");
+    } else {
+      var sortedClassNames = classNames.stream().sorted().toList();
+      update(digest, "classNames:" + sortedClassNames.size());
+      sortedClassNames.forEach(className -> update(digest, className));
+    }
+
+    var processors = compiler.getAnnotationProcessors();
+    update(digest, "processors:" + processors.size());
+    for (var processor : processors) {
+      updateProcessor(digest, processor.getClass());
+    }
+
+    var inheritedPaths = inheritedPaths();
+
+    var packageGroups = fileManager.getPackageContainerGroups().stream()
+        .sorted(Comparator.comparing(group -> group.getLocation().getName()))
+        .toList();
+    for (var group : packageGroups) {
+      update(digest, "location:" + group.getLocation().getName());
+      for (var container : group.getPackages()) {
+        updateContainer(digest, container, inheritedPaths);
+      }
+    }
+
+    var moduleGroups = fileManager.getModuleContainerGroups().stream()
+        .sorted(Comparator.comparing(group -> group.getLocation().getName()))
+        .toList();
+    for (var group : moduleGroups) {
+      update(digest, "location:" + group.getLocation().getName());
+      var modules = group.getModules().entrySet().stream()
+          .sorted(Comparator.comparing(entry -> entry.getKey().getModuleName()))
+          .toList();
+      for (var module : modules) {
+        update(digest, "module:" + module.getKey().getModuleName());
+        for (var container : module.getValue().getPackages()) {
+          updateContainer(digest, container, inheritedPaths);
+        }
+      }
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Restore the compilation with the given key into the output locations of a file manager.
+   *
+   * @param key         the key of the compilation.
+   * @param compiler    the compiler being used.
+   * @param fileManager the file manager to restore the outputs into.
+   * @param flags       the compiler flags.
+   * @param metrics     the metrics collector for the compilation.
+   * @return the restored compilation, or {@code null} if nothing is cached.
+   * @throws IOException if an IO error occurs writing the outputs.
+   */
+  @Nullable
+  public JctCompilation restore(
+      String key,
+      JctCompiler compiler,
+      JctFileManager fileManager,
+      List<String> flags,
+      JctCompilationMetricsCollector metrics
+  ) throws IOException {
+    var cached = get(key);
+
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+
+    var fileObjects = new HashMap<String, JavaFileObject>();
+    var compilationUnits = new LinkedHashSet<JavaFileObject>();
+    var unitKeys = Set.copyOf(cached.compilationUnits);
+
+    for (var unit : JctCompilationFactoryImpl.findCompilationUnits(fileManager)) {
+      var unitKey = UNIT_PREFIX + fileObjectKey((PathFileObject) unit);
+      if (unitKeys.contains(unitKey)) {
+        fileObjects.put(unitKey, unit);
+        compilationUnits.add(unit);
+      }
+    }
+
+    if (compilationUnits.size() != unitKeys.size()) {
+      // Should be unreachable, as the key covers the inputs, but never restore a partial result.
+      log.debug("Cached compilation {} does not match the compilation units, ignoring it", key);
+      misses.increment();
+      return null;
+    }
+
+    var outputGroups = new HashMap<String, OutputContainerGroup>();
+    for (var group : fileManager.getOutputContainerGroups()) {
+      outputGroups.put(group.getLocation().getName(), group);
+    }
+
+    for (var file : cached.files) {
+      var group = outputGroups.get(file.location);
+      if (group == null || group.getPackages().isEmpty()) {
+        log.debug("Cannot restore cached compilation {}, {} is not available", key, file.location);
+        misses.increment();
+        return null;
+      }
+    }
+
+    for (var file : cached.files) {
+      var container = requireNonNull(outputGroups.get(file.location)).getPackages().get(0);
+      var root = container.getPathRoot().getPath();
+      var path = resolve(root, file.relativePath);
+      Files.createDirectories(path.getParent());
+      Files.write(path, file.content);
+      fileObjects.put(
+          OUTPUT_PREFIX + file.location + "|" + file.relativePath,
+          new PathFileObjectImpl(container.getLocation(), root, root.relativize(path))
+      );
+    }
+
+    cached.modules.forEach((location, modules) -> {
+      var group = outputGroups.get(location);
+      if (group != null) {
+        modules.forEach(group::getOrCreateModule);
+      }
+    });
+
+    var diagnostics = cached.diagnostics.stream()
+        .map(diagnostic -> diagnostic.toTraceDiagnostic(
+            diagnostic.sourceKey == null ? null : fileObjects.get(diagnostic.sourceKey)
+        ))
+        .toList();
+
+    hits.increment();
+
+    log.atInfo()
+        .setMessage("Restored compilation with {} from the compilation cache ({} files)")
+        .addArgument(compiler::getName)
+        .addArgument(cached.files::size)
+        .log();
+
+    return JctCompilationImpl.builder()
+        .arguments(flags)
+        .compilationUnits(compilationUnits)
+        .fileManager(fileManager)
+        .outputLines(cached.outputLines)
+        .discardedOutputLineCount(cached.discardedOutputLineCount)
+        .diagnostics(diagnostics)
+        .diagnosticCounts(cached.diagnosticCounts)
+        .success(cached.success)
+        .failOnWarnings(compiler.isFailOnWarnings())
+        .metrics(metrics.toMetrics())
+        .build();
+  }
+
+  /**
+   * Store the result of a compilation.
+   *
+   * <p>This must be called before the file manager of the compilation is closed. Any problems
+   * reading the outputs are logged, and the compilation is not cached.
+   *
+   * @param key         the key of the compilation.
+   * @param compiler    the compiler that was used.
+   * @param compilation the compilation.
+   */
+  public void store(String key, JctCompiler compiler, JctCompilation compilation) {
+    CachedCompilation cached;
+    try {
+      cached = capture(compiler, compilation);
+    } catch (IOException ex) {
+      log.warn("Failed to read the outputs of compilation {}, it will not be cached", key, ex);
+      return;
+    }
+
+    lock.lock();
+    try {
+      putInMemory(key, cached);
+    } finally {
+      lock.unlock();
+    }
+
+    if (directory != null) {
+      try {
+        writeToDisk(directory, key, cached);
+      } catch (IOException ex) {
+        log.warn("Failed to write compilation {} to the cache directory {}", key, directory, ex);
+      }
+    }
+  }
+
+  /**
+   * Get the number of compilations that were restored from this cache.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of compilations that were not found in this cache.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the approximate number of bytes held in memory.
+   *
+   * @return the number of bytes.
+   */
+  public long getMemoryBytes() {
+    lock.lock();
+    try {
+      return memoryBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxMemoryBytes", maxMemoryBytes)
+        .attribute("directory", directory)
+        .attribute("maxDiskBytes", maxDiskBytes)
+        .attribute("hits", getHitCount())
+        .attribute("misses", getMissCount())
+        .toString();
+  }
+
+  @Nullable
+  private CachedCompilation get(String key) {
+    lock.lock();
+    try {
+      var cached = entries.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (directory == null) {
+      return null;
+    }
+
+    var cached = readFromDisk(directory, key);
+    if (cached != null) {
+      lock.lock();
+      try {
+        putInMemory(key, cached);
+      } finally {
+        lock.unlock();
+      }
+    }
+    return cached;
+  }
+
+  private void putInMemory(String key, CachedCompilation cached) {
+    if (cached.sizeBytes > maxMemoryBytes) {
+      // Would evict everything else for no benefit.
+      return;
+    }
+
+    var previous = entries.put(key, cached);
+    if (previous != null) {
+      memoryBytes -= previous.sizeBytes;
+    }
+    memoryBytes += cached.sizeBytes;
+
+    var iterator = entries.values().iterator();
+    while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+      memoryBytes -= iterator.next().sizeBytes;
+      iterator.remove();
+    }
+  }
+
+  private CachedCompilation capture(
+      JctCompiler compiler,
+      JctCompilation compilation
+  ) throws IOException {
+    var fileManager = compilation.getFileManager();
+    var files = new ArrayList<CachedFile>();
+    var modules = new HashMap<String, List<String>>();
+    var outputRoots = new LinkedHashMap<String, Path>();
+
+    var outputGroups = fileManager.getOutputContainerGroups().stream()
+        .sorted(Comparator.comparing(group -> group.getLocation().getName()))
+        .toList();
+
+    for (var group : outputGroups) {
+      var packages = group.getPackages();
+      if (packages.isEmpty()) {
+        continue;
+      }
+
+      // Module outputs are always subdirectories of the first package root.
+      var location = group.getLocation().getName();
+      var root = packages.get(0).getPathRoot().getPath();
+      outputRoots.put(location, root);
+      modules.put(location, group.getModules().keySet().stream()
+          .map(moduleLocation -> moduleLocation.getModuleName())
+          .sorted()
+          .toList());
+
+      for (var file : listFiles(root)) {
+        files.add(new CachedFile(location, relativeKey(root, file), Files.readAllBytes(file)));
+      }
+    }
+
+    var units = compilation.getCompilationUnits().stream()
+        .map(unit -> UNIT_PREFIX + fileObjectKey((PathFileObject) unit))
+        .sorted()
+        .toList();
+
+    var locale = compiler.getLocale();
+    var diagnostics = compilation.getDiagnostics().stream()
+        .map(diagnostic -> new CachedDiagnostic(
+            diagnostic,
+            locale,
+            sourceKeyOf(diagnostic.getSource(), outputRoots)
+        ))
+        .toList();
+
+    return new CachedCompilation(
+        compilation.isSuccessful(),
+        compilation.getOutputLines(),
+        compilation.getDiscardedOutputLineCount(),
+        units,
+        diagnostics,
+        compilation.getDiagnosticCounts(),
+        files,
+        modules
+    );
+  }
+
+  @Nullable
+  private static String sourceKeyOf(
+      @Nullable JavaFileObject source,
+      Map<String, Path> outputRoots
+  ) {
+    if (!(source instanceof PathFileObject pathFileObject)) {
+      return null;
+    }
+
+    var path = pathFileObject.getAbsolutePath();
+    for (var outputRoot : outputRoots.entrySet()) {
+      if (path.startsWith(outputRoot.getValue())) {
+        return OUTPUT_PREFIX + outputRoot.getKey() + "|" + relativeKey(outputRoot.getValue(), path);
+      }
+    }
+
+    return UNIT_PREFIX + fileObjectKey(pathFileObject);
+  }
+
+  private void updateContainer(
+      MessageDigest digest,
+      Container container,
+      Set<Path> inheritedPaths
+  ) throws IOException {
+    var path = container.getPathRoot().getPath();
+
+    if ("jrt".equals(path.toUri().getScheme())) {
+      // The runtime image is covered by the JVM version.
+      update(digest, "jrt:" + path);
+      return;
+    }
+
+    if (inheritedPaths.contains(path)) {
+      var fingerprint = inheritedFingerprints.get(path);
+      if (fingerprint == null) {
+        fingerprint = fingerprintInheritedPath(path);
+        inheritedFingerprints.put(path, fingerprint);
+      }
+      update(digest, "inherited:" + fingerprint);
+      return;
+    }
+
+    update(digest, "content");
+    if (Files.isRegularFile(path)) {
+      updateFile(digest, path);
+      return;
+    }
+
+    for (var file : listFiles(path)) {
+      update(digest, relativeKey(path, file));
+      updateFile(digest, file);
+    }
+  }
+
+  private static String fingerprintInheritedPath(Path path) throws IOException {
+    var builder = new StringBuilder(path.toAbsolutePath().toString());
+
+    if (!Files.exists(path)) {
+      return builder.append("|missing").toString();
+    }
+
+    var paths = Files.isDirectory(path) ? listFiles(path) : List.of(path);
+    for (var file : paths) {
+      var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      builder.append('|')
+          .append(relativeKey(path, file))
+          .append(':')
+          .append(attributes.size())
+          .append(':')
+          .append(attributes.lastModifiedTime().toMillis());
+    }
+
+    return builder.toString();
+  }
+
+  private static void updateProcessor(MessageDigest digest, Class<?> processorType)
+      throws IOException {
+    update(digest, "processor:" + processorType.getName());
+
+    var pkg = processorType.getPackage();
+    var version = pkg == null ? null : pkg.getImplementationVersion();
+    update(digest, "version:" + version);
+
+    var name = processorType.getName();
+    var resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+    try (var input = processorType.getResourceAsStream(resource)) {
+      if (input == null) {
+        update(digest, "bytecode:unavailable");
+      } else {
+        update(digest, "bytecode");
+        input.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+      }
+    }
+  }
+
+  private static void updateFile(MessageDigest digest, Path file) throws IOException {
+    update(digest, "size:" + Files.size(file));
+    try (var input = Files.newInputStream(file)) {
+      input.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    // Length-prefix each value so that adjacent values cannot be confused with each other.
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.update((byte) (bytes.length >>> 24));
+    digest.update((byte) (bytes.length >>> 16));
+    digest.update((byte) (bytes.length >>> 8));
+    digest.update((byte) bytes.length);
+    digest.update(bytes);
+  }
+
+  private static Set<Path> inheritedPaths() {
+    var snapshot = JvmEnvironmentSnapshot.current();
+    return Stream.of(snapshot.getClassPath(), snapshot.getModulePath())
+        .flatMap(List::stream)
+        .map(PathRoot::getPath)
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private static List<Path> listFiles(Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return List.of();
+    }
+
+    try (var walker = Files.walk(root)) {
+      return walker
+          .filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(file -> relativeKey(root, file)))
+          .toList();
+    }
+  }
+
+  private static String fileObjectKey(PathFileObject fileObject) {
+    return fileObject.getLocation().getName()
+        + "|" + IncrementalCompilationTracker.relativeKey(fileObject.getRelativePath());
+  }
+
+  private static String relativeKey(Path root, Path file) {
+    return IncrementalCompilationTracker.relativeKey(root.relativize(file));
+  }
+
+  private static Path resolve(Path root, String relativeKey) {
+    var path = root;
+    for (var fragment : PATH_SLICER.splitToArray(relativeKey)) {
+      path = path.resolve(fragment);
+    }
+    return path;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      // All JVMs are required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not supported", ex);
+    }
+  }
+
+  private void writeToDisk(Path directory, String key, CachedCompilation cached)
+      throws IOException {
+    Files.createDirectories(directory);
+
+    var bytes = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(bytes)) {
+      output.writeInt(MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      writeString(output, key);
+      cached.writeTo(output);
+    }
+
+    // Write to a temporary file first, so that other JVMs never see partially written entries.
+    var file = directory.resolve(key + FILE_EXTENSION);
+    var temporaryFile = Files.createTempFile(directory, key, ".tmp");
+    try {
+      Files.write(temporaryFile, bytes.toByteArray());
+      try {
+        Files.move(
+            temporaryFile,
+            file,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+
+    evictFromDisk(directory);
+  }
+
+  @Nullable
+  private CachedCompilation readFromDisk(Path directory, String key) {
+    var file = directory.resolve(key + FILE_EXTENSION);
+
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (var input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+      if (input.readInt() != MAGIC
+          || input.readInt() != FORMAT_VERSION
+          || !key.equals(readString(input))) {
+        log.debug("Ignoring unrecognised cache file {}", file);
+        return null;
+      }
+
+      var cached = CachedCompilation.readFrom(input);
+
+      // Touch the file so that eviction removes the least recently used entries first.
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+      return cached;
+
+    } catch (IOException ex) {
+      log.warn("Failed to read compilation {} from the cache directory {}", key, directory, ex);
+      return null;
+    }
+  }
+
+  private void evictFromDisk(Path directory) throws IOException {
+    var files = new ArrayList<Path>();
+    var lastModifiedTimes = new HashMap<Path, FileTime>();
+    var totalBytes = 0L;
+
+    try (var listing = Files.list(directory)) {
+      for (var file : (Iterable<Path>) listing::iterator) {
+        if (file.getFileName().toString().endsWith(FILE_EXTENSION)) {
+          var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+          files.add(file);
+          lastModifiedTimes.put(file, attributes.lastModifiedTime());
+          totalBytes += attributes.size();
+        }
+      }
+    }
+
+    files.sort(Comparator.comparing(lastModifiedTimes::get));
+
+    for (var iterator = files.iterator(); totalBytes > maxDiskBytes && iterator.hasNext(); ) {
+      var file = iterator.next();
+      var size = Files.size(file);
+      if (Files.deleteIfExists(file)) {
+        log.trace("Evicted {} from the compilation cache directory", file);
+        totalBytes -= size;
+      }
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeNullableString(DataOutputStream output, @Nullable String value)
+      throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      writeString(output, value);
+    }
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    return new String(readBytes(input), StandardCharsets.UTF_8);
+  }
+
+  @Nullable
+  private static String readNullableString(DataInputStream input) throws IOException {
+    return input.readBoolean() ? readString(input) : null;
+  }
+
+  private static byte[] readBytes(DataInputStream input) throws IOException {
+    var length = input.readInt();
+    if (length < 0 || length > input.available()) {
+      throw new IOException("Corrupt cache entry");
+    }
+    var bytes = new byte[length];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+  private static long sizeOf(@Nullable String value) {
+    return value == null ? 0 : 2L * value.length();
+  }
+
+  private static final class CachedCompilation {
+
+    private final boolean success;
+    private final List<String> outputLines;
+    private final long discardedOutputLineCount;
+    private final List<String> compilationUnits;
+    private final List<CachedDiagnostic> diagnostics;
+    private final Map<Diagnostic.Kind, Long> diagnosticCounts;
+    private final List<CachedFile> files;
+    private final Map<String, List<String>> modules;
+    private final long sizeBytes;
+
+    private CachedCompilation(
+        boolean success,
+        List<String> outputLines,
+        long discardedOutputLineCount,
+        List<String> compilationUnits,
+        List<CachedDiagnostic> diagnostics,
+        Map<Diagnostic.Kind, Long> diagnosticCounts,
+        List<CachedFile> files,
+        Map<String, List<String>> modules
+    ) {
+      this.success = success;
+      this.outputLines = List.copyOf(outputLines);
+      this.discardedOutputLineCount = discardedOutputLineCount;
+      this.compilationUnits = List.copyOf(compilationUnits);
+      this.diagnostics = List.copyOf(diagnostics);
+      this.diagnosticCounts = Map.copyOf(diagnosticCounts);
+      this.files = List.copyOf(files);
+      this.modules = Map.copyOf(modules);
+
+      var size = ENTRY_OVERHEAD_BYTES;
+      for (var line : outputLines) {
+        size += sizeOf(line);
+      }
+      for (var unit : compilationUnits) {
+        size += sizeOf(unit);
+      }
+      for (var diagnostic : diagnostics) {
+        size += ENTRY_OVERHEAD_BYTES + sizeOf(diagnostic.message) + sizeOf(diagnostic.sourceKey);
+        size += ENTRY_OVERHEAD_BYTES * diagnostic.stackTrace.size();
+      }
+      for (var file : files) {
+        size += file.content.length + sizeOf(file.relativePath);
+      }
+      sizeBytes = size;
+    }
+
+    private void writeTo(DataOutputStream output) throws IOException {
+      output.writeBoolean(success);
+
+      output.writeInt(outputLines.size());
+      for (var line : outputLines) {
+        writeString(output, line);
+      }
+      output.writeLong(discardedOutputLineCount);
+
+      output.writeInt(compilationUnits.size());
+      for (var unit : compilationUnits) {
+        writeString(output, unit);
+      }
+
+      output.writeInt(diagnostics.size());
+      for (var diagnostic : diagnostics) {
+        diagnostic.writeTo(output);
+      }
+
+      output.writeInt(diagnosticCounts.size());
+      for (var entry : diagnosticCounts.entrySet()) {
+        writeString(output, entry.getKey().name());
+        output.writeLong(entry.getValue());
+      }
+
+      output.writeInt(files.size());
+      for (var file : files) {
+        writeString(output, file.location);
+        writeString(output, file.relativePath);
+        output.writeInt(file.content.length);
+        output.write(file.content);
+      }
+
+      output.writeInt(modules.size());
+      for (var entry : modules.entrySet()) {
+        writeString(output, entry.getKey());
+        output.writeInt(entry.getValue().size());
+        for (var module : entry.getValue()) {
+          writeString(output, module);
+        }
+      }
+    }
+
+    private static CachedCompilation readFrom(DataInputStream input) throws IOException {
+      final var success = input.readBoolean();
+
+      var outputLines = new ArrayList<String>();
+      for (var i = input.readInt(); i > 0; --i) {
+        outputLines.add(readString(input));
+      }
+      var discardedOutputLineCount = input.readLong();
+      if (discardedOutputLineCount < 0) {
+        throw new IOException("Corrupt cache entry");
+      }
+
+      var compilationUnits = new ArrayList<String>();
+      for (var i = input.readInt(); i > 0; --i) {
+        compilationUnits.add(readString(input));
+      }
+
+      var diagnostics = new ArrayList<CachedDiagnostic>();
+      for (var i = input.readInt(); i > 0; --i) {
+        diagnostics.add(CachedDiagnostic.readFrom(input));
+      }
+
+      var diagnosticCounts = new EnumMap<Diagnostic.Kind, Long>(Diagnostic.Kind.class);
+      for (var i = input.readInt(); i > 0; --i) {
+        diagnosticCounts.put(Diagnostic.Kind.valueOf(readString(input)), input.readLong());
+      }
+
+      var files = new ArrayList<CachedFile>();
+      for (var i = input.readInt(); i > 0; --i) {
+        files.add(new CachedFile(readString(input), readString(input), readBytes(input)));
+      }
+
+      var modules = new HashMap<String, List<String>>();
+      for (var i = input.readInt(); i > 0; --i) {
+        var location = readString(input);
+        var locationModules = new ArrayList<String>();
+        for (var j = input.readInt(); j > 0; --j) {
+          locationModules.add(readString(input));
+        }
+        modules.put(location, locationModules);
+      }
+
+      return new CachedCompilation(
+          success,
+          outputLines,
+          discardedOutputLineCount,
+          compilationUnits,
+          diagnostics,
+          diagnosticCounts,
+          files,
+          modules
+      );
+    }
+  }
+
+  private static final class CachedFile {
+
+    private final String location;
+    private final String relativePath;
+    private final byte[] content;
+
+    private CachedFile(String location, String relativePath, byte[] content) {
+      this.location = location;
+      this.relativePath = relativePath;
+      this.content = content;
+    }
+  }
+
+  private static final class CachedDiagnostic {
+
+    private final Diagnostic.Kind kind;
+    private final @Nullable String code;
+    private final String message;
+    private final long position;
+    private final long startPosition;
+    private final long endPosition;
+    private final long lineNumber;
+    private final long columnNumber;
+    private final Instant timestamp;
+    private final List<StackTraceElement> stackTrace;
+    private final @Nullable String sourceKey;
+
+    private CachedDiagnostic(
+        TraceDiagnostic<? extends JavaFileObject> diagnostic,
+        Locale locale,
+        @Nullable String sourceKey
+    ) {
+      kind = diagnostic.getKind();
+      code = diagnostic.getCode();
+      message = diagnostic.getMessage(locale);
+      position = diagnostic.getPosition();
+      startPosition = diagnostic.getStartPosition();
+      endPosition = diagnostic.getEndPosition();
+      lineNumber = diagnostic.getLineNumber();
+      columnNumber = diagnostic.getColumnNumber();
+      timestamp = diagnostic.getTimestamp();
+      stackTrace = List.copyOf(diagnostic.getStackTrace());
+      this.sourceKey = sourceKey;
+    }
+
+    private CachedDiagnostic(DataInputStream input) throws IOException {
+      kind = Diagnostic.Kind.valueOf(readString(input));
+      code = readNullableString(input);
+      message = readString(input);
+      position = input.readLong();
+      startPosition = input.readLong();
+      endPosition = input.readLong();
+      lineNumber = input.readLong();
+      columnNumber = input.readLong();
+      timestamp = Instant.ofEpochSecond(input.readLong(), input.readInt());
+
+      var frames = new ArrayList<StackTraceElement>();
+      for (var i = input.readInt(); i > 0; --i) {
+        frames.add(new StackTraceElement(
+            readNullableString(input),
+            readNullableString(input),
+            readNullableString(input),
+            readString(input),
+            readString(input),
+            readNullableString(input),
+            input.readInt()
+        ));
+      }
+      stackTrace = List.copyOf(frames);
+
+      sourceKey = readNullableString(input);
+    }
+
+    private static CachedDiagnostic readFrom(DataInputStream input) throws IOException {
+      return new CachedDiagnostic(input);
+    }
+
+    private void writeTo(DataOutputStream output) throws IOException {
+      writeString(output, kind.name());
+      writeNullableString(output, code);
+      writeString(output, message);
+      output.writeLong(position);
+      output.writeLong(startPosition);
+      output.writeLong(endPosition);
+      output.writeLong(lineNumber);
+      output.writeLong(columnNumber);
+      output.writeLong(timestamp.getEpochSecond());
+      output.writeInt(timestamp.getNano());
+
+      output.writeInt(stackTrace.size());
+      for (var frame : stackTrace) {
+        writeNullableString(output, frame.getClassLoaderName());
+        writeNullableString(output, frame.getModuleName());
+        writeNullableString(output, frame.getModuleVersion());
+        writeString(output, frame.getClassName());
+        writeString(output, frame.getMethodName());
+        writeNullableString(output, frame.getFileName());
+        output.writeInt(frame.getLineNumber());
+      }
+
+      writeNullableString(output, sourceKey);
+    }
+
+    private TraceDiagnostic<JavaFileObject> toTraceDiagnostic(@Nullable JavaFileObject source) {
+      var thread = Thread.currentThread();
+      return new TraceDiagnostic<>(
+          timestamp,
+          LoomPolyfill.getThreadId(thread),
+          thread.getName(),
+          stackTrace,
+          new RestoredDiagnostic(this, source)
+      );
+    }
+  }
+
+  private static final class RestoredDiagnostic implements Diagnostic<JavaFileObject> {
+
+    private final CachedDiagnostic cached;
+    private final @Nullable JavaFileObject source;
+
+    private RestoredDiagnostic(CachedDiagnostic cached, @Nullable JavaFileObject source) {
+      this.cached = cached;
+      this.source = source;
+    }
+
+    @Override
+    public Kind getKind() {
+      return cached.kind;
+    }
+
+    @Nullable
+    @Override
+    public JavaFileObject getSource() {
+      return source;
+    }
+
+    @Override
+    public long getPosition() {
+      return cached.position;
+    }
+
+    @Override
+    public long getStartPosition() {
+      return cached.startPosition;
+    }
+
+    @Override
+    public long getEndPosition() {
+      return cached.endPosition;
+    }
+
+    @Override
+    public long getLineNumber() {
+      return cached.lineNumber;
+    }
+
+    @Override
+    public long getColumnNumber() {
+      return cached.columnNumber;
+    }
+
+    @Nullable
+    @Override
+    public String getCode() {
+      return cached.code;
+    }
+
+    @Override
+    public String getMessage(@Nullable Locale locale) {
+      // Messages are captured in the locale of the compiler, which is part of the cache key.
+      return cached.message;
+    }
+
+    @Override
+    public String toString() {
+      return cached.message;
+    }
+  }
+}
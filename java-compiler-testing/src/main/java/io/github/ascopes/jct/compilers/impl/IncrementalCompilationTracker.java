@@ -0,0 +1,547 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.IterableUtils;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the state of previous compilations of each workspace, to allow subsequent compilations
+ * to only recompile what has changed.
+ *
+ * <p>After each successful compilation, the class outputs are read to build a dependency graph
+ * between compilation units, and the contents of each compilation unit are hashed. The next
+ * compilation of the same workspace will only compile units that were added or changed, units
+ * whose outputs are missing, and any units that depend on changed or deleted units, either
+ * directly or transitively. The outputs of those units are deleted first, and the class outputs
+ * are added to the class path so that the unchanged classes can be used.
+ *
+ * <p>If the only change is that units without any dependents were deleted, their outputs are
+ * deleted and nothing is compiled.
+ *
+ * <p>A full compilation is performed instead if there is no previous successful compilation,
+ * if the compiler flags or annotation processors have changed, if a changed unit declares
+ * compile-time constants (since these are inlined by the compiler, so cannot be tracked), if
+ * any class output lacks a {@code SourceFile} attribute (so cannot be traced to its unit), if
+ * annotation processors generated any files (since these cannot be traced to the units that
+ * caused them to be generated), or if the workspace uses the module source path. The outputs of
+ * the previous compilation, including any generated files, are deleted first.
+ *
+ * <p>Workspaces are held weakly, so state is discarded once a workspace is no longer in use.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class IncrementalCompilationTracker {
+
+  private static final Logger log = LoggerFactory.getLogger(IncrementalCompilationTracker.class);
+  private static final String CLASS_EXTENSION = ".class";
+
+  private final Map<Workspace, State> states;
+
+  /**
+   * Initialise this tracker.
+   */
+  public IncrementalCompilationTracker() {
+    states = Collections.synchronizedMap(new WeakHashMap<>());
+  }
+
+  /**
+   * Work out what needs compiling for the given workspace.
+   *
+   * <p>If an incremental compilation is possible, this will delete any stale outputs and add the
+   * class outputs to the class path of the file manager.
+   *
+   * @param workspace   the workspace being compiled.
+   * @param fileManager the file manager for the compilation.
+   * @param flags       the compiler flags.
+   * @param processors  the annotation processors.
+   * @return the plan.
+   * @throws IOException if an IO error occurs.
+   */
+  public Plan plan(
+      Workspace workspace,
+      JctFileManager fileManager,
+      List<String> flags,
+      List<Processor> processors
+  ) throws IOException {
+    var processorNames = processors.stream()
+        .map(processor -> processor.getClass().getName())
+        .toList();
+    var sources = new LinkedHashMap<String, PathFileObject>();
+    var sourceHashes = new HashMap<String, String>();
+
+    for (var fileObject : JctCompilationFactoryImpl.findCompilationUnits(fileManager)) {
+      var pathFileObject = (PathFileObject) fileObject;
+      var key = relativeKey(pathFileObject.getRelativePath());
+      sources.put(key, pathFileObject);
+      sourceHashes.put(key, hash(pathFileObject.getAbsolutePath()));
+    }
+
+    var plan = new Plan(workspace, flags, processorNames, sourceHashes);
+    var previous = states.get(workspace);
+
+    if (previous == null) {
+      log.debug("No previous compilation state for {}, performing a full compilation", workspace);
+      return plan;
+    }
+
+    if (!previous.flags.equals(flags) || !previous.processorNames.equals(processorNames)) {
+      log.debug("Compiler configuration changed, performing a full compilation");
+      deleteAllOutputs(previous);
+      return plan;
+    }
+
+    var moduleSourceLocations = fileManager
+        .listLocationsForModules(StandardLocation.MODULE_SOURCE_PATH);
+    if (!IterableUtils.flatten(moduleSourceLocations).isEmpty()) {
+      log.debug("Incremental compilation of modules is not supported, performing a full one");
+      deleteAllOutputs(previous);
+      return plan;
+    }
+
+    var modified = new HashSet<String>();
+    sourceHashes.forEach((key, hash) -> {
+      if (!hash.equals(previous.sourceHashes.get(key))) {
+        modified.add(key);
+      }
+    });
+    previous.sourceHashes.keySet().stream()
+        .filter(key -> !sourceHashes.containsKey(key))
+        .forEach(modified::add);
+
+    // Outputs may have been deleted since the previous compilation, in which case the units
+    // that produced them must be compiled again.
+    previous.unitClasses.forEach((unit, classFiles) -> {
+      if (sourceHashes.containsKey(unit) && !classFiles.stream().allMatch(Files::isRegularFile)) {
+        log.trace("Outputs of {} are missing, so it will be recompiled", unit);
+        modified.add(unit);
+      }
+    });
+
+    if (modified.isEmpty()) {
+      log.debug("No compilation units changed, compilation is up to date");
+      plan.previousCompilation = previous.compilation;
+      return plan;
+    }
+
+    if (modified.stream().anyMatch(previous.constantUnits::contains)) {
+      log.debug("A changed compilation unit declares constants, performing a full compilation");
+      deleteAllOutputs(previous);
+      return plan;
+    }
+
+    if (!previous.generatedFiles.isEmpty()) {
+      // We cannot tell which units caused each file to be generated, so we cannot tell which
+      // generated files are stale.
+      log.debug("Annotation processors generated files, performing a full compilation");
+      deleteAllOutputs(previous);
+      return plan;
+    }
+
+    // Walk the dependents of everything that changed.
+    var dirty = new HashSet<>(modified);
+    var queue = new ArrayDeque<>(modified);
+    while (!queue.isEmpty()) {
+      for (var dependent : previous.dependents.getOrDefault(queue.remove(), Set.of())) {
+        if (dirty.add(dependent)) {
+          queue.add(dependent);
+        }
+      }
+    }
+
+    dirty.retainAll(sources.keySet());
+
+    if (dirty.isEmpty()) {
+      // Only deletions without any dependents, so nothing else needs to be compiled.
+      log.debug("Only unused compilation units were deleted, deleting their outputs");
+      deleteOutputs(previous, modified);
+      var state = previous.withoutUnits(modified, sourceHashes);
+      states.put(workspace, state);
+      plan.previousCompilation = state.compilation;
+      return plan;
+    }
+
+    deleteOutputs(previous, modified);
+    deleteOutputs(previous, dirty);
+
+    plan.classNames = dirty.stream()
+        .map(key -> requireNonNull(sources.get(key)).getBinaryName())
+        .toList();
+
+    fileManager.addPaths(StandardLocation.CLASS_PATH, workspace.getClassOutputPackages());
+
+    log.debug(
+        "{} compilation unit(s) changed, incrementally compiling {} of {} unit(s)",
+        modified.size(),
+        plan.classNames.size(),
+        sources.size()
+    );
+
+    return plan;
+  }
+
+  /**
+   * Record the result of a compilation that was performed using the given plan.
+   *
+   * @param plan        the plan that was used.
+   * @param compilation the result of the compilation.
+   * @throws IOException if an IO error occurs reading the class outputs.
+   */
+  public void record(Plan plan, JctCompilation compilation) throws IOException {
+    if (!compilation.isSuccessful()) {
+      // Outputs may be incomplete, so the next compilation must be a full one.
+      forget(plan.workspace);
+      return;
+    }
+
+    var unitClasses = new HashMap<String, Set<Path>>();
+    var unitReferences = new HashMap<String, Set<String>>();
+    var classUnits = new HashMap<String, String>();
+    var constantUnits = new HashSet<String>();
+    var generatedFiles = new HashSet<Path>();
+
+    for (var root : plan.workspace.getSourceOutputPackages()) {
+      try (var files = Files.walk(root.getPath())) {
+        files.filter(Files::isRegularFile).forEach(generatedFiles::add);
+      }
+    }
+
+    for (var root : plan.workspace.getClassOutputPackages()) {
+      try (var files = Files.walk(root.getPath())) {
+        for (var file : (Iterable<Path>) files::iterator) {
+          if (!Files.isRegularFile(file)) {
+            continue;
+          }
+
+          if (!file.getFileName().toString().endsWith(CLASS_EXTENSION)) {
+            // Only annotation processors write anything other than classes.
+            generatedFiles.add(file);
+            continue;
+          }
+
+          ClassFileDependencies dependencies;
+          try (var input = Files.newInputStream(file)) {
+            dependencies = ClassFileDependencies.read(input);
+          }
+
+          if (dependencies == null) {
+            continue;
+          }
+
+          var unit = dependencies.getSourcePath();
+          if (unit == null) {
+            // Compiled without source debugging info, so we cannot tell which unit this came from.
+            log.debug("{} has no SourceFile attribute, so it cannot be tracked", file);
+            forget(plan.workspace);
+            return;
+          }
+
+          if (!plan.sourceHashes.containsKey(unit)) {
+            // Compiled from a source that an annotation processor generated.
+            generatedFiles.add(file);
+            continue;
+          }
+
+          unitClasses.computeIfAbsent(unit, unused -> new HashSet<>()).add(file);
+          unitReferences.computeIfAbsent(unit, unused -> new HashSet<>())
+              .addAll(dependencies.getReferencedClassNames());
+          classUnits.put(dependencies.getClassName(), unit);
+
+          if (dependencies.isDeclaresConstants()) {
+            constantUnits.add(unit);
+          }
+        }
+      }
+    }
+
+    var dependents = new HashMap<String, Set<String>>();
+    unitReferences.forEach((unit, references) -> {
+      for (var reference : references) {
+        var referencedUnit = classUnits.get(reference);
+        if (referencedUnit != null && !referencedUnit.equals(unit)) {
+          dependents.computeIfAbsent(referencedUnit, unused -> new HashSet<>()).add(unit);
+        }
+      }
+    });
+
+    states.put(plan.workspace, new State(
+        plan.flags,
+        plan.processorNames,
+        plan.sourceHashes,
+        unitClasses,
+        dependents,
+        constantUnits,
+        generatedFiles,
+        compilation
+    ));
+  }
+
+  /**
+   * Discard any state held for the given workspace.
+   *
+   * @param workspace the workspace.
+   */
+  public void forget(Workspace workspace) {
+    states.remove(workspace);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("trackedWorkspaces", states.size())
+        .toString();
+  }
+
+  private static void deleteAllOutputs(State state) throws IOException {
+    deleteOutputs(state, state.unitClasses.keySet());
+
+    for (var generatedFile : state.generatedFiles) {
+      Files.deleteIfExists(generatedFile);
+    }
+  }
+
+  private static void deleteOutputs(State state, Set<String> units) throws IOException {
+    for (var unit : units) {
+      for (var classFile : state.unitClasses.getOrDefault(unit, Set.of())) {
+        Files.deleteIfExists(classFile);
+      }
+    }
+  }
+
+  static String relativeKey(Path relativePath) {
+    // Use forward slashes regardless of the platform, to match class file paths.
+    var builder = new StringBuilder();
+    for (var fragment : relativePath) {
+      if (builder.length() > 0) {
+        builder.append('/');
+      }
+      builder.append(fragment);
+    }
+    return builder.toString();
+  }
+
+  private static String hash(Path path) throws IOException {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(path));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      // All JVMs are required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not supported", ex);
+    }
+  }
+
+  /**
+   * The outcome of planning a compilation.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Plan {
+
+    private final Workspace workspace;
+    private final List<String> flags;
+    private final List<String> processorNames;
+    private final Map<String, String> sourceHashes;
+    private @Nullable Collection<String> classNames;
+    private @Nullable JctCompilation previousCompilation;
+
+    private Plan(
+        Workspace workspace,
+        List<String> flags,
+        List<String> processorNames,
+        Map<String, String> sourceHashes
+    ) {
+      this.workspace = workspace;
+      this.flags = List.copyOf(flags);
+      this.processorNames = processorNames;
+      this.sourceHashes = Map.copyOf(sourceHashes);
+      classNames = null;
+      previousCompilation = null;
+    }
+
+    /**
+     * Determine if nothing has changed since the previous compilation.
+     *
+     * @return {@code true} if up to date, or {@code false} if a compilation is needed.
+     */
+    public boolean isUpToDate() {
+      return previousCompilation != null;
+    }
+
+    /**
+     * Get the previous compilation, if the workspace is up to date.
+     *
+     * @return the previous compilation.
+     * @throws IllegalStateException if the workspace is not up to date.
+     */
+    public JctCompilation getPreviousCompilation() {
+      if (previousCompilation == null) {
+        throw new IllegalStateException("Workspace is not up to date");
+      }
+      return previousCompilation;
+    }
+
+    /**
+     * Get the binary names of the compilation units to compile.
+     *
+     * @return the binary names, or {@code null} if everything should be compiled.
+     */
+    @Nullable
+    public Collection<String> getClassNames() {
+      return classNames;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("workspace", workspace)
+          .attribute("upToDate", isUpToDate())
+          .attribute("classNames", classNames)
+          .toString();
+    }
+  }
+
+  private static final class State {
+
+    private final List<String> flags;
+    private final List<String> processorNames;
+    private final Map<String, String> sourceHashes;
+    private final Map<String, Set<Path>> unitClasses;
+    private final Map<String, Set<String>> dependents;
+    private final Set<String> constantUnits;
+    private final Set<Path> generatedFiles;
+    private final JctCompilation compilation;
+
+    private State(
+        List<String> flags,
+        List<String> processorNames,
+        Map<String, String> sourceHashes,
+        Map<String, Set<Path>> unitClasses,
+        Map<String, Set<String>> dependents,
+        Set<String> constantUnits,
+        Set<Path> generatedFiles,
+        JctCompilation compilation
+    ) {
+      this.flags = flags;
+      this.processorNames = processorNames;
+      this.sourceHashes = sourceHashes;
+      this.unitClasses = unitClasses;
+      this.dependents = dependents;
+      this.constantUnits = constantUnits;
+      this.generatedFiles = generatedFiles;
+      this.compilation = compilation;
+    }
+
+    private State withoutUnits(Set<String> units, Map<String, String> sourceHashes) {
+      var remainingUnitClasses = new HashMap<>(unitClasses);
+      remainingUnitClasses.keySet().removeAll(units);
+
+      var remainingDependents = new HashMap<String, Set<String>>();
+      dependents.forEach((unit, unitDependents) -> {
+        if (!units.contains(unit)) {
+          var remaining = new HashSet<>(unitDependents);
+          remaining.removeAll(units);
+          remainingDependents.put(unit, remaining);
+        }
+      });
+
+      var remainingConstantUnits = new HashSet<>(constantUnits);
+      remainingConstantUnits.removeAll(units);
+
+      return new State(
+          flags,
+          processorNames,
+          Map.copyOf(sourceHashes),
+          remainingUnitClasses,
+          remainingDependents,
+          remainingConstantUnits,
+          generatedFiles,
+          withoutUnits(compilation, units)
+      );
+    }
+
+    private static JctCompilation withoutUnits(JctCompilation compilation, Set<String> units) {
+      final var compilationUnits = compilation.getCompilationUnits()
+          .stream()
+          .filter(unit -> !isAnyOf(unit, units))
+          .collect(Collectors.toCollection(LinkedHashSet::new));
+
+      final var diagnostics = compilation.getDiagnostics()
+          .stream()
+          .filter(diagnostic -> !isAnyOf(diagnostic.getSource(), units))
+          .toList();
+
+      // Counts include diagnostics that were not retained, so only remove the ones we dropped.
+      var diagnosticCounts = new EnumMap<Kind, Long>(Kind.class);
+      diagnosticCounts.putAll(compilation.getDiagnosticCounts());
+      compilation.getDiagnostics()
+          .stream()
+          .filter(diagnostic -> isAnyOf(diagnostic.getSource(), units))
+          .forEach(diagnostic -> diagnosticCounts.merge(diagnostic.getKind(), -1L, Long::sum));
+      diagnosticCounts.values().removeIf(count -> count <= 0);
+
+      return JctCompilationImpl.builder()
+          .arguments(compilation.getArguments())
+          .failOnWarnings(compilation.isFailOnWarnings())
+          .success(compilation.isSuccessful())
+          .outputLines(compilation.getOutputLines())
+          .discardedOutputLineCount(compilation.getDiscardedOutputLineCount())
+          .compilationUnits(compilationUnits)
+          .diagnostics(diagnostics)
+          .diagnosticCounts(diagnosticCounts)
+          .fileManager(compilation.getFileManager())
+          .metrics(compilation.getMetrics())
+          .build();
+    }
+
+    private static boolean isAnyOf(@Nullable Object fileObject, Set<String> units) {
+      return fileObject instanceof PathFileObject pathFileObject
+          && units.contains(relativeKey(pathFileObject.getRelativePath()));
+    }
+  }
+}
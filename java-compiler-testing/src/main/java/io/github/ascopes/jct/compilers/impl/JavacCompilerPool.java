@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opt-in, process-wide pool of {@code javac} instances used by {@link JavacJctCompilerImpl}.
+ *
+ * <p>Without this pool, every compilation looks up a fresh {@link JavaCompiler} via the
+ * {@link ToolProvider}, and the first compilations in a test run pay for loading and
+ * JIT-compiling {@code javac} itself. While the pool is active, compilations reuse a single
+ * shared instance instead, which can optionally be warmed up by compiling a trivial unit
+ * ahead of time.
+ *
+ * <p>The JDK {@code JavacTool} holds no per-compilation state (each task creates its own
+ * context), so a single instance is safely shared between concurrent compilations rather than
+ * being leased out and returned.
+ *
+ * <p>The pool is reference-counted. Each call to {@link #activate} must be paired with a call
+ * to {@link #close()}, and the pool is deactivated once the last holder closes it. See
+ * {@link io.github.ascopes.jct.junit.JavacCompilerPoolExtension} for a JUnit integration.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JavacCompilerPool implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(JavacCompilerPool.class);
+  private static final Lock LOCK = new ReentrantLock();
+  private static volatile @Nullable JavacCompilerPool active = null;
+
+  /**
+   * Activate the pool, creating and warming it first if it is not already active.
+   *
+   * <p>If the pool is already active, the existing pool is returned and the warm-up iterations
+   * are ignored.
+   *
+   * @param warmUpIterations the number of trivial compilations to perform to warm the pool up.
+   *                         Zero disables warming up.
+   * @return the active pool, which must be {@link #close() closed} once no longer needed.
+   * @throws IllegalArgumentException if the warm-up iteration count is negative.
+   */
+  public static JavacCompilerPool activate(int warmUpIterations) {
+    if (warmUpIterations < 0) {
+      throw new IllegalArgumentException("warmUpIterations cannot be negative");
+    }
+
+    LOCK.lock();
+    try {
+      var pool = active;
+
+      if (pool == null) {
+        pool = new JavacCompilerPool();
+        // Mark ourselves as active before warming up so that the warm-up compilations
+        // exercise the pooled instance.
+        active = pool;
+        pool.warmUp(warmUpIterations);
+      }
+
+      ++pool.references;
+      return pool;
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
+  /**
+   * Get the active pool, if there is one.
+   *
+   * @return the active pool, or {@code null} if the pool is not active.
+   */
+  @Nullable
+  public static JavacCompilerPool getActive() {
+    return active;
+  }
+
+  private final JavaCompiler compiler;
+
+  // Guarded by LOCK.
+  private int references;
+  private Duration warmUpDuration;
+  private int warmUpIterations;
+
+  private JavacCompilerPool() {
+    // RequireNonNull to ensure the return result is non-null, since the ToolProvider
+    // method is not annotated.
+    compiler = requireNonNull(
+        ToolProvider.getSystemJavaCompiler(),
+        "ToolProvider.getSystemJavaCompiler()"
+    );
+    references = 0;
+    warmUpDuration = Duration.ZERO;
+    warmUpIterations = 0;
+  }
+
+  /**
+   * Get the pooled compiler.
+   *
+   * @return the compiler.
+   */
+  public JavaCompiler getCompiler() {
+    return compiler;
+  }
+
+  /**
+   * Get the total time spent warming up this pool.
+   *
+   * @return the warm-up duration. This is zero if no warm-up was performed.
+   */
+  public Duration getWarmUpDuration() {
+    return warmUpDuration;
+  }
+
+  /**
+   * Get the number of warm-up compilations that were performed.
+   *
+   * @return the number of warm-up compilations.
+   */
+  public int getWarmUpIterations() {
+    return warmUpIterations;
+  }
+
+  /**
+   * Release this reference to the pool, deactivating it if this was the last reference.
+   */
+  @Override
+  public void close() {
+    LOCK.lock();
+    try {
+      if (references > 0 && --references == 0 && active == this) {
+        log.debug("Deactivating javac compiler pool");
+        active = null;
+      }
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("compiler", compiler)
+        .attribute("warmUpDuration", warmUpDuration)
+        .attribute("warmUpIterations", warmUpIterations)
+        .toString();
+  }
+
+  private void warmUp(int iterations) {
+    if (iterations == 0) {
+      return;
+    }
+
+    log.debug("Warming up javac compiler pool with {} compilation(s)", iterations);
+    var start = System.nanoTime();
+
+    // Run the full pipeline rather than just javac, since this also primes the shared
+    // JVM environment snapshot and JAR indexes that later compilations will reuse.
+    try (var workspace = Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES)) {
+      workspace.createSourcePathPackage()
+          .createFile("jct", "warmup", "WarmUp.java")
+          .withContents(
+              "package jct.warmup;",
+              "public final class WarmUp {",
+              "  public static void main(String[] args) {",
+              "    System.out.println(\"Hello, World!\");",
+              "  }",
+              "}"
+          );
+
+      var jctCompiler = new JavacJctCompilerImpl();
+
+      for (var i = 0; i < iterations; ++i) {
+        var compilation = jctCompiler.compile(workspace);
+        if (compilation.isFailure()) {
+          log.warn("Warm-up compilation failed, javac may not be fully warmed up");
+          break;
+        }
+        ++warmUpIterations;
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Failed to warm up javac compiler pool, ignoring", ex);
+    }
+
+    warmUpDuration = Duration.ofNanos(System.nanoTime() - start);
+    log.info(
+        "Warmed up javac compiler pool with {} compilation(s) in {}ms",
+        warmUpIterations,
+        warmUpDuration.toMillis()
+    );
+  }
+}
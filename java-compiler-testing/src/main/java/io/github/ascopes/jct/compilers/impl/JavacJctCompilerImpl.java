@@ -46,6 +46,15 @@ public final class JavacJctCompilerImpl extends AbstractJctCompiler {
     super(NAME);
   }
 
+  private JavacJctCompilerImpl(JavacJctCompilerImpl original) {
+    super(original);
+  }
+
+  @Override
+  public JavacJctCompilerImpl snapshot() {
+    return new JavacJctCompilerImpl(this);
+  }
+
   @Override
   public String getDefaultRelease() {
     return Integer.toString(getLatestSupportedVersionInt());
@@ -58,10 +67,19 @@ public final class JavacJctCompilerImpl extends AbstractJctCompiler {
 
   @Override
   public Jsr199CompilerFactory getCompilerFactory() {
-    // RequireNonNull to ensure the return result is non-null, since the ToolProvider
-    // method is not annotated.
-    return () -> requireNonNull(ToolProvider.getSystemJavaCompiler(), 
-        "ToolProvider.getSystemJavaCompiler()");
+    return () -> {
+      // If the pool has been activated, reuse the shared compiler rather than looking up
+      // a new one.
+      var pool = JavacCompilerPool.getActive();
+      if (pool != null) {
+        return pool.getCompiler();
+      }
+
+      // RequireNonNull to ensure the return result is non-null, since the ToolProvider
+      // method is not annotated.
+      return requireNonNull(ToolProvider.getSystemJavaCompiler(),
+          "ToolProvider.getSystemJavaCompiler()");
+    };
   }
 
   @Override
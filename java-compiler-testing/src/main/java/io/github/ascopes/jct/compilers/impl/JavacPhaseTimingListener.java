@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import io.github.ascopes.jct.compilers.JctCompilationMetrics.Phase;
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.tools.JavaCompiler.CompilationTask;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Task listener that records the time {@code javac} spends in each compiler phase.
+ *
+ * <p>{@code javac} reports most phases once per file or class, and may report the start of a
+ * phase for several files before reporting any of them as finished. Time is therefore measured
+ * from the first start event of a phase until the matching number of finish events have been
+ * seen.
+ *
+ * <p>This class references the {@code jdk.compiler} module, which is only an optional
+ * dependency. Callers should be prepared for a {@link LinkageError} when that module is not
+ * available.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JavacPhaseTimingListener implements TaskListener {
+
+  /**
+   * Register a new listener on the given task, if it is a {@code javac} task.
+   *
+   * @param task    the task to register the listener on.
+   * @param metrics the collector to record phase times in.
+   * @return {@code true} if the listener was registered, or {@code false} if the task does not
+   *     support task listeners.
+   */
+  public static boolean register(CompilationTask task, JctCompilationMetricsCollector metrics) {
+    if (task instanceof JavacTask javacTask) {
+      javacTask.addTaskListener(new JavacPhaseTimingListener(metrics));
+      return true;
+    }
+
+    return false;
+  }
+
+  private final JctCompilationMetricsCollector metrics;
+  private final Map<TaskEvent.Kind, Long> startTimes;
+  private final Map<TaskEvent.Kind, Integer> depths;
+
+  JavacPhaseTimingListener(JctCompilationMetricsCollector metrics) {
+    this.metrics = requireNonNull(metrics, "metrics");
+    startTimes = new EnumMap<>(TaskEvent.Kind.class);
+    depths = new EnumMap<>(TaskEvent.Kind.class);
+  }
+
+  @Override
+  public void started(TaskEvent event) {
+    var kind = event.getKind();
+    if (depths.merge(kind, 1, Integer::sum) == 1) {
+      startTimes.put(kind, System.nanoTime());
+    }
+  }
+
+  @Override
+  public void finished(TaskEvent event) {
+    var kind = event.getKind();
+    var depth = depths.merge(kind, -1, Integer::sum);
+
+    if (depth > 0) {
+      return;
+    }
+
+    depths.remove(kind);
+    var start = startTimes.remove(kind);
+
+    if (start == null) {
+      // Finished without a corresponding start event, so there is nothing to measure.
+      return;
+    }
+
+    var duration = Duration.ofNanos(System.nanoTime() - start);
+
+    if (kind == TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND) {
+      metrics.recordAnnotationProcessingRoundTime(duration);
+      return;
+    }
+
+    var phase = toPhase(kind);
+    if (phase != null) {
+      metrics.recordPhaseTime(phase, duration);
+    }
+  }
+
+  @Nullable
+  private static Phase toPhase(TaskEvent.Kind kind) {
+    return switch (kind) {
+      case PARSE -> Phase.PARSE;
+      case ENTER -> Phase.ENTER;
+      case ANALYZE -> Phase.ANALYZE;
+      case GENERATE -> Phase.GENERATE;
+      case ANNOTATION_PROCESSING -> Phase.ANNOTATION_PROCESSING;
+      default -> null;
+    };
+  }
+}
@@ -19,21 +19,29 @@ import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.compilers.JctCompilationFactory;
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.diagnostics.LineRingWriter;
 import io.github.ascopes.jct.diagnostics.TeeWriter;
 import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
+import io.github.ascopes.jct.ex.JctCompilationAbortedException;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
 import io.github.ascopes.jct.utils.IterableUtils;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import javax.tools.StandardLocation;
@@ -65,21 +73,42 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
       JctFileManager fileManager,
       JavaCompiler jsr199Compiler,
       @Nullable Collection<String> classNames
+  ) {
+    return createCompilation(
+        flags,
+        fileManager,
+        jsr199Compiler,
+        classNames,
+        new JctCompilationMetricsCollector()
+    );
+  }
+
+  @Override
+  public JctCompilation createCompilation(
+      List<String> flags,
+      JctFileManager fileManager,
+      JavaCompiler jsr199Compiler,
+      @Nullable Collection<String> classNames,
+      JctCompilationMetricsCollector metrics
   ) {
     try {
       final var startPreparation = System.nanoTime();
       var compilationUnits = findFilteredCompilationUnits(fileManager, classNames);
+      metrics.recordCompilationUnitDiscoveryTime(timeDelta(startPreparation));
 
       if (compilationUnits.isEmpty()) {
         throw new JctCompilerException("No compilation units were found in the given workspace");
       }
 
-      // Note: we do not close stdout, it breaks test engines, especially IntelliJ.
-      var writer = TeeWriter.wrapOutputStream(System.out, compiler.getLogCharset());
+      var writer = createOutputWriter();
 
       var diagnosticListener = new TracingDiagnosticListener<>(
           /* enabled */ compiler.getDiagnosticLoggingMode() != LoggingMode.DISABLED,
-          /* stackTraces */ compiler.getDiagnosticLoggingMode() == LoggingMode.STACKTRACES
+          /* stackTraces */ compiler.getDiagnosticLoggingMode() == LoggingMode.STACKTRACES,
+          compiler.getDiagnosticStackTraceCaptureMode(),
+          compiler.getDiagnosticStackTraceLimit(),
+          compiler.getDiagnosticCallback(),
+          compiler.getDiagnosticRetentionPolicy()
       );
 
       // We work out the classes to annotation process rather than relying on the
@@ -99,8 +128,9 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
       }
 
       task.setLocale(compiler.getLocale());
+      registerPhaseTimings(task, metrics);
 
-      var preparationExecutionTimeMs = timeDeltaMs(startPreparation);
+      var preparationExecutionTimeMs = timeDelta(startPreparation).toMillis();
 
       log
           .atInfo()
@@ -111,12 +141,10 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
           .log();
 
       var startCompilation = System.nanoTime();
-      var success = requireNonNull(
-          task.call(),
-          () -> "Compiler " + compiler.getName()
-              + " task .call() method returned null unexpectedly!"
-      );
-      var compilationExecutionTimeMs = timeDeltaMs(startCompilation);
+      final var success = callTask(task);
+      var compilationExecutionTime = timeDelta(startCompilation);
+      var compilationExecutionTimeMs = compilationExecutionTime.toMillis();
+      metrics.recordCompilationTime(compilationExecutionTime);
 
       // Ensure we commit the writer contents to the wrapped output stream in full.
       writer.flush();
@@ -138,10 +166,13 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
           .arguments(flags)
           .compilationUnits(Set.copyOf(compilationUnits))
           .fileManager(fileManager)
-          .outputLines(writer.getContent().lines().toList())
+          .outputLinesSupplier(outputLinesOf(writer))
+          .discardedOutputLineCount(discardedLineCountOf(writer))
           .diagnostics(diagnosticListener.getDiagnostics())
+          .diagnosticCounts(diagnosticListener.getDiagnosticCounts())
           .success(success)
           .failOnWarnings(compiler.isFailOnWarnings())
+          .metrics(metrics.toMetrics())
           .build();
 
     } catch (JctCompilerException ex) {
@@ -155,6 +186,61 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
     }
   }
 
+  private Writer createOutputWriter() {
+    // Note: we do not close stdout, it breaks test engines, especially IntelliJ.
+    return switch (compiler.getOutputCaptureMode()) {
+      case DISCARD -> Writer.nullWriter();
+      case CAPTURE -> new StringWriter();
+      case TEE -> TeeWriter.wrapOutputStream(System.out, compiler.getLogCharset());
+      case CAPTURE_LAST_LINES -> new LineRingWriter(compiler.getOutputCaptureLineLimit());
+    };
+  }
+
+  private static Supplier<List<String>> outputLinesOf(Writer writer) {
+    // The writer is not written to again once the compilation completes, so we can defer
+    // copying its buffer until the output is first requested, if at all.
+    if (writer instanceof TeeWriter teeWriter) {
+      return () -> teeWriter.getContent().lines().toList();
+    }
+
+    if (writer instanceof StringWriter stringWriter) {
+      return () -> stringWriter.toString().lines().toList();
+    }
+
+    if (writer instanceof LineRingWriter lineRingWriter) {
+      return lineRingWriter::getLines;
+    }
+
+    return List::of;
+  }
+
+  private static long discardedLineCountOf(Writer writer) {
+    return writer instanceof LineRingWriter lineRingWriter
+        ? lineRingWriter.getDiscardedLineCount()
+        : 0;
+  }
+
+  private boolean callTask(CompilationTask task) {
+    try {
+      return requireNonNull(
+          task.call(),
+          () -> "Compiler " + compiler.getName()
+              + " task .call() method returned null unexpectedly!"
+      );
+    } catch (RuntimeException ex) {
+      // Compilers wrap exceptions raised by diagnostic listeners, so we have to look
+      // through the causes to find out if the compilation was deliberately aborted.
+      for (@Nullable Throwable cause = ex; cause != null; cause = cause.getCause()) {
+        if (cause instanceof JctCompilationAbortedException) {
+          log.info("{}", cause.getMessage());
+          return false;
+        }
+      }
+
+      throw ex;
+    }
+  }
+
   private Collection<JavaFileObject> findFilteredCompilationUnits(
       JctFileManager fileManager,
       @Nullable Collection<String> classNames
@@ -172,7 +258,7 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
     return filterCompilationUnitsByBinaryNames(compilationUnits, classNames);
   }
 
-  private Collection<JavaFileObject> findCompilationUnits(
+  static Collection<JavaFileObject> findCompilationUnits(
       JctFileManager fileManager
   ) throws IOException {
     // If we use modules, we may have more than one module location to search for.
@@ -241,7 +327,21 @@ public final class JctCompilationFactoryImpl implements JctCompilationFactory {
     return (PathFileObject) jfo;
   }
 
-  private static long timeDeltaMs(long startNanos) {
-    return (System.nanoTime() - startNanos) / 1_000_000;
+  private void registerPhaseTimings(
+      CompilationTask task,
+      JctCompilationMetricsCollector metrics
+  ) {
+    try {
+      if (!JavacPhaseTimingListener.register(task, metrics)) {
+        log.trace("Compiler {} does not report phase timings", compiler.getName());
+      }
+    } catch (LinkageError ex) {
+      // The jdk.compiler module is an optional dependency, so may not be readable.
+      log.debug("Cannot record compiler phase timings, jdk.compiler is not available", ex);
+    }
+  }
+
+  private static Duration timeDelta(long startNanos) {
+    return Duration.ofNanos(System.nanoTime() - startNanos);
   }
 }
@@ -19,11 +19,18 @@ import static io.github.ascopes.jct.utils.IterableUtils.requireNonNullValues;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationMetrics;
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.Lazy;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import org.jspecify.annotations.Nullable;
 
@@ -38,16 +45,21 @@ public final class JctCompilationImpl implements JctCompilation {
   private final List<String> arguments;
   private final boolean success;
   private final boolean failOnWarnings;
-  private final List<String> outputLines;
+  private final Lazy<List<String>> outputLines;
+  private final long discardedOutputLineCount;
   private final Set<JavaFileObject> compilationUnits;
   private final List<TraceDiagnostic<JavaFileObject>> diagnostics;
+  private final Map<Kind, Long> diagnosticCounts;
   private final JctFileManager fileManager;
+  private final JctCompilationMetrics metrics;
 
   private JctCompilationImpl(Builder builder) {
     requireNonNullValues(builder.arguments, "arguments");
     requireNonNull(builder.success, "success");
     requireNonNull(builder.failOnWarnings, "failOnWarnings");
-    requireNonNullValues(builder.outputLines, "outputLines");
+    if (builder.outputLinesSupplier == null) {
+      requireNonNullValues(builder.outputLines, "outputLines");
+    }
     requireNonNullValues(builder.compilationUnits, "compilationUnits");
     requireNonNullValues(builder.diagnostics, "diagnostics");
     requireNonNull(builder.fileManager, "fileManager");
@@ -55,10 +67,15 @@ public final class JctCompilationImpl implements JctCompilation {
     arguments = List.copyOf(builder.arguments);
     success = builder.success;
     failOnWarnings = builder.failOnWarnings;
-    outputLines = List.copyOf(builder.outputLines);
+    outputLines = createOutputLines(builder);
+    discardedOutputLineCount = builder.discardedOutputLineCount;
     compilationUnits = Set.copyOf(builder.compilationUnits);
     diagnostics = List.copyOf(builder.diagnostics);
+    diagnosticCounts = builder.diagnosticCounts == null
+        ? countDiagnostics(diagnostics)
+        : Map.copyOf(builder.diagnosticCounts);
     fileManager = builder.fileManager;
+    metrics = builder.metrics;
   }
 
   @Override
@@ -78,7 +95,12 @@ public final class JctCompilationImpl implements JctCompilation {
 
   @Override
   public List<String> getOutputLines() {
-    return outputLines;
+    return outputLines.access();
+  }
+
+  @Override
+  public long getDiscardedOutputLineCount() {
+    return discardedOutputLineCount;
   }
 
   @Override
@@ -91,11 +113,21 @@ public final class JctCompilationImpl implements JctCompilation {
     return diagnostics;
   }
 
+  @Override
+  public Map<Kind, Long> getDiagnosticCounts() {
+    return diagnosticCounts;
+  }
+
   @Override
   public JctFileManager getFileManager() {
     return fileManager;
   }
 
+  @Override
+  public JctCompilationMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public String toString() {
     return new ToStringBuilder(this)
@@ -106,6 +138,28 @@ public final class JctCompilationImpl implements JctCompilation {
         .toString();
   }
 
+  private static Lazy<List<String>> createOutputLines(Builder builder) {
+    var outputLinesSupplier = builder.outputLinesSupplier;
+
+    if (outputLinesSupplier != null) {
+      // Splitting large amounts of output is expensive, so defer it until it is needed.
+      return new Lazy<>(() -> List.copyOf(outputLinesSupplier.get()));
+    }
+
+    var outputLines = List.copyOf(requireNonNull(builder.outputLines));
+    return new Lazy<>(() -> outputLines);
+  }
+
+  private static Map<Kind, Long> countDiagnostics(
+      List<TraceDiagnostic<JavaFileObject>> diagnostics
+  ) {
+    return diagnostics.stream()
+        .collect(Collectors.collectingAndThen(
+            Collectors.groupingBy(TraceDiagnostic::getKind, Collectors.counting()),
+            Map::copyOf
+        ));
+  }
+
   /**
    * Initialize a builder for a new {@link JctCompilationImpl} object.
    *
@@ -127,18 +181,26 @@ public final class JctCompilationImpl implements JctCompilation {
     private @Nullable Boolean failOnWarnings;
     private @Nullable Boolean success;
     private @Nullable List<String> outputLines;
+    private @Nullable Supplier<? extends List<String>> outputLinesSupplier;
+    private long discardedOutputLineCount;
     private @Nullable Set<JavaFileObject> compilationUnits;
     private @Nullable List<TraceDiagnostic<JavaFileObject>> diagnostics;
+    private @Nullable Map<Kind, Long> diagnosticCounts;
     private @Nullable JctFileManager fileManager;
+    private JctCompilationMetrics metrics;
 
     private Builder() {
       arguments = null;
       failOnWarnings = null;
       success = null;
       outputLines = null;
+      outputLinesSupplier = null;
+      discardedOutputLineCount = 0;
       compilationUnits = null;
       diagnostics = null;
+      diagnosticCounts = null;
       fileManager = null;
+      metrics = new JctCompilationMetricsCollector().toMetrics();
     }
 
     /**
@@ -182,6 +244,42 @@ public final class JctCompilationImpl implements JctCompilation {
      */
     public Builder outputLines(List<String> outputLines) {
       this.outputLines = requireNonNull(outputLines, "outputLines");
+      outputLinesSupplier = null;
+      return this;
+    }
+
+    /**
+     * Set a supplier of the output lines, which will only be called when the output lines are
+     * first requested.
+     *
+     * <p>This replaces any output lines that were previously set.
+     *
+     * @param outputLinesSupplier the supplier of the output lines.
+     * @return this builder.
+     * @since 6.1.0
+     */
+    public Builder outputLinesSupplier(Supplier<? extends List<String>> outputLinesSupplier) {
+      this.outputLinesSupplier = requireNonNull(outputLinesSupplier, "outputLinesSupplier");
+      outputLines = null;
+      return this;
+    }
+
+    /**
+     * Set the number of lines of output that were discarded rather than captured.
+     *
+     * <p>If this is not set, then it defaults to zero.
+     *
+     * @param discardedOutputLineCount the number of discarded lines.
+     * @return this builder.
+     * @throws IllegalArgumentException if the count is negative.
+     * @since 6.1.0
+     */
+    public Builder discardedOutputLineCount(long discardedOutputLineCount) {
+      if (discardedOutputLineCount < 0) {
+        throw new IllegalArgumentException("discardedOutputLineCount cannot be negative");
+      }
+
+      this.discardedOutputLineCount = discardedOutputLineCount;
       return this;
     }
 
@@ -209,6 +307,21 @@ public final class JctCompilationImpl implements JctCompilation {
       return this;
     }
 
+    /**
+     * Set the number of diagnostics of each kind that were reported.
+     *
+     * <p>If this is not set, then the counts will be derived from the
+     * {@link #diagnostics(List) diagnostics}.
+     *
+     * @param diagnosticCounts the diagnostic counts.
+     * @return this builder.
+     * @since 6.1.0
+     */
+    public Builder diagnosticCounts(Map<Kind, Long> diagnosticCounts) {
+      this.diagnosticCounts = requireNonNull(diagnosticCounts, "diagnosticCounts");
+      return this;
+    }
+
     /**
      * Set the file manager.
      *
@@ -222,6 +335,19 @@ public final class JctCompilationImpl implements JctCompilation {
       return this;
     }
 
+    /**
+     * Set the metrics.
+     *
+     * <p>If this is not set, then empty metrics will be used.
+     *
+     * @param metrics the metrics.
+     * @return this builder.
+     */
+    public Builder metrics(JctCompilationMetrics metrics) {
+      this.metrics = requireNonNull(metrics, "metrics");
+      return this;
+    }
+
     /**
      * Build this builder and output the created {@link JctCompilationImpl}.
      *
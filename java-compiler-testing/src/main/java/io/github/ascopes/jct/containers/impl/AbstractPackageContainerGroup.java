@@ -22,12 +22,16 @@ import static java.util.Objects.requireNonNull;
 import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.ex.JctIllegalInputException;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
 import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.utils.FileUtils;
 import io.github.ascopes.jct.utils.Lazy;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -40,9 +44,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -52,11 +63,36 @@ import org.jspecify.annotations.Nullable;
  * which is needed to facilitate the Java compiler's distributed class path, module handling, and
  * other important features.
  *
+ * <p>Input lookups are routed using a table of which packages each container holds, so that
+ * containers that cannot hold the package being looked up are skipped. Containers that do not
+ * have a fixed set of packages (such as directories) are always consulted. Containers are still
+ * consulted in the order they were added, so the first match is always the same as if every
+ * container were consulted in turn.
+ *
+ * <p>Listing file objects keeps a running estimate of how long each container takes to list.
+ * Once a group holds enough containers that a listing is expected to be slow, the containers are
+ * listed in parallel on the common {@link ForkJoinPool} instead. Small or fast groups are always
+ * listed on the calling thread.
+ *
+ * <p>Class loaders for the class path are layered. Any entries inherited from the running JVM
+ * are served by a parent class loader that is shared with every other group inheriting the same
+ * entries, and the remaining containers are served by a child class loader that is closed along
+ * with this group.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
 public abstract class AbstractPackageContainerGroup implements PackageContainerGroup {
 
+  // Groups with fewer containers than this are always listed on the calling thread.
+  static final int PARALLEL_LIST_MIN_CONTAINERS = 4;
+
+  // The estimated duration of a sequential listing must reach this before we list in parallel.
+  static final long PARALLEL_LIST_MIN_NANOS = 1_000_000L;
+
+  // Weight of each new sample in the moving average of the listing cost, as a power of two.
+  private static final int LIST_COST_SMOOTHING_SHIFT = 3;
+
   // https://docs.oracle.com/cd/E19830-01/819-4712/ablgz/index.html
   private static final Set<String> ARCHIVE_EXTENSIONS = Set.of(
       ".ear",
@@ -71,8 +107,14 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
    */
   private final Location location;
   private final String release;
+  private final boolean directoryIndexing;
+  private final boolean contentCaching;
   private final Set<Container> containers;
   private final Lazy<ClassLoader> classLoaderLazy;
+  private final Lazy<PackageRoutingTable> routingTableLazy;
+  private final LongAdder routingHits;
+  private final LongAdder routingMisses;
+  private final AtomicLong listNanosPerContainer;
 
   /**
    * Initialize this container group.
@@ -81,11 +123,52 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
    * @param release  the release to use for multi-release JARs.
    */
   protected AbstractPackageContainerGroup(Location location, String release) {
+    this(location, release, false);
+  }
+
+  /**
+   * Initialize this container group.
+   *
+   * @param location          the location being represented.
+   * @param release           the release to use for multi-release JARs.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @since 6.1.0
+   */
+  protected AbstractPackageContainerGroup(
+      Location location,
+      String release,
+      boolean directoryIndexing
+  ) {
+    this(location, release, directoryIndexing, false);
+  }
+
+  /**
+   * Initialize this container group.
+   *
+   * @param location          the location being represented.
+   * @param release           the release to use for multi-release JARs.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @param contentCaching    whether to cache the decoded content of files in directories that
+   *                          are added to this group. This is ignored for output locations.
+   * @since 6.1.0
+   */
+  protected AbstractPackageContainerGroup(
+      Location location,
+      String release,
+      boolean directoryIndexing,
+      boolean contentCaching
+  ) {
     this.location = requireNonNull(location, "location");
     this.release = requireNonNull(release, "release");
+    this.directoryIndexing = directoryIndexing;
+    this.contentCaching = contentCaching && !location.isOutputLocation();
 
     containers = synchronizedSet(new LinkedHashSet<>());
     classLoaderLazy = new Lazy<>(this::createClassLoader);
+    routingTableLazy = new Lazy<>(() -> new PackageRoutingTable(getPackages()));
+    routingHits = new LongAdder();
+    routingMisses = new LongAdder();
+    listNanosPerContainer = new AtomicLong(-1);
   }
 
   @Override
@@ -99,6 +182,7 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   @Override
   public void addPackage(Container container) {
     containers.add(container);
+    routingTableLazy.destroy();
   }
 
   @Override
@@ -113,7 +197,10 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
 
     var container = isArchive
         ? new JarContainerImpl(getLocation(), path, release)
-        : new PathWrappingContainerImpl(getLocation(), path);
+        : PathWrappingContainerImpl.builder(getLocation(), path)
+            .directoryIndexing(directoryIndexing)
+            .contentCaching(contentCaching)
+            .build();
 
     addPackage(container);
   }
@@ -128,10 +215,21 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   @Override
   public void close() throws IOException {
     // Close everything in a best-effort fashion.
-    classLoaderLazy.destroy();
-
     var exceptions = new ArrayList<IOException>();
 
+    try {
+      classLoaderLazy.ifInitialized(classLoader -> {
+        if (classLoader instanceof Closeable closeable) {
+          closeable.close();
+        }
+      });
+    } catch (IOException ex) {
+      exceptions.add(ex);
+    }
+
+    classLoaderLazy.destroy();
+    routingTableLazy.destroy();
+
     for (var container : containers) {
       try {
         container.close();
@@ -170,7 +268,7 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   @Nullable
   @Override
   public PathFileObject getFileForInput(String packageName, String relativeName) {
-    for (var container : containers) {
+    for (var container : routePackage(packageName)) {
       var file = container.getFileForInput(packageName, relativeName);
       if (file != null) {
         return file;
@@ -196,7 +294,9 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   @Nullable
   @Override
   public PathFileObject getJavaFileForInput(String className, Kind kind) {
-    for (var container : containers) {
+    var packageName = FileUtils.binaryNameToPackageName(className);
+
+    for (var container : routePackage(packageName)) {
       var file = container.getJavaFileForInput(className, kind);
       if (file != null) {
         return file;
@@ -234,6 +334,48 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
     return release;
   }
 
+  /**
+   * Get the number of input lookups that were routed to containers known to hold the package
+   * or file being looked up.
+   *
+   * @return the routing hit count.
+   * @since 6.1.0
+   */
+  public final long getRoutingHitCount() {
+    return routingHits.sum();
+  }
+
+  /**
+   * Get the number of input lookups that no container with a known set of packages could
+   * satisfy, meaning only containers without a fixed set of packages were consulted.
+   *
+   * @return the routing miss count.
+   * @since 6.1.0
+   */
+  public final long getRoutingMissCount() {
+    return routingMisses.sum();
+  }
+
+  /**
+   * Determine whether directories added to this group will be indexed.
+   *
+   * @return {@code true} if directory indexing is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public final boolean isDirectoryIndexing() {
+    return directoryIndexing;
+  }
+
+  /**
+   * Determine whether the content of files in directories added to this group will be cached.
+   *
+   * @return {@code true} if content caching is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public final boolean isContentCaching() {
+    return contentCaching;
+  }
+
   @Override
   public <S> ServiceLoader<S> getServiceLoader(Class<S> service) {
     if (location instanceof ModuleLocation) {
@@ -246,7 +388,11 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
   @Nullable
   @Override
   public String inferBinaryName(PathFileObject fileObject) {
-    for (var container : containers) {
+    var fileSystem = fileObject.getAbsolutePath().getFileSystem();
+    var routingTable = routingTableLazy.access();
+    recordRouting(routingTable.isFileSystemRouted(fileSystem));
+
+    for (var container : routingTable.getContainersForFileSystem(fileSystem)) {
       var name = container.inferBinaryName(fileObject);
       if (name != null) {
         return name;
@@ -267,15 +413,71 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
       Set<? extends Kind> kinds,
       boolean recurse
   ) throws IOException {
-    // XXX: could this be run in parallel? This probably won't make much difference
-    // for in-memory paths, but may improve performance for disk-based paths.
+    // Take a snapshot, as iterating over the synchronized set directly is not thread-safe.
+    var packages = getPackages();
+    var containerCount = packages.size();
+
+    if (!shouldListInParallel(containerCount)) {
+      var collection = new HashSet<JavaFileObject>();
+      var start = System.nanoTime();
+      for (var container : packages) {
+        container.listFileObjects(packageName, kinds, recurse, collection);
+      }
+      recordListCost(System.nanoTime() - start, containerCount);
+      return Collections.unmodifiableSet(collection);
+    }
+
+    // Submit to the common pool explicitly. If we used a parallel stream, then callers running
+    // within another fork-join pool (such as JUnit's) would run the tasks in that pool instead.
+    // Failures are captured by the tasks themselves, as the pool will otherwise rewrap them.
+    var totalNanos = new LongAdder();
+    var tasks = new ArrayList<Callable<Listing>>(containerCount);
+
+    for (var container : packages) {
+      tasks.add(() -> {
+        var start = System.nanoTime();
+        var listing = new Listing();
+        try {
+          container.listFileObjects(packageName, kinds, recurse, listing.files);
+        } catch (IOException | RuntimeException ex) {
+          listing.failure = ex;
+        }
+        totalNanos.add(System.nanoTime() - start);
+        return listing;
+      });
+    }
+
+    // Futures are returned in the same order as the tasks, so failures are reported in container
+    // order regardless of which task happened to fail first.
     var collection = new HashSet<JavaFileObject>();
-    for (var container : containers) {
-      container.listFileObjects(packageName, kinds, recurse, collection);
+    var failures = new ArrayList<Exception>();
+    for (var future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+      var listing = awaitListing(future);
+      collection.addAll(listing.files);
+      if (listing.failure != null) {
+        failures.add(listing.failure);
+      }
     }
+
+    rethrowFirstFailure(failures);
+    recordListCost(totalNanos.sum(), containerCount);
     return Collections.unmodifiableSet(collection);
   }
 
+  /**
+   * Get the estimated time it takes to list the file objects in a single container in this
+   * group.
+   *
+   * <p>This is a moving average across recent calls to {@link #listFileObjects}, and is used to
+   * decide whether to list containers in parallel.
+   *
+   * @return the estimated time in nanoseconds, or {@code -1} if nothing has been listed yet.
+   * @since 6.1.0
+   */
+  public final long getEstimatedListNanosPerContainer() {
+    return listNanosPerContainer.get();
+  }
+
   /**
    * List all files in the group.
    *
@@ -292,12 +494,107 @@ public abstract class AbstractPackageContainerGroup implements PackageContainerG
     return Collections.unmodifiableMap(multimap);
   }
 
+  private boolean shouldListInParallel(int containerCount) {
+    return containerCount >= PARALLEL_LIST_MIN_CONTAINERS
+        && ForkJoinPool.getCommonPoolParallelism() > 1
+        && listNanosPerContainer.get() * containerCount >= PARALLEL_LIST_MIN_NANOS;
+  }
+
+  private static Listing awaitListing(Future<Listing> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while listing file objects");
+    } catch (ExecutionException ex) {
+      // Tasks capture their own exceptions, so only errors should reach this point.
+      if (ex.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException("Unexpected failure listing file objects", ex.getCause());
+    }
+  }
+
+  private static void rethrowFirstFailure(List<Exception> failures) throws IOException {
+    var iterator = failures.iterator();
+
+    if (!iterator.hasNext()) {
+      return;
+    }
+
+    var first = iterator.next();
+    iterator.forEachRemaining(first::addSuppressed);
+
+    if (first instanceof IOException ioException) {
+      throw ioException;
+    }
+
+    throw (RuntimeException) first;
+  }
+
+  private void recordListCost(long totalNanos, int containerCount) {
+    if (containerCount == 0) {
+      return;
+    }
+
+    var sample = totalNanos / containerCount;
+    listNanosPerContainer.getAndUpdate(
+        estimate -> estimate < 0
+            ? sample
+            : estimate + ((sample - estimate) >> LIST_COST_SMOOTHING_SHIFT)
+    );
+  }
+
+  private List<Container> routePackage(String packageName) {
+    var routingTable = routingTableLazy.access();
+    recordRouting(routingTable.isPackageRouted(packageName));
+    return routingTable.getContainersForPackage(packageName);
+  }
+
+  private void recordRouting(boolean hit) {
+    if (hit) {
+      routingHits.increment();
+    } else {
+      routingMisses.increment();
+    }
+  }
+
   /**
    * Create a classloader and return it.
    *
+   * <p>If this is the class path, then any entries inherited from the running JVM are served by
+   * a shared parent class loader, rather than being loaded again by the returned class loader.
+   *
    * @return the classloader.
    */
   protected ClassLoader createClassLoader() {
-    return new PackageContainerGroupUrlClassLoader(this);
+    if (location != StandardLocation.CLASS_PATH) {
+      return new PackageContainerGroupUrlClassLoader(this);
+    }
+
+    var inheritedRoots = Set.copyOf(JvmEnvironmentSnapshot.current().getClassPath());
+    var sharedRoots = new ArrayList<PathRoot>();
+    var ownContainers = new ArrayList<Container>();
+
+    for (var container : getPackages()) {
+      if (inheritedRoots.contains(container.getPathRoot())) {
+        sharedRoots.add(container.getPathRoot());
+      } else {
+        ownContainers.add(container);
+      }
+    }
+
+    if (sharedRoots.isEmpty()) {
+      return new PackageContainerGroupUrlClassLoader(this);
+    }
+
+    var parent = InheritedClassPathClassLoaders.getSharedClassLoader(sharedRoots);
+    return new PackageContainerGroupUrlClassLoader(this, ownContainers, parent);
+  }
+
+  private static final class Listing {
+
+    private final List<JavaFileObject> files = new ArrayList<>();
+    private @Nullable Exception failure = null;
   }
 }
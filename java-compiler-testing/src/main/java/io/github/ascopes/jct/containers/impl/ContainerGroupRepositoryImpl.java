@@ -43,6 +43,8 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
   private static final Logger log = LoggerFactory.getLogger(ContainerGroupRepositoryImpl.class);
 
   private final String release;
+  private final boolean directoryIndexing;
+  private final boolean contentCaching;
   private final Map<Location, PackageContainerGroup> packageInputs;
   private final Map<Location, ModuleContainerGroup> moduleInputs;
   private final Map<Location, OutputContainerGroup> outputs;
@@ -53,7 +55,37 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
    * @param release the Java release version to use for source code management.
    */
   public ContainerGroupRepositoryImpl(String release) {
+    this(release, false);
+  }
+
+  /**
+   * Initialise this repository.
+   *
+   * @param release           the Java release version to use for source code management.
+   * @param directoryIndexing whether to index directories that are added to this repository.
+   * @since 6.1.0
+   */
+  public ContainerGroupRepositoryImpl(String release, boolean directoryIndexing) {
+    this(release, directoryIndexing, false);
+  }
+
+  /**
+   * Initialise this repository.
+   *
+   * @param release           the Java release version to use for source code management.
+   * @param directoryIndexing whether to index directories that are added to this repository.
+   * @param contentCaching    whether to cache the decoded content of files in directories on
+   *                          input locations. Output locations are never cached.
+   * @since 6.1.0
+   */
+  public ContainerGroupRepositoryImpl(
+      String release,
+      boolean directoryIndexing,
+      boolean contentCaching
+  ) {
     this.release = release;
+    this.directoryIndexing = directoryIndexing;
+    this.contentCaching = contentCaching;
     packageInputs = new ConcurrentHashMap<>();
     moduleInputs = new ConcurrentHashMap<>();
     outputs = new ConcurrentHashMap<>();
@@ -289,6 +321,26 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
     return release;
   }
 
+  /**
+   * Determine whether directories added to this repository will be indexed.
+   *
+   * @return {@code true} if directory indexing is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isDirectoryIndexing() {
+    return directoryIndexing;
+  }
+
+  /**
+   * Determine whether the content of files on input locations in this repository is cached.
+   *
+   * @return {@code true} if content caching is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isContentCaching() {
+    return contentCaching;
+  }
+
   /**
    * Determine if the given location is available in this repository.
    *
@@ -409,14 +461,24 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
   private PackageContainerGroup getOrCreatePackageContainerGroup(Location location) {
     return packageInputs.computeIfAbsent(
         location,
-        packageLocation -> new PackageContainerGroupImpl(packageLocation, release)
+        packageLocation -> new PackageContainerGroupImpl(
+            packageLocation,
+            release,
+            directoryIndexing,
+            contentCaching
+        )
     );
   }
 
   private ModuleContainerGroup getOrCreateModuleContainerGroup(Location location) {
     return moduleInputs.computeIfAbsent(
         location,
-        moduleLocation -> new ModuleContainerGroupImpl(moduleLocation, release)
+        moduleLocation -> new ModuleContainerGroupImpl(
+            moduleLocation,
+            release,
+            directoryIndexing,
+            contentCaching
+        )
     );
   }
 
@@ -428,7 +490,11 @@ public final class ContainerGroupRepositoryImpl implements AutoCloseable {
   private OutputContainerGroup getOrCreateOutputContainerGroup(Location location) {
     return outputs.computeIfAbsent(
         location,
-        outputLocation -> new OutputContainerGroupImpl(outputLocation, release)
+        outputLocation -> new OutputContainerGroupImpl(
+            outputLocation,
+            release,
+            directoryIndexing
+        )
     );
   }
 }
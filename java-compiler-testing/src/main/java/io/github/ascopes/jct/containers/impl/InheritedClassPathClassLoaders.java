@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of shared class loaders for class path entries that are inherited from the running JVM.
+ *
+ * <p>Inherited entries never change between compilations, so a single parallel-capable loader
+ * is shared between every container group with the same entries, keyed by the URIs of those
+ * entries in order. This stops the same classes being defined again for each compilation.
+ *
+ * <p>Loaders are never closed by this cache, since child loaders may still be delegating to
+ * them. Loaders that fall out of the cache are left for the garbage collector.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class InheritedClassPathClassLoaders {
+
+  // The fingerprint only changes if the JVM class path changes, so this rarely fills up.
+  static final int MAX_CACHED_LOADERS = 8;
+
+  private static final Logger log = LoggerFactory.getLogger(InheritedClassPathClassLoaders.class);
+  private static final Lock LOCK = new ReentrantLock();
+  private static final Map<List<URI>, URLClassLoader> LOADERS = new LinkedHashMap<>(
+      MAX_CACHED_LOADERS, 0.75f, true
+  ) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<URI>, URLClassLoader> eldest) {
+      return size() > MAX_CACHED_LOADERS;
+    }
+  };
+
+  private InheritedClassPathClassLoaders() {
+    // Disallow initialisation.
+  }
+
+  /**
+   * Get the shared class loader for the given inherited class path entries, creating it first
+   * if it does not yet exist.
+   *
+   * @param roots the inherited class path entries, in order.
+   * @return the shared class loader.
+   */
+  static ClassLoader getSharedClassLoader(List<? extends PathRoot> roots) {
+    // URIs are compared textually, unlike URLs which may perform host name lookups.
+    var fingerprint = roots.stream()
+        .map(PathRoot::getUri)
+        .toList();
+
+    LOCK.lock();
+    try {
+      return LOADERS.computeIfAbsent(fingerprint, key -> createSharedClassLoader(roots));
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
+  /**
+   * Get the number of shared class loaders that are currently cached.
+   *
+   * @return the number of cached class loaders.
+   */
+  static int getCachedLoaderCount() {
+    LOCK.lock();
+    try {
+      return LOADERS.size();
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
+  private static URLClassLoader createSharedClassLoader(List<? extends PathRoot> roots) {
+    log.debug("Creating shared class loader for {} inherited class path entries", roots.size());
+
+    var urls = roots.stream()
+        .map(PathRoot::getUrl)
+        .toArray(URL[]::new);
+
+    // URLClassLoader is registered as parallel capable itself.
+    return new URLClassLoader("Inherited class path", urls, ClassLoader.getSystemClassLoader());
+  }
+}
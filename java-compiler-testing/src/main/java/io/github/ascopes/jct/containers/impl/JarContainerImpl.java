@@ -15,10 +15,10 @@
  */
 package io.github.ascopes.jct.containers.impl;
 
-import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.containers.impl.JarIndexCache.JarIndex;
 import io.github.ascopes.jct.ex.JctNotImplementedException;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
 import io.github.ascopes.jct.filemanagers.impl.PathFileObjectImpl;
@@ -26,27 +26,18 @@ import io.github.ascopes.jct.utils.FileUtils;
 import io.github.ascopes.jct.utils.Lazy;
 import io.github.ascopes.jct.utils.ToStringBuilder;
 import io.github.ascopes.jct.workspaces.PathRoot;
-import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.io.IOException;
 import java.lang.module.ModuleFinder;
-import java.nio.file.FileSystem;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.ProviderNotFoundException;
-import java.nio.file.spi.FileSystemProvider;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import org.jspecify.annotations.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Container that wraps a JAR path and allows reading the contents of the JAR in-memory lazily.
@@ -55,31 +46,22 @@ import org.slf4j.LoggerFactory;
  * containers can exist pointing to the same physical JAR at once without concurrency issues
  * occurring.
  *
- * <p>The JAR will be opened lazily when needed, and then kept open until {@link #close() closed}
- * explicitly. If something goes wrong in this lazy-loading process, then methods may throw an
- * undocumented {@link java.io.UncheckedIOException}.
+ * <p>The JAR will be opened lazily when needed. The resulting index is shared with other
+ * containers for the same JAR via the {@link JarIndexCache}, and is released again once this
+ * container is {@link #close() closed} explicitly. A closed container cannot be reopened. If
+ * something goes wrong in this lazy-loading process, then methods may throw an undocumented
+ * {@link java.io.UncheckedIOException}.
  *
  * @author Ashley Scopes
  * @since 0.0.1
  */
 public final class JarContainerImpl implements Container {
 
-  private static final Logger log = LoggerFactory.getLogger(JarContainerImpl.class);
-
-  private static final Lazy<FileSystemProvider> JAR_FS_PROVIDER = new Lazy<>(() -> {
-    for (var fsProvider : FileSystemProvider.installedProviders()) {
-      if (fsProvider.getScheme().equals("jar")) {
-        return fsProvider;
-      }
-    }
-
-    throw new ProviderNotFoundException("jar");
-  });
-
   private final Location location;
   private final PathRoot jarPath;
   private final String release;
-  private final Lazy<PackageFileSystemHolder> holder;
+  private final Lazy<JarIndex> holder;
+  private final AtomicBoolean closed;
 
   /**
    * Initialize this JAR container.
@@ -89,18 +71,47 @@ public final class JarContainerImpl implements Container {
    * @param release  the release version to use for {@code Multi-Release} JARs.
    */
   public JarContainerImpl(Location location, PathRoot jarPath, String release) {
+    this(location, jarPath, release, JarIndexCache.getInstance());
+  }
+
+  /**
+   * Initialize this JAR container.
+   *
+   * @param location   the location.
+   * @param jarPath    the path to the JAR to open.
+   * @param release    the release version to use for {@code Multi-Release} JARs.
+   * @param indexCache the cache to acquire the JAR index from.
+   * @since 6.1.0
+   */
+  public JarContainerImpl(
+      Location location,
+      PathRoot jarPath,
+      String release,
+      JarIndexCache indexCache
+  ) {
     this.location = requireNonNull(location, "location");
     this.jarPath = requireNonNull(jarPath, "jarPath");
     this.release = requireNonNull(release, "release");
-
-    // This will throw if, for example, the file doesn't exist or if the system encounters an IO
-    // error of some description. Both of these cases should be unexpected, however.
-    holder = new Lazy<>(() -> uncheckedIo(PackageFileSystemHolder::new));
+    requireNonNull(indexCache, "indexCache");
+
+    // The index is shared with other containers where possible, so we only acquire it once
+    // we first need it, and release it again when we are closed.
+    closed = new AtomicBoolean(false);
+    holder = new Lazy<>(() -> {
+      if (closed.get()) {
+        throw new IllegalStateException("JAR container for " + jarPath.getUri() + " is closed");
+      }
+      return indexCache.acquire(jarPath, release);
+    });
   }
 
   @Override
   public void close() throws IOException {
-    holder.ifInitialized(PackageFileSystemHolder::close);
+    // Once closed, the lazy holder refuses to acquire a new lease on the index.
+    if (closed.compareAndSet(false, true)) {
+      holder.ifInitialized(JarIndex::release);
+      holder.destroy();
+    }
   }
 
   @Override
@@ -192,6 +203,18 @@ public final class JarContainerImpl implements Container {
     return jarPath.toString();
   }
 
+  /**
+   * Get the binary names of all packages in this JAR.
+   *
+   * <p>This will open the JAR if it is not already open.
+   *
+   * @return the package names.
+   * @since 6.1.0
+   */
+  public Set<String> getPackageNames() {
+    return holder.access().getPackageNames();
+  }
+
   @Override
   public PathRoot getPathRoot() {
     return jarPath;
@@ -247,113 +270,7 @@ public final class JarContainerImpl implements Container {
     return new ToStringBuilder(this)
         .attribute("uri", jarPath.getUri())
         .attribute("location", location)
+        .attribute("release", release)
         .toString();
   }
-
-  /**
-   * Wrapper around a set of packages and a file system that can be opened lazily.
-   */
-  private final class PackageFileSystemHolder {
-
-    private final FileSystem fileSystem;
-    private final PathRoot rootDirectoryPathRoot;
-    private final Lazy<Map<String, PathRoot>> packages;
-    private final Lazy<Collection<Path>> files;
-
-    private PackageFileSystemHolder() throws IOException {
-      var actualJarPath = jarPath.getPath();
-      log.trace("Preparing virtual file system holder for JAR {}", actualJarPath);
-
-      // It turns out that we can open more than one ZIP file system pointing to the
-      // same file at once, but we cannot do this with the JAR file system itself.
-      // This is an issue since it hinders our ability to run tests in parallel where multiple tests
-      // might be trying to read the same JAR at once.
-      //
-      // This means we have to do a little of hacking around to get this to work how we need it to.
-      // Remember that JARs are just glorified zip folders.
-      //
-      // Set the multi-release flag to enable reading META-INF/release/* files correctly if the
-      // MANIFEST.MF specifies the Multi-Release entry as true.
-      // Turns out the JDK implementation of the ZipFileSystem handles this for us.
-      Map<String, Object> env = Map.of(
-          "releaseVersion", release,
-          "multi-release", release
-      );
-
-      // So, for some reason. I cannot make more than one instance of a ZipFileSystem
-      // if I pass a URI in here. If I pass a Path in here instead, then I can make
-      // multiple copies of it in memory. No idea why this is the way it is, but it
-      // appears to be how the JavacFileManager in the JDK can make itself run in parallel
-      // safely.
-      fileSystem = JAR_FS_PROVIDER.access().newFileSystem(actualJarPath, env);
-
-      // Always expect just one root directory in a ZIP archive.
-      var rootDirectory = fileSystem.getRootDirectories().iterator().next();
-      rootDirectoryPathRoot = new WrappingDirectoryImpl(rootDirectory);
-
-      // We now compute the package mapping and the file mapping only when we first attempt
-      // to access their values. This prevents creating additional overhead by indexing each JAR
-      // as soon as we attempt to inspect any attribute within it, since we may not ever need to
-      // process the actual values here.
-      
-      packages = new Lazy<>(() -> uncheckedIo(() -> {
-        log.trace("Indexing packages in JAR {}...", actualJarPath);
-        try (var walker = Files.walk(rootDirectory)) {
-          return walker
-              .filter(Files::isDirectory)
-              .map(rootDirectory::relativize)
-              .collect(Collectors.toUnmodifiableMap(
-                  FileUtils::pathToBinaryName,
-                  path -> new WrappingDirectoryImpl(rootDirectory.resolve(path)),
-                  (a, b) -> {
-                    log.trace(
-                        "Found duplicate entry {}. This copy will be silently dropped.", 
-                        b
-                    );
-                    return a;
-                  }
-              ));
-        }
-      }));
-
-      files = new Lazy<>(() -> uncheckedIo(() -> {
-        log.trace("Indexing files in JAR {}...", actualJarPath);
-        var allPaths = new ArrayList<Path>(6);
-
-        // We have to do this eagerly all at once as the walker streams must be closed to
-        // prevent resource leakage elsewhere.
-        try (var walker = Files.walk(rootDirectory)) {
-          walker.forEach(allPaths::add);
-        }
-
-        return Collections.unmodifiableList(allPaths);
-      }));
-    }
-
-    private void close() throws IOException {
-      log.trace(
-          "Closing JAR file system handle ({} @ {})",
-          jarPath.getUri(),
-          fileSystem.getRootDirectories()
-      );
-      fileSystem.close();
-    }
-
-    @Nullable
-    private PathRoot getPackage(String name) {
-      return packages.access().get(name);
-    }
-
-    private PathRoot getPathRoot() {
-      return rootDirectoryPathRoot;
-    }
-
-    private Path getPath() {
-      return rootDirectoryPathRoot.getPath();
-    }
-
-    private Collection<Path> getAllFiles() {
-      return files.access();
-    }
-  }
 }
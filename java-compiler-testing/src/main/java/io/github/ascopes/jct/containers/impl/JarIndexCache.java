@@ -0,0 +1,573 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.FileUtils;
+import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, process-wide cache of indexed JAR file systems.
+ *
+ * <p>Opening a JAR and walking it to build a package index is expensive, and the same
+ * immutable archives tend to be inherited from the JVM classpath by every single compilation.
+ * This cache allows {@link JarContainerImpl} instances to share a single index of each archive.
+ *
+ * <p>Entries are keyed by the absolute path of the JAR and the release version used to read
+ * {@code Multi-Release} entries. Each index also records the size and last modification time of
+ * the JAR when it was created. If a JAR is modified on disk, the next acquisition will invalidate
+ * the stale index and create a fresh one. The stale index is closed as soon as it is no longer
+ * referenced, rather than lingering until it is evicted.
+ *
+ * <p>Indexes are reference-counted. Each call to {@link #acquire} must be paired with a call to
+ * {@link JarIndex#release()}. Unreferenced indexes are retained so that subsequent compilations
+ * can reuse them, until they are evicted in least-recently-used order once the cache exceeds
+ * its maximum size. An evicted index is closed as soon as the last holder releases it.
+ *
+ * <p>Only JARs on the default file system are shared. JARs held within other file systems (such
+ * as RAM workspaces) are mutable and short-lived, so they are given a private index that is
+ * closed upon release instead.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JarIndexCache {
+
+  /**
+   * The default maximum number of entries to retain.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 512;
+
+  private static final Logger log = LoggerFactory.getLogger(JarIndexCache.class);
+
+  private static final Lazy<FileSystemProvider> JAR_FS_PROVIDER = new Lazy<>(() -> {
+    for (var fsProvider : FileSystemProvider.installedProviders()) {
+      if (fsProvider.getScheme().equals("jar")) {
+        return fsProvider;
+      }
+    }
+
+    throw new ProviderNotFoundException("jar");
+  });
+
+  private static final JarIndexCache INSTANCE = new JarIndexCache(DEFAULT_MAX_ENTRIES);
+
+  /**
+   * Get the shared process-wide instance of this cache.
+   *
+   * @return the shared instance.
+   */
+  public static JarIndexCache getInstance() {
+    return INSTANCE;
+  }
+
+  private final int maxEntries;
+  private final Lock lock;
+  private final LinkedHashMap<Key, JarIndex> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  /**
+   * Initialize this cache.
+   *
+   * @param maxEntries the maximum number of entries to retain.
+   * @throws IllegalArgumentException if the maximum number of entries is less than 1.
+   */
+  JarIndexCache(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries must be at least 1");
+    }
+
+    this.maxEntries = maxEntries;
+    lock = new ReentrantLock();
+    // Access-ordered, so iteration order is least-recently-used first.
+    entries = new LinkedHashMap<>(16, 0.75f, true);
+    hits = new LongAdder();
+    misses = new LongAdder();
+    evictions = new LongAdder();
+  }
+
+  /**
+   * Acquire a reference to the index for the given JAR.
+   *
+   * <p>The JAR itself is not opened until the index is first accessed.
+   *
+   * @param jarPath the path to the JAR.
+   * @param release the release version to use for {@code Multi-Release} JARs.
+   * @return the index. This must be {@link JarIndex#release() released} once no longer needed.
+   * @throws java.io.UncheckedIOException if the JAR attributes cannot be read.
+   */
+  public JarIndex acquire(PathRoot jarPath, String release) {
+    requireNonNull(jarPath, "jarPath");
+    requireNonNull(release, "release");
+
+    var path = jarPath.getPath();
+
+    if (!path.getFileSystem().equals(FileSystems.getDefault())) {
+      log.trace("Not caching index for JAR {} as it is not on the default file system", path);
+      return new JarIndex(null, jarPath, release);
+    }
+
+    var attributes = uncheckedIo(() -> Files.readAttributes(path, BasicFileAttributes.class));
+    var key = new Key(path.toAbsolutePath().normalize(), release);
+    var size = attributes.size();
+    var lastModified = attributes.lastModifiedTime().toMillis();
+
+    var evicted = new ArrayList<JarIndex>();
+    JarIndex index;
+
+    lock.lock();
+    try {
+      index = entries.get(key);
+
+      if (index != null && !index.matches(size, lastModified)) {
+        log.trace("JAR {} has been modified, invalidating index {}", path, index);
+        entries.remove(key);
+        evict(index, evicted);
+        index = null;
+      }
+
+      if (index == null) {
+        misses.increment();
+        index = new JarIndex(this, jarPath, release, size, lastModified);
+        entries.put(key, index);
+        evictExcessEntries(evicted);
+      } else {
+        hits.increment();
+      }
+
+      ++index.references;
+    } finally {
+      lock.unlock();
+    }
+
+    evicted.forEach(JarIndex::closeQuietly);
+    return index;
+  }
+
+  /**
+   * Close and discard all indexes that are not currently referenced.
+   *
+   * <p>Referenced indexes are evicted, and will be closed once released by their holders.
+   */
+  public void clear() {
+    var evicted = new ArrayList<JarIndex>();
+
+    lock.lock();
+    try {
+      for (var index : entries.values()) {
+        evict(index, evicted);
+      }
+      entries.clear();
+    } finally {
+      lock.unlock();
+    }
+
+    evicted.forEach(JarIndex::closeQuietly);
+  }
+
+  /**
+   * Get the number of acquisitions that reused an existing index.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of acquisitions that created a new shared index.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the number of indexes that have been evicted from this cache.
+   *
+   * @return the eviction count.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Get the maximum number of entries this cache will retain.
+   *
+   * @return the maximum number of entries.
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Get the number of entries currently held in this cache.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxEntries", maxEntries)
+        .attribute("size", size())
+        .attribute("hits", getHitCount())
+        .attribute("misses", getMissCount())
+        .attribute("evictions", getEvictionCount())
+        .toString();
+  }
+
+  // Must hold the lock.
+  private void evictExcessEntries(List<JarIndex> toClose) {
+    var iterator = entries.values().iterator();
+
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      var eldest = iterator.next();
+      iterator.remove();
+      evict(eldest, toClose);
+      log.trace("Evicted JAR index {}", eldest);
+    }
+  }
+
+  // Must hold the lock. The index must already have been removed from the entries.
+  private void evict(JarIndex index, List<JarIndex> toClose) {
+    evictions.increment();
+    index.evicted = true;
+
+    if (index.references == 0) {
+      toClose.add(index);
+    }
+  }
+
+  private void release(JarIndex index) {
+    var close = false;
+
+    lock.lock();
+    try {
+      if (--index.references == 0 && index.evicted) {
+        close = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (close) {
+      index.closeQuietly();
+    }
+  }
+
+  private static final class Key {
+
+    private final Path path;
+    private final String release;
+
+    private Key(Path path, String release) {
+      this.path = path;
+      this.release = release;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key that)) {
+        return false;
+      }
+
+      return path.equals(that.path) && release.equals(that.release);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, release);
+    }
+  }
+
+  /**
+   * Lazily-opened index of the packages and files within a JAR.
+   *
+   * <p>Instances are thread-safe.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class JarIndex {
+
+    private final @Nullable JarIndexCache owner;
+    private final PathRoot jarPath;
+    private final String release;
+    private final long size;
+    private final long lastModified;
+    private final Lazy<OpenJar> openJar;
+    private final AtomicBoolean closed;
+
+    // Guarded by the owner's lock.
+    private int references;
+    private boolean evicted;
+
+    private JarIndex(@Nullable JarIndexCache owner, PathRoot jarPath, String release) {
+      this(owner, jarPath, release, -1, -1);
+    }
+
+    private JarIndex(
+        @Nullable JarIndexCache owner,
+        PathRoot jarPath,
+        String release,
+        long size,
+        long lastModified
+    ) {
+      this.owner = owner;
+      this.jarPath = jarPath;
+      this.release = release;
+      this.size = size;
+      this.lastModified = lastModified;
+      closed = new AtomicBoolean(false);
+      references = owner == null ? 1 : 0;
+      evicted = owner == null;
+
+      // This will throw if, for example, the file doesn't exist or if the system encounters an IO
+      // error of some description. Both of these cases should be unexpected, however.
+      openJar = new Lazy<>(() -> uncheckedIo(OpenJar::new));
+    }
+
+    /**
+     * Release this reference to the index.
+     *
+     * <p>Each holder must call this exactly once.
+     */
+    public void release() {
+      if (owner == null) {
+        closeQuietly();
+      } else {
+        owner.release(this);
+      }
+    }
+
+    /**
+     * Determine whether the underlying file system has been closed.
+     *
+     * @return {@code true} if closed, or {@code false} otherwise.
+     */
+    public boolean isClosed() {
+      return closed.get();
+    }
+
+    /**
+     * Get the binary package name mapped to the given package root, if it exists.
+     *
+     * @param name the binary package name.
+     * @return the package root, or {@code null} if no such package exists.
+     */
+    @Nullable
+    public PathRoot getPackage(String name) {
+      return openJar.access().packages.access().get(name);
+    }
+
+    /**
+     * Get the binary names of all packages in the JAR.
+     *
+     * @return the package names.
+     */
+    public Set<String> getPackageNames() {
+      return openJar.access().packages.access().keySet();
+    }
+
+    /**
+     * Get the path root of the root directory in the JAR.
+     *
+     * @return the path root.
+     */
+    public PathRoot getPathRoot() {
+      return openJar.access().rootDirectoryPathRoot;
+    }
+
+    /**
+     * Get the path of the root directory in the JAR.
+     *
+     * @return the path.
+     */
+    public Path getPath() {
+      return getPathRoot().getPath();
+    }
+
+    /**
+     * Get all files and directories in the JAR.
+     *
+     * @return the paths.
+     */
+    public Collection<Path> getAllFiles() {
+      return openJar.access().files.access();
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .attribute("uri", jarPath.getUri())
+          .attribute("release", release)
+          .attribute("shared", owner != null)
+          .toString();
+    }
+
+    private boolean matches(long size, long lastModified) {
+      return this.size == size && this.lastModified == lastModified;
+    }
+
+    private void closeQuietly() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+
+      try {
+        openJar.ifInitialized(OpenJar::close);
+        openJar.destroy();
+      } catch (IOException ex) {
+        log.warn("Failed to close JAR file system for {}, ignoring", jarPath.getUri(), ex);
+      }
+    }
+
+    /**
+     * Wrapper around a set of packages and a file system that can be opened lazily.
+     */
+    private final class OpenJar {
+
+      private final FileSystem fileSystem;
+      private final PathRoot rootDirectoryPathRoot;
+      private final Lazy<Map<String, PathRoot>> packages;
+      private final Lazy<Collection<Path>> files;
+
+      private OpenJar() throws IOException {
+        if (closed.get()) {
+          throw new IllegalStateException("JAR index for " + jarPath.getUri() + " is closed");
+        }
+
+        var actualJarPath = jarPath.getPath();
+        log.trace("Preparing virtual file system holder for JAR {}", actualJarPath);
+
+        // It turns out that we can open more than one ZIP file system pointing to the
+        // same file at once, but we cannot do this with the JAR file system itself.
+        // This is an issue since it hinders our ability to run tests in parallel where multiple
+        // tests might be trying to read the same JAR at once.
+        //
+        // This means we have to do a little of hacking around to get this to work how we need it
+        // to. Remember that JARs are just glorified zip folders.
+        //
+        // Set the multi-release flag to enable reading META-INF/release/* files correctly if the
+        // MANIFEST.MF specifies the Multi-Release entry as true.
+        // Turns out the JDK implementation of the ZipFileSystem handles this for us.
+        Map<String, Object> env = Map.of(
+            "releaseVersion", release,
+            "multi-release", release
+        );
+
+        // So, for some reason. I cannot make more than one instance of a ZipFileSystem
+        // if I pass a URI in here. If I pass a Path in here instead, then I can make
+        // multiple copies of it in memory. No idea why this is the way it is, but it
+        // appears to be how the JavacFileManager in the JDK can make itself run in parallel
+        // safely.
+        fileSystem = JAR_FS_PROVIDER.access().newFileSystem(actualJarPath, env);
+
+        // Always expect just one root directory in a ZIP archive.
+        var rootDirectory = fileSystem.getRootDirectories().iterator().next();
+        rootDirectoryPathRoot = new WrappingDirectoryImpl(rootDirectory);
+
+        // We now compute the package mapping and the file mapping only when we first attempt
+        // to access their values. This prevents creating additional overhead by indexing each JAR
+        // as soon as we attempt to inspect any attribute within it, since we may not ever need to
+        // process the actual values here.
+
+        packages = new Lazy<>(() -> uncheckedIo(() -> {
+          log.trace("Indexing packages in JAR {}...", actualJarPath);
+          try (var walker = Files.walk(rootDirectory)) {
+            return walker
+                .filter(Files::isDirectory)
+                .map(rootDirectory::relativize)
+                .collect(Collectors.toUnmodifiableMap(
+                    FileUtils::pathToBinaryName,
+                    path -> new WrappingDirectoryImpl(rootDirectory.resolve(path)),
+                    (a, b) -> {
+                      log.trace(
+                          "Found duplicate entry {}. This copy will be silently dropped.",
+                          b
+                      );
+                      return a;
+                    }
+                ));
+          }
+        }));
+
+        files = new Lazy<>(() -> uncheckedIo(() -> {
+          log.trace("Indexing files in JAR {}...", actualJarPath);
+          var allPaths = new ArrayList<Path>(6);
+
+          // We have to do this eagerly all at once as the walker streams must be closed to
+          // prevent resource leakage elsewhere.
+          try (var walker = Files.walk(rootDirectory)) {
+            walker.forEach(allPaths::add);
+          }
+
+          return Collections.unmodifiableList(allPaths);
+        }));
+      }
+
+      private void close() throws IOException {
+        log.trace(
+            "Closing JAR file system handle ({} @ {})",
+            jarPath.getUri(),
+            fileSystem.getRootDirectories()
+        );
+        fileSystem.close();
+      }
+    }
+  }
+}
@@ -49,6 +49,8 @@ public final class ModuleContainerGroupImpl implements ModuleContainerGroup {
   private final Location location;
   private final Map<ModuleLocation, PackageContainerGroup> modules;
   private final String release;
+  private final boolean directoryIndexing;
+  private final boolean contentCaching;
 
   /**
    * Initialize this container group.
@@ -59,8 +61,45 @@ public final class ModuleContainerGroupImpl implements ModuleContainerGroup {
    *                                  output-oriented.
    */
   public ModuleContainerGroupImpl(Location location, String release) {
+    this(location, release, false);
+  }
+
+  /**
+   * Initialize this container group.
+   *
+   * @param location          the module-oriented location.
+   * @param release           the release to use for Multi-Release JARs.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @throws JctIllegalInputException if the {@code location} is not module-oriented, or is
+   *                                  output-oriented.
+   * @since 6.1.0
+   */
+  public ModuleContainerGroupImpl(Location location, String release, boolean directoryIndexing) {
+    this(location, release, directoryIndexing, false);
+  }
+
+  /**
+   * Initialize this container group.
+   *
+   * @param location          the module-oriented location.
+   * @param release           the release to use for Multi-Release JARs.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @param contentCaching    whether to cache the decoded content of files in directories that
+   *                          are added to this group.
+   * @throws JctIllegalInputException if the {@code location} is not module-oriented, or is
+   *                                  output-oriented.
+   * @since 6.1.0
+   */
+  public ModuleContainerGroupImpl(
+      Location location,
+      String release,
+      boolean directoryIndexing,
+      boolean contentCaching
+  ) {
     this.location = requireNonNull(location, "location");
     this.release = requireNonNull(release, "release");
+    this.directoryIndexing = directoryIndexing;
+    this.contentCaching = contentCaching;
 
     if (location.isOutputLocation()) {
       throw new JctIllegalInputException(
@@ -199,6 +238,11 @@ public final class ModuleContainerGroupImpl implements ModuleContainerGroup {
   private PackageContainerGroup newPackageGroup(ModuleLocation location) {
     // Use an anonymous class here to avoid the constraints that the PackageContainerGroupImpl
     // imposes on us.
-    return new AbstractPackageContainerGroup(location, release) {};
+    return new AbstractPackageContainerGroup(
+        location,
+        release,
+        directoryIndexing,
+        contentCaching
+    ) {};
   }
 }
@@ -60,7 +60,19 @@ public final class OutputContainerGroupImpl
    * @param release  the release version.
    */
   public OutputContainerGroupImpl(Location location, String release) {
-    super(location, release);
+    this(location, release, false);
+  }
+
+  /**
+   * Initialize this container group.
+   *
+   * @param location          the location of the group.
+   * @param release           the release version.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @since 6.1.0
+   */
+  public OutputContainerGroupImpl(Location location, String release, boolean directoryIndexing) {
+    super(location, release, directoryIndexing);
     modules = new HashMap<>();
 
     if (location.isModuleOrientedLocation()) {
@@ -181,7 +193,11 @@ public final class OutputContainerGroupImpl
 
     // Use an anonymous class here to avoid the constraints that the PackageContainerGroupImpl
     // imposes on us.
-    var group = new AbstractPackageContainerGroup(moduleLocation, release) {};
+    var group = new AbstractPackageContainerGroup(
+        moduleLocation,
+        release,
+        isDirectoryIndexing()
+    ) {};
     var pathWrapper = new WrappingDirectoryImpl(
         getPackages().iterator().next().getPathRoot(),
         List.of(moduleLocation.getModuleName())
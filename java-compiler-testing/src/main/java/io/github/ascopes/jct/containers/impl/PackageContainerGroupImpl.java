@@ -39,7 +39,40 @@ public final class PackageContainerGroupImpl extends AbstractPackageContainerGro
    *                 location.
    */
   public PackageContainerGroupImpl(Location location, String release) {
-    super(location, release);
+    this(location, release, false);
+  }
+
+  /**
+   * Initialize this group.
+   *
+   * @param location          the location of the group.
+   * @param release           the release version to use for handling {@code Multi-Release} JARs
+   *                          in this location.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @since 6.1.0
+   */
+  public PackageContainerGroupImpl(Location location, String release, boolean directoryIndexing) {
+    this(location, release, directoryIndexing, false);
+  }
+
+  /**
+   * Initialize this group.
+   *
+   * @param location          the location of the group.
+   * @param release           the release version to use for handling {@code Multi-Release} JARs
+   *                          in this location.
+   * @param directoryIndexing whether to index directories that are added to this group.
+   * @param contentCaching    whether to cache the decoded content of files in directories that
+   *                          are added to this group.
+   * @since 6.1.0
+   */
+  public PackageContainerGroupImpl(
+      Location location,
+      String release,
+      boolean directoryIndexing,
+      boolean contentCaching
+  ) {
+    super(location, release, directoryIndexing, contentCaching);
 
     if (location.isOutputLocation()) {
       throw new JctIllegalInputException(
@@ -18,32 +18,142 @@ package io.github.ascopes.jct.containers.impl;
 import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.List;
 
 /**
  * An extension of the Java {@link URLClassLoader} that wraps around container groups.
  *
+ * <p>Classes held in directories are read straight from the underlying NIO paths and defined
+ * from those bytes, rather than being resolved through the URL stream handlers for each path.
+ * Very large class files are read into direct buffers to avoid churning the heap. Classes held
+ * in archives, and all resources, are still resolved using the URLs of each container, so that
+ * archive manifests are respected.
+ *
+ * <p>This class loader is parallel capable.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
 public final class PackageContainerGroupUrlClassLoader extends URLClassLoader {
 
+  static {
+    registerAsParallelCapable();
+  }
+
+  // Class files at least this big are read into direct buffers.
+  private static final long DIRECT_BUFFER_THRESHOLD = 1024 * 1024;
+
+  private final List<Container> containers;
+
   /**
    * Initialise this class loader.
    *
    * @param group the container group to use.
    */
   public PackageContainerGroupUrlClassLoader(PackageContainerGroup group) {
+    this(group, group.getPackages(), ClassLoader.getSystemClassLoader());
+  }
+
+  /**
+   * Initialise this class loader over a subset of the containers in a group.
+   *
+   * @param group      the container group to use.
+   * @param containers the containers within the group to load from.
+   * @param parent     the parent class loader to delegate to.
+   * @since 6.1.0
+   */
+  PackageContainerGroupUrlClassLoader(
+      PackageContainerGroup group,
+      List<Container> containers,
+      ClassLoader parent
+  ) {
     super(
         "Packages within " + group.getLocation().getName(),
-        extractUrls(group),
-        ClassLoader.getSystemClassLoader()
+        extractUrls(containers),
+        parent
     );
+    this.containers = List.copyOf(containers);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    var fragments = (name.replace('.', '/') + ".class").split("/", -1);
+
+    for (var container : containers) {
+      if (!(container instanceof PathWrappingContainerImpl)) {
+        // Anything else may need the URL class loader to handle it properly.
+        break;
+      }
+
+      var file = container.getFile(fragments);
+      if (file != null) {
+        try {
+          return defineClassFromFile(name, container, file);
+        } catch (IOException ex) {
+          throw new ClassNotFoundException(name, ex);
+        }
+      }
+    }
+
+    return super.findClass(name);
+  }
+
+  private Class<?> defineClassFromFile(
+      String name,
+      Container container,
+      Path file
+  ) throws IOException {
+    var packageEnd = name.lastIndexOf('.');
+    if (packageEnd != -1) {
+      definePackageIfMissing(name.substring(0, packageEnd));
+    }
+
+    var codeSource = new CodeSource(container.getPathRoot().getUrl(), (CodeSigner[]) null);
+
+    try (var channel = FileChannel.open(file)) {
+      var size = channel.size();
+
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Class file " + file + " is too large to load");
+      }
+
+      // Read from the channel we already hold open, rather than opening the file a second time.
+      var buffer = size < DIRECT_BUFFER_THRESHOLD
+          ? ByteBuffer.allocate((int) size)
+          : ByteBuffer.allocateDirect((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        // Keep reading.
+      }
+      buffer.flip();
+      return defineClass(name, buffer, codeSource);
+    }
+  }
+
+  private void definePackageIfMissing(String packageName) {
+    if (getDefinedPackage(packageName) != null) {
+      return;
+    }
+
+    try {
+      definePackage(packageName, null, null, null, null, null, null, null);
+    } catch (IllegalArgumentException ex) {
+      // Another thread defined the package first.
+      if (getDefinedPackage(packageName) == null) {
+        throw ex;
+      }
+    }
   }
 
-  private static URL[] extractUrls(PackageContainerGroup group) {
-    return group.getPackages()
+  private static URL[] extractUrls(List<Container> containers) {
+    return containers
         .stream()
         .map(Container::getPathRoot)
         .map(PathRoot::getUrl)
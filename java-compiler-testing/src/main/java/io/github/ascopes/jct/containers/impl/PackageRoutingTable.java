@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable routing table that maps packages to the containers that may hold them.
+ *
+ * <p>Containers with a fixed set of packages (such as JARs) are only routed to for the packages
+ * they hold. All other containers (such as directories, which may be written to during
+ * compilation) are routed to for every package. Routes always preserve the order that the
+ * containers were provided in, so that consulting each routed container in turn gives the same
+ * result as consulting every container in turn.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class PackageRoutingTable {
+
+  private static final Logger log = LoggerFactory.getLogger(PackageRoutingTable.class);
+
+  private final List<Container> unroutedContainers;
+  private final Map<String, List<Container>> containersByPackage;
+  private final Map<FileSystem, List<Container>> containersByFileSystem;
+
+  /**
+   * Build the routing table.
+   *
+   * @param containers the containers to route to, in the order they should be consulted.
+   */
+  PackageRoutingTable(Collection<? extends Container> containers) {
+    // Indexes of the unrouted containers are kept so that we can interleave them with the
+    // routed containers in their original order.
+    var unroutedIndexes = new ArrayList<Integer>();
+    var indexesByPackage = new HashMap<String, List<Integer>>();
+    var indexesByFileSystem = new HashMap<FileSystem, List<Integer>>();
+    List<Container> orderedContainers = List.copyOf(containers);
+
+    for (var i = 0; i < orderedContainers.size(); ++i) {
+      var container = orderedContainers.get(i);
+
+      if (!(container instanceof JarContainerImpl jar) || !routeJar(jar, i, indexesByPackage)) {
+        unroutedIndexes.add(i);
+        continue;
+      }
+
+      indexesByFileSystem
+          .computeIfAbsent(
+              jar.getInnerPathRoot().getPath().getFileSystem(),
+              fileSystem -> new ArrayList<>()
+          )
+          .add(i);
+    }
+
+    unroutedContainers = merge(orderedContainers, List.of(), unroutedIndexes);
+    containersByPackage = mergeAll(orderedContainers, indexesByPackage, unroutedIndexes);
+    containersByFileSystem = mergeAll(orderedContainers, indexesByFileSystem, unroutedIndexes);
+  }
+
+  /**
+   * Get the containers that may hold the given package.
+   *
+   * @param packageName the binary name of the package.
+   * @return the containers to consult, in order.
+   */
+  List<Container> getContainersForPackage(String packageName) {
+    return containersByPackage.getOrDefault(packageName, unroutedContainers);
+  }
+
+  /**
+   * Determine if the given package is held by any container with a known set of packages.
+   *
+   * @param packageName the binary name of the package.
+   * @return {@code true} if the package is routed, or {@code false} otherwise.
+   */
+  boolean isPackageRouted(String packageName) {
+    return containersByPackage.containsKey(packageName);
+  }
+
+  /**
+   * Get the containers that may hold files within the given file system.
+   *
+   * @param fileSystem the file system.
+   * @return the containers to consult, in order.
+   */
+  List<Container> getContainersForFileSystem(FileSystem fileSystem) {
+    return containersByFileSystem.getOrDefault(fileSystem, unroutedContainers);
+  }
+
+  /**
+   * Determine if the given file system is held by any container with a known set of packages.
+   *
+   * @param fileSystem the file system.
+   * @return {@code true} if the file system is routed, or {@code false} otherwise.
+   */
+  boolean isFileSystemRouted(FileSystem fileSystem) {
+    return containersByFileSystem.containsKey(fileSystem);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("packageCount", containersByPackage.size())
+        .attribute("unroutedContainerCount", unroutedContainers.size())
+        .toString();
+  }
+
+  private static boolean routeJar(
+      JarContainerImpl jar,
+      int index,
+      Map<String, List<Integer>> indexesByPackage
+  ) {
+    try {
+      for (var packageName : jar.getPackageNames()) {
+        indexesByPackage.computeIfAbsent(packageName, name -> new ArrayList<>()).add(index);
+      }
+      return true;
+    } catch (UncheckedIOException ex) {
+      // Leave the JAR to be consulted directly, so that any failure is reported in the same way
+      // as if the routing table did not exist.
+      log.debug("Failed to index packages in {}, it will not be routed", jar.getName(), ex);
+      return false;
+    }
+  }
+
+  private static <K> Map<K, List<Container>> mergeAll(
+      List<Container> containers,
+      Map<K, List<Integer>> routedIndexes,
+      List<Integer> unroutedIndexes
+  ) {
+    var merged = new HashMap<K, List<Container>>();
+    routedIndexes.forEach((key, indexes) -> merged.put(
+        key,
+        merge(containers, indexes, unroutedIndexes)
+    ));
+    return merged;
+  }
+
+  private static List<Container> merge(
+      List<Container> containers,
+      List<Integer> first,
+      List<Integer> second
+  ) {
+    // Both lists are sorted, so we can merge them in linear time.
+    var merged = new ArrayList<Container>(first.size() + second.size());
+    var i = 0;
+    var j = 0;
+
+    while (i < first.size() || j < second.size()) {
+      var next = j == second.size() || (i < first.size() && first.get(i) < second.get(j))
+          ? first.get(i++)
+          : second.get(j++);
+      merged.add(containers.get(next));
+    }
+
+    return List.copyOf(merged);
+  }
+}
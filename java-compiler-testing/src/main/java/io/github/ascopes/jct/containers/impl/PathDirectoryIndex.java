@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * In-memory index of the regular files within a directory tree, keyed by their parent
+ * directory.
+ *
+ * <p>Each directory is listed upon first use, and that listing is then reused without touching
+ * the file system again. Directories that do not exist are remembered as well, and any directory
+ * whose parent has already been listed is resolved from the listing of that parent, so looking
+ * up files in packages that do not exist costs nothing once the tree above them is known.
+ *
+ * <p>The index is intended to live for a single compilation. Changes made through the file
+ * manager must be reported with {@link #invalidate(Path)} so that they become visible. Changes
+ * made to the directory by any other means while the index is in use are not seen.
+ *
+ * <p>Directories and files are keyed by the string form of their paths, since hashing and
+ * comparing paths is very expensive on some file systems, such as the in-memory ones used for
+ * RAM directories.
+ *
+ * <p>Symbolic links are followed. Links that lead back to a directory that is already being
+ * listed are skipped, so cyclic links cannot cause unbounded recursion.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class PathDirectoryIndex {
+
+  private static final Listing ABSENT = new Listing(Map.of(), Map.of(), Set.of());
+
+  private final Path root;
+  private final String rootKey;
+  private final String separator;
+  private final Map<String, Listing> listings;
+  private final AtomicLong generation;
+
+  /**
+   * Initialise this index.
+   *
+   * @param root the root directory to index.
+   */
+  PathDirectoryIndex(Path root) {
+    this.root = requireNonNull(root, "root");
+    rootKey = root.toString();
+    separator = root.getFileSystem().getSeparator();
+    listings = new ConcurrentHashMap<>();
+    generation = new AtomicLong();
+  }
+
+  /**
+   * Determine if the given path is a regular file.
+   *
+   * @param path the absolute path to check.
+   * @return {@code true} if the file exists, or {@code false} otherwise.
+   * @throws IOException if the parent directory cannot be listed.
+   */
+  boolean isRegularFile(Path path) throws IOException {
+    var parent = path.getParent();
+
+    if (parent == null || !isWithinRoot(parent.toString())) {
+      // Relative resource names may escape the root, so we have to check the disk.
+      return Files.isRegularFile(path);
+    }
+
+    return getListing(parent).files.containsKey(path.toString());
+  }
+
+  /**
+   * List the regular files within the given directory.
+   *
+   * @param directory the absolute path of the directory to list.
+   * @param recurse   {@code true} to include files in subdirectories.
+   * @return the files that were found.
+   * @throws IOException if a directory cannot be listed.
+   */
+  List<Path> listFiles(Path directory, boolean recurse) throws IOException {
+    var listing = getListing(directory);
+
+    if (!recurse) {
+      return List.copyOf(listing.files.values());
+    }
+
+    var files = new ArrayList<Path>();
+    collectFiles(directory, listing, new ArrayDeque<>(), files);
+    return files;
+  }
+
+  /**
+   * Discard anything known about the given path, so that the next query observes any change
+   * that was made to it.
+   *
+   * <p>This must be called after a file is created or deleted through the file manager.
+   *
+   * @param path the absolute path of the file that was changed.
+   */
+  void invalidate(Path path) {
+    generation.incrementAndGet();
+
+    // Creating a file may also have created any of its parent directories, so every listing
+    // between the file and the root may now be out of date.
+    for (var directory = path.getParent();
+        directory != null && isWithinRoot(directory.toString());
+        directory = directory.getParent()) {
+      listings.remove(directory.toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("root", root)
+        .attribute("directoryCount", listings.size())
+        .toString();
+  }
+
+  private void collectFiles(
+      Path directory,
+      Listing listing,
+      Deque<Path> linkParents,
+      List<Path> files
+  ) throws IOException {
+    files.addAll(listing.files.values());
+
+    for (var entry : listing.subdirectories.entrySet()) {
+      var subdirectory = entry.getValue();
+      var sublisting = getListing(subdirectory);
+
+      if (!listing.linkedSubdirectories.contains(entry.getKey())) {
+        collectFiles(subdirectory, sublisting, linkParents, files);
+        continue;
+      }
+
+      // Only resolve real paths when we cross a link, as doing so is relatively expensive.
+      var parent = directory.toRealPath();
+      var target = subdirectory.toRealPath();
+
+      if (isCyclicLink(parent, linkParents, target)) {
+        continue;
+      }
+
+      linkParents.push(parent);
+      try {
+        collectFiles(subdirectory, sublisting, linkParents, files);
+      } finally {
+        linkParents.pop();
+      }
+    }
+  }
+
+  private Listing getListing(Path directory) throws IOException {
+    var key = directory.toString();
+    var listing = listings.get(key);
+
+    if (listing != null) {
+      return listing;
+    }
+
+    // Anything invalidated while we are listing must not be overwritten by what we read.
+    var expectedGeneration = generation.get();
+    listing = isKnownToBeAbsent(directory, key)
+        ? ABSENT
+        : list(directory);
+
+    if (generation.get() == expectedGeneration) {
+      listings.putIfAbsent(key, listing);
+    }
+
+    return listing;
+  }
+
+  private boolean isKnownToBeAbsent(Path directory, String key) throws IOException {
+    if (key.equals(rootKey)) {
+      return false;
+    }
+
+    var parent = directory.getParent();
+
+    if (parent == null || !isWithinRoot(parent.toString())) {
+      return false;
+    }
+
+    // Resolve this from the listing of the parent, so that probing deeply into packages that do
+    // not exist only ever lists the directories that do.
+    return !getListing(parent).subdirectories.containsKey(key);
+  }
+
+  private boolean isWithinRoot(String key) {
+    return key.startsWith(rootKey)
+        && (key.length() == rootKey.length()
+        || rootKey.endsWith(separator)
+        || key.startsWith(separator, rootKey.length()));
+  }
+
+  private static boolean isCyclicLink(Path parent, Deque<Path> linkParents, Path target) {
+    // We follow a chain of links into the target. If the target contains any directory in that
+    // chain, then following it would just list the same directories again.
+    if (parent.startsWith(target)) {
+      return true;
+    }
+
+    for (var linkParent : linkParents) {
+      if (linkParent.startsWith(target)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static Listing list(Path directory) throws IOException {
+    var files = new HashMap<String, Path>();
+    var subdirectories = new HashMap<String, Path>();
+    var linkedSubdirectories = new HashSet<String>();
+
+    try (var stream = Files.newDirectoryStream(directory)) {
+      for (var child : stream) {
+        var childAttributes = readAttributes(child, LinkOption.NOFOLLOW_LINKS);
+        var linked = childAttributes != null && childAttributes.isSymbolicLink();
+
+        if (linked) {
+          childAttributes = readAttributes(child);
+        }
+
+        if (childAttributes == null) {
+          // Deleted while we were listing, or a dangling link.
+          continue;
+        }
+
+        var childKey = child.toString();
+
+        if (childAttributes.isRegularFile()) {
+          files.put(childKey, child);
+        } else if (childAttributes.isDirectory()) {
+          subdirectories.put(childKey, child);
+          if (linked) {
+            linkedSubdirectories.add(childKey);
+          }
+        }
+      }
+    } catch (NoSuchFileException | NotDirectoryException ex) {
+      return ABSENT;
+    }
+
+    return new Listing(files, subdirectories, linkedSubdirectories);
+  }
+
+  private static @Nullable BasicFileAttributes readAttributes(
+      Path path,
+      LinkOption... options
+  ) throws IOException {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class, options);
+    } catch (NoSuchFileException ex) {
+      return null;
+    }
+  }
+
+  private static final class Listing {
+
+    private final Map<String, Path> files;
+    private final Map<String, Path> subdirectories;
+    private final Set<String> linkedSubdirectories;
+
+    private Listing(
+        Map<String, Path> files,
+        Map<String, Path> subdirectories,
+        Set<String> linkedSubdirectories
+    ) {
+      this.files = Map.copyOf(files);
+      this.subdirectories = Map.copyOf(subdirectories);
+      this.linkedSubdirectories = Set.copyOf(linkedSubdirectories);
+    }
+  }
+}
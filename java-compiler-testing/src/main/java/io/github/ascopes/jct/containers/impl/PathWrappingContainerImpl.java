@@ -15,10 +15,12 @@
  */
 package io.github.ascopes.jct.containers.impl;
 
+import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
 import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.containers.Container;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.filemanagers.impl.FileContentCache;
 import io.github.ascopes.jct.filemanagers.impl.PathFileObjectImpl;
 import io.github.ascopes.jct.utils.FileUtils;
 import io.github.ascopes.jct.utils.ToStringBuilder;
@@ -41,6 +43,17 @@ import org.slf4j.LoggerFactory;
 /**
  * A container that wraps a known directory of files.
  *
+ * <p>If directory indexing is enabled, each directory is listed upon first use and kept in an
+ * in-memory index for the lifetime of this container. Lookups and listings are then served from
+ * that index, including lookups of files in packages that do not exist. Files that are written
+ * or deleted through file objects obtained from this container update the index, but changes
+ * made by any other means while this container is open are not visible.
+ *
+ * <p>If content caching is enabled, the decoded content of files read from this container is
+ * cached for the lifetime of this container.
+ *
+ * <p>Symbolic links within the directory are followed.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -50,6 +63,8 @@ public final class PathWrappingContainerImpl implements Container {
 
   private final Location location;
   private final PathRoot root;
+  private final @Nullable PathDirectoryIndex index;
+  private final @Nullable FileContentCache contentCache;
 
   /**
    * Initialize this container.
@@ -58,8 +73,18 @@ public final class PathWrappingContainerImpl implements Container {
    * @param root     the root directory to hold.
    */
   public PathWrappingContainerImpl(Location location, PathRoot root) {
-    this.location = requireNonNull(location, "location");
-    this.root = requireNonNull(root, "root");
+    this(builder(location, root));
+  }
+
+  private PathWrappingContainerImpl(Builder builder) {
+    location = requireNonNull(builder.location, "location");
+    root = requireNonNull(builder.root, "root");
+    index = builder.directoryIndexing
+        ? new PathDirectoryIndex(root.getPath())
+        : null;
+    contentCache = builder.contentCaching
+        ? new FileContentCache()
+        : null;
   }
 
   @Override
@@ -71,7 +96,7 @@ public final class PathWrappingContainerImpl implements Container {
   @Override
   public boolean contains(PathFileObject fileObject) {
     var path = fileObject.getAbsolutePath();
-    return path.startsWith(root.getPath()) && Files.isRegularFile(path);
+    return path.startsWith(root.getPath()) && isRegularFile(path);
   }
 
   @Nullable
@@ -79,7 +104,7 @@ public final class PathWrappingContainerImpl implements Container {
   public Path getFile(String... fragments) {
     var realPath = FileUtils.relativeResourceNameToPath(root.getPath(), fragments);
 
-    return Files.isRegularFile(realPath)
+    return isRegularFile(realPath)
         ? realPath
         : null;
   }
@@ -89,15 +114,15 @@ public final class PathWrappingContainerImpl implements Container {
   public PathFileObject getFileForInput(String packageName, String relativeName) {
     var path = FileUtils.resourceNameToPath(root.getPath(), packageName, relativeName);
 
-    return Files.isRegularFile(path)
-        ? new PathFileObjectImpl(location, root.getPath(), path)
+    return isRegularFile(path)
+        ? newInputFileObject(path)
         : null;
   }
 
   @Override
   public PathFileObject getFileForOutput(String packageName, String relativeName) {
     var path = FileUtils.resourceNameToPath(root.getPath(), packageName, relativeName);
-    return new PathFileObjectImpl(location, root.getPath(), path);
+    return newOutputFileObject(path);
   }
 
   /**
@@ -117,15 +142,15 @@ public final class PathWrappingContainerImpl implements Container {
   @Override
   public PathFileObject getJavaFileForInput(String binaryName, Kind kind) {
     var path = FileUtils.binaryNameToPath(root.getPath(), binaryName, kind);
-    return Files.isRegularFile(path)
-        ? new PathFileObjectImpl(location, root.getPath(), path)
+    return isRegularFile(path)
+        ? newInputFileObject(path)
         : null;
   }
 
   @Override
   public PathFileObject getJavaFileForOutput(String className, Kind kind) {
     var path = FileUtils.binaryNameToPath(root.getPath(), className, kind);
-    return new PathFileObjectImpl(location, root.getPath(), path);
+    return newOutputFileObject(path);
   }
 
   @Override
@@ -170,25 +195,163 @@ public final class PathWrappingContainerImpl implements Container {
       boolean recurse,
       Collection<JavaFileObject> collection
   ) throws IOException {
-    var maxDepth = recurse ? Integer.MAX_VALUE : 1;
     var basePath = FileUtils.packageNameToPath(root.getPath(), packageName);
 
-    // XXX: Do we want to follow symbolic links here, or can it lead to recursive loops?
+    if (index != null) {
+      index.listFiles(basePath, recurse)
+          .stream()
+          .filter(path -> kinds.contains(FileUtils.pathToKind(path)))
+          .map(this::newInputFileObject)
+          .forEach(collection::add);
+      return;
+    }
+
+    var maxDepth = recurse ? Integer.MAX_VALUE : 1;
+
+    // Cyclic symbolic links are detected by the walker, which fails with a
+    // FileSystemLoopException rather than recursing forever.
     try (var walker = Files.walk(basePath, maxDepth, FileVisitOption.FOLLOW_LINKS)) {
       walker
           .filter(FileUtils.fileWithAnyKind(kinds))
-          .map(path -> new PathFileObjectImpl(location, root.getPath(), path))
+          .map(this::newInputFileObject)
           .forEach(collection::add);
     } catch (NoSuchFileException ex) {
       log.trace("Directory {} does not exist so is being ignored", root.getPath());
     }
   }
 
+  /**
+   * Determine whether directory indexing is enabled for this container.
+   *
+   * @return {@code true} if directory indexing is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isDirectoryIndexing() {
+    return index != null;
+  }
+
+  /**
+   * Determine whether the content of files read from this container is cached.
+   *
+   * @return {@code true} if content caching is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isContentCaching() {
+    return contentCache != null;
+  }
+
   @Override
   public String toString() {
     return new ToStringBuilder(this)
         .attribute("uri", root.getUri())
         .attribute("location", location)
+        .attribute("directoryIndexing", isDirectoryIndexing())
+        .attribute("contentCaching", isContentCaching())
         .toString();
   }
+
+  private PathFileObject newInputFileObject(Path path) {
+    var builder = PathFileObjectImpl.builder(location, root.getPath(), path);
+
+    var contentCache = this.contentCache;
+    if (contentCache != null) {
+      builder.contentCache(contentCache);
+    }
+
+    // Compilers may delete inputs as well, e.g. stale outputs from previous rounds.
+    var index = this.index;
+    if (index != null) {
+      builder.changeListener(index::invalidate);
+    }
+
+    return builder.build();
+  }
+
+  private PathFileObject newOutputFileObject(Path path) {
+    var index = this.index;
+    if (index == null) {
+      return new PathFileObjectImpl(location, root.getPath(), path);
+    }
+
+    return PathFileObjectImpl.builder(location, root.getPath(), path)
+        .changeListener(index::invalidate)
+        .build();
+  }
+
+  private boolean isRegularFile(Path path) {
+    var index = this.index;
+    return index == null
+        ? Files.isRegularFile(path)
+        : uncheckedIo(() -> index.isRegularFile(path));
+  }
+
+  /**
+   * Initialize a builder for a new {@link PathWrappingContainerImpl}.
+   *
+   * @param location the location.
+   * @param root     the root directory to hold.
+   * @return the builder.
+   * @since 6.1.0
+   */
+  public static Builder builder(Location location, PathRoot root) {
+    return new Builder(location, root);
+  }
+
+  /**
+   * Builder type for a {@link PathWrappingContainerImpl}, for containers that need more than the
+   * default behaviour.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Builder {
+
+    private final Location location;
+    private final PathRoot root;
+    private boolean directoryIndexing;
+    private boolean contentCaching;
+
+    private Builder(Location location, PathRoot root) {
+      this.location = location;
+      this.root = root;
+      directoryIndexing = false;
+      contentCaching = false;
+    }
+
+    /**
+     * Set whether to index the directory upon first use. Defaults to {@code false}.
+     *
+     * @param directoryIndexing {@code true} to index the directory, or {@code false} to query
+     *                          the file system for every operation.
+     * @return this builder.
+     */
+    public Builder directoryIndexing(boolean directoryIndexing) {
+      this.directoryIndexing = directoryIndexing;
+      return this;
+    }
+
+    /**
+     * Set whether to cache the decoded content of files that are read from the container.
+     * Defaults to {@code false}.
+     *
+     * <p>Files obtained for output are never cached.
+     *
+     * @param contentCaching {@code true} to cache the content, or {@code false} to decode it upon
+     *                       every read.
+     * @return this builder.
+     */
+    public Builder contentCaching(boolean contentCaching) {
+      this.contentCaching = contentCaching;
+      return this;
+    }
+
+    /**
+     * Build the container.
+     *
+     * @return the container.
+     */
+    public PathWrappingContainerImpl build() {
+      return new PathWrappingContainerImpl(this);
+    }
+  }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback.Action;
+
+/**
+ * Shared instances of the default diagnostic handling strategies.
+ *
+ * <p>These are singletons so that callers can tell whether the defaults are in use, which lets
+ * results that do not depend on any custom handling be cached.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class DiagnosticDefaults {
+
+  static final TraceDiagnosticCallback RETAIN_ALL = diagnostic -> Action.RETAIN;
+  static final DiagnosticRetentionPolicy KEEP_ALL = (kind, index) -> true;
+
+  private DiagnosticDefaults() {
+    // Disallow initialisation.
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import java.util.Set;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Policy that determines which reported diagnostics are retained in memory for the compilation
+ * result.
+ *
+ * <p>Diagnostics that are not retained are still counted, so assertions can report how many
+ * diagnostics of each kind were produced in total.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@FunctionalInterface
+public interface DiagnosticRetentionPolicy {
+
+  /**
+   * Determine whether to retain a diagnostic.
+   *
+   * @param kind  the kind of the diagnostic.
+   * @param index the zero-based position of the diagnostic amongst all diagnostics of the same
+   *              kind that have been reported so far.
+   * @return {@code true} to retain the diagnostic, or {@code false} to only count it.
+   */
+  boolean shouldRetain(Kind kind, long index);
+
+  /**
+   * Get a policy that retains every diagnostic.
+   *
+   * <p>This always returns the same instance.
+   *
+   * @return the policy.
+   */
+  static DiagnosticRetentionPolicy keepAll() {
+    return DiagnosticDefaults.KEEP_ALL;
+  }
+
+  /**
+   * Get a policy that retains the first {@code limit} diagnostics of each kind.
+   *
+   * @param limit the maximum number of diagnostics to retain for each kind.
+   * @return the policy.
+   * @throws IllegalArgumentException if the limit is negative.
+   */
+  static DiagnosticRetentionPolicy firstPerKind(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative");
+    }
+
+    return (kind, index) -> index < limit;
+  }
+
+  /**
+   * Get a policy that retains all errors and warnings, and only counts any other diagnostics.
+   *
+   * @return the policy.
+   */
+  static DiagnosticRetentionPolicy errorsAndWarnings() {
+    var kinds = Set.of(Kind.ERROR, Kind.WARNING, Kind.MANDATORY_WARNING);
+    return (kind, index) -> kinds.contains(kind);
+  }
+}
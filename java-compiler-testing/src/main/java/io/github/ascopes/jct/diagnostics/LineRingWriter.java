@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A writer that keeps only the most recent lines written to it in memory.
+ *
+ * <p>Lines are split on {@code \n}, {@code \r}, and {@code \r\n} line terminators, in the same
+ * way as {@link String#lines()}. Older lines are discarded once the limit is reached, so memory
+ * usage stays bounded regardless of how much is written.
+ *
+ * <p>This is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class LineRingWriter extends Writer {
+
+  private final Lock operationLock;
+  private final int maxLines;
+  private final Deque<String> lines;
+  private final StringBuilder currentLine;
+  private boolean pendingCarriageReturn;
+  private long discardedLineCount;
+  private volatile boolean closed;
+
+  /**
+   * Initialise the writer.
+   *
+   * @param maxLines the maximum number of lines to keep.
+   * @throws IllegalArgumentException if the maximum number of lines is less than 1.
+   */
+  public LineRingWriter(int maxLines) {
+    if (maxLines < 1) {
+      throw new IllegalArgumentException("maxLines must be at least 1");
+    }
+
+    operationLock = new ReentrantLock();
+    this.maxLines = maxLines;
+    lines = new ArrayDeque<>(Math.min(maxLines, 64));
+    currentLine = new StringBuilder();
+    pendingCarriageReturn = false;
+    discardedLineCount = 0;
+    closed = false;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+  }
+
+  /**
+   * Get the maximum number of lines that are kept.
+   *
+   * @return the maximum number of lines.
+   */
+  public int getMaxLines() {
+    return maxLines;
+  }
+
+  /**
+   * Get the number of complete lines that have been discarded to stay within the limit.
+   *
+   * @return the number of discarded lines.
+   */
+  public long getDiscardedLineCount() {
+    operationLock.lock();
+    try {
+      return discardedLineCount;
+    } finally {
+      operationLock.unlock();
+    }
+  }
+
+  /**
+   * Get the most recent lines that were written, including any incomplete trailing line.
+   *
+   * @return an immutable copy of the lines, oldest first.
+   */
+  public List<String> getLines() {
+    operationLock.lock();
+    try {
+      var copy = new ArrayList<String>(lines.size() + 1);
+      copy.addAll(lines);
+
+      if (currentLine.length() > 0) {
+        if (copy.size() == maxLines) {
+          copy.remove(0);
+        }
+        copy.add(currentLine.toString());
+      }
+
+      return Collections.unmodifiableList(copy);
+    } finally {
+      operationLock.unlock();
+    }
+  }
+
+  @Override
+  public void write(char[] buffer, int offset, int length) throws IOException {
+    operationLock.lock();
+    try {
+      ensureOpen();
+
+      var runStart = offset;
+      var end = offset + length;
+
+      for (var i = offset; i < end; ++i) {
+        var c = buffer[i];
+
+        if (c != '\n' && c != '\r') {
+          pendingCarriageReturn = false;
+          continue;
+        }
+
+        currentLine.append(buffer, runStart, i - runStart);
+        runStart = i + 1;
+
+        if (c == '\n' && pendingCarriageReturn) {
+          // Second half of a \r\n terminator, the line was already committed.
+          pendingCarriageReturn = false;
+        } else {
+          commitLine();
+          pendingCarriageReturn = c == '\r';
+        }
+      }
+
+      currentLine.append(buffer, runStart, end - runStart);
+    } finally {
+      operationLock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.join("\n", getLines());
+  }
+
+  private void commitLine() {
+    lines.addLast(currentLine.toString());
+    currentLine.setLength(0);
+
+    if (lines.size() > maxLines) {
+      lines.removeFirst();
+      ++discardedLineCount;
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("LineRingWriter is closed");
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+/**
+ * Options for how to handle the textual output that a compiler writes while it runs.
+ *
+ * <p>This is separate to diagnostics, which are always reported to the
+ * {@link TracingDiagnosticListener}. Output is usually only substantial when running the
+ * compiler in verbose mode.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public enum OutputCaptureMode {
+
+  /**
+   * Discard all output. The compilation will report no output lines.
+   */
+  DISCARD,
+
+  /**
+   * Capture all output in memory without writing it to {@link System#out}.
+   */
+  CAPTURE,
+
+  /**
+   * Write all output to {@link System#out}, and also capture it all in memory.
+   */
+  TEE,
+
+  /**
+   * Capture only the most recent lines of output in memory, without writing anything to
+   * {@link System#out}.
+   *
+   * <p>The number of lines to keep is determined by the compiler's output capture line limit.
+   */
+  CAPTURE_LAST_LINES,
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable list of stack trace elements that are resolved from {@link StackFrame stack frames}
+ * the first time they are accessed.
+ *
+ * <p>Resolving a stack frame to a {@link StackTraceElement} is comparatively expensive, so this
+ * allows the cost to only be paid for diagnostics that are actually inspected.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class StackFrameList extends AbstractList<StackTraceElement> implements RandomAccess {
+
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+  /**
+   * Capture the stack frames of the current thread.
+   *
+   * <p>Any frames at the top of the stack that belong to this class or the given class are
+   * skipped.
+   *
+   * @param skipClass the class whose frames to skip at the top of the stack.
+   * @param limit     the maximum number of frames to capture.
+   * @return the captured frames.
+   */
+  static StackFrameList capture(Class<?> skipClass, int limit) {
+    var skipClassName = skipClass.getName();
+    var frames = STACK_WALKER.walk(stream -> stream
+        .dropWhile(frame -> frame.getClassName().equals(StackFrameList.class.getName())
+            || frame.getClassName().equals(skipClassName))
+        .limit(limit)
+        .toList());
+    return new StackFrameList(frames);
+  }
+
+  private final List<StackFrame> frames;
+  private final AtomicReferenceArray<@Nullable StackTraceElement> elements;
+
+  StackFrameList(List<StackFrame> frames) {
+    this.frames = frames;
+    elements = new AtomicReferenceArray<>(frames.size());
+  }
+
+  @Override
+  public StackTraceElement get(int index) {
+    var element = elements.get(index);
+
+    if (element == null) {
+      // StackTraceElement has non-final fields, so it must be published safely. Two threads
+      // may still resolve the same frame at once, but both produce equal elements, so we keep
+      // whichever is published first.
+      var resolved = frames.get(index).toStackTraceElement();
+      element = elements.compareAndExchange(index, null, resolved);
+      if (element == null) {
+        element = resolved;
+      }
+    }
+
+    return element;
+  }
+
+  @Override
+  public int size() {
+    return frames.size();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.filemanagers.LoggingMode;
+
+/**
+ * Options for how much of the call stack to capture for each {@link TraceDiagnostic}.
+ *
+ * <p>Capturing stack traces is one of the more expensive parts of reporting a diagnostic, so
+ * compilations that produce large numbers of diagnostics may benefit from capturing less.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public enum StackTraceCaptureMode {
+
+  /**
+   * Do not capture any stack trace. Diagnostics will report an empty stack trace.
+   */
+  NONE,
+
+  /**
+   * Capture a limited number of frames from the top of the stack. Frames are only resolved to
+   * {@link StackTraceElement stack trace elements} when they are first accessed.
+   */
+  LIMITED,
+
+  /**
+   * Capture the full stack trace of the reporting thread.
+   */
+  FULL;
+
+  /**
+   * Determine the default capture mode to use for the given diagnostic logging mode.
+   *
+   * <ul>
+   *   <li>{@link LoggingMode#DISABLED} captures {@link #NONE no stack trace};</li>
+   *   <li>{@link LoggingMode#ENABLED} and {@link LoggingMode#AGGREGATE} capture a
+   *     {@link #LIMITED limited stack trace};</li>
+   *   <li>{@link LoggingMode#STACKTRACES} captures the {@link #FULL full stack trace}.</li>
+   * </ul>
+   *
+   * @param loggingMode the diagnostic logging mode.
+   * @return the capture mode to use.
+   */
+  public static StackTraceCaptureMode forLoggingMode(LoggingMode loggingMode) {
+    requireNonNull(loggingMode, "loggingMode");
+
+    return switch (loggingMode) {
+      case DISABLED -> NONE;
+      case ENABLED, AGGREGATE -> LIMITED;
+      case STACKTRACES -> FULL;
+    };
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Predicate;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Callback that is invoked with each {@link TraceDiagnostic} as soon as the compiler reports it.
+ *
+ * <p>The result of the callback determines whether the diagnostic is retained in the
+ * compilation result, and whether the compilation should continue.
+ *
+ * <p>Callbacks are invoked on the thread that the compiler reports the diagnostic from, so
+ * implementations should be thread-safe and should avoid blocking.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+@FunctionalInterface
+public interface TraceDiagnosticCallback {
+
+  /**
+   * Handle a diagnostic that has just been reported by the compiler.
+   *
+   * @param diagnostic the diagnostic.
+   * @return the action to take for the diagnostic.
+   */
+  Action onDiagnostic(TraceDiagnostic<? extends JavaFileObject> diagnostic);
+
+  /**
+   * Get a callback that retains every diagnostic and never aborts the compilation.
+   *
+   * <p>This always returns the same instance.
+   *
+   * @return the callback.
+   */
+  static TraceDiagnosticCallback retainAll() {
+    return DiagnosticDefaults.RETAIN_ALL;
+  }
+
+  /**
+   * Get a callback that aborts the compilation on the first error that matches the given
+   * predicate. All diagnostics are retained.
+   *
+   * @param predicate the predicate to match errors with.
+   * @return the callback.
+   */
+  static TraceDiagnosticCallback abortOnError(
+      Predicate<? super TraceDiagnostic<? extends JavaFileObject>> predicate
+  ) {
+    requireNonNull(predicate, "predicate");
+    return diagnostic -> {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR && predicate.test(diagnostic)) {
+        return Action.ABORT;
+      }
+
+      return Action.RETAIN;
+    };
+  }
+
+  /**
+   * Get a callback that aborts the compilation on the first error that is reported. All
+   * diagnostics are retained.
+   *
+   * @return the callback.
+   */
+  static TraceDiagnosticCallback abortOnFirstError() {
+    return abortOnError(diagnostic -> true);
+  }
+
+  /**
+   * Actions that can be taken for a reported diagnostic.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  enum Action {
+
+    /**
+     * Retain the diagnostic in the compilation result, and continue compiling.
+     */
+    RETAIN,
+
+    /**
+     * Do not retain the diagnostic in the compilation result, and continue compiling.
+     *
+     * <p>This can be used to reduce memory usage when compilations produce very large numbers
+     * of diagnostics that are not of interest.
+     */
+    DISCARD,
+
+    /**
+     * Retain the diagnostic in the compilation result, and then abort the compilation as soon
+     * as possible.
+     *
+     * <p>Aborted compilations are always reported as being unsuccessful.
+     */
+    ABORT,
+  }
+}
@@ -17,14 +17,22 @@ package io.github.ascopes.jct.diagnostics;
 
 import static java.util.Objects.requireNonNull;
 
+import io.github.ascopes.jct.ex.JctCompilationAbortedException;
+import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.utils.LoomPolyfill;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaFileObject;
 import org.slf4j.Logger;
@@ -41,15 +49,31 @@ import org.slf4j.event.Level;
  */
 public class TracingDiagnosticListener<S extends JavaFileObject> implements DiagnosticListener<S> {
 
+  /**
+   * The default maximum number of frames captured when using
+   * {@link StackTraceCaptureMode#LIMITED}.
+   *
+   * @since 6.1.0
+   */
+  public static final int DEFAULT_STACK_TRACE_LIMIT = 32;
+
   private final ConcurrentLinkedQueue<TraceDiagnostic<S>> diagnostics;
   private final Logger logger;
   private final Supplier<? extends Thread> threadGetter;
   private final boolean logging;
   private final boolean stackTraces;
+  private final StackTraceCaptureMode stackTraceCaptureMode;
+  private final int stackTraceLimit;
+  private final TraceDiagnosticCallback callback;
+  private final DiagnosticRetentionPolicy retentionPolicy;
+  private final Map<Kind, AtomicLong> reportedCounts;
 
   /**
    * Initialize this listener.
    *
+   * <p>The amount of each stack trace to capture is determined from the logging settings. See
+   * {@link StackTraceCaptureMode#forLoggingMode(LoggingMode)} for details.
+   *
    * @param logging     {@code true} if logging is enabled, {@code false} otherwise.
    * @param stackTraces {@code true} if logging stack traces is enabled, {@code false} otherwise.
    *                    This is ignored if {@code logging} is {@code false}.
@@ -57,12 +81,95 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
   public TracingDiagnosticListener(
       boolean logging,
       boolean stackTraces
+  ) {
+    this(logging, stackTraces, defaultStackTraceCaptureMode(logging, stackTraces));
+  }
+
+  /**
+   * Initialize this listener.
+   *
+   * @param logging                {@code true} if logging is enabled, {@code false} otherwise.
+   * @param stackTraces            {@code true} if logging stack traces is enabled, {@code false}
+   *                               otherwise. This is ignored if {@code logging} is
+   *                               {@code false}.
+   * @param stackTraceCaptureMode  how much of the stack trace to capture for each diagnostic.
+   * @since 6.1.0
+   */
+  public TracingDiagnosticListener(
+      boolean logging,
+      boolean stackTraces,
+      StackTraceCaptureMode stackTraceCaptureMode
+  ) {
+    this(
+        logging,
+        stackTraces,
+        stackTraceCaptureMode,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.keepAll()
+    );
+  }
+
+  /**
+   * Initialize this listener.
+   *
+   * @param logging                {@code true} if logging is enabled, {@code false} otherwise.
+   * @param stackTraces            {@code true} if logging stack traces is enabled, {@code false}
+   *                               otherwise. This is ignored if {@code logging} is
+   *                               {@code false}.
+   * @param stackTraceCaptureMode  how much of the stack trace to capture for each diagnostic.
+   * @param callback               the callback to invoke with each diagnostic as it is reported.
+   * @param retentionPolicy        the policy that determines which diagnostics to retain.
+   * @since 6.1.0
+   */
+  public TracingDiagnosticListener(
+      boolean logging,
+      boolean stackTraces,
+      StackTraceCaptureMode stackTraceCaptureMode,
+      TraceDiagnosticCallback callback,
+      DiagnosticRetentionPolicy retentionPolicy
+  ) {
+    this(
+        logging,
+        stackTraces,
+        stackTraceCaptureMode,
+        DEFAULT_STACK_TRACE_LIMIT,
+        callback,
+        retentionPolicy
+    );
+  }
+
+  /**
+   * Initialize this listener.
+   *
+   * @param logging                {@code true} if logging is enabled, {@code false} otherwise.
+   * @param stackTraces            {@code true} if logging stack traces is enabled, {@code false}
+   *                               otherwise. This is ignored if {@code logging} is
+   *                               {@code false}.
+   * @param stackTraceCaptureMode  how much of the stack trace to capture for each diagnostic.
+   * @param stackTraceLimit        the maximum number of frames to capture when using
+   *                               {@link StackTraceCaptureMode#LIMITED}.
+   * @param callback               the callback to invoke with each diagnostic as it is reported.
+   * @param retentionPolicy        the policy that determines which diagnostics to retain.
+   * @throws IllegalArgumentException if the stack trace limit is less than 1.
+   * @since 6.1.0
+   */
+  public TracingDiagnosticListener(
+      boolean logging,
+      boolean stackTraces,
+      StackTraceCaptureMode stackTraceCaptureMode,
+      int stackTraceLimit,
+      TraceDiagnosticCallback callback,
+      DiagnosticRetentionPolicy retentionPolicy
   ) {
     this(
         LoggerFactory.getLogger(TracingDiagnosticListener.class),
         Thread::currentThread,
         logging,
-        stackTraces
+        stackTraces,
+        stackTraceCaptureMode,
+        stackTraceLimit,
+        callback,
+        retentionPolicy
     );
   }
 
@@ -70,13 +177,26 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
       Logger logger,
       Supplier<? extends Thread> threadGetter,
       boolean logging,
-      boolean stackTraces
+      boolean stackTraces,
+      StackTraceCaptureMode stackTraceCaptureMode,
+      int stackTraceLimit,
+      TraceDiagnosticCallback callback,
+      DiagnosticRetentionPolicy retentionPolicy
   ) {
+    if (stackTraceLimit < 1) {
+      throw new IllegalArgumentException("stackTraceLimit must be at least 1");
+    }
+
     diagnostics = new ConcurrentLinkedQueue<>();
     this.logger = requireNonNull(logger, "logger");
     this.threadGetter = requireNonNull(threadGetter, "threadGetter");
     this.logging = logging;
     this.stackTraces = stackTraces;
+    this.stackTraceCaptureMode = requireNonNull(stackTraceCaptureMode, "stackTraceCaptureMode");
+    this.stackTraceLimit = stackTraceLimit;
+    this.callback = requireNonNull(callback, "callback");
+    this.retentionPolicy = requireNonNull(retentionPolicy, "retentionPolicy");
+    reportedCounts = new ConcurrentHashMap<>();
   }
 
   /**
@@ -100,9 +220,67 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
     return stackTraces;
   }
 
+  /**
+   * Get how much of the stack trace is captured for each diagnostic.
+   *
+   * @return the stack trace capture mode.
+   * @since 6.1.0
+   */
+  public StackTraceCaptureMode getStackTraceCaptureMode() {
+    return stackTraceCaptureMode;
+  }
+
+  /**
+   * Get the maximum number of frames captured for each diagnostic when using
+   * {@link StackTraceCaptureMode#LIMITED}.
+   *
+   * @return the stack trace limit.
+   * @since 6.1.0
+   */
+  public int getStackTraceLimit() {
+    return stackTraceLimit;
+  }
+
+  /**
+   * Get the callback that is invoked with each diagnostic as it is reported.
+   *
+   * @return the callback.
+   * @since 6.1.0
+   */
+  public TraceDiagnosticCallback getCallback() {
+    return callback;
+  }
+
+  /**
+   * Get the policy that determines which diagnostics are retained.
+   *
+   * @return the retention policy.
+   * @since 6.1.0
+   */
+  public DiagnosticRetentionPolicy getRetentionPolicy() {
+    return retentionPolicy;
+  }
+
+  /**
+   * Get the number of diagnostics of each kind that have been reported so far, including any
+   * that were not retained.
+   *
+   * @return an immutable copy of the counts. Kinds that have not been reported are omitted.
+   * @since 6.1.0
+   */
+  public Map<Kind, Long> getDiagnosticCounts() {
+    var counts = new EnumMap<Kind, Long>(Kind.class);
+    reportedCounts.forEach((kind, count) -> counts.put(kind, count.get()));
+    return Collections.unmodifiableMap(counts);
+  }
+
   /**
    * Get a copy of the queue containing all the diagnostics that have been detected.
    *
+   * <p>Diagnostics that were {@link TraceDiagnosticCallback.Action#DISCARD discarded} by the
+   * {@link #getCallback() callback}, or that were not retained due to the
+   * {@link #getRetentionPolicy() retention policy} are not included.
+   *
    * @return the diagnostics in a list.
    */
   public List<TraceDiagnostic<S>> getDiagnostics() {
@@ -116,23 +294,48 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
     var now = Instant.now();
     var thisThread = threadGetter.get();
     var threadName = thisThread.getName();
-    var stackTrace = List.of(thisThread.getStackTrace());
+    var stackTrace = captureStackTrace(thisThread);
     var threadId = LoomPolyfill.getThreadId(thisThread);
 
     var wrapped = new TraceDiagnostic<S>(now, threadId, threadName, stackTrace, diagnostic);
+    var action = requireNonNull(callback.onDiagnostic(wrapped), "callback result");
 
-    diagnostics.add(wrapped);
+    var index = reportedCounts
+        .computeIfAbsent(diagnostic.getKind(), unused -> new AtomicLong())
+        .getAndIncrement();
 
-    if (!logging) {
-      return;
+    // Diagnostics that abort the compilation are always kept, since they explain the failure.
+    if (action == TraceDiagnosticCallback.Action.ABORT
+        || (action == TraceDiagnosticCallback.Action.RETAIN
+        && retentionPolicy.shouldRetain(diagnostic.getKind(), index))) {
+      diagnostics.add(wrapped);
+    }
+
+    if (logging) {
+      logger
+          .atLevel(diagnosticToLevel(diagnostic))
+          .setMessage("{}{}")
+          .addArgument(messageGetter(wrapped))
+          .addArgument(stackTraceFormatter(stackTrace))
+          .log();
+    }
+
+    if (action == TraceDiagnosticCallback.Action.ABORT) {
+      // The compiler will propagate this out of the running task, where it is handled
+      // by the compilation factory.
+      throw new JctCompilationAbortedException(
+          "Compilation aborted by diagnostic callback: " + diagnostic.getMessage(Locale.ROOT)
+      );
     }
+  }
 
-    logger
-        .atLevel(diagnosticToLevel(diagnostic))
-        .setMessage("{}{}")
-        .addArgument(messageGetter(wrapped))
-        .addArgument(stackTraceFormatter(stackTrace))
-        .log();
+  private List<StackTraceElement> captureStackTrace(Thread thread) {
+    return switch (stackTraceCaptureMode) {
+      case NONE -> List.of();
+      // StackWalker can only walk the current thread, which is always the reporting thread.
+      case LIMITED -> StackFrameList.capture(TracingDiagnosticListener.class, stackTraceLimit);
+      case FULL -> List.of(thread.getStackTrace());
+    };
   }
 
   private Level diagnosticToLevel(Diagnostic<?> diagnostic) {
@@ -157,4 +360,15 @@ public class TracingDiagnosticListener<S extends JavaFileObject> implements Diag
         .map(frame -> "\n\t" + frame)
         .collect(Collectors.joining());
   }
+
+  private static StackTraceCaptureMode defaultStackTraceCaptureMode(
+      boolean logging,
+      boolean stackTraces
+  ) {
+    if (!logging) {
+      return StackTraceCaptureMode.NONE;
+    }
+
+    return stackTraces ? StackTraceCaptureMode.FULL : StackTraceCaptureMode.LIMITED;
+  }
 }
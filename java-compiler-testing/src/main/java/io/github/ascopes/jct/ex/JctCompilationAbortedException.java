@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.ex;
+
+/**
+ * Exception that is raised from within a diagnostic listener to abort a running compilation.
+ *
+ * <p>This is handled internally by JCT, and results in an unsuccessful compilation being
+ * reported rather than this exception being propagated to the caller.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JctCompilationAbortedException extends JctException {
+
+  /**
+   * Initialize the error.
+   *
+   * @param message the error message.
+   */
+  public JctCompilationAbortedException(String message) {
+    super(message);
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.filemanagers;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.workspaces.Workspace;
 
 /**
@@ -33,4 +34,23 @@ public interface JctFileManagerFactory {
    * @return the file manager.
    */
   JctFileManager createFileManager(Workspace workspace);
+
+  /**
+   * Create and configure a file manager for a workspace, recording metrics about the file
+   * manager in the given collector.
+   *
+   * <p>The default implementation calls {@link #createFileManager(Workspace)} and records no
+   * metrics.
+   *
+   * @param workspace the workspace to access files in.
+   * @param metrics   the collector to record metrics in.
+   * @return the file manager.
+   * @since 6.1.0
+   */
+  default JctFileManager createFileManager(
+      Workspace workspace,
+      JctCompilationMetricsCollector metrics
+  ) {
+    return createFileManager(workspace);
+  }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.Lazy;
+import io.github.ascopes.jct.utils.ModuleDiscoverer;
+import io.github.ascopes.jct.utils.ModuleDiscoverer.ModuleCandidate;
+import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable snapshot of the locations inherited from the running JVM.
+ *
+ * <p>Resolving the JVM class path and module path involves parsing the raw path strings,
+ * checking every entry exists on disk, and discovering any modules within them. Since these
+ * values do not change between compilations, a single snapshot is computed and then shared by
+ * every file manager that inherits them.
+ *
+ * <p>The {@link #current() current snapshot} is memoized against the raw class path and module
+ * path strings, so it will be recomputed if either of those is changed at runtime. Note that
+ * entries that do not exist when the snapshot is taken are not picked up if they are created
+ * later.
+ *
+ * <p>The containers built from these locations are release-specific and owned by each file
+ * manager, but the expensive parts of them (such as JAR indexes) are shared separately via the
+ * {@link io.github.ascopes.jct.containers.impl.JarIndexCache}.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JvmEnvironmentSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(JvmEnvironmentSnapshot.class);
+  private static final Lock CURRENT_LOCK = new ReentrantLock();
+  private static volatile @Nullable JvmEnvironmentSnapshot current = null;
+
+  /**
+   * Get the snapshot for the current JVM, computing it first if needed.
+   *
+   * @return the snapshot.
+   */
+  public static JvmEnvironmentSnapshot current() {
+    var rawClassPath = SpecialLocationUtils.currentRawClassPath();
+    var rawModulePath = SpecialLocationUtils.currentRawModulePath();
+
+    var snapshot = current;
+
+    if (snapshot == null || !snapshot.matches(rawClassPath, rawModulePath)) {
+      CURRENT_LOCK.lock();
+      try {
+        snapshot = current;
+        if (snapshot == null || !snapshot.matches(rawClassPath, rawModulePath)) {
+          snapshot = new JvmEnvironmentSnapshot(rawClassPath, rawModulePath);
+          current = snapshot;
+        }
+      } finally {
+        CURRENT_LOCK.unlock();
+      }
+    }
+
+    return snapshot;
+  }
+
+  /**
+   * Get the given snapshot, or the {@link #current() current snapshot} if none was given.
+   *
+   * <p>The current snapshot is resolved as late as possible, so that it is never computed by
+   * callers that end up not inheriting any JVM locations.
+   *
+   * @param snapshot the explicit snapshot to use, or {@code null} to use the current snapshot.
+   * @return the snapshot.
+   */
+  public static JvmEnvironmentSnapshot orCurrent(@Nullable JvmEnvironmentSnapshot snapshot) {
+    return snapshot == null
+        ? current()
+        : snapshot;
+  }
+
+  private final String rawClassPath;
+  private final String rawModulePath;
+  private final List<PathRoot> classPath;
+  private final List<PathRoot> modulePath;
+  private final List<PathRoot> systemModules;
+  private final Lazy<Map<String, List<PathRoot>>> classPathModules;
+  private final Lazy<Map<String, List<PathRoot>>> modulePathModules;
+
+  /**
+   * Initialise this snapshot.
+   *
+   * @param rawClassPath  the raw class path string.
+   * @param rawModulePath the raw module path string.
+   */
+  JvmEnvironmentSnapshot(String rawClassPath, String rawModulePath) {
+    this.rawClassPath = requireNonNull(rawClassPath, "rawClassPath");
+    this.rawModulePath = requireNonNull(rawModulePath, "rawModulePath");
+
+    log.debug("Resolving JVM environment snapshot");
+
+    classPath = wrap(SpecialLocationUtils.parsePathList(rawClassPath));
+    modulePath = wrap(SpecialLocationUtils.parsePathList(rawModulePath));
+    systemModules = wrap(SpecialLocationUtils.javaRuntimeLocations());
+
+    // Module discovery has to open every entry, so only do it if someone asks for it.
+    classPathModules = new Lazy<>(() -> discoverModules(classPath));
+    modulePathModules = new Lazy<>(() -> discoverModules(modulePath));
+  }
+
+  /**
+   * Get the resolved class path entries.
+   *
+   * @return the class path entries.
+   */
+  public List<PathRoot> getClassPath() {
+    return classPath;
+  }
+
+  /**
+   * Get the resolved module path entries.
+   *
+   * @return the module path entries.
+   */
+  public List<PathRoot> getModulePath() {
+    return modulePath;
+  }
+
+  /**
+   * Get the resolved system module entries.
+   *
+   * @return the system module entries.
+   */
+  public List<PathRoot> getSystemModules() {
+    return systemModules;
+  }
+
+  /**
+   * Get any JPMS modules that were discovered within the class path.
+   *
+   * @return the module roots on the class path, keyed by module name.
+   */
+  public Map<String, List<PathRoot>> getClassPathModules() {
+    return classPathModules.access();
+  }
+
+  /**
+   * Get any JPMS modules that were discovered within the module path.
+   *
+   * @return the module roots on the module path, keyed by module name.
+   */
+  public Map<String, List<PathRoot>> getModulePathModules() {
+    return modulePathModules.access();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("classPath", classPath)
+        .attribute("modulePath", modulePath)
+        .attribute("systemModules", systemModules)
+        .toString();
+  }
+
+  private boolean matches(String rawClassPath, String rawModulePath) {
+    return this.rawClassPath.equals(rawClassPath) && this.rawModulePath.equals(rawModulePath);
+  }
+
+  private static List<PathRoot> wrap(List<Path> paths) {
+    return paths.stream()
+        .<PathRoot>map(WrappingDirectoryImpl::new)
+        .toList();
+  }
+
+  private static Map<String, List<PathRoot>> discoverModules(List<PathRoot> pathRoots) {
+    // Retain the path order so that modules are registered in the same order as the JVM would
+    // see them.
+    var modules = new LinkedHashMap<String, List<PathRoot>>();
+
+    pathRoots.stream()
+        .map(PathRoot::getPath)
+        .map(ModuleDiscoverer::findModulesIn)
+        .flatMap(candidates -> candidates.stream()
+            .sorted(Comparator.comparing(ModuleCandidate::getName)))
+        .forEach(candidate -> modules
+            .computeIfAbsent(candidate.getName(), name -> new ArrayList<>())
+            .add(candidate.createPathRoot()));
+
+    modules.replaceAll((name, roots) -> List.copyOf(roots));
+    return Collections.unmodifiableMap(modules);
+  }
+}
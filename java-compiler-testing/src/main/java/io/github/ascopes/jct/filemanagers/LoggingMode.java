@@ -39,4 +39,14 @@ public enum LoggingMode {
    * Do not log anything.
    */
   DISABLED,
+
+  /**
+   * Do not log each call, but record per-method call counts, hit/miss ratios and latency
+   * histograms, and log a single summary of them at the end of each compilation.
+   *
+   * <p>Where a component does not support aggregation, this behaves like {@link #ENABLED}.
+   *
+   * @since 6.1.0
+   */
+  AGGREGATE,
 }
@@ -15,10 +15,13 @@
  */
 package io.github.ascopes.jct.filemanagers.config;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -101,12 +104,38 @@ public final class JctFileManagerConfigurerChain {
    *     parameter, depending on how the configurers manipulate the input object.
    */
   public JctFileManager configure(JctFileManager fileManager) {
+    return configure(fileManager, null);
+  }
+
+  /**
+   * Apply each configurer to the given file manager in order, recording the time taken by each
+   * configurer.
+   *
+   * @param fileManager the file manager to configure.
+   * @param metrics     the collector to record the configurer times in, or {@code null} to not
+   *                    record them.
+   * @return the configured file manager to use. This may or may not be the same object as the input
+   *     parameter, depending on how the configurers manipulate the input object.
+   * @since 6.1.0
+   */
+  public JctFileManager configure(
+      JctFileManager fileManager,
+      @Nullable JctCompilationMetricsCollector metrics
+  ) {
     for (var configurer : configurers) {
       if (configurer.isEnabled()) {
         log.debug("Applying {} to file manager {}", configurer, fileManager);
+        var start = System.nanoTime();
         // Configurers can totally replace the existing file manager
         // if they choose.
         fileManager = configurer.configure(fileManager);
+
+        if (metrics != null) {
+          metrics.recordConfigurerTime(
+              configurer.getClass().getSimpleName(),
+              Duration.ofNanos(System.nanoTime() - start)
+          );
+        }
       } else {
         log.trace("Skipping {}", configurer);
       }
@@ -17,11 +17,11 @@ package io.github.ascopes.jct.filemanagers.config;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
-import io.github.ascopes.jct.utils.ModuleDiscoverer;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.utils.StringUtils;
-import java.util.Set;
 import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +43,7 @@ public final class JctFileManagerJvmClassPathModuleConfigurer
       .getLogger(JctFileManagerJvmClassPathModuleConfigurer.class);
 
   private final JctCompiler compiler;
+  private final @Nullable JvmEnvironmentSnapshot environment;
 
   /**
    * Initialise the configurer with the desired compiler.
@@ -51,6 +52,22 @@ public final class JctFileManagerJvmClassPathModuleConfigurer
    */
   public JctFileManagerJvmClassPathModuleConfigurer(JctCompiler compiler) {
     this.compiler = compiler;
+    environment = null;
+  }
+
+  /**
+   * Initialise the configurer with the desired compiler and JVM environment.
+   *
+   * @param compiler    the compiler to wrap.
+   * @param environment the JVM environment to inherit locations from.
+   * @since 6.1.0
+   */
+  public JctFileManagerJvmClassPathModuleConfigurer(
+      JctCompiler compiler,
+      JvmEnvironmentSnapshot environment
+  ) {
+    this.compiler = compiler;
+    this.environment = environment;
   }
 
   @Override
@@ -59,27 +76,18 @@ public final class JctFileManagerJvmClassPathModuleConfigurer
         "Copying any misplaced modules that exist within the class path onto the module path"
     );
 
-    SpecialLocationUtils
-        .currentClassPathLocations()
-        .stream()
-        .peek(loc -> log
-            .atTrace()
-            .setMessage("Adding {} ({}) to file manager module path (inherited from JVM))")
-            .addArgument(() -> StringUtils.quoted(loc.toAbsolutePath()))
-            .addArgument(() -> StringUtils.quoted(loc.toUri()))
-            .log())
-        .map(ModuleDiscoverer::findModulesIn)
-        .flatMap(Set::stream)
-        .peek(module -> log
-            .atDebug()
-            .setMessage("Discovered module {}")
-            .addArgument(module)
-            .log())
-        // File manager will pull out the actual modules automatically.
-        .forEach(module -> fileManager.addPath(
-            StandardLocation.MODULE_PATH,
-            module.createPathRoot()
-        ));
+    // Modules have already been discovered by the environment, so we register them individually
+    // rather than making the file manager rediscover them each time.
+    JvmEnvironmentSnapshot.orCurrent(environment)
+        .getClassPathModules()
+        .forEach((name, roots) -> roots.forEach(root -> {
+          log.atDebug()
+              .setMessage("Discovered module {} ({})")
+              .addArgument(() -> StringUtils.quoted(name))
+              .addArgument(() -> StringUtils.quoted(root.getUri()))
+              .log();
+          fileManager.addPath(new ModuleLocation(StandardLocation.MODULE_PATH, name), root);
+        }));
 
     return fileManager;
   }
@@ -17,10 +17,11 @@ package io.github.ascopes.jct.filemanagers.config;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.utils.StringUtils;
-import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,7 @@ public final class JctFileManagerJvmModulePathConfigurer
       .getLogger(JctFileManagerJvmModulePathConfigurer.class);
 
   private final JctCompiler compiler;
+  private final @Nullable JvmEnvironmentSnapshot environment;
 
   /**
    * Initialise the configurer with the desired compiler.
@@ -47,6 +49,22 @@ public final class JctFileManagerJvmModulePathConfigurer
    */
   public JctFileManagerJvmModulePathConfigurer(JctCompiler compiler) {
     this.compiler = compiler;
+    environment = null;
+  }
+
+  /**
+   * Initialise the configurer with the desired compiler and JVM environment.
+   *
+   * @param compiler    the compiler to wrap.
+   * @param environment the JVM environment to inherit locations from.
+   * @since 6.1.0
+   */
+  public JctFileManagerJvmModulePathConfigurer(
+      JctCompiler compiler,
+      JvmEnvironmentSnapshot environment
+  ) {
+    this.compiler = compiler;
+    this.environment = environment;
   }
 
 
@@ -54,23 +72,34 @@ public final class JctFileManagerJvmModulePathConfigurer
   public JctFileManager configure(JctFileManager fileManager) {
     log.debug("Configuring module path");
 
-    SpecialLocationUtils
-        .currentModulePathLocations()
+    var snapshot = JvmEnvironmentSnapshot.orCurrent(environment);
+
+    // Modules within the module path have already been discovered by the environment, so we
+    // register them individually rather than making the file manager rediscover them each time.
+    snapshot
+        .getModulePathModules()
+        .forEach((name, roots) -> roots.forEach(root -> {
+          log.atTrace()
+              .setMessage("Adding module {} ({}) to file manager module path (inherited from JVM))")
+              .addArgument(() -> StringUtils.quoted(name))
+              .addArgument(() -> StringUtils.quoted(root.getUri()))
+              .log();
+          fileManager.addPath(new ModuleLocation(StandardLocation.MODULE_PATH, name), root);
+        }));
+
+    // Since we do not know if the code being compiled will use modules or not just yet,
+    // make sure any modules are on the class path as well so that they remain accessible
+    // in unnamed modules.
+    snapshot
+        .getModulePath()
         .stream()
         .peek(loc -> log
             .atTrace()
-            .setMessage("Adding {} ({}) to file manager module path (inherited from JVM))")
-            .addArgument(() -> StringUtils.quoted(loc.toAbsolutePath()))
-            .addArgument(() -> StringUtils.quoted(loc.toUri()))
+            .setMessage("Adding {} ({}) to file manager class path (inherited from JVM))")
+            .addArgument(() -> StringUtils.quoted(loc.getPath()))
+            .addArgument(() -> StringUtils.quoted(loc.getUri()))
             .log())
-        .map(WrappingDirectoryImpl::new)
-        .forEach(dir -> {
-          // Since we do not know if the code being compiled will use modules or not just yet,
-          // make sure any modules are on the class path as well so that they remain accessible
-          // in unnamed modules.
-          fileManager.addPath(StandardLocation.MODULE_PATH, dir);
-          fileManager.addPath(StandardLocation.CLASS_PATH, dir);
-        });
+        .forEach(dir -> fileManager.addPath(StandardLocation.CLASS_PATH, dir));
 
     return fileManager;
   }
@@ -17,10 +17,10 @@ package io.github.ascopes.jct.filemanagers.config;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
 import io.github.ascopes.jct.utils.StringUtils;
-import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +39,7 @@ public final class JctFileManagerJvmSystemModulesConfigurer
       .getLogger(JctFileManagerJvmSystemModulesConfigurer.class);
 
   private final JctCompiler compiler;
+  private final @Nullable JvmEnvironmentSnapshot environment;
 
   /**
    * Initialise the configurer with the desired compiler.
@@ -47,22 +48,37 @@ public final class JctFileManagerJvmSystemModulesConfigurer
    */
   public JctFileManagerJvmSystemModulesConfigurer(JctCompiler compiler) {
     this.compiler = compiler;
+    environment = null;
+  }
+
+  /**
+   * Initialise the configurer with the desired compiler and JVM environment.
+   *
+   * @param compiler    the compiler to wrap.
+   * @param environment the JVM environment to inherit locations from.
+   * @since 6.1.0
+   */
+  public JctFileManagerJvmSystemModulesConfigurer(
+      JctCompiler compiler,
+      JvmEnvironmentSnapshot environment
+  ) {
+    this.compiler = compiler;
+    this.environment = environment;
   }
 
   @Override
   public JctFileManager configure(JctFileManager fileManager) {
     log.debug("Configuring JVM system modules path");
 
-    SpecialLocationUtils
-        .javaRuntimeLocations()
+    JvmEnvironmentSnapshot.orCurrent(environment)
+        .getSystemModules()
         .stream()
         .peek(loc -> log
             .atTrace()
             .setMessage("Adding {} ({}) to file manager system modules path (inherited from JVM))")
-            .addArgument(() -> StringUtils.quoted(loc.toAbsolutePath()))
-            .addArgument(() -> StringUtils.quoted(loc.toUri()))
+            .addArgument(() -> StringUtils.quoted(loc.getPath()))
+            .addArgument(() -> StringUtils.quoted(loc.getUri()))
             .log())
-        .map(WrappingDirectoryImpl::new)
         .forEach(dir -> fileManager.addPath(StandardLocation.SYSTEM_MODULES, dir));
 
     return fileManager;
@@ -18,7 +18,8 @@ package io.github.ascopes.jct.filemanagers.config;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
-import io.github.ascopes.jct.filemanagers.impl.LoggingFileManagerProxy;
+import io.github.ascopes.jct.filemanagers.impl.AggregatingFileManagerInterceptor;
+import io.github.ascopes.jct.filemanagers.impl.LoggingFileManagerInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +27,9 @@ import org.slf4j.LoggerFactory;
  * File manager configurer that optionally wraps the file manager in a logging proxy that outputs
  * interaction details to the console logs.
  *
+ * <p>In {@link LoggingMode#AGGREGATE aggregate mode}, a single summary of all interactions is
+ * logged at the end of the compilation instead of a line per interaction.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -53,11 +57,15 @@ public final class JctFileManagerLoggingProxyConfigurer
     return switch (compiler.getFileManagerLoggingMode()) {
       case STACKTRACES -> {
         log.trace("Decorating file manager {} in a logger proxy with stack traces", fileManager);
-        yield LoggingFileManagerProxy.wrap(fileManager, true);
+        yield LoggingFileManagerInterceptor.wrap(fileManager, true);
       }
       case ENABLED -> {
         log.trace("Decorating file manager {} in a logger proxy", fileManager);
-        yield LoggingFileManagerProxy.wrap(fileManager, false);
+        yield LoggingFileManagerInterceptor.wrap(fileManager, false);
+      }
+      case AGGREGATE -> {
+        log.trace("Decorating file manager {} in an aggregating logger proxy", fileManager);
+        yield AggregatingFileManagerInterceptor.wrap(fileManager);
       }
       default -> throw new IllegalStateException("Cannot configure logger proxy");
     };
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An interceptor that aggregates statistics about the calls made to a {@link JctFileManager}, and
+ * logs a single summary of them when the file manager is closed at the end of the compilation.
+ *
+ * <p>For each method, the number of calls, the number of failures, the total and maximum time
+ * spent, and a histogram of call latencies are recorded. For lookup methods, the number of hits
+ * (a file or location was found) and misses (nothing was found) is recorded as well.
+ *
+ * <p>Latencies are bucketed by powers of two nanoseconds, so reported percentiles are upper
+ * bounds that are accurate to within a factor of two. This keeps recording cheap and allocation
+ * free, which matters since {@code javac} can make hundreds of thousands of calls to the file
+ * manager in a single compilation.
+ *
+ * <p>The summary is emitted with the {@code INFO} logging level.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class AggregatingFileManagerInterceptor implements FileManagerInterceptor {
+
+  private static final int BUCKETS = Long.SIZE;
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+  private final Logger logger;
+  private final Map<FileManagerMethod, MethodStats> stats;
+
+  AggregatingFileManagerInterceptor() {
+    // Instance scoped for testing purposes.
+    logger = LoggerFactory.getLogger(AggregatingFileManagerInterceptor.class);
+    stats = new EnumMap<>(FileManagerMethod.class);
+    for (var method : FileManagerMethod.values()) {
+      stats.put(method, new MethodStats());
+    }
+  }
+
+  @Override
+  public boolean isInspectingArguments() {
+    return false;
+  }
+
+  @Override
+  public long before(FileManagerMethod method) {
+    return System.nanoTime();
+  }
+
+  @Override
+  public long before(FileManagerMethod method, @Nullable Object[] args) {
+    return before(method);
+  }
+
+  @Override
+  public void afterReturning(FileManagerMethod method, long token, @Nullable Object result) {
+    var methodStats = statsFor(method);
+    methodStats.record(System.nanoTime() - token);
+
+    if (method.isLookup()) {
+      if (method.isHit(result)) {
+        methodStats.hits.increment();
+      } else {
+        methodStats.misses.increment();
+      }
+    }
+  }
+
+  @Override
+  public void afterThrowing(FileManagerMethod method, long token, Throwable ex) {
+    var methodStats = statsFor(method);
+    methodStats.record(System.nanoTime() - token);
+    methodStats.failures.increment();
+  }
+
+  @Override
+  public void afterClose() {
+    if (getTotalCallCount() > 0) {
+      logger.info("{}", getSummary());
+    }
+    reset();
+  }
+
+  /**
+   * Get the number of calls recorded for the given method since the last time the file manager
+   * was closed.
+   *
+   * @param method the method.
+   * @return the number of calls.
+   */
+  public long getCallCount(FileManagerMethod method) {
+    return statsFor(method).calls.sum();
+  }
+
+  /**
+   * Get the number of calls to the given lookup method that found something.
+   *
+   * @param method the method.
+   * @return the number of hits. This is always zero for methods that are not lookups.
+   */
+  public long getHitCount(FileManagerMethod method) {
+    return statsFor(method).hits.sum();
+  }
+
+  /**
+   * Get the number of calls to the given lookup method that found nothing.
+   *
+   * @param method the method.
+   * @return the number of misses. This is always zero for methods that are not lookups.
+   */
+  public long getMissCount(FileManagerMethod method) {
+    return statsFor(method).misses.sum();
+  }
+
+  /**
+   * Get the number of calls to the given method that threw an exception.
+   *
+   * @param method the method.
+   * @return the number of failures.
+   */
+  public long getFailureCount(FileManagerMethod method) {
+    return statsFor(method).failures.sum();
+  }
+
+  /**
+   * Get the total number of calls recorded across all methods.
+   *
+   * @return the total number of calls.
+   */
+  public long getTotalCallCount() {
+    var total = 0L;
+    for (var methodStats : stats.values()) {
+      total += methodStats.calls.sum();
+    }
+    return total;
+  }
+
+  /**
+   * Get a human-readable summary of the recorded calls.
+   *
+   * <p>Methods are listed in descending order of the total time spent in them. Methods that
+   * were never called are omitted.
+   *
+   * @return the summary.
+   */
+  public String getSummary() {
+    var methods = new ArrayList<FileManagerMethod>();
+    var totalCalls = 0L;
+    var totalNanos = 0L;
+
+    for (var method : FileManagerMethod.values()) {
+      var methodStats = statsFor(method);
+      var calls = methodStats.calls.sum();
+      if (calls > 0) {
+        methods.add(method);
+        totalCalls += calls;
+        totalNanos += methodStats.totalNanos.sum();
+      }
+    }
+
+    // Slowest first. The sort is stable, so ties remain in declaration order.
+    methods.sort((first, second) -> Long.compare(
+        statsFor(second).totalNanos.sum(),
+        statsFor(first).totalNanos.sum()
+    ));
+
+    var builder = new StringBuilder("File manager calls (")
+        .append(totalCalls)
+        .append(" calls, ")
+        .append(formatNanos(totalNanos))
+        .append(" total):");
+
+    for (var method : methods) {
+      builder.append("\n\t").append(method.getMethodName())
+          .append('(').append(method.getParameterTypes()).append(')');
+      statsFor(method).appendTo(builder, method.isLookup());
+    }
+
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("totalCallCount", getTotalCallCount())
+        .toString();
+  }
+
+  private MethodStats statsFor(FileManagerMethod method) {
+    // Every method is populated upon construction.
+    return requireNonNull(stats.get(method));
+  }
+
+  private void reset() {
+    for (var methodStats : stats.values()) {
+      methodStats.reset();
+    }
+  }
+
+  static String formatNanos(long nanos) {
+    if (nanos < 1_000) {
+      return nanos + " ns";
+    }
+    if (nanos < 1_000_000) {
+      return String.format(Locale.ROOT, "%.1f us", nanos / 1_000.0);
+    }
+    if (nanos < 1_000_000_000) {
+      return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+    }
+    return String.format(Locale.ROOT, "%.2f s", nanos / 1_000_000_000.0);
+  }
+
+  static int bucketFor(long nanos) {
+    // Bucket n holds latencies in [2^n, 2^(n+1)), with anything under 2ns in bucket 0.
+    return nanos < 2 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(nanos);
+  }
+
+  /**
+   * Wrap the given {@link JctFileManager} in a file manager that aggregates statistics about any
+   * calls and logs a summary of them when it is closed.
+   *
+   * @param manager the manager to wrap.
+   * @return the wrapped {@link JctFileManager} to use.
+   */
+  public static JctFileManager wrap(JctFileManager manager) {
+    return new InterceptingFileManager(manager, new AggregatingFileManagerInterceptor());
+  }
+
+  private static final class MethodStats {
+
+    private final LongAdder calls;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder failures;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+    private final AtomicLongArray histogram;
+
+    private MethodStats() {
+      calls = new LongAdder();
+      hits = new LongAdder();
+      misses = new LongAdder();
+      failures = new LongAdder();
+      totalNanos = new LongAdder();
+      maxNanos = new LongAccumulator(Math::max, 0);
+      histogram = new AtomicLongArray(BUCKETS);
+    }
+
+    private void record(long nanos) {
+      calls.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      histogram.incrementAndGet(bucketFor(nanos));
+    }
+
+    private void reset() {
+      calls.reset();
+      hits.reset();
+      misses.reset();
+      failures.reset();
+      totalNanos.reset();
+      maxNanos.reset();
+      for (var bucket = 0; bucket < BUCKETS; ++bucket) {
+        histogram.set(bucket, 0);
+      }
+    }
+
+    private void appendTo(StringBuilder builder, boolean lookup) {
+      var callCount = calls.sum();
+      builder.append(": calls=").append(callCount);
+
+      if (lookup) {
+        var hitCount = hits.sum();
+        var missCount = misses.sum();
+        var lookups = hitCount + missCount;
+        builder.append(", hits=").append(hitCount)
+            .append(", misses=").append(missCount)
+            .append(", hitRate=")
+            .append(lookups == 0
+                ? "n/a"
+                : String.format(Locale.ROOT, "%.1f%%", 100.0 * hitCount / lookups));
+      }
+
+      var failureCount = failures.sum();
+      if (failureCount > 0) {
+        builder.append(", failures=").append(failureCount);
+      }
+
+      builder.append(", total=").append(formatNanos(totalNanos.sum()));
+
+      for (var percentile : PERCENTILES) {
+        builder.append(", p").append(Math.round(percentile * 100))
+            .append("<=").append(formatNanos(percentileUpperBound(callCount, percentile)));
+      }
+
+      builder.append(", max=").append(formatNanos(maxNanos.get()));
+    }
+
+    private long percentileUpperBound(long callCount, double percentile) {
+      var target = (long) Math.ceil(callCount * percentile);
+      var seen = 0L;
+
+      for (var bucket = 0; bucket < BUCKETS; ++bucket) {
+        seen += histogram.get(bucket);
+        if (seen >= target) {
+          // Never report more than the slowest call that was actually observed.
+          return bucket >= BUCKETS - 2
+              ? maxNanos.get()
+              : Math.min(1L << (bucket + 1), maxNanos.get());
+        }
+      }
+
+      return maxNanos.get();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An interceptor that counts the calls made to each method of a {@link JctFileManager} in a
+ * {@link JctCompilationMetricsCollector}.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class CallCountingFileManagerInterceptor implements FileManagerInterceptor {
+
+  private final JctCompilationMetricsCollector metrics;
+
+  private CallCountingFileManagerInterceptor(JctCompilationMetricsCollector metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public boolean isInspectingArguments() {
+    return false;
+  }
+
+  @Override
+  public long before(FileManagerMethod method) {
+    metrics.recordFileManagerCall(method.getMethodName());
+    return 0;
+  }
+
+  @Override
+  public long before(FileManagerMethod method, @Nullable Object[] args) {
+    return before(method);
+  }
+
+  @Override
+  public void afterReturning(FileManagerMethod method, long token, @Nullable Object result) {
+    // Nothing to do.
+  }
+
+  @Override
+  public void afterThrowing(FileManagerMethod method, long token, Throwable ex) {
+    // Nothing to do.
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("metrics", metrics)
+        .toString();
+  }
+
+  /**
+   * Wrap the given {@link JctFileManager} in a file manager that counts any calls.
+   *
+   * @param manager the manager to wrap.
+   * @param metrics the collector to record the calls in.
+   * @return the wrapped {@link JctFileManager} to use.
+   */
+  public static JctFileManager wrap(
+      JctFileManager manager,
+      JctCompilationMetricsCollector metrics
+  ) {
+    return new InterceptingFileManager(manager, new CallCountingFileManagerInterceptor(metrics));
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.net.URI;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Cache of the decoded character content of files on read-only input locations.
+ *
+ * <p>Each cache is owned by a single container, so it lives no longer than the file manager
+ * that the container belongs to. Nothing is shared between compilations that use different file
+ * managers.
+ *
+ * <p>Entries are keyed by the URI of each file rather than the path, so that the cache never
+ * keeps a file system alive. Each entry remembers the file key, size and last-modified time of
+ * the file when it was read, and is discarded if any of them have changed since. The least
+ * recently used entries are evicted once the total number of cached characters exceeds the
+ * limit.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class FileContentCache {
+
+  // Roughly 16 MiB of heap, as Java strings of source code are usually stored as Latin-1.
+  static final long DEFAULT_MAX_CACHED_CHARS = 16L * 1024 * 1024;
+
+  private final long maxCachedChars;
+  private final Lock lock;
+  private final LinkedHashMap<URI, Entry> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private long cachedChars;
+
+  /**
+   * Initialise this cache with the default size limit.
+   */
+  public FileContentCache() {
+    this(DEFAULT_MAX_CACHED_CHARS);
+  }
+
+  FileContentCache(long maxCachedChars) {
+    if (maxCachedChars < 0) {
+      throw new IllegalArgumentException("maxCachedChars cannot be negative");
+    }
+
+    this.maxCachedChars = maxCachedChars;
+    lock = new ReentrantLock();
+    entries = new LinkedHashMap<>(16, 0.75f, true);
+    hits = new LongAdder();
+    misses = new LongAdder();
+    cachedChars = 0;
+  }
+
+  /**
+   * Get the cached content for a file, if it is still current.
+   *
+   * @param uri                  the URI of the file.
+   * @param attributes           the current attributes of the file.
+   * @param ignoreEncodingErrors whether encoding errors were ignored by the caller.
+   * @return the cached content, or {@code null} if nothing current is cached.
+   */
+  @Nullable
+  String get(URI uri, BasicFileAttributes attributes, boolean ignoreEncodingErrors) {
+    lock.lock();
+    try {
+      var entry = entries.get(uri);
+
+      // Content decoded leniently may have dropped malformed input, so it can only be
+      // given to callers that are also ignoring encoding errors.
+      if (entry != null
+          && entry.matches(attributes)
+          && (!entry.lenient || ignoreEncodingErrors)) {
+        hits.increment();
+        return entry.content;
+      }
+
+      misses.increment();
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Store the content for a file.
+   *
+   * @param uri                  the URI of the file.
+   * @param attributes           the attributes of the file when it was read.
+   * @param ignoreEncodingErrors whether encoding errors were ignored when decoding the content.
+   * @param content              the decoded content.
+   */
+  void put(
+      URI uri,
+      BasicFileAttributes attributes,
+      boolean ignoreEncodingErrors,
+      String content
+  ) {
+    requireNonNull(content, "content");
+
+    if (content.length() > maxCachedChars) {
+      // Would evict everything else for no benefit.
+      return;
+    }
+
+    var entry = new Entry(
+        attributes.fileKey(),
+        attributes.lastModifiedTime(),
+        attributes.size(),
+        ignoreEncodingErrors,
+        content
+    );
+
+    lock.lock();
+    try {
+      var previous = entries.put(uri, entry);
+      if (previous != null) {
+        cachedChars -= previous.content.length();
+      }
+      cachedChars += content.length();
+
+      var iterator = entries.values().iterator();
+      while (cachedChars > maxCachedChars && iterator.hasNext()) {
+        cachedChars -= iterator.next().content.length();
+        iterator.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of lookups that returned cached content.
+   *
+   * @return the hit count.
+   */
+  long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of lookups that found nothing current.
+   *
+   * @return the miss count.
+   */
+  long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the total number of characters that are cached.
+   *
+   * @return the number of cached characters.
+   */
+  long getCachedChars() {
+    lock.lock();
+    try {
+      return cachedChars;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxCachedChars", maxCachedChars)
+        .attribute("cachedChars", getCachedChars())
+        .attribute("hits", getHitCount())
+        .attribute("misses", getMissCount())
+        .toString();
+  }
+
+  private static final class Entry {
+
+    private final @Nullable Object fileKey;
+    private final FileTime lastModified;
+    private final long size;
+    private final boolean lenient;
+    private final String content;
+
+    private Entry(
+        @Nullable Object fileKey,
+        FileTime lastModified,
+        long size,
+        boolean lenient,
+        String content
+    ) {
+      this.fileKey = fileKey;
+      this.lastModified = lastModified;
+      this.size = size;
+      this.lenient = lenient;
+      this.content = content;
+    }
+
+    private boolean matches(BasicFileAttributes attributes) {
+      // The file key catches files that were replaced by another file, such as by a rename,
+      // within the resolution of the last-modified time.
+      return size == attributes.size()
+          && lastModified.equals(attributes.lastModifiedTime())
+          && Objects.equals(fileKey, attributes.fileKey());
+    }
+  }
+}
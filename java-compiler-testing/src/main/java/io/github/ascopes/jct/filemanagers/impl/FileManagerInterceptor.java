@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Observer of the calls made to an {@link InterceptingFileManager}.
+ *
+ * <p>Implementations may be called from multiple threads at once, if annotation processors
+ * use the file manager concurrently.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public interface FileManagerInterceptor {
+
+  /**
+   * Determine whether this interceptor needs the arguments of each call.
+   *
+   * <p>If this returns {@code false}, then {@link #before(FileManagerMethod)} is called instead
+   * of {@link #before(FileManagerMethod, Object[])}, which avoids allocating an array of the
+   * arguments for every call to the file manager.
+   *
+   * @return {@code true} if the arguments are needed, or {@code false} otherwise.
+   */
+  default boolean isInspectingArguments() {
+    return true;
+  }
+
+  /**
+   * Called before a method is invoked on the wrapped file manager, if this interceptor does not
+   * {@link #isInspectingArguments() inspect arguments}.
+   *
+   * @param method the method being called.
+   * @return a token that is passed to the corresponding {@link #afterReturning} or
+   *     {@link #afterThrowing} call, such as the time that the call started.
+   */
+  default long before(FileManagerMethod method) {
+    return before(method, new Object[0]);
+  }
+
+  /**
+   * Called before a method is invoked on the wrapped file manager, if this interceptor
+   * {@link #isInspectingArguments() inspects arguments}.
+   *
+   * @param method the method being called.
+   * @param args   the arguments passed to the method.
+   * @return a token that is passed to the corresponding {@link #afterReturning} or
+   *     {@link #afterThrowing} call, such as the time that the call started.
+   */
+  long before(FileManagerMethod method, @Nullable Object[] args);
+
+  /**
+   * Called after a method on the wrapped file manager returns.
+   *
+   * @param method the method that was called.
+   * @param token  the token returned by {@link #before}.
+   * @param result the result of the call, or {@code null} for {@code void} methods.
+   */
+  void afterReturning(FileManagerMethod method, long token, @Nullable Object result);
+
+  /**
+   * Called after a method on the wrapped file manager throws an exception.
+   *
+   * @param method the method that was called.
+   * @param token  the token returned by {@link #before}.
+   * @param ex     the exception that was thrown.
+   */
+  void afterThrowing(FileManagerMethod method, long token, Throwable ex);
+
+  /**
+   * Called once the wrapped file manager has been closed, which happens at the end of each
+   * compilation.
+   */
+  default void afterClose() {
+    // Do nothing by default.
+  }
+}
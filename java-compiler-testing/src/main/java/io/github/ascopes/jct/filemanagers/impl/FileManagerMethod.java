@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import java.util.Collection;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The methods of a {@link JctFileManager} that an {@link InterceptingFileManager} reports to its
+ * {@link FileManagerInterceptor}.
+ *
+ * <p>Each method knows its signature, so that interceptors can describe calls without needing to
+ * use reflection. Methods that look something up also know whether a given result is a hit or a
+ * miss.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public enum FileManagerMethod {
+  ADD_PATH("void", "addPath", "Location, PathRoot", Lookup.NONE),
+  ADD_PATHS("void", "addPaths", "Location, Collection", Lookup.NONE),
+  CLOSE("void", "close", "", Lookup.NONE),
+  CONTAINS("boolean", "contains", "Location, FileObject", Lookup.BOOLEAN),
+  COPY_CONTAINERS("void", "copyContainers", "Location, Location", Lookup.NONE),
+  CREATE_EMPTY_LOCATION("void", "createEmptyLocation", "Location", Lookup.NONE),
+  FLUSH("void", "flush", "", Lookup.NONE),
+  GET_ANNOTATION_PROCESSOR_MODULE_PATH_GROUP(
+      "ModuleContainerGroup",
+      "getAnnotationProcessorModulePathGroup",
+      "",
+      Lookup.PRESENCE
+  ),
+  GET_ANNOTATION_PROCESSOR_PATH_GROUP(
+      "PackageContainerGroup",
+      "getAnnotationProcessorPathGroup",
+      "",
+      Lookup.PRESENCE
+  ),
+  GET_CLASS_LOADER("ClassLoader", "getClassLoader", "Location", Lookup.PRESENCE),
+  GET_CLASS_OUTPUT_GROUP("OutputContainerGroup", "getClassOutputGroup", "", Lookup.PRESENCE),
+  GET_CLASS_PATH_GROUP("PackageContainerGroup", "getClassPathGroup", "", Lookup.PRESENCE),
+  GET_EFFECTIVE_RELEASE("String", "getEffectiveRelease", "", Lookup.NONE),
+  GET_FILE_FOR_INPUT("FileObject", "getFileForInput", "Location, String, String", Lookup.PRESENCE),
+  GET_FILE_FOR_OUTPUT(
+      "FileObject",
+      "getFileForOutput",
+      "Location, String, String, FileObject",
+      Lookup.PRESENCE
+  ),
+  GET_JAVA_FILE_FOR_INPUT(
+      "JavaFileObject",
+      "getJavaFileForInput",
+      "Location, String, Kind",
+      Lookup.PRESENCE
+  ),
+  GET_JAVA_FILE_FOR_OUTPUT(
+      "JavaFileObject",
+      "getJavaFileForOutput",
+      "Location, String, Kind, FileObject",
+      Lookup.PRESENCE
+  ),
+  GET_LOCATION_FOR_MODULE_BY_FILE(
+      "Location",
+      "getLocationForModule",
+      "Location, JavaFileObject",
+      Lookup.PRESENCE
+  ),
+  GET_LOCATION_FOR_MODULE_BY_NAME(
+      "Location",
+      "getLocationForModule",
+      "Location, String",
+      Lookup.PRESENCE
+  ),
+  GET_MODULE_CONTAINER_GROUP(
+      "ModuleContainerGroup",
+      "getModuleContainerGroup",
+      "Location",
+      Lookup.PRESENCE
+  ),
+  GET_MODULE_CONTAINER_GROUPS("Collection", "getModuleContainerGroups", "", Lookup.NONE),
+  GET_MODULE_PATH_GROUP("ModuleContainerGroup", "getModulePathGroup", "", Lookup.PRESENCE),
+  GET_MODULE_SOURCE_PATH_GROUP(
+      "ModuleContainerGroup",
+      "getModuleSourcePathGroup",
+      "",
+      Lookup.PRESENCE
+  ),
+  GET_OUTPUT_CONTAINER_GROUP(
+      "OutputContainerGroup",
+      "getOutputContainerGroup",
+      "Location",
+      Lookup.PRESENCE
+  ),
+  GET_OUTPUT_CONTAINER_GROUPS("Collection", "getOutputContainerGroups", "", Lookup.NONE),
+  GET_PACKAGE_CONTAINER_GROUP(
+      "PackageContainerGroup",
+      "getPackageContainerGroup",
+      "Location",
+      Lookup.PRESENCE
+  ),
+  GET_PACKAGE_CONTAINER_GROUPS("Collection", "getPackageContainerGroups", "", Lookup.NONE),
+  GET_SERVICE_LOADER("ServiceLoader", "getServiceLoader", "Location, Class", Lookup.NONE),
+  GET_SOURCE_OUTPUT_GROUP("OutputContainerGroup", "getSourceOutputGroup", "", Lookup.PRESENCE),
+  GET_SOURCE_PATH_GROUP("PackageContainerGroup", "getSourcePathGroup", "", Lookup.PRESENCE),
+  HANDLE_OPTION("boolean", "handleOption", "String, Iterator", Lookup.BOOLEAN),
+  HAS_LOCATION("boolean", "hasLocation", "Location", Lookup.BOOLEAN),
+  INFER_BINARY_NAME("String", "inferBinaryName", "Location, JavaFileObject", Lookup.PRESENCE),
+  INFER_MODULE_NAME("String", "inferModuleName", "Location", Lookup.PRESENCE),
+  IS_SAME_FILE("boolean", "isSameFile", "FileObject, FileObject", Lookup.BOOLEAN),
+  IS_SUPPORTED_OPTION("int", "isSupportedOption", "String", Lookup.NONE),
+  LIST("Set", "list", "Location, String, Set, boolean", Lookup.NON_EMPTY),
+  LIST_LOCATIONS_FOR_MODULES("Iterable", "listLocationsForModules", "Location", Lookup.NONE);
+
+  private final String returnType;
+  private final String methodName;
+  private final String parameterTypes;
+  private final Lookup lookup;
+
+  FileManagerMethod(String returnType, String methodName, String parameterTypes, Lookup lookup) {
+    this.returnType = returnType;
+    this.methodName = methodName;
+    this.parameterTypes = parameterTypes;
+    this.lookup = lookup;
+  }
+
+  /**
+   * Get the simple name of the return type of the method.
+   *
+   * @return the return type.
+   */
+  public String getReturnType() {
+    return returnType;
+  }
+
+  /**
+   * Get the name of the method.
+   *
+   * @return the method name.
+   */
+  public String getMethodName() {
+    return methodName;
+  }
+
+  /**
+   * Get the simple names of the parameter types of the method, separated by commas.
+   *
+   * @return the parameter types.
+   */
+  public String getParameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * Determine whether this method looks something up, and thus can hit or miss.
+   *
+   * @return {@code true} if the method is a lookup, or {@code false} otherwise.
+   */
+  public boolean isLookup() {
+    return lookup != Lookup.NONE;
+  }
+
+  /**
+   * Determine whether the given result of calling this method is a hit.
+   *
+   * <p>Lookups miss when they return {@code null}, {@code false}, or an empty collection,
+   * depending on the method.
+   *
+   * @param result the result of calling this method.
+   * @return {@code true} if the result is a hit, or {@code false} if it is a miss or this method
+   *     is not a lookup.
+   */
+  public boolean isHit(@Nullable Object result) {
+    return switch (lookup) {
+      case NONE -> false;
+      case PRESENCE -> result != null;
+      case BOOLEAN -> Boolean.TRUE.equals(result);
+      case NON_EMPTY -> result instanceof Collection<?> collection && !collection.isEmpty();
+    };
+  }
+
+  @Override
+  public String toString() {
+    return returnType + " " + methodName + "(" + parameterTypes + ")";
+  }
+
+  private enum Lookup {
+    NONE,
+    PRESENCE,
+    BOOLEAN,
+    NON_EMPTY,
+  }
+}
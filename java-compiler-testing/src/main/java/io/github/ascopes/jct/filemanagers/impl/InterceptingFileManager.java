@@ -0,0 +1,748 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.containers.ModuleContainerGroup;
+import io.github.ascopes.jct.containers.OutputContainerGroup;
+import io.github.ascopes.jct.containers.PackageContainerGroup;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.Set;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link JctFileManager} that forwards every call to another file manager, reporting each call
+ * to a {@link FileManagerInterceptor}.
+ *
+ * <p>Unlike a {@link java.lang.reflect.Proxy}, this does not use reflection to invoke the
+ * wrapped file manager, which keeps the overhead small enough to leave interceptors enabled for
+ * entire test suites.
+ *
+ * <p>Methods that were added to {@link javax.tools.JavaFileManager} after Java 17 are not
+ * intercepted directly, and fall back to their default implementations, which call the
+ * methods that are intercepted.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class InterceptingFileManager implements JctFileManager {
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private final JctFileManager delegate;
+  private final FileManagerInterceptor interceptor;
+
+  /**
+   * Initialise this file manager.
+   *
+   * @param delegate    the file manager to forward calls to.
+   * @param interceptor the interceptor to report calls to.
+   */
+  public InterceptingFileManager(JctFileManager delegate, FileManagerInterceptor interceptor) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.interceptor = requireNonNull(interceptor, "interceptor");
+  }
+
+  /**
+   * Get the file manager that calls are forwarded to.
+   *
+   * @return the wrapped file manager.
+   */
+  public JctFileManager getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Get the interceptor that calls are reported to.
+   *
+   * @return the interceptor.
+   */
+  public FileManagerInterceptor getInterceptor() {
+    return interceptor;
+  }
+
+  @Override
+  public void addPath(Location location, PathRoot path) {
+    var method = FileManagerMethod.ADD_PATH;
+    var token = before(method, location, path);
+    try {
+      delegate.addPath(location, path);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+  }
+
+  @Override
+  public void addPaths(Location location, Collection<? extends PathRoot> paths) {
+    var method = FileManagerMethod.ADD_PATHS;
+    var token = before(method, location, paths);
+    try {
+      delegate.addPaths(location, paths);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+  }
+
+  @Override
+  public void close() throws IOException {
+    var method = FileManagerMethod.CLOSE;
+    var token = before(method);
+    try {
+      delegate.close();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      interceptor.afterClose();
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+    interceptor.afterClose();
+  }
+
+  @Override
+  public boolean contains(Location location, FileObject fileObject) throws IOException {
+    var method = FileManagerMethod.CONTAINS;
+    var token = before(method, location, fileObject);
+    boolean result;
+    try {
+      result = delegate.contains(location, fileObject);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public void copyContainers(Location from, Location to) {
+    var method = FileManagerMethod.COPY_CONTAINERS;
+    var token = before(method, from, to);
+    try {
+      delegate.copyContainers(from, to);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+  }
+
+  @Override
+  public void createEmptyLocation(Location location) {
+    var method = FileManagerMethod.CREATE_EMPTY_LOCATION;
+    var token = before(method, location);
+    try {
+      delegate.createEmptyLocation(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    var method = FileManagerMethod.FLUSH;
+    var token = before(method);
+    try {
+      delegate.flush();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, null);
+  }
+
+  @Nullable
+  @Override
+  public ModuleContainerGroup getAnnotationProcessorModulePathGroup() {
+    var method = FileManagerMethod.GET_ANNOTATION_PROCESSOR_MODULE_PATH_GROUP;
+    var token = before(method);
+    @Nullable ModuleContainerGroup result;
+    try {
+      result = delegate.getAnnotationProcessorModulePathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public PackageContainerGroup getAnnotationProcessorPathGroup() {
+    var method = FileManagerMethod.GET_ANNOTATION_PROCESSOR_PATH_GROUP;
+    var token = before(method);
+    @Nullable PackageContainerGroup result;
+    try {
+      result = delegate.getAnnotationProcessorPathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public ClassLoader getClassLoader(Location location) {
+    var method = FileManagerMethod.GET_CLASS_LOADER;
+    var token = before(method, location);
+    @Nullable ClassLoader result;
+    try {
+      result = delegate.getClassLoader(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public OutputContainerGroup getClassOutputGroup() {
+    var method = FileManagerMethod.GET_CLASS_OUTPUT_GROUP;
+    var token = before(method);
+    @Nullable OutputContainerGroup result;
+    try {
+      result = delegate.getClassOutputGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public PackageContainerGroup getClassPathGroup() {
+    var method = FileManagerMethod.GET_CLASS_PATH_GROUP;
+    var token = before(method);
+    @Nullable PackageContainerGroup result;
+    try {
+      result = delegate.getClassPathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public String getEffectiveRelease() {
+    var method = FileManagerMethod.GET_EFFECTIVE_RELEASE;
+    var token = before(method);
+    String result;
+    try {
+      result = delegate.getEffectiveRelease();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public FileObject getFileForInput(
+      Location location,
+      String packageName,
+      String relativeName
+  ) throws IOException {
+    var method = FileManagerMethod.GET_FILE_FOR_INPUT;
+    var token = before(method, location, packageName, relativeName);
+    @Nullable FileObject result;
+    try {
+      result = delegate.getFileForInput(location, packageName, relativeName);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public FileObject getFileForOutput(
+      Location location,
+      String packageName,
+      String relativeName,
+      @Nullable FileObject sibling
+  ) throws IOException {
+    var method = FileManagerMethod.GET_FILE_FOR_OUTPUT;
+    var token = before(method, location, packageName, relativeName, sibling);
+    @Nullable FileObject result;
+    try {
+      result = delegate.getFileForOutput(location, packageName, relativeName, sibling);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public JavaFileObject getJavaFileForInput(
+      Location location,
+      String className,
+      Kind kind
+  ) throws IOException {
+    var method = FileManagerMethod.GET_JAVA_FILE_FOR_INPUT;
+    var token = before(method, location, className, kind);
+    @Nullable JavaFileObject result;
+    try {
+      result = delegate.getJavaFileForInput(location, className, kind);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location,
+      String className,
+      Kind kind,
+      @Nullable FileObject sibling
+  ) throws IOException {
+    var method = FileManagerMethod.GET_JAVA_FILE_FOR_OUTPUT;
+    var token = before(method, location, className, kind, sibling);
+    @Nullable JavaFileObject result;
+    try {
+      result = delegate.getJavaFileForOutput(location, className, kind, sibling);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public Location getLocationForModule(
+      Location location,
+      JavaFileObject fileObject
+  ) throws IOException {
+    var method = FileManagerMethod.GET_LOCATION_FOR_MODULE_BY_FILE;
+    var token = before(method, location, fileObject);
+    @Nullable Location result;
+    try {
+      result = delegate.getLocationForModule(location, fileObject);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public Location getLocationForModule(Location location, String moduleName) throws IOException {
+    var method = FileManagerMethod.GET_LOCATION_FOR_MODULE_BY_NAME;
+    var token = before(method, location, moduleName);
+    @Nullable Location result;
+    try {
+      result = delegate.getLocationForModule(location, moduleName);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public ModuleContainerGroup getModuleContainerGroup(Location location) {
+    var method = FileManagerMethod.GET_MODULE_CONTAINER_GROUP;
+    var token = before(method, location);
+    @Nullable ModuleContainerGroup result;
+    try {
+      result = delegate.getModuleContainerGroup(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public Collection<ModuleContainerGroup> getModuleContainerGroups() {
+    var method = FileManagerMethod.GET_MODULE_CONTAINER_GROUPS;
+    var token = before(method);
+    Collection<ModuleContainerGroup> result;
+    try {
+      result = delegate.getModuleContainerGroups();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public ModuleContainerGroup getModulePathGroup() {
+    var method = FileManagerMethod.GET_MODULE_PATH_GROUP;
+    var token = before(method);
+    @Nullable ModuleContainerGroup result;
+    try {
+      result = delegate.getModulePathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public ModuleContainerGroup getModuleSourcePathGroup() {
+    var method = FileManagerMethod.GET_MODULE_SOURCE_PATH_GROUP;
+    var token = before(method);
+    @Nullable ModuleContainerGroup result;
+    try {
+      result = delegate.getModuleSourcePathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public OutputContainerGroup getOutputContainerGroup(Location location) {
+    var method = FileManagerMethod.GET_OUTPUT_CONTAINER_GROUP;
+    var token = before(method, location);
+    @Nullable OutputContainerGroup result;
+    try {
+      result = delegate.getOutputContainerGroup(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public Collection<OutputContainerGroup> getOutputContainerGroups() {
+    var method = FileManagerMethod.GET_OUTPUT_CONTAINER_GROUPS;
+    var token = before(method);
+    Collection<OutputContainerGroup> result;
+    try {
+      result = delegate.getOutputContainerGroups();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public PackageContainerGroup getPackageContainerGroup(Location location) {
+    var method = FileManagerMethod.GET_PACKAGE_CONTAINER_GROUP;
+    var token = before(method, location);
+    @Nullable PackageContainerGroup result;
+    try {
+      result = delegate.getPackageContainerGroup(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public Collection<PackageContainerGroup> getPackageContainerGroups() {
+    var method = FileManagerMethod.GET_PACKAGE_CONTAINER_GROUPS;
+    var token = before(method);
+    Collection<PackageContainerGroup> result;
+    try {
+      result = delegate.getPackageContainerGroups();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public <S> ServiceLoader<S> getServiceLoader(
+      Location location,
+      Class<S> service
+  ) throws IOException {
+    var method = FileManagerMethod.GET_SERVICE_LOADER;
+    var token = before(method, location, service);
+    ServiceLoader<S> result;
+    try {
+      result = delegate.getServiceLoader(location, service);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public OutputContainerGroup getSourceOutputGroup() {
+    var method = FileManagerMethod.GET_SOURCE_OUTPUT_GROUP;
+    var token = before(method);
+    @Nullable OutputContainerGroup result;
+    try {
+      result = delegate.getSourceOutputGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public PackageContainerGroup getSourcePathGroup() {
+    var method = FileManagerMethod.GET_SOURCE_PATH_GROUP;
+    var token = before(method);
+    @Nullable PackageContainerGroup result;
+    try {
+      result = delegate.getSourcePathGroup();
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public boolean handleOption(String current, Iterator<String> remaining) {
+    var method = FileManagerMethod.HANDLE_OPTION;
+    var token = before(method, current, remaining);
+    boolean result;
+    try {
+      result = delegate.handleOption(current, remaining);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public boolean hasLocation(Location location) {
+    var method = FileManagerMethod.HAS_LOCATION;
+    var token = before(method, location);
+    boolean result;
+    try {
+      result = delegate.hasLocation(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public String inferBinaryName(Location location, JavaFileObject file) {
+    var method = FileManagerMethod.INFER_BINARY_NAME;
+    var token = before(method, location, file);
+    @Nullable String result;
+    try {
+      result = delegate.inferBinaryName(location, file);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public String inferModuleName(Location location) throws IOException {
+    var method = FileManagerMethod.INFER_MODULE_NAME;
+    var token = before(method, location);
+    @Nullable String result;
+    try {
+      result = delegate.inferModuleName(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public boolean isSameFile(@Nullable FileObject a, @Nullable FileObject b) {
+    var method = FileManagerMethod.IS_SAME_FILE;
+    var token = before(method, a, b);
+    boolean result;
+    try {
+      result = delegate.isSameFile(a, b);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public int isSupportedOption(String option) {
+    var method = FileManagerMethod.IS_SUPPORTED_OPTION;
+    var token = before(method, option);
+    int result;
+    try {
+      result = delegate.isSupportedOption(option);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public Set<JavaFileObject> list(
+      Location location,
+      String packageName,
+      Set<Kind> kinds,
+      boolean recurse
+  ) throws IOException {
+    var method = FileManagerMethod.LIST;
+    var token = before(method, location, packageName, kinds, recurse);
+    Set<JavaFileObject> result;
+    try {
+      result = delegate.list(location, packageName, kinds, recurse);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public Iterable<Set<Location>> listLocationsForModules(Location location) throws IOException {
+    var method = FileManagerMethod.LIST_LOCATIONS_FOR_MODULES;
+    var token = before(method, location);
+    Iterable<Set<Location>> result;
+    try {
+      result = delegate.listLocationsForModules(location);
+    } catch (Throwable ex) {
+      interceptor.afterThrowing(method, token, ex);
+      throw ex;
+    }
+    interceptor.afterReturning(method, token, result);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("delegate", delegate)
+        .attribute("interceptor", interceptor)
+        .toString();
+  }
+
+  // Arguments are only boxed into an array if the interceptor asks for them, so that calls
+  // which are only counted or timed do not allocate.
+
+  private long before(FileManagerMethod method) {
+    return interceptor.isInspectingArguments()
+        ? interceptor.before(method, NO_ARGS)
+        : interceptor.before(method);
+  }
+
+  private long before(FileManagerMethod method, @Nullable Object arg) {
+    return interceptor.isInspectingArguments()
+        ? interceptor.before(method, new Object[]{arg})
+        : interceptor.before(method);
+  }
+
+  private long before(FileManagerMethod method, @Nullable Object arg1, @Nullable Object arg2) {
+    return interceptor.isInspectingArguments()
+        ? interceptor.before(method, new Object[]{arg1, arg2})
+        : interceptor.before(method);
+  }
+
+  private long before(
+      FileManagerMethod method,
+      @Nullable Object arg1,
+      @Nullable Object arg2,
+      @Nullable Object arg3
+  ) {
+    return interceptor.isInspectingArguments()
+        ? interceptor.before(method, new Object[]{arg1, arg2, arg3})
+        : interceptor.before(method);
+  }
+
+  private long before(
+      FileManagerMethod method,
+      @Nullable Object arg1,
+      @Nullable Object arg2,
+      @Nullable Object arg3,
+      @Nullable Object arg4
+  ) {
+    return interceptor.isInspectingArguments()
+        ? interceptor.before(method, new Object[]{arg1, arg2, arg3, arg4})
+        : interceptor.before(method);
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.github.ascopes.jct.filemanagers.impl;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.JctFileManagerFactory;
@@ -28,6 +29,7 @@ import io.github.ascopes.jct.filemanagers.config.JctFileManagerLoggingProxyConfi
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerRequiredLocationsConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerWorkspaceConfigurer;
 import io.github.ascopes.jct.workspaces.Workspace;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Basic implementation for a file manager factory that returns a {@link JctFileManagerImpl}
@@ -63,10 +65,35 @@ public final class JctFileManagerFactoryImpl implements JctFileManagerFactory {
 
   @Override
   public JctFileManager createFileManager(Workspace workspace) {
-    var release = compiler.getEffectiveRelease();
-    var fileManager = new JctFileManagerImpl(release);
-    return createConfigurerChain(workspace)
-        .configure(fileManager);
+    return createFileManagerWithMetrics(workspace, null);
+  }
+
+  @Override
+  public JctFileManager createFileManager(
+      Workspace workspace,
+      JctCompilationMetricsCollector metrics
+  ) {
+    return createFileManagerWithMetrics(workspace, metrics);
+  }
+
+  private JctFileManager createFileManagerWithMetrics(
+      Workspace workspace,
+      @Nullable JctCompilationMetricsCollector metrics
+  ) {
+    var fileManager = new JctFileManagerImpl(
+        compiler.getEffectiveRelease(),
+        compiler.isDirectoryIndexing(),
+        compiler.isContentCaching()
+    );
+    var configuredFileManager = createConfigurerChain(workspace)
+        .configure(fileManager, metrics);
+
+    // Counting calls means intercepting every single one of them, so only do it on request.
+    if (metrics != null && compiler.isFileManagerCallCounting()) {
+      return CallCountingFileManagerInterceptor.wrap(configuredFileManager, metrics);
+    }
+
+    return configuredFileManager;
   }
 
   JctFileManagerConfigurerChain createConfigurerChain(Workspace workspace) {
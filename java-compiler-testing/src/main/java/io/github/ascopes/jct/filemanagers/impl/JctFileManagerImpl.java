@@ -54,8 +54,34 @@ public final class JctFileManagerImpl implements JctFileManager {
   private final ContainerGroupRepositoryImpl repository;
 
   public JctFileManagerImpl(String release) {
+    this(release, false);
+  }
+
+  /**
+   * Initialise this file manager.
+   *
+   * @param release           the effective release to use.
+   * @param directoryIndexing {@code true} to index directories upon first use, or {@code false}
+   *                          to query the file system for every operation.
+   * @since 6.1.0
+   */
+  public JctFileManagerImpl(String release, boolean directoryIndexing) {
+    this(release, directoryIndexing, false);
+  }
+
+  /**
+   * Initialise this file manager.
+   *
+   * @param release           the effective release to use.
+   * @param directoryIndexing {@code true} to index directories upon first use, or {@code false}
+   *                          to query the file system for every operation.
+   * @param contentCaching    {@code true} to cache the decoded content of files on input
+   *                          locations, or {@code false} to decode them upon every read.
+   * @since 6.1.0
+   */
+  public JctFileManagerImpl(String release, boolean directoryIndexing, boolean contentCaching) {
     effectiveRelease = requireNonNull(release, "release");
-    repository = new ContainerGroupRepositoryImpl(release);
+    repository = new ContainerGroupRepositoryImpl(release, directoryIndexing, contentCaching);
   }
 
   @Override
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.utils.LoomPolyfill;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An interceptor that logs every call made to a {@link JctFileManager}, optionally with the
+ * stacktrace of the caller.
+ *
+ * <p>This is useful for diagnosing difficult-to-find errors being produced by {@code javac}
+ * during testing, however, it produces a lot of output. Consider using
+ * {@link AggregatingFileManagerInterceptor} instead if only a summary is needed.
+ *
+ * <p>All logs are emitted with the {@code DEBUG} logging level. Nothing is formatted or
+ * captured when that level is disabled.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0 (replaces LoggingFileManagerProxy introduced in 0.0.1)
+ */
+public final class LoggingFileManagerInterceptor implements FileManagerInterceptor {
+
+  private final Logger logger;
+  private final boolean stackTraces;
+
+  LoggingFileManagerInterceptor(boolean stackTraces) {
+    // Instance scoped for testing purposes.
+    logger = LoggerFactory.getLogger(LoggingFileManagerInterceptor.class);
+    this.stackTraces = stackTraces;
+  }
+
+  @Override
+  public boolean isInspectingArguments() {
+    // Arguments are only needed if they will be logged.
+    return logger.isDebugEnabled();
+  }
+
+  @Override
+  public long before(FileManagerMethod method) {
+    return 0;
+  }
+
+  @Override
+  public long before(FileManagerMethod method, @Nullable Object[] args) {
+    if (!logger.isDebugEnabled()) {
+      return 0;
+    }
+
+    var thread = LoomPolyfill.getCurrentThread();
+
+    logger
+        .atDebug()
+        .setMessage(">>> [thread={}] {} {}({}) called with ({}){}")
+        .addArgument(LoomPolyfill.getThreadId(thread))
+        .addArgument(method.getReturnType())
+        .addArgument(method.getMethodName())
+        .addArgument(method.getParameterTypes())
+        .addArgument(argumentsFormatter(args))
+        .addArgument(stackTraceFormatter(thread))
+        .log();
+
+    return 0;
+  }
+
+  @Override
+  public void afterReturning(FileManagerMethod method, long token, @Nullable Object result) {
+    if (!logger.isDebugEnabled()) {
+      return;
+    }
+
+    var threadId = LoomPolyfill.getThreadId(LoomPolyfill.getCurrentThread());
+
+    if (method.getReturnType().equals("void")) {
+      logger
+          .atDebug()
+          .setMessage("<<< [thread={}] {} {}({}) completed")
+          .addArgument(threadId)
+          .addArgument(method.getReturnType())
+          .addArgument(method.getMethodName())
+          .addArgument(method.getParameterTypes())
+          .log();
+    } else {
+      logger
+          .atDebug()
+          .setMessage("<<< [thread={}] {} {}({}) returned {}")
+          .addArgument(threadId)
+          .addArgument(method.getReturnType())
+          .addArgument(method.getMethodName())
+          .addArgument(method.getParameterTypes())
+          .addArgument(result)
+          .log();
+    }
+  }
+
+  @Override
+  public void afterThrowing(FileManagerMethod method, long token, Throwable ex) {
+    logger
+        .atDebug()
+        .setMessage("!!! [thread={}] {} {}({}) threw exception")
+        .addArgument(() -> LoomPolyfill.getThreadId(LoomPolyfill.getCurrentThread()))
+        .addArgument(method.getReturnType())
+        .addArgument(method.getMethodName())
+        .addArgument(method.getParameterTypes())
+        .setCause(ex)
+        .log();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("stackTraces", stackTraces)
+        .toString();
+  }
+
+  private static Supplier<String> argumentsFormatter(@Nullable Object[] args) {
+    return () -> {
+      var builder = new StringBuilder();
+      for (var i = 0; i < args.length; ++i) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+        builder.append(args[i]);
+      }
+      return builder.toString();
+    };
+  }
+
+  private Supplier<String> stackTraceFormatter(Thread thread) {
+    if (!stackTraces) {
+      return () -> "";
+    }
+
+    // Capture the stacktrace now, as the frames will be gone by the time it is formatted.
+    var stackTrace = thread.getStackTrace();
+    return () -> {
+      var builder = new StringBuilder();
+      for (var frame : stackTrace) {
+        builder.append("\n\t").append(frame);
+      }
+      return builder.toString();
+    };
+  }
+
+  /**
+   * Wrap the given {@link JctFileManager} in a file manager that logs any calls.
+   *
+   * @param manager     the manager to wrap.
+   * @param stackTraces {@code true} to dump stacktraces on each call, or {@code false} to omit
+   *                    them.
+   * @return the wrapped {@link JctFileManager} to use.
+   */
+  public static JctFileManager wrap(JctFileManager manager, boolean stackTraces) {
+    return new InterceptingFileManager(manager, new LoggingFileManagerInterceptor(stackTraces));
+  }
+}
@@ -25,22 +25,29 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Consumer;
 import javax.tools.FileObject;
 import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
@@ -55,6 +62,11 @@ import org.slf4j.LoggerFactory;
  *
  * <p>No access level or nesting kind information is provided by this implementation.
  *
+ * <p>If a content cache is provided, the decoded character content is shared between every file
+ * object that uses that cache for the same file, until that file changes on disk. Large
+ * files on the default file system are decoded directly from a memory-mapped view of the file
+ * rather than being copied onto the heap first.
+ *
  * @author Ashley Scopes
  * @since 1.0.0 (renamed from PathFileObject introduced in 0.0.1)
  */
@@ -63,6 +75,13 @@ public final class PathFileObjectImpl implements PathFileObject {
   private static final Logger log = LoggerFactory.getLogger(PathFileObjectImpl.class);
   private static final Charset CHARSET = StandardCharsets.UTF_8;
 
+  // Files at least this big on the default file system are memory-mapped to be decoded.
+  static final long MAPPED_READ_THRESHOLD = 256 * 1024;
+
+  // Windows will not delete files that are still mapped, which would stop temporary
+  // directories being cleaned up until the mapping is garbage collected.
+  private static final boolean MAPPED_READS_SUPPORTED = File.separatorChar == '/';
+
   private final Location location;
   private final Path rootPath;
   private final Path relativePath;
@@ -70,6 +89,8 @@ public final class PathFileObjectImpl implements PathFileObject {
   private final String name;
   private final URI uri;
   private final Kind kind;
+  private final @Nullable FileContentCache contentCache;
+  private final @Nullable Consumer<? super Path> changeListener;
 
   /**
    * Initialize this file object.
@@ -79,6 +100,16 @@ public final class PathFileObjectImpl implements PathFileObject {
    * @param relativePath the path to point to, relative to the root.
    */
   public PathFileObjectImpl(Location location, Path rootPath, Path relativePath) {
+    this(location, rootPath, relativePath, null, null);
+  }
+
+  private PathFileObjectImpl(
+      Location location,
+      Path rootPath,
+      Path relativePath,
+      @Nullable FileContentCache contentCache,
+      @Nullable Consumer<? super Path> changeListener
+  ) {
     requireNonNull(location, "location");
     requireNonNull(rootPath, "rootPath");
     requireNonNull(relativePath, "relativePath");
@@ -100,12 +131,18 @@ public final class PathFileObjectImpl implements PathFileObject {
     name = this.relativePath.toString();
     uri = absolutePath.toUri();
     kind = FileUtils.pathToKind(relativePath);
+    this.contentCache = contentCache;
+    this.changeListener = changeListener;
   }
 
   @Override
   public boolean delete() {
     try {
-      return Files.deleteIfExists(absolutePath);
+      var deleted = Files.deleteIfExists(absolutePath);
+      if (deleted) {
+        notifyChanged();
+      }
+      return deleted;
     } catch (IOException ex) {
       log.debug("Ignoring error deleting {}", uri, ex);
       return false;
@@ -131,11 +168,20 @@ public final class PathFileObjectImpl implements PathFileObject {
 
   @Override
   public String getCharContent(boolean ignoreEncodingErrors) throws IOException {
-    try (var input = openInputStream()) {
-      return decoder(ignoreEncodingErrors)
-          .decode(ByteBuffer.wrap(input.readAllBytes()))
-          .toString();
+    var cache = contentCache;
+    if (cache == null) {
+      return readCharContent(ignoreEncodingErrors);
+    }
+
+    var attributes = Files.readAttributes(absolutePath, BasicFileAttributes.class);
+    var content = cache.get(uri, attributes, ignoreEncodingErrors);
+
+    if (content == null) {
+      content = readCharContent(ignoreEncodingErrors);
+      cache.put(uri, attributes, ignoreEncodingErrors, content);
     }
+
+    return content;
   }
 
   @Override
@@ -198,6 +244,10 @@ public final class PathFileObjectImpl implements PathFileObject {
 
   @Override
   public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
+    if (contentCache != null) {
+      return new StringReader(getCharContent(ignoreEncodingErrors));
+    }
+
     var inputStream = openUnbufferedInputStream();
     var decoder = decoder(ignoreEncodingErrors);
     var reader = new InputStreamReader(inputStream, decoder);
@@ -215,6 +265,16 @@ public final class PathFileObjectImpl implements PathFileObject {
     return new BufferedWriter(writer);
   }
 
+  /**
+   * Determine whether the decoded content of this file is cached.
+   *
+   * @return {@code true} if content caching is enabled, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isContentCaching() {
+    return contentCache != null;
+  }
+
   @Override
   public String toString() {
     return new ToStringBuilder(this)
@@ -227,6 +287,42 @@ public final class PathFileObjectImpl implements PathFileObject {
     return uri;
   }
 
+  private String readCharContent(boolean ignoreEncodingErrors) throws IOException {
+    var decoder = decoder(ignoreEncodingErrors);
+
+    if (MAPPED_READS_SUPPORTED && isOnDefaultFileSystem()) {
+      try (var channel = FileChannel.open(absolutePath)) {
+        var size = channel.size();
+
+        if (size >= MAPPED_READ_THRESHOLD && size <= Integer.MAX_VALUE) {
+          return decoder
+              .decode(channel.map(MapMode.READ_ONLY, 0, size))
+              .toString();
+        }
+
+        if (size < MAPPED_READ_THRESHOLD) {
+          var buffer = ByteBuffer.allocate((int) size);
+          while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // Keep reading.
+          }
+          return decoder
+              .decode(buffer.flip())
+              .toString();
+        }
+      }
+    }
+
+    try (var input = openInputStream()) {
+      return decoder
+          .decode(ByteBuffer.wrap(input.readAllBytes()))
+          .toString();
+    }
+  }
+
+  private boolean isOnDefaultFileSystem() {
+    return absolutePath.getFileSystem().equals(FileSystems.getDefault());
+  }
+
   private InputStream openUnbufferedInputStream() throws IOException {
     return Files.newInputStream(absolutePath);
   }
@@ -234,7 +330,16 @@ public final class PathFileObjectImpl implements PathFileObject {
   private OutputStream openUnbufferedOutputStream() throws IOException {
     // Ensure parent directories exist first.
     Files.createDirectories(absolutePath.getParent());
-    return Files.newOutputStream(absolutePath);
+    var outputStream = Files.newOutputStream(absolutePath);
+    notifyChanged();
+    return outputStream;
+  }
+
+  private void notifyChanged() {
+    var changeListener = this.changeListener;
+    if (changeListener != null) {
+      changeListener.accept(absolutePath);
+    }
   }
 
   private CharsetDecoder decoder(boolean ignoreEncodingErrors) {
@@ -247,4 +352,82 @@ public final class PathFileObjectImpl implements PathFileObject {
         .onUnmappableCharacter(action)
         .onMalformedInput(action);
   }
+
+  /**
+   * Initialize a builder for a new {@link PathFileObjectImpl}.
+   *
+   * @param location     the location that the file object is located within.
+   * @param rootPath     the root directory that the path is a package within.
+   * @param relativePath the path to point to, relative to the root.
+   * @return the builder.
+   * @since 6.1.0
+   */
+  public static Builder builder(Location location, Path rootPath, Path relativePath) {
+    return new Builder(location, rootPath, relativePath);
+  }
+
+  /**
+   * Builder type for a {@link PathFileObjectImpl}, for file objects that need more than the
+   * default behaviour.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Builder {
+
+    private final Location location;
+    private final Path rootPath;
+    private final Path relativePath;
+    private @Nullable FileContentCache contentCache;
+    private @Nullable Consumer<? super Path> changeListener;
+
+    private Builder(Location location, Path rootPath, Path relativePath) {
+      this.location = location;
+      this.rootPath = rootPath;
+      this.relativePath = relativePath;
+      contentCache = null;
+      changeListener = null;
+    }
+
+    /**
+     * Set the cache to share the decoded content of the file through.
+     *
+     * <p>This should only be used for files on read-only input locations, and the cache should
+     * live no longer than the file manager. Defaults to no cache.
+     *
+     * @param contentCache the cache to use.
+     * @return this builder.
+     */
+    public Builder contentCache(FileContentCache contentCache) {
+      this.contentCache = requireNonNull(contentCache, "contentCache");
+      return this;
+    }
+
+    /**
+     * Set a listener to notify with the absolute path of the file each time it is created, opened
+     * for writing, or deleted through the file object.
+     *
+     * @param changeListener the listener to notify.
+     * @return this builder.
+     */
+    public Builder changeListener(Consumer<? super Path> changeListener) {
+      this.changeListener = requireNonNull(changeListener, "changeListener");
+      return this;
+    }
+
+    /**
+     * Build the file object.
+     *
+     * @return the file object.
+     */
+    public PathFileObjectImpl build() {
+      return new PathFileObjectImpl(
+          location,
+          rootPath,
+          relativePath,
+          contentCache,
+          changeListener
+      );
+    }
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.junit;
+
+import io.github.ascopes.jct.compilers.impl.JavacCompilerPool;
+import java.util.Map;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+
+/**
+ * JUnit5 extension that keeps a shared, pre-warmed {@code javac} instance alive for the duration
+ * of the entire test run.
+ *
+ * <p>By default, every compilation looks up a new {@code javac} instance, and the first few
+ * compilations in each test run are slow while the JVM loads and JIT-compiles the compiler.
+ * Registering this extension on any test class will activate a shared compiler pool the first
+ * time it is encountered, optionally warm it up by compiling a trivial source file, and then
+ * keep it active until all tests in the run have completed.
+ *
+ * <pre><code>
+ * {@literal @ExtendWith(JavacCompilerPoolExtension.class)}
+ * class MyTest {
+ *   {@literal @JavacCompilerTest}
+ *   void myTest(JctCompiler compiler) {
+ *     ...
+ *   }
+ * }
+ * </code></pre>
+ *
+ * <p>The number of warm-up compilations can be set with the {@value #WARM_UP_ITERATIONS_PARAMETER}
+ * JUnit configuration parameter (for example, in {@code junit-platform.properties}). Setting this
+ * to zero disables warming up. The time spent warming up is published as a JUnit report entry.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class JavacCompilerPoolExtension implements Extension, BeforeAllCallback {
+
+  /**
+   * The JUnit configuration parameter that sets the number of warm-up compilations.
+   */
+  public static final String WARM_UP_ITERATIONS_PARAMETER = "jct.javac.pool.warmUpIterations";
+
+  /**
+   * The default number of warm-up compilations.
+   */
+  public static final int DEFAULT_WARM_UP_ITERATIONS = 3;
+
+  private static final Namespace NAMESPACE = Namespace.create(JavacCompilerPoolExtension.class);
+
+  /**
+   * Initialise this extension.
+   *
+   * <p>You shouldn't ever need to call this directly. See the class description for an example
+   * of how to use this.
+   */
+  public JavacCompilerPoolExtension() {
+    // Nothing to do.
+  }
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    // Bind to the root context so that the pool outlives individual test classes, and is
+    // only released once the entire test run completes.
+    context.getRoot()
+        .getStore(NAMESPACE)
+        .computeIfAbsent(PoolResource.class, type -> activate(context), PoolResource.class);
+  }
+
+  private PoolResource activate(ExtensionContext context) {
+    var iterations = context
+        .getConfigurationParameter(WARM_UP_ITERATIONS_PARAMETER, Integer::parseInt)
+        .orElse(DEFAULT_WARM_UP_ITERATIONS);
+
+    var pool = JavacCompilerPool.activate(iterations);
+
+    context.publishReportEntry(Map.of(
+        "jct.javac.pool.warmUpIterations", Integer.toString(pool.getWarmUpIterations()),
+        "jct.javac.pool.warmUpMillis", Long.toString(pool.getWarmUpDuration().toMillis())
+    ));
+
+    return new PoolResource(pool);
+  }
+
+  /**
+   * Holder that releases the pool once the root extension context store is closed.
+   */
+  private static final class PoolResource implements AutoCloseable {
+
+    private final JavacCompilerPool pool;
+
+    private PoolResource(JavacCompilerPool pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public void close() {
+      pool.close();
+    }
+  }
+}
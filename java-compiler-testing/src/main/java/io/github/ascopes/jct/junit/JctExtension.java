@@ -16,7 +16,6 @@
 package io.github.ascopes.jct.junit;
 
 import io.github.ascopes.jct.workspaces.Workspace;
-import io.github.ascopes.jct.workspaces.Workspaces;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -57,6 +56,9 @@ import org.slf4j.LoggerFactory;
  * }
  * </code></pre>
  *
+ * <p>Workspaces are only created the first time a test uses them, so tests that do not use a
+ * workspace never pay for creating or closing one.
+ *
  * @author Ashley Scopes
  * @since 0.4.0
  */
@@ -65,6 +67,17 @@ public final class JctExtension
 
   private static final Logger log = LoggerFactory.getLogger(JctExtension.class);
 
+  // Reflection is slow, so only scan each class once.
+  private static final ClassValue<ManagedFields> MANAGED_FIELDS = new ClassValue<>() {
+    @Override
+    protected ManagedFields computeValue(Class<?> type) {
+      return new ManagedFields(
+          findManagedWorkspaceFields(type, true),
+          findManagedWorkspaceFields(type, false)
+      );
+    }
+  };
+
   /**
    * Initialise this extension.
    *
@@ -77,7 +90,7 @@ public final class JctExtension
 
   @Override
   public void beforeAll(ExtensionContext context) throws Exception {
-    for (var field : getManagedWorkspaceFields(context.getRequiredTestClass(), true)) {
+    for (var field : MANAGED_FIELDS.get(context.getRequiredTestClass()).staticFields) {
       initWorkspaceForField(field, null);
     }
   }
@@ -85,7 +98,7 @@ public final class JctExtension
   @Override
   public void beforeEach(ExtensionContext context) throws Exception {
     for (var instance : context.getRequiredTestInstances().getAllInstances()) {
-      for (var field : getManagedWorkspaceFields(instance.getClass(), false)) {
+      for (var field : MANAGED_FIELDS.get(instance.getClass()).instanceFields) {
         initWorkspaceForField(field, instance);
       }
     }
@@ -93,7 +106,7 @@ public final class JctExtension
 
   @Override
   public void afterAll(ExtensionContext context) throws Exception {
-    for (var field : getManagedWorkspaceFields(context.getRequiredTestClass(), true)) {
+    for (var field : MANAGED_FIELDS.get(context.getRequiredTestClass()).staticFields) {
       closeWorkspaceForField(field, null);
     }
   }
@@ -101,13 +114,13 @@ public final class JctExtension
   @Override
   public void afterEach(ExtensionContext context) throws Exception {
     for (var instance : context.getRequiredTestInstances().getAllInstances()) {
-      for (var field : getManagedWorkspaceFields(instance.getClass(), false)) {
+      for (var field : MANAGED_FIELDS.get(instance.getClass()).instanceFields) {
         closeWorkspaceForField(field, instance);
       }
     }
   }
 
-  private List<Field> getManagedWorkspaceFields(Class<?> clazz, boolean wantStatic) {
+  private static List<Field> findManagedWorkspaceFields(Class<?> clazz, boolean wantStatic) {
     var fields = new ArrayList<Field>();
 
     Class<?> currentClass = clazz;
@@ -133,7 +146,7 @@ public final class JctExtension
   
     } while (currentClass != null);
 
-    return fields;
+    return List.copyOf(fields);
   }
 
   private void initWorkspaceForField(Field field, @Nullable Object instance) throws Exception {
@@ -146,7 +159,7 @@ public final class JctExtension
         .log();
 
     var managedWorkspace = field.getAnnotation(Managed.class);
-    var workspace = Workspaces.newWorkspace(managedWorkspace.pathStrategy());
+    var workspace = new ManagedWorkspace(managedWorkspace.pathStrategy());
     field.set(instance, workspace);
   }
 
@@ -162,4 +175,18 @@ public final class JctExtension
     var workspace = (Workspace) field.get(instance);
     workspace.close();
   }
+
+  /**
+   * Cached reflective metadata for the managed fields in a class.
+   */
+  private static final class ManagedFields {
+
+    private final List<Field> staticFields;
+    private final List<Field> instanceFields;
+
+    private ManagedFields(List<Field> staticFields, List<Field> instanceFields) {
+      this.staticFields = staticFields;
+      this.instanceFields = instanceFields;
+    }
+  }
 }
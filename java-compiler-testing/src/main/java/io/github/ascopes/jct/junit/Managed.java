@@ -32,6 +32,8 @@ import java.lang.annotation.Target;
  * (providing the same semantics as initialising and closing resources using the
  * {@link org.junit.jupiter.api.BeforeAll} and {@link org.junit.jupiter.api.AfterAll} annotations).
  *
+ * <p>The workspace is only created the first time it is used by a test.
+ *
  * <p>You must extend your test class with the {@link JctExtension} extension for this annotation
  * to be detected and handled.
  *
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.junit;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.WorkspaceDumpOptions;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaFileManager.Location;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Workspace for a {@link Managed}-annotated field that is only created the first time it is used.
+ *
+ * <p>Tests that never touch the field never pay for creating or closing a workspace.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+final class ManagedWorkspace implements Workspace {
+
+  private final PathStrategy pathStrategy;
+  private @Nullable Workspace delegate;
+  private volatile boolean closed;
+
+  ManagedWorkspace(PathStrategy pathStrategy) {
+    this.pathStrategy = requireNonNull(pathStrategy, "pathStrategy");
+    delegate = null;
+    closed = false;
+  }
+
+  /**
+   * Determine whether the underlying workspace has been created yet.
+   *
+   * @return {@code true} if it has been created, or {@code false} otherwise.
+   */
+  synchronized boolean isInitialized() {
+    return delegate != null;
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+
+    if (delegate != null) {
+      delegate.close();
+    }
+  }
+
+  @Override
+  public void dump(Appendable appendable) {
+    delegate().dump(appendable);
+  }
+
+  @Override
+  public void dump(Appendable appendable, WorkspaceDumpOptions options) {
+    delegate().dump(appendable, options);
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public Map<Location, List<? extends PathRoot>> getAllPaths() {
+    return delegate().getAllPaths();
+  }
+
+  @Override
+  public List<? extends PathRoot> getModule(Location location, String moduleName) {
+    return delegate().getModule(location, moduleName);
+  }
+
+  @Override
+  public Map<String, List<? extends PathRoot>> getModules(Location location) {
+    return delegate().getModules(location);
+  }
+
+  @Override
+  public PathStrategy getPathStrategy() {
+    return pathStrategy;
+  }
+
+  @Override
+  public List<? extends PathRoot> getPackages(Location location) {
+    return delegate().getPackages(location);
+  }
+
+  @Override
+  public void addPackage(Location location, Path path) {
+    delegate().addPackage(location, path);
+  }
+
+  @Override
+  public void addModule(Location location, String moduleName, Path path) {
+    delegate().addModule(location, moduleName, path);
+  }
+
+  @Override
+  public ManagedDirectory createPackage(Location location) {
+    return delegate().createPackage(location);
+  }
+
+  @Override
+  public ManagedDirectory createModule(Location location, String moduleName) {
+    return delegate().createModule(location, moduleName);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("pathStrategy", pathStrategy)
+        .attribute("initialized", isInitialized())
+        .attribute("closed", closed)
+        .toString();
+  }
+
+  private synchronized Workspace delegate() {
+    var workspace = delegate;
+
+    if (workspace == null) {
+      if (closed) {
+        throw new IllegalStateException("Managed workspace has been closed");
+      }
+
+      workspace = Workspaces.newWorkspace(pathStrategy);
+      delegate = workspace;
+    }
+
+    return workspace;
+  }
+}
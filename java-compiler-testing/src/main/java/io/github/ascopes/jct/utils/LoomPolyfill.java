@@ -16,6 +16,9 @@
 package io.github.ascopes.jct.utils;
 
 import io.github.ascopes.jct.annotations.DeadCodeGenerated;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Polyfill to enable supporting using the newer Thread APIs on newer platforms.
@@ -62,4 +65,26 @@ public final class LoomPolyfill {
   public static Thread getCurrentThread() {
     return Thread.currentThread();
   }
+
+  /**
+   * Create a new executor that starts a new virtual thread for each task, if the platform supports
+   * virtual threads.
+   *
+   * @return the executor, or {@code null} if virtual threads are not supported.
+   * @since 6.1.0
+   */
+  @DeadCodeGenerated
+  @Nullable
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    // Note: this test will never get 100% coverage on one JDK, because it totally depends on the
+    // JDK in use as to which code path runs.
+    try {
+      var method = Executors.class
+          .getDeclaredMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (Exception ex) {
+      // Virtual threads are not available prior to Java 21 (or Java 19 with preview features).
+      return null;
+    }
+  }
 }
@@ -83,7 +83,17 @@ public final class SpecialLocationUtils {
    * @return a list across the normalized, absolute paths. Any duplicates are removed.
    */
   public static List<Path> currentClassPathLocations() {
-    return createPaths(ManagementFactory.getRuntimeMXBean().getClassPath());
+    return parsePathList(currentRawClassPath());
+  }
+
+  /**
+   * Get the raw, unparsed classpath of the current JVM.
+   *
+   * @return the raw classpath string.
+   * @since 6.1.0
+   */
+  public static String currentRawClassPath() {
+    return ManagementFactory.getRuntimeMXBean().getClassPath();
   }
 
   /**
@@ -98,10 +108,27 @@ public final class SpecialLocationUtils {
    * @return a list across the normalized, absolute paths. Any duplicates are removed.
    */
   public static List<Path> currentModulePathLocations() {
-    return createPaths(System.getProperty(JDK_MODULE_PROPERTY, NO_PATH));
+    return parsePathList(currentRawModulePath());
+  }
+
+  /**
+   * Get the raw, unparsed module path of the current JVM.
+   *
+   * @return the raw module path string, or an empty string if no module path is set.
+   * @since 6.1.0
+   */
+  public static String currentRawModulePath() {
+    return System.getProperty(JDK_MODULE_PROPERTY, NO_PATH);
   }
 
-  private static List<Path> createPaths(String raw) {
+  /**
+   * Parse a platform-specific path list into the paths that exist.
+   *
+   * @param raw the raw path list, separated by the platform path separator.
+   * @return a list across the normalized, absolute paths. Any duplicates are removed.
+   * @since 6.1.0
+   */
+  public static List<Path> parsePathList(String raw) {
     return SEPARATOR_SLICER
         .splitToStream(raw)
         .filter(SpecialLocationUtils::isNotBlank)
@@ -61,6 +61,32 @@ public interface FileBuilder {
    */
   ManagedDirectory asJarFrom(Path directory);
 
+  /**
+   * Take the directory, represented by the given {@link ManagedDirectory}, and convert it into an
+   * uncompressed JAR file, that will be written to the file being created.
+   *
+   * <p>Uncompressed JARs are larger, but are faster to create and to read. This is usually the
+   * better choice for JARs that only exist for the duration of a test.
+   *
+   * @param directory the managed directory to use.
+   * @return the root managed directory for further configuration.
+   * @since 6.1.0
+   */
+  ManagedDirectory asUncompressedJarFrom(PathRoot directory);
+
+  /**
+   * Take the directory, represented by the given path, and convert it into an uncompressed JAR
+   * file, that will be written to the file being created.
+   *
+   * <p>Uncompressed JARs are larger, but are faster to create and to read. This is usually the
+   * better choice for JARs that only exist for the duration of a test.
+   *
+   * @param directory the directory to use.
+   * @return the root managed directory for further configuration.
+   * @since 6.1.0
+   */
+  ManagedDirectory asUncompressedJarFrom(Path directory);
+
   /**
    * Copy a resource from the given class loader into the file system.
    *
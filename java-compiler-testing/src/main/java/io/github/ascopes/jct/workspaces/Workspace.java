@@ -17,6 +17,7 @@ package io.github.ascopes.jct.workspaces;
 
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.ModuleLocation;
+import io.github.ascopes.jct.workspaces.impl.WorkspaceDumper;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
@@ -118,7 +119,25 @@ public interface Workspace extends AutoCloseable {
    * @throws UncheckedIOException if an IO error occurs when writing to the appendable.
    * @since 5.0.0
    */
-  void dump(Appendable appendable);
+  default void dump(Appendable appendable) {
+    dump(appendable, WorkspaceDumpOptions.unlimited());
+  }
+
+  /**
+   * Dump a visual representation of this workspace to the given appendable, limiting the output
+   * according to the given options.
+   *
+   * <p>This is useful for workspaces with large class paths or many generated files, where
+   * dumping everything would be slow and produce unreadable output.
+   *
+   * @param appendable the appendable to write to.
+   * @param options    the options to limit the output with.
+   * @throws UncheckedIOException if an IO error occurs when writing to the appendable.
+   * @since 6.1.0
+   */
+  default void dump(Appendable appendable, WorkspaceDumpOptions options) {
+    WorkspaceDumper.dump(this, appendable, options);
+  }
 
   /**
    * Determine if the workspace is closed or not.
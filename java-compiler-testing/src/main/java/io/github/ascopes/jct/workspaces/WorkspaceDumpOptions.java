@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.nio.file.FileSystems;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Options to control how much of a workspace is written by
+ * {@link Workspace#dump(Appendable, WorkspaceDumpOptions)}.
+ *
+ * <p>By default, nothing is limited, which matches the behaviour of
+ * {@link Workspace#dump(Appendable)}. Workspaces with large class paths or many generated files
+ * should set limits to keep the output readable and cheap to produce.
+ *
+ * <pre><code>
+ *   var options = WorkspaceDumpOptions.builder()
+ *       .maxDepth(4)
+ *       .maxEntriesPerDirectory(20)
+ *       .fileSizes(true)
+ *       .glob("**&#47;*.java")
+ *       .build();
+ *
+ *   workspace.dump(System.err, options);
+ * </code></pre>
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class WorkspaceDumpOptions {
+
+  private static final WorkspaceDumpOptions UNLIMITED = builder().build();
+
+  /**
+   * Get the default options, which do not limit the output at all.
+   *
+   * @return the default options.
+   */
+  public static WorkspaceDumpOptions unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Create a new builder for dump options.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final int maxDepth;
+  private final int maxEntriesPerDirectory;
+  private final boolean fileSizes;
+  private final @Nullable String glob;
+
+  private WorkspaceDumpOptions(Builder builder) {
+    maxDepth = builder.maxDepth;
+    maxEntriesPerDirectory = builder.maxEntriesPerDirectory;
+    fileSizes = builder.fileSizes;
+    glob = builder.glob;
+  }
+
+  /**
+   * Get the maximum depth of directories to expand within each path root.
+   *
+   * @return the maximum depth.
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Get the maximum number of entries to list within each directory.
+   *
+   * @return the maximum number of entries.
+   */
+  public int getMaxEntriesPerDirectory() {
+    return maxEntriesPerDirectory;
+  }
+
+  /**
+   * Determine whether file sizes and totals are included.
+   *
+   * @return {@code true} if file sizes are included, or {@code false} otherwise.
+   */
+  public boolean isFileSizes() {
+    return fileSizes;
+  }
+
+  /**
+   * Get the glob that files must match to be listed, if any.
+   *
+   * @return the glob, or {@code null} if all files are listed.
+   */
+  public @Nullable String getGlob() {
+    return glob;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxDepth", maxDepth)
+        .attribute("maxEntriesPerDirectory", maxEntriesPerDirectory)
+        .attribute("fileSizes", fileSizes)
+        .attribute("glob", glob)
+        .toString();
+  }
+
+  /**
+   * Builder for {@link WorkspaceDumpOptions}.
+   *
+   * @author Ashley Scopes
+   * @since 6.1.0
+   */
+  public static final class Builder {
+
+    private int maxDepth;
+    private int maxEntriesPerDirectory;
+    private boolean fileSizes;
+    private @Nullable String glob;
+
+    private Builder() {
+      maxDepth = Integer.MAX_VALUE;
+      maxEntriesPerDirectory = Integer.MAX_VALUE;
+      fileSizes = false;
+      glob = null;
+    }
+
+    /**
+     * Set the maximum depth of directories to expand within each path root.
+     *
+     * <p>Directories below this depth are listed, but their contents are not. A depth of
+     * {@code 0} only lists the entries directly within each path root.
+     *
+     * <p>Defaults to no limit.
+     *
+     * @param maxDepth the maximum depth.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public Builder maxDepth(int maxDepth) {
+      if (maxDepth < 0) {
+        throw new IllegalArgumentException("maxDepth cannot be negative");
+      }
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of entries to list within each directory.
+     *
+     * <p>Entries are listed in name order, and any remaining entries are summarised as a count
+     * instead.
+     *
+     * <p>Defaults to no limit.
+     *
+     * @param maxEntriesPerDirectory the maximum number of entries.
+     * @return this builder.
+     * @throws IllegalArgumentException if the value is less than 1.
+     */
+    public Builder maxEntriesPerDirectory(int maxEntriesPerDirectory) {
+      if (maxEntriesPerDirectory < 1) {
+        throw new IllegalArgumentException("maxEntriesPerDirectory must be at least 1");
+      }
+      this.maxEntriesPerDirectory = maxEntriesPerDirectory;
+      return this;
+    }
+
+    /**
+     * Set whether to include the size of each file, and the total size of the files within
+     * each path root.
+     *
+     * <p>Defaults to {@code false}.
+     *
+     * @param fileSizes {@code true} to include file sizes.
+     * @return this builder.
+     */
+    public Builder fileSizes(boolean fileSizes) {
+      this.fileSizes = fileSizes;
+      return this;
+    }
+
+    /**
+     * Set a glob that files must match to be listed.
+     *
+     * <p>The glob is matched against the path of each file relative to its path root, using the
+     * syntax described by {@link java.nio.file.FileSystem#getPathMatcher(String)}. Directories
+     * without any matching files are not listed.
+     *
+     * <p>Defaults to {@code null}, which lists all files.
+     *
+     * @param glob the glob, or {@code null} to list all files.
+     * @return this builder.
+     * @throws java.util.regex.PatternSyntaxException if the glob is invalid.
+     */
+    public Builder glob(@Nullable String glob) {
+      if (glob != null) {
+        // Fail early rather than when the workspace is dumped.
+        FileSystems.getDefault().getPathMatcher("glob:" + glob);
+      }
+      this.glob = glob;
+      return this;
+    }
+
+    /**
+     * Build the options.
+     *
+     * @return the options.
+     */
+    public WorkspaceDumpOptions build() {
+      return new WorkspaceDumpOptions(this);
+    }
+  }
+}
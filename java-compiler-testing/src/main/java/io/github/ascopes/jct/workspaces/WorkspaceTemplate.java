@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces;
+
+/**
+ * An immutable snapshot of a populated {@link Workspace} that copies can be forked from.
+ *
+ * <p>This is useful when many tests share the same fixture, and each only adds or changes a few
+ * files. The fixture can be built once, frozen with {@link Workspaces#freeze(Workspace)}, and then
+ * forked for each test.
+ *
+ * <p>Each fork receives its own copy of every managed directory in the template, held in a new
+ * in-memory file system or temporary directory depending on the path strategy. Forks never share
+ * files with the template or with each other, so they can be freely modified, and remain usable
+ * after the template has been closed. Paths that are not managed by the template are shared
+ * as-is.
+ *
+ * <p>For example:
+ *
+ * <pre><code>
+ *   static WorkspaceTemplate template;
+ *
+ *   {@literal @BeforeAll}
+ *   static void setUpTemplate() {
+ *     var workspace = Workspaces.newWorkspace();
+ *     workspace.createSourcePathPackage().copyContentsFrom("src", "test", "resources", "fixture");
+ *     template = Workspaces.freeze(workspace);
+ *   }
+ *
+ *   {@literal @AfterAll}
+ *   static void tearDownTemplate() {
+ *     template.close();
+ *   }
+ *
+ *   {@literal @Test}
+ *   void someTest() {
+ *     try (var workspace = template.fork()) {
+ *       ...
+ *     }
+ *   }
+ * </code></pre>
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public interface WorkspaceTemplate extends AutoCloseable {
+
+  /**
+   * Create a new workspace containing the same paths as this template.
+   *
+   * <p>The returned workspace must be closed after use.
+   *
+   * @return the new workspace.
+   * @throws IllegalStateException if this template has been closed.
+   */
+  Workspace fork();
+
+  /**
+   * Get the path strategy used by this template and its forks.
+   *
+   * @return the path strategy.
+   */
+  PathStrategy getPathStrategy();
+
+  /**
+   * Determine if this template has been closed.
+   *
+   * @return {@code true} if closed, or {@code false} otherwise.
+   */
+  boolean isClosed();
+
+  /**
+   * Close the template and the workspace it was created from.
+   *
+   * <p>Workspaces that have already been forked from this template are not affected.
+   */
+  @Override
+  void close();
+}
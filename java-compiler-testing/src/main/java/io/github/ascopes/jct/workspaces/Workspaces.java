@@ -16,7 +16,9 @@
 package io.github.ascopes.jct.workspaces;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.ex.JctIllegalInputException;
 import io.github.ascopes.jct.workspaces.impl.WorkspaceImpl;
+import io.github.ascopes.jct.workspaces.impl.WorkspaceTemplateImpl;
 
 /**
  * Helpers to create new workspaces.
@@ -90,4 +92,25 @@ public final class Workspaces {
   public static Workspace newWorkspace(PathStrategy pathStrategy) {
     return new WorkspaceImpl(pathStrategy);
   }
+
+  /**
+   * Freeze a populated workspace as a template that copies can be forked from.
+   *
+   * <p>If the workspace was created by this class, then the template takes ownership of it, and
+   * will close it when the template is closed. No further paths can be added to the workspace
+   * once it has been frozen.
+   *
+   * <p>Any other workspace, such as one injected by the {@link io.github.ascopes.jct.junit.Managed}
+   * annotation, is copied into a new workspace owned by the template instead. The original
+   * workspace is left untouched, and must still be closed by whoever created it.
+   *
+   * @param workspace the workspace to freeze.
+   * @return the template.
+   * @throws JctIllegalInputException if the workspace is closed.
+   * @see WorkspaceTemplate
+   * @since 6.1.0
+   */
+  public static WorkspaceTemplate freeze(Workspace workspace) {
+    return new WorkspaceTemplateImpl(workspace);
+  }
 }
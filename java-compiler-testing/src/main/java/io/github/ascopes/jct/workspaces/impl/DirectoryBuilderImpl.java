@@ -111,7 +111,16 @@ public final class DirectoryBuilderImpl implements DirectoryBuilder {
 
           log.trace("Copying file from {} to {}", file, targetFile);
 
-          Files.copy(file, targetFile);
+          if (file.getFileSystem().equals(targetFile.getFileSystem())) {
+            Files.copy(file, targetFile);
+          } else {
+            // Some providers (e.g. memoryfilesystem) cannot copy paths between two of their own
+            // file systems, so stream the contents across instead.
+            try (var input = Files.newInputStream(file)) {
+              Files.copy(input, targetFile);
+            }
+          }
+
           return FileVisitResult.CONTINUE;
         }
       });
@@ -77,8 +77,17 @@ public final class FileBuilderImpl implements FileBuilder {
 
   @Override
   public ManagedDirectory asJarFrom(Path directory) {
-    uncheckedIo(() -> JarFactoryImpl.getInstance().createJarFrom(targetPath, directory));
-    return parent;
+    return createJarFrom(directory, true);
+  }
+
+  @Override
+  public ManagedDirectory asUncompressedJarFrom(PathRoot directory) {
+    return asUncompressedJarFrom(directory.getPath());
+  }
+
+  @Override
+  public ManagedDirectory asUncompressedJarFrom(Path directory) {
+    return createJarFrom(directory, false);
   }
 
   @Override
@@ -143,6 +152,12 @@ public final class FileBuilderImpl implements FileBuilder {
     return withContents(DEFAULT_CHARSET, lines);
   }
 
+  private ManagedDirectory createJarFrom(Path directory, boolean compressed) {
+    uncheckedIo(() -> JarFactoryImpl.getInstance()
+        .createJarFrom(targetPath, directory, compressed));
+    return parent;
+  }
+
   private ManagedDirectory createFile(InputStream input) throws IOException {
     Files.createDirectories(targetPath.getParent());
 
@@ -18,24 +18,47 @@ package io.github.ascopes.jct.workspaces.impl;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.file.FileVisitResult;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A special singleton factory class that is used to create JAR files in memory on the fly.
  *
+ * <p>Entries are written in order of their names, and with a fixed timestamp, so that JARs
+ * created from identical directories are byte-for-byte identical.
+ *
+ * <p>File contents are streamed through a reusable buffer rather than being read into memory
+ * all at once. For larger directories, small files are read ahead in parallel within a bounded
+ * window, and then written out in order.
+ *
  * @author Ashley Scopes
  * @since 0.3.0
  */
 public final class JarFactoryImpl {
 
+  // The earliest time that the DOS timestamps used within ZIP files can represent.
+  private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  // Files no larger than this are read ahead in parallel. Larger files are streamed.
+  static final long READ_AHEAD_MAX_FILE_SIZE = 64 * 1024;
+
+  // Reading ahead is not worth the overhead for small numbers of files.
+  static final int READ_AHEAD_MIN_FILES = 32;
+
   private static final JarFactoryImpl INSTANCE = new JarFactoryImpl();
 
   /**
@@ -51,52 +74,218 @@ public final class JarFactoryImpl {
     // Do nothing.
   }
 
+  /**
+   * Create a compressed JAR in the given output file from everything recursively in the given
+   * source directory.
+   *
+   * @param outputFile      the output file to write to.
+   * @param sourceDirectory the source directory to read from recursively.
+   * @throws IOException if an IO exception occurs anywhere.
+   */
+  public void createJarFrom(Path outputFile, Path sourceDirectory) throws IOException {
+    createJarFrom(outputFile, sourceDirectory, true);
+  }
+
   /**
    * Create a JAR in the given output file from everything recursively in the given source
    * directory.
    *
-   * <p>This JAR will not be compressed in a special way.
-   *
    * @param outputFile      the output file to write to.
    * @param sourceDirectory the source directory to read from recursively.
+   * @param compressed      {@code true} to compress entries, or {@code false} to store them
+   *                        uncompressed.
    * @throws IOException if an IO exception occurs anywhere.
+   * @since 6.1.0
    */
-  public void createJarFrom(Path outputFile, Path sourceDirectory) throws IOException {
+  public void createJarFrom(
+      Path outputFile,
+      Path sourceDirectory,
+      boolean compressed
+  ) throws IOException {
     try (var outputStream = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
-      createJarFrom(outputStream, sourceDirectory);
+      createJarFrom(outputStream, sourceDirectory, compressed);
     }
   }
 
   /**
-   * Create a JAR and stream it into the given output stream, using a given source directory.
-   *
-   * <p>This JAR will not be compressed in a special way.
+   * Create a compressed JAR and stream it into the given output stream, using a given source
+   * directory.
    *
    * @param outputStream    the output stream to write to.
    * @param sourceDirectory the source directory to read from recursively.
    * @throws IOException if an IO exception occurs anywhere.
    */
   public void createJarFrom(OutputStream outputStream, Path sourceDirectory) throws IOException {
+    createJarFrom(outputStream, sourceDirectory, true);
+  }
+
+  /**
+   * Create a JAR and stream it into the given output stream, using a given source directory.
+   *
+   * @param outputStream    the output stream to write to.
+   * @param sourceDirectory the source directory to read from recursively.
+   * @param compressed      {@code true} to compress entries, or {@code false} to store them
+   *                        uncompressed.
+   * @throws IOException if an IO exception occurs anywhere.
+   * @since 6.1.0
+   */
+  public void createJarFrom(
+      OutputStream outputStream,
+      Path sourceDirectory,
+      boolean compressed
+  ) throws IOException {
+    var files = listFiles(sourceDirectory);
+    var buffer = new byte[BUFFER_SIZE];
+
     try (var jarStream = new JarOutputStream(outputStream)) {
-      Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<>() {
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-
-          // File names should be forward-slash delimited in ZIP files.
-          var fileName = StreamSupport
-              .stream(sourceDirectory.relativize(file).spliterator(), false)
-              .map(Path::getFileName)
-              .map(Path::toString)
-              .collect(Collectors.joining("/"));
-
-          jarStream.putNextEntry(new ZipEntry(fileName));
-          jarStream.write(Files.readAllBytes(file));
-          jarStream.closeEntry();
-          return FileVisitResult.CONTINUE;
+      if (files.size() < READ_AHEAD_MIN_FILES) {
+        for (var file : files) {
+          writeEntry(jarStream, sourceDirectory, file, null, compressed, buffer);
         }
-      });
+      } else {
+        writeEntriesWithReadAhead(jarStream, sourceDirectory, files, compressed, buffer);
+      }
 
       jarStream.finish();
     }
   }
+
+  private void writeEntriesWithReadAhead(
+      JarOutputStream jarStream,
+      Path sourceDirectory,
+      List<Path> files,
+      boolean compressed,
+      byte[] buffer
+  ) throws IOException {
+    // Bound the window so that we never hold more than a few MiB of file contents at once.
+    var window = 2 * Runtime.getRuntime().availableProcessors();
+    var pending = new ArrayDeque<CompletableFuture<@Nullable ReadAhead>>(window);
+    var next = 0;
+
+    try {
+      for (var file : files) {
+        while (next < files.size() && pending.size() < window) {
+          var nextFile = files.get(next++);
+          pending.add(CompletableFuture.supplyAsync(() -> readAhead(nextFile, !compressed)));
+        }
+
+        writeEntry(jarStream, sourceDirectory, file, await(pending.remove()), compressed, buffer);
+      }
+    } finally {
+      pending.forEach(future -> future.cancel(false));
+    }
+  }
+
+  private void writeEntry(
+      JarOutputStream jarStream,
+      Path sourceDirectory,
+      Path file,
+      @Nullable ReadAhead readAhead,
+      boolean compressed,
+      byte[] buffer
+  ) throws IOException {
+    var entry = new ZipEntry(entryName(sourceDirectory, file));
+    entry.setTimeLocal(ENTRY_TIME);
+
+    if (readAhead != null) {
+      if (!compressed) {
+        stored(entry, readAhead.content.length, readAhead.crc);
+      }
+
+      jarStream.putNextEntry(entry);
+      jarStream.write(readAhead.content);
+      jarStream.closeEntry();
+      return;
+    }
+
+    if (!compressed) {
+      // Stored entries need their size and checksum up front, so this needs an extra pass.
+      var crc = new CRC32();
+      var size = 0L;
+      try (var input = Files.newInputStream(file)) {
+        for (int read; (read = input.read(buffer)) != -1; size += read) {
+          crc.update(buffer, 0, read);
+        }
+      }
+      stored(entry, size, crc.getValue());
+    }
+
+    jarStream.putNextEntry(entry);
+    try (var input = Files.newInputStream(file)) {
+      for (int read; (read = input.read(buffer)) != -1; ) {
+        jarStream.write(buffer, 0, read);
+      }
+    }
+    jarStream.closeEntry();
+  }
+
+  private static List<Path> listFiles(Path sourceDirectory) throws IOException {
+    try (var walker = Files.walk(sourceDirectory)) {
+      return walker
+          .filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(file -> entryName(sourceDirectory, file)))
+          .toList();
+    }
+  }
+
+  private static String entryName(Path sourceDirectory, Path file) {
+    // File names should be forward-slash delimited in ZIP files.
+    return StreamSupport
+        .stream(sourceDirectory.relativize(file).spliterator(), false)
+        .map(Path::getFileName)
+        .map(Path::toString)
+        .collect(Collectors.joining("/"));
+  }
+
+  private static void stored(ZipEntry entry, long size, long crc) {
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(size);
+    entry.setCompressedSize(size);
+    entry.setCrc(crc);
+  }
+
+  @Nullable
+  private static ReadAhead readAhead(Path file, boolean computeCrc) {
+    try {
+      if (Files.size(file) > READ_AHEAD_MAX_FILE_SIZE) {
+        // Leave this for the writer to stream.
+        return null;
+      }
+
+      var content = Files.readAllBytes(file);
+      var crc = 0L;
+      if (computeCrc) {
+        var checksum = new CRC32();
+        checksum.update(content);
+        crc = checksum.getValue();
+      }
+      return new ReadAhead(content, crc);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Nullable
+  private static ReadAhead await(CompletableFuture<@Nullable ReadAhead> future)
+      throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof UncheckedIOException uncheckedIoException) {
+        throw uncheckedIoException.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  private static final class ReadAhead {
+
+    private final byte[] content;
+    private final long crc;
+
+    private ReadAhead(byte[] content, long crc) {
+      this.content = content;
+      this.crc = crc;
+    }
+  }
 }
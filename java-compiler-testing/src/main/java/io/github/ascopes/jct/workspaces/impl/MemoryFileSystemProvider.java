@@ -17,26 +17,76 @@ package io.github.ascopes.jct.workspaces.impl;
 
 import com.github.marschall.memoryfilesystem.MemoryFileSystemBuilder;
 import com.github.marschall.memoryfilesystem.memory.MemoryURLStreamHandlerFactory;
+import io.github.ascopes.jct.utils.ToStringBuilder;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URLStreamHandler;
 import java.net.spi.URLStreamHandlerProvider;
 import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * RAM file system provider that uses {@code memoryfilesystem} as the underlying file system
  * implementation.
  *
+ * <p>Directories handed out by {@link #acquireDirectory()} live in pooled file systems. When they
+ * are {@link #releaseDirectory released}, the file system is wiped and kept so that it can be
+ * handed out again, rather than being closed and recreated for every workspace. Each directory is
+ * given a unique name, so paths, URIs, and class loaders that outlive one lease of a file system
+ * refer to a location that no longer exists, rather than to the contents of the next lease. At most
+ * {@link #DEFAULT_MAX_POOLED_FILE_SYSTEMS} file systems are kept. File systems that held more
+ * than {@link #DEFAULT_MAX_RETAINED_BYTES} of file content when released are closed instead, so
+ * that any storage they grew is freed outright.
+ *
  * @author Ashley Scopes, Philippe Marschall
  * @since 0.7.0
  */
 public final class MemoryFileSystemProvider {
 
+  /**
+   * The default maximum number of wiped file systems to keep for reuse.
+   *
+   * @since 6.1.0
+   */
+  public static final int DEFAULT_MAX_POOLED_FILE_SYSTEMS = 64;
+
+  /**
+   * The default maximum number of bytes of file content that a released file system may have
+   * held for it to be kept for reuse (16 MiB).
+   *
+   * @since 6.1.0
+   */
+  public static final long DEFAULT_MAX_RETAINED_BYTES = 16L * 1024 * 1024;
+
+  private static final Logger log = LoggerFactory.getLogger(MemoryFileSystemProvider.class);
+
   // We could initialise this lazily, but this class has fewer fields and initialisation
   // overhead than a lazy-loaded object would, so it doesn't really make sense to do it
   // here.
-  private static final MemoryFileSystemProvider INSTANCE = new MemoryFileSystemProvider();
+  private static final MemoryFileSystemProvider INSTANCE = new MemoryFileSystemProvider(
+      DEFAULT_MAX_POOLED_FILE_SYSTEMS,
+      DEFAULT_MAX_RETAINED_BYTES
+  );
+
+  private final int maxPooledFileSystems;
+  private final long maxRetainedBytes;
+  private final Deque<FileSystem> pool;
+  private final Lock lock;
+  private final LongAdder reuseCount;
 
   /**
    * Get the singleton instance of this provider.
@@ -47,8 +97,20 @@ public final class MemoryFileSystemProvider {
     return INSTANCE;
   }
 
-  private MemoryFileSystemProvider() {
-    // Singleton object.
+  MemoryFileSystemProvider(int maxPooledFileSystems, long maxRetainedBytes) {
+    if (maxPooledFileSystems < 0) {
+      throw new IllegalArgumentException("maxPooledFileSystems must not be negative");
+    }
+
+    if (maxRetainedBytes < 0) {
+      throw new IllegalArgumentException("maxRetainedBytes must not be negative");
+    }
+
+    this.maxPooledFileSystems = maxPooledFileSystems;
+    this.maxRetainedBytes = maxRetainedBytes;
+    pool = new ArrayDeque<>();
+    lock = new ReentrantLock();
+    reuseCount = new LongAdder();
   }
 
   /**
@@ -67,6 +129,182 @@ public final class MemoryFileSystemProvider {
     }
   }
 
+  /**
+   * Acquire a new empty directory in an in-memory file system.
+   *
+   * <p>This will reuse a pooled file system if one is available, or create a new file system
+   * with a unique name otherwise. The directory itself always has a unique name. It should be
+   * passed to {@link #releaseDirectory(Path)} once it is no longer needed, rather than having
+   * its file system closed directly.
+   *
+   * @return the directory.
+   * @since 6.1.0
+   */
+  public Path acquireDirectory() {
+    var fileSystem = acquireFileSystem();
+    var directory = fileSystem.getRootDirectories().iterator().next()
+        .resolve(UUID.randomUUID().toString());
+
+    try {
+      return Files.createDirectory(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("could not create directory " + directory, ex);
+    }
+  }
+
+  /**
+   * Release a directory that was acquired with {@link #acquireDirectory()}.
+   *
+   * <p>The file system holding the directory is wiped and returned to the pool if there is space
+   * for it and it did not hold too much data. Otherwise, it is closed. The caller must not use
+   * the directory again after calling this method.
+   *
+   * @param directory the directory to release.
+   * @throws IOException if the file system could not be closed.
+   * @since 6.1.0
+   */
+  public void releaseDirectory(Path directory) throws IOException {
+    releaseFileSystem(directory.getFileSystem());
+  }
+
+  private FileSystem acquireFileSystem() {
+    lock.lock();
+    try {
+      FileSystem fileSystem;
+      while ((fileSystem = pool.pollFirst()) != null) {
+        // Guard against someone closing the file system after releasing it.
+        if (fileSystem.isOpen()) {
+          reuseCount.increment();
+          return fileSystem;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // MemoryFileSystem needs unique FS names to work correctly, so use a UUID to enforce this.
+    return createFileSystem(UUID.randomUUID().toString());
+  }
+
+  private void releaseFileSystem(FileSystem fileSystem) throws IOException {
+    if (!fileSystem.isOpen()) {
+      return;
+    }
+
+    long retainedBytes;
+
+    try {
+      retainedBytes = wipe(fileSystem);
+    } catch (IOException ex) {
+      // Usually caused by a file that is still open elsewhere. Don't risk reusing it.
+      log.debug("Failed to wipe RAM file system {}, it will be closed instead", fileSystem, ex);
+      fileSystem.close();
+      return;
+    }
+
+    if (retainedBytes <= maxRetainedBytes) {
+      lock.lock();
+      try {
+        if (pool.size() < maxPooledFileSystems) {
+          pool.addFirst(fileSystem);
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    fileSystem.close();
+  }
+
+  /**
+   * Close all pooled file systems and empty the pool.
+   *
+   * @since 6.1.0
+   */
+  public void clearPool() {
+    var toClose = new ArrayList<FileSystem>();
+
+    lock.lock();
+    try {
+      toClose.addAll(pool);
+      pool.clear();
+    } finally {
+      lock.unlock();
+    }
+
+    for (var fileSystem : toClose) {
+      try {
+        fileSystem.close();
+      } catch (IOException ex) {
+        log.warn("Failed to close pooled RAM file system {}, ignoring", fileSystem, ex);
+      }
+    }
+  }
+
+  /**
+   * Get the number of file systems currently held in the pool.
+   *
+   * @return the number of pooled file systems.
+   * @since 6.1.0
+   */
+  public int getPooledFileSystemCount() {
+    lock.lock();
+    try {
+      return pool.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of times a pooled file system has been handed out again.
+   *
+   * @return the reuse count.
+   * @since 6.1.0
+   */
+  public long getReuseCount() {
+    return reuseCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("maxPooledFileSystems", maxPooledFileSystems)
+        .attribute("maxRetainedBytes", maxRetainedBytes)
+        .attribute("pooledFileSystemCount", getPooledFileSystemCount())
+        .attribute("reuseCount", getReuseCount())
+        .toString();
+  }
+
+  private static long wipe(FileSystem fileSystem) throws IOException {
+    var root = fileSystem.getRootDirectories().iterator().next();
+    var bytes = new long[1];
+
+    Files.walkFileTree(root, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        bytes[0] += attrs.size();
+        Files.delete(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, @Nullable IOException ex)
+          throws IOException {
+        if (ex != null) {
+          throw ex;
+        }
+        if (!dir.equals(root)) {
+          Files.delete(dir);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    return bytes[0];
+  }
+
   /**
    * Java 9 SPI-based provider handler to register the URL protocol handler for the MemoryFileSystem
    * API implicitly at runtime. This enables URL resolution to work correctly, which is needed to
@@ -22,7 +22,7 @@ import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +36,9 @@ import org.slf4j.LoggerFactory;
  * <p>These file systems are integrated into the {@link FileSystem} API, and can be configured to
  * automatically destroy themselves once this RamPath handle is garbage collected.
  *
+ * <p>File systems are acquired from the pool held by the {@link MemoryFileSystemProvider}, and
+ * are wiped and returned to that pool when this directory is closed.
+ *
  * <p>In addition, these paths follow POSIX file system semantics, meaning that files are handled
  * with case-sensitive names, and use forward slashes to separate paths.
  *
@@ -56,23 +59,31 @@ public final class RamDirectoryImpl extends AbstractManagedDirectory {
   private final String name;
   private final Path rootDirectory;
   private final FileSystem fileSystem;
+  private final AtomicBoolean closed;
 
   private RamDirectoryImpl(String name, FileSystem fileSystem, Path rootDirectory) {
     super(name, rootDirectory);
     this.name = name;
     this.rootDirectory = rootDirectory;
     this.fileSystem = fileSystem;
+    closed = new AtomicBoolean(false);
   }
 
   @Override
   public void close() throws IOException {
+    // Releasing the same file system twice would put it in the pool twice, so only allow it to
+    // happen once.
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
     log.trace(
-        "Closing RAM file system '{}' ('{}' @ {})",
+        "Releasing RAM file system '{}' ('{}' @ {})",
         name,
         rootDirectory.toUri(),
         fileSystem
     );
-    fileSystem.close();
+    MemoryFileSystemProvider.getInstance().releaseDirectory(rootDirectory.getParent());
   }
 
   /**
@@ -84,16 +95,14 @@ public final class RamDirectoryImpl extends AbstractManagedDirectory {
   public static RamDirectoryImpl newRamDirectory(String name) {
     assertValidRootName(name);
 
-    // MemoryFileSystem needs unique FS names to work correctly, so use a UUID to enforce this.
-    var fileSystem = MemoryFileSystemProvider.getInstance()
-        .createFileSystem(UUID.randomUUID().toString());
-    var path = fileSystem.getRootDirectories().iterator().next()
-        .resolve(name);
+    // Each lease gets a uniquely named parent directory, so that paths from previous users of a
+    // pooled file system cannot see into this one.
+    var path = MemoryFileSystemProvider.getInstance().acquireDirectory().resolve(name);
 
     // Ensure the base directory exists.
     uncheckedIo(() -> Files.createDirectories(path));
 
-    var fs = new RamDirectoryImpl(name, fileSystem, path);
+    var fs = new RamDirectoryImpl(name, path.getFileSystem(), path);
 
     log.debug(
         "Initialized new root '{}' using RAM disk at '{}'",
@@ -19,11 +19,8 @@ import static io.github.ascopes.jct.utils.FileUtils.assertValidRootName;
 import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
 
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,9 +32,13 @@ import org.slf4j.LoggerFactory;
  * platform you are using, and is thus compatible with older IO-based facilities such as
  * {@link java.io.File}, {@link java.io.FileInputStream}, etc.
  *
- * <p>The downside to this is that if the JVM crashes, the directory may not be deleted. It may
- * also be slower than {@link RamDirectoryImpl}, and does not provide isolation from the environment
- * that the tests are running in.
+ * <p>Closing the directory moves it out of the way immediately, and deletes it in the background
+ * using the {@link TempDirectoryReaper}.
+ *
+ * <p>The downside to this is that if the JVM crashes, the directory may not be deleted until
+ * the next time that temporary directories are used. It may also be slower than
+ * {@link RamDirectoryImpl}, and does not provide isolation from the environment that the tests
+ * are running in.
  *
  * @author Ashley Scopes
  * @see RamDirectoryImpl
@@ -62,21 +63,7 @@ public final class TempDirectoryImpl extends AbstractManagedDirectory {
         rootDirectory.getFileSystem()
     );
 
-    Files.walkFileTree(rootDirectory, new SimpleFileVisitor<>() {
-      @Override
-      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-        Files.delete(file);
-        log.trace("Deleted file '{}' from temporary directory '{}'", file, rootDirectory);
-        return super.visitFile(file, attrs);
-      }
-
-      @Override
-      public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-        Files.delete(dir);
-        log.trace("Deleted directory '{}' within temporary directory '{}'", dir, rootDirectory);
-        return super.postVisitDirectory(dir, exc);
-      }
-    });
+    TempDirectoryReaper.getInstance().reap(rootDirectory);
   }
 
   /**
@@ -88,7 +75,8 @@ public final class TempDirectoryImpl extends AbstractManagedDirectory {
    */
   public static TempDirectoryImpl newTempDirectory(String name) {
     assertValidRootName(name);
-    var tempDir = uncheckedIo(() -> Files.createTempDirectory("jct-" + name + "_"));
+    var prefix = TempDirectoryReaper.getInstance().directoryPrefix(name);
+    var tempDir = uncheckedIo(() -> Files.createTempDirectory(prefix));
     log.debug("Initialized new root '{}' using temporary directory at '{}'", name, tempDir);
     return new TempDirectoryImpl(name, tempDir);
   }
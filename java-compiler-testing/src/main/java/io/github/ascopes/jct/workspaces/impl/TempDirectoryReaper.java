@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces.impl;
+
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background deleter for temporary directories.
+ *
+ * <p>Directories are atomically renamed to a tombstone, which is then deleted on a small pool of
+ * background threads, so that closing a temporary directory does not block the caller while
+ * large trees of files are deleted.
+ *
+ * <p>The names of temporary directories and their tombstones include the ID of the process that
+ * created them. When first used, this reaper will delete any directories and tombstones that were
+ * created by processes that are no longer running, such as test JVMs that crashed before they
+ * could clean up after themselves. Tombstones of running processes are left alone, as those
+ * processes are still deleting them.
+ *
+ * <p>A shutdown hook waits a bounded amount of time for directories that this process closed to
+ * be deleted before the JVM exits. Cleaning up after other processes is best-effort, and is
+ * abandoned when shutting down.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class TempDirectoryReaper {
+
+  private static final Logger log = LoggerFactory.getLogger(TempDirectoryReaper.class);
+
+  static final String PREFIX = "jct-";
+  static final String TOMBSTONE_SUFFIX = ".tombstone";
+
+  // Matches the directory names produced from #directoryPrefix, and the tombstones of those
+  // directories, capturing the process ID.
+  private static final Pattern OWNED_DIRECTORY = Pattern.compile(
+      "^jct-.*_(\\d+)_\\d+(?:" + Pattern.quote(TOMBSTONE_SUFFIX) + ")?$"
+  );
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+  private static final long PID = ProcessHandle.current().pid();
+
+  /**
+   * Get the shared instance of this reaper for the system temporary directory.
+   *
+   * <p>The first call to this method will begin cleaning up any orphaned directories in the
+   * background.
+   *
+   * @return the shared instance.
+   */
+  public static TempDirectoryReaper getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  private final Path tempRoot;
+  private final ExecutorService executor;
+  private final Object lock;
+  private int pending;
+  private volatile boolean shuttingDown;
+
+  /**
+   * Initialize this reaper.
+   *
+   * @param tempRoot the directory that temporary directories are created within.
+   * @param threads  the maximum number of threads to delete directories with.
+   */
+  TempDirectoryReaper(Path tempRoot, int threads) {
+    var threadId = new AtomicInteger();
+
+    this.tempRoot = tempRoot;
+    executor = Executors.newFixedThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable, "jct-reaper-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    lock = new Object();
+    pending = 0;
+    shuttingDown = false;
+  }
+
+  /**
+   * Get the prefix to use for the name of a new temporary directory.
+   *
+   * @param name the symbolic name of the directory.
+   * @return the prefix to pass to {@link Files#createTempDirectory(String,
+   *     java.nio.file.attribute.FileAttribute[])}.
+   */
+  public String directoryPrefix(String name) {
+    return PREFIX + name + "_" + PID + "_";
+  }
+
+  /**
+   * Delete the given directory.
+   *
+   * <p>The directory is moved out of the way immediately, and then deleted in the background. If
+   * the directory cannot be moved, or this reaper is shutting down, then it is deleted before this
+   * method returns instead.
+   *
+   * @param directory the directory to delete.
+   * @throws IOException if the directory could not be deleted.
+   */
+  public void reap(Path directory) throws IOException {
+    var tombstone = directory.resolveSibling(directory.getFileName() + TOMBSTONE_SUFFIX);
+
+    try {
+      Files.move(directory, tombstone, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      // Windows will not rename directories containing open files, and some file systems cannot
+      // perform atomic moves at all.
+      log.debug("Failed to move {} to a tombstone, deleting it in place instead", directory, ex);
+      deleteTree(directory);
+      return;
+    }
+
+    if (!submit(tombstone, () -> false)) {
+      deleteTree(tombstone);
+    }
+  }
+
+  /**
+   * Wait for all pending deletions to complete.
+   *
+   * @param timeout the maximum time to wait for.
+   * @return {@code true} if all pending deletions completed, or {@code false} if the timeout was
+   *     reached first.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  public boolean awaitPending(Duration timeout) throws InterruptedException {
+    var deadline = System.nanoTime() + timeout.toNanos();
+
+    synchronized (lock) {
+      while (pending > 0) {
+        var remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+          return false;
+        }
+        lock.wait(remainingMillis);
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("tempRoot", tempRoot)
+        .attribute("pending", getPending())
+        .toString();
+  }
+
+  /**
+   * Delete any tombstones and any directories owned by processes that are no longer running.
+   */
+  void cleanUpOrphans() {
+    try (var entries = Files.newDirectoryStream(tempRoot, PREFIX + "*")) {
+      for (var entry : entries) {
+        if (shuttingDown) {
+          log.debug("Abandoning scan for orphaned temporary directories during shutdown");
+          return;
+        }
+
+        if (isOrphan(entry.getFileName().toString()) && Files.isDirectory(entry)) {
+          log.debug("Deleting orphaned temporary directory {}", entry);
+          if (!submit(entry, () -> shuttingDown)) {
+            log.trace("Not deleting orphaned temporary directory {} during shutdown", entry);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      log.debug("Failed to scan {} for orphaned temporary directories", tempRoot, ex);
+    }
+  }
+
+  /**
+   * Stop accepting new deletions, and wait for any pending deletions of directories that this
+   * process closed to complete.
+   *
+   * <p>Any scan for orphaned directories, and the deletion of any orphans that were found, is
+   * abandoned, so only the directories that this process closed are waited for.
+   *
+   * @param timeout the maximum time to wait for.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  void shutdown(Duration timeout) throws InterruptedException {
+    shuttingDown = true;
+    executor.shutdown();
+
+    if (!awaitPending(timeout)) {
+      log.warn("Timed out deleting {} temporary directories", getPending());
+    }
+  }
+
+  static boolean isOrphan(String fileName) {
+    var matcher = OWNED_DIRECTORY.matcher(fileName);
+    if (!matcher.matches()) {
+      // Not something we created, or created by an older version that did not record the owner.
+      return false;
+    }
+
+    try {
+      var pid = Long.parseLong(matcher.group(1));
+      return pid != PID && ProcessHandle.of(pid).isEmpty();
+    } catch (NumberFormatException ex) {
+      return false;
+    }
+  }
+
+  private int getPending() {
+    synchronized (lock) {
+      return pending;
+    }
+  }
+
+  private boolean submit(Path directory, BooleanSupplier abandoned) {
+    synchronized (lock) {
+      ++pending;
+    }
+
+    try {
+      executor.execute(() -> {
+        try {
+          deleteInBackground(directory, abandoned);
+        } finally {
+          completed();
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException ex) {
+      completed();
+      return false;
+    }
+  }
+
+  private void completed() {
+    synchronized (lock) {
+      if (--pending == 0) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void deleteInBackground(Path directory, BooleanSupplier abandoned) {
+    try {
+      deleteTree(directory, abandoned);
+    } catch (NoSuchFileException ex) {
+      // Another process got there first.
+      log.trace("Temporary directory {} was already deleted", directory, ex);
+    } catch (IOException ex) {
+      log.warn("Failed to delete temporary directory {}", directory, ex);
+    }
+  }
+
+  private static void deleteTree(Path root) throws IOException {
+    deleteTree(root, () -> false);
+  }
+
+  private static void deleteTree(Path root, BooleanSupplier abandoned) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        return abandoned.getAsBoolean()
+            ? FileVisitResult.TERMINATE
+            : FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (abandoned.getAsBoolean()) {
+          return FileVisitResult.TERMINATE;
+        }
+        Files.delete(file);
+        log.trace("Deleted file '{}' from temporary directory '{}'", file, root);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+        if (exc != null) {
+          throw exc;
+        }
+        Files.delete(dir);
+        log.trace("Deleted directory '{}' within temporary directory '{}'", dir, root);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private static final class Holder {
+
+    private static final TempDirectoryReaper INSTANCE = createInstance();
+
+    private static TempDirectoryReaper createInstance() {
+      var tempRoot = Path.of(System.getProperty("java.io.tmpdir"));
+      var threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+      var reaper = new TempDirectoryReaper(tempRoot, threads);
+
+      var hook = new Thread(() -> {
+        try {
+          reaper.shutdown(SHUTDOWN_TIMEOUT);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }, "jct-reaper-shutdown");
+      Runtime.getRuntime().addShutdownHook(hook);
+
+      reaper.executor.execute(reaper::cleanUpOrphans);
+      return reaper;
+    }
+  }
+
+}
@@ -16,15 +16,21 @@
 package io.github.ascopes.jct.workspaces.impl;
 
 import static io.github.ascopes.jct.utils.IoExceptionUtils.uncheckedIo;
+import static java.util.Objects.requireNonNull;
 
 import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.WorkspaceDumpOptions;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
+import java.nio.file.PathMatcher;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import javax.tools.JavaFileManager.Location;
 import org.jspecify.annotations.Nullable;
@@ -32,25 +38,67 @@ import org.jspecify.annotations.Nullable;
 /**
  * Helper for dumping the structure of locations in a workspace for debugging purposes.
  *
+ * <p>Output is written to the appendable as each directory is visited, rather than being built
+ * up in memory first. Only the entries of the directory currently being visited are held at
+ * once, and {@link WorkspaceDumpOptions} can be used to bound the depth and breadth of the
+ * output.
+ *
  * <p>This is not thread-safe.
  *
  * @author Ashley Scopes
  * @since 5.0.0
  */
-final class WorkspaceDumper {
+public final class WorkspaceDumper {
+
+  private static final int ROOT_INDENT = 7;
+  private static final int INDENT_SIZE = 2;
+  private static final String[] SIZE_UNITS = {"KiB", "MiB", "GiB", "TiB"};
 
   private final Appendable appendable;
+  private final WorkspaceDumpOptions options;
+
+  // Directories that have been entered but not written yet, as they may not contain anything
+  // that matches the glob. This is always the innermost part of the current directory stack.
+  private final List<String> pendingDirectories;
+  private long fileCount;
+  private long totalSize;
 
-  WorkspaceDumper(Appendable appendable) {
+  WorkspaceDumper(Appendable appendable, WorkspaceDumpOptions options) {
     this.appendable = appendable;
+    this.options = options;
+    pendingDirectories = new ArrayList<>();
   }
 
-  void dump(String repr, Map<Location, List<PathRoot>> locations) {
+  /**
+   * Dump the given workspace to the given appendable.
+   *
+   * <p>This backs the default implementation of
+   * {@link Workspace#dump(Appendable, WorkspaceDumpOptions)}, so that any workspace can be
+   * dumped in the same format.
+   *
+   * @param workspace  the workspace to dump.
+   * @param appendable the appendable to write to.
+   * @param options    the options to limit the output with.
+   * @throws java.io.UncheckedIOException if an IO error occurs when writing to the appendable.
+   * @since 6.1.0
+   */
+  public static void dump(
+      Workspace workspace,
+      Appendable appendable,
+      WorkspaceDumpOptions options
+  ) {
+    requireNonNull(workspace, "workspace");
+    requireNonNull(appendable, "appendable");
+    requireNonNull(options, "options");
+    new WorkspaceDumper(appendable, options).dump(workspace.toString(), workspace.getAllPaths());
+  }
+
+  void dump(String repr, Map<Location, ? extends List<? extends PathRoot>> locations) {
     uncheckedIo(() -> appendable.append("Workspace ").append(repr).append(":\n"));
     locations.forEach(this::dumpLocation);
   }
 
-  private void dumpLocation(Location location, List<PathRoot> pathRoots) {
+  private void dumpLocation(Location location, List<? extends PathRoot> pathRoots) {
     uncheckedIo(() -> appendable.append("  Location ").append(location.toString()).append(":\n"));
     pathRoots.forEach(this::dumpPath);
   }
@@ -58,68 +106,179 @@ final class WorkspaceDumper {
   private void dumpPath(PathRoot pathRoot) {
     uncheckedIo(() -> {
       appendable.append("   - ").append(pathRoot.getUri().toString()).append("\n");
-      try (var walker = new Walker(7)) {
-        Files.walkFileTree(pathRoot.getPath(), walker);
+
+      pendingDirectories.clear();
+      fileCount = 0;
+      totalSize = 0;
+
+      var root = pathRoot.getPath();
+      var glob = options.getGlob();
+      var matcher = glob == null
+          ? null
+          : root.getFileSystem().getPathMatcher("glob:" + glob);
+
+      var rootAttrs = readAttributes(root);
+      if (!rootAttrs.isDirectory()) {
+        // Path roots can also be archives, such as JARs.
+        writeFile(ROOT_INDENT, String.valueOf(root.getFileName()), rootAttrs);
+      } else if (!dumpDirectory(root, root, matcher, 0, ROOT_INDENT)) {
+        appendable.append(" ".repeat(ROOT_INDENT)).append("  [[empty]]\n");
       }
+
+      if (options.isFileSizes()) {
+        appendable.append(" ".repeat(ROOT_INDENT))
+            .append("[[total: ")
+            .append(Long.toString(fileCount))
+            .append(fileCount == 1 ? " file, " : " files, ")
+            .append(formatSize(totalSize))
+            .append("]]\n");
+      }
+
+      appendable.append("\n");
     });
   }
 
-  private final class Walker extends SimpleFileVisitor<Path> implements AutoCloseable {
+  private boolean dumpDirectory(
+      Path root,
+      Path directory,
+      @Nullable PathMatcher matcher,
+      int depth,
+      int indent
+  ) throws IOException {
+    var entries = new ArrayList<Path>();
+    try (var stream = Files.newDirectoryStream(directory)) {
+      stream.forEach(entries::add);
+    }
+    entries.sort(Comparator.comparing(entry -> String.valueOf(entry.getFileName())));
 
-    private static final int INDENT_SIZE = 2;
+    var maxEntries = options.getMaxEntriesPerDirectory();
+    var shown = 0;
+    var index = 0;
 
-    private int index;
-    private int indent;
+    for (; index < entries.size() && shown < maxEntries; ++index) {
+      var entry = entries.get(index);
+      var name = String.valueOf(entry.getFileName());
+      var attrs = readAttributes(entry);
 
-    private Walker(int indent) {
-      index = 0;
-      this.indent = indent;
+      if (attrs.isDirectory()) {
+        if (depth < options.getMaxDepth()) {
+          enterDirectory(indent, name);
+          var listed = dumpDirectory(root, entry, matcher, depth + 1, indent + INDENT_SIZE);
+          if (listed || matcher == null) {
+            ++shown;
+          }
+          leaveDirectory();
+        } else {
+          writeLine(indent, name + "/ [[not expanded]]");
+          ++shown;
+        }
+      } else if (matches(root, entry, matcher)) {
+        writeFile(indent, name, attrs);
+        ++shown;
+      }
     }
 
-    @Override
-    public void close() throws IOException {
-      // Only 1 index implies an empty directory.
-      if (index <= 1) {
-        doIndent();
-        appendable.append("  [[empty]]\n");
-      }
-      appendable.append("\n");
+    if (index < entries.size()) {
+      summarizeRemaining(root, entries.subList(index, entries.size()), matcher, indent);
+      return true;
     }
 
-    @Override
-    public FileVisitResult preVisitDirectory(
-        Path dir,
-        BasicFileAttributes attrs
-    ) throws IOException {
-      if (index > 0) {
-        doIndent();
-        appendable.append(dir.getFileName().toString()).append("/\n");
-        indent += INDENT_SIZE;
+    return shown > 0;
+  }
+
+  private void summarizeRemaining(
+      Path root,
+      List<Path> remaining,
+      @Nullable PathMatcher matcher,
+      int indent
+  ) throws IOException {
+    if (matcher == null && !options.isFileSizes()) {
+      // Nothing to inspect, so avoid touching each file.
+      writeLine(indent, "... " + remaining.size() + " more");
+      return;
+    }
+
+    var count = 0;
+    var size = 0L;
+    for (var entry : remaining) {
+      var attrs = readAttributes(entry);
+      if (attrs.isDirectory()) {
+        ++count;
+      } else if (matches(root, entry, matcher)) {
+        ++count;
+        ++fileCount;
+        size += attrs.size();
       }
+    }
 
-      ++index;
-      return super.preVisitDirectory(dir, attrs);
+    if (count == 0) {
+      return;
     }
 
-    @Override
-    public FileVisitResult postVisitDirectory(
-        Path dir,
-        @Nullable IOException ex
-    ) throws IOException {
-      indent -= INDENT_SIZE;
-      return super.postVisitDirectory(dir, ex);
+    totalSize += size;
+    var line = "... " + count + " more";
+    writeLine(indent, options.isFileSizes() ? line + " (" + formatSize(size) + ")" : line);
+  }
+
+  private void enterDirectory(int indent, String name) throws IOException {
+    pendingDirectories.add(" ".repeat(indent) + name + "/\n");
+
+    if (options.getGlob() == null) {
+      // Without a glob, empty directories are still listed.
+      flushPendingDirectories();
     }
+  }
 
-    @Override
-    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-      doIndent();
-      appendable.append(file.getFileName().toString()).append("\n");
-      ++index;
-      return super.visitFile(file, attrs);
+  private void leaveDirectory() {
+    if (!pendingDirectories.isEmpty()) {
+      pendingDirectories.remove(pendingDirectories.size() - 1);
     }
+  }
+
+  private void writeFile(int indent, String name, BasicFileAttributes attrs) throws IOException {
+    ++fileCount;
+
+    if (options.isFileSizes()) {
+      totalSize += attrs.size();
+      writeLine(indent, name + " (" + formatSize(attrs.size()) + ")");
+    } else {
+      writeLine(indent, name);
+    }
+  }
+
+  private void writeLine(int indent, String line) throws IOException {
+    flushPendingDirectories();
+    appendable.append(" ".repeat(indent)).append(line).append("\n");
+  }
 
-    private void doIndent() throws IOException {
-      appendable.append(" ".repeat(indent));
+  private void flushPendingDirectories() throws IOException {
+    for (var pendingDirectory : pendingDirectories) {
+      appendable.append(pendingDirectory);
     }
+    pendingDirectories.clear();
+  }
+
+  private static boolean matches(Path root, Path file, @Nullable PathMatcher matcher) {
+    return matcher == null || matcher.matches(root.relativize(file));
+  }
+
+  private static BasicFileAttributes readAttributes(Path path) throws IOException {
+    // Do not follow links, for consistency with Files.walkFileTree.
+    return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+  }
+
+  static String formatSize(long size) {
+    if (size < 1024) {
+      return size + " B";
+    }
+
+    var value = (double) size;
+    var unit = -1;
+    while (value >= 1024 && unit < SIZE_UNITS.length - 1) {
+      value /= 1024;
+      ++unit;
+    }
+
+    return String.format(Locale.ROOT, "%.1f %s", value, SIZE_UNITS[unit]);
   }
 }
@@ -48,6 +48,7 @@ import javax.tools.JavaFileManager.Location;
 public final class WorkspaceImpl implements Workspace {
 
   private volatile boolean closed;
+  private volatile boolean frozen;
   private final String id;
   private final PathStrategy pathStrategy;
   private final Map<Location, List<PathRoot>> locations;
@@ -60,6 +61,7 @@ public final class WorkspaceImpl implements Workspace {
   public WorkspaceImpl(PathStrategy pathStrategy) {
     id = UUID.randomUUID().toString();
     closed = false;
+    frozen = false;
     this.pathStrategy = requireNonNull(pathStrategy, "pathStrategy");
     locations = new HashMap<>();
   }
@@ -93,11 +95,6 @@ public final class WorkspaceImpl implements Workspace {
     }
   }
 
-  @Override
-  public void dump(Appendable appendable) {
-    new WorkspaceDumper(appendable).dump(toString(), locations);
-  }
-
   @Override
   public boolean isClosed() {
     return closed;
@@ -105,6 +102,7 @@ public final class WorkspaceImpl implements Workspace {
 
   @Override
   public void addPackage(Location location, Path path) {
+    assertNotFrozen();
     requireNonNull(location, "location");
     requireNonNull(path, "path");
 
@@ -141,6 +139,7 @@ public final class WorkspaceImpl implements Workspace {
 
   @Override
   public ManagedDirectory createPackage(Location location) {
+    assertNotFrozen();
     requireNonNull(location, "location");
 
     if (location.isModuleOrientedLocation()) {
@@ -252,7 +251,45 @@ public final class WorkspaceImpl implements Workspace {
         .attribute("id", id)
         .attribute("pathStrategy", pathStrategy)
         .attribute("closed", closed)
+        .attribute("frozen", frozen)
         .attribute("numberOfLocations", locations.size())
         .toString();
   }
+
+  /**
+   * Determine if this workspace has been frozen as a template.
+   *
+   * @return {@code true} if frozen, or {@code false} otherwise.
+   * @since 6.1.0
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Freeze this workspace, preventing any further paths from being added to it.
+   */
+  void freeze() {
+    frozen = true;
+  }
+
+  /**
+   * Register an existing managed directory with this workspace.
+   *
+   * <p>The workspace takes ownership of the directory, and will close it when the workspace
+   * is closed.
+   *
+   * @param location  the location to register the directory with.
+   * @param directory the directory.
+   */
+  void addManagedDirectory(Location location, AbstractManagedDirectory directory) {
+    assertNotFrozen();
+    locations.computeIfAbsent(location, unused -> new ArrayList<>()).add(directory);
+  }
+
+  private void assertNotFrozen() {
+    if (frozen) {
+      throw new JctIllegalInputException("Workspace " + id + " is frozen as a template");
+    }
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.ascopes.jct.ex.JctIllegalInputException;
+import io.github.ascopes.jct.utils.ToStringBuilder;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.WorkspaceTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.tools.JavaFileManager.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default implementation of a {@link WorkspaceTemplate}.
+ *
+ * <p>Each fork is a plain snapshot copy: managed directories are forked by copying their contents
+ * into a new directory of the same kind, so RAM directories are forked into a new in-memory file
+ * system, and temporary directories are forked into a new temporary directory. Nothing is shared
+ * between the template and its forks, so the cost of each fork is proportional to the number and
+ * size of the files in the template. Any other paths are shared as-is.
+ *
+ * <p>Workspaces that were not created by {@link io.github.ascopes.jct.workspaces.Workspaces} are
+ * snapshotted in the same way when the template is created, and remain owned by the caller.
+ *
+ * <p>This is thread safe, so forks can be created from parallel tests.
+ *
+ * @author Ashley Scopes
+ * @since 6.1.0
+ */
+public final class WorkspaceTemplateImpl implements WorkspaceTemplate {
+
+  private static final Logger log = LoggerFactory.getLogger(WorkspaceTemplateImpl.class);
+
+  private final WorkspaceImpl workspace;
+  private final Map<Location, List<? extends PathRoot>> paths;
+  private final AtomicLong forkCount;
+  private volatile boolean closed;
+
+  /**
+   * Initialise this template, freezing the given workspace.
+   *
+   * <p>If the workspace is a {@link WorkspaceImpl}, then this template takes ownership of it.
+   * Otherwise, a snapshot of the workspace is taken, and the caller remains responsible for
+   * closing the original.
+   *
+   * @param workspace the workspace to freeze.
+   * @throws JctIllegalInputException if the workspace is closed.
+   */
+  public WorkspaceTemplateImpl(Workspace workspace) {
+    requireNonNull(workspace, "workspace");
+
+    if (workspace.isClosed()) {
+      throw new JctIllegalInputException("Cannot freeze a closed workspace");
+    }
+
+    this.workspace = workspace instanceof WorkspaceImpl workspaceImpl
+        ? workspaceImpl
+        : snapshot(workspace);
+    this.workspace.freeze();
+    paths = this.workspace.getAllPaths();
+    forkCount = new AtomicLong();
+    closed = false;
+  }
+
+  @Override
+  public Workspace fork() {
+    if (closed) {
+      throw new IllegalStateException("Workspace template has been closed");
+    }
+
+    return copy(workspace.getPathStrategy(), paths, "fork" + forkCount.incrementAndGet());
+  }
+
+  @Override
+  public PathStrategy getPathStrategy() {
+    return workspace.getPathStrategy();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    workspace.close();
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .attribute("workspace", workspace)
+        .attribute("forkCount", forkCount.get())
+        .attribute("closed", closed)
+        .toString();
+  }
+
+  private static WorkspaceImpl snapshot(Workspace workspace) {
+    return copy(workspace.getPathStrategy(), workspace.getAllPaths(), "snapshot");
+  }
+
+  private static WorkspaceImpl copy(
+      PathStrategy pathStrategy,
+      Map<Location, List<? extends PathRoot>> paths,
+      String suffix
+  ) {
+    var copy = new WorkspaceImpl(pathStrategy);
+
+    try {
+      paths.forEach((location, roots) -> {
+        for (var root : roots) {
+          if (root instanceof AbstractManagedDirectory dir) {
+            copy.addManagedDirectory(location, copyDirectory(dir, suffix));
+          } else {
+            copy.addPackage(location, root.getPath());
+          }
+        }
+      });
+    } catch (RuntimeException ex) {
+      try {
+        copy.close();
+      } catch (RuntimeException closeEx) {
+        ex.addSuppressed(closeEx);
+      }
+      throw ex;
+    }
+
+    return copy;
+  }
+
+  private static AbstractManagedDirectory copyDirectory(
+      AbstractManagedDirectory dir,
+      String suffix
+  ) {
+    var name = dir.getName() + "-" + suffix;
+
+    var copiedDir = dir instanceof RamDirectoryImpl
+        ? RamDirectoryImpl.newRamDirectory(name)
+        : TempDirectoryImpl.newTempDirectory(name);
+
+    try {
+      copiedDir.copyContentsFrom(dir.getPath());
+      log.trace("Copied {} to {}", dir, copiedDir);
+      return copiedDir;
+    } catch (RuntimeException ex) {
+      try {
+        copiedDir.close();
+      } catch (Exception closeEx) {
+        ex.addSuppressed(closeEx);
+      }
+      throw ex;
+    }
+  }
+}
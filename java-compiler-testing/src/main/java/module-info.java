@@ -122,6 +122,7 @@ module io.github.ascopes.jct {
   requires transitive com.github.marschall.memoryfilesystem;
   requires transitive java.compiler;
   requires transitive java.management;
+  requires static jdk.compiler;  // Optional, only used to collect javac phase timings.
   requires me.xdrop.fuzzywuzzy;  // automatic module
   requires transitive org.assertj.core;
   requires transitive org.jspecify;
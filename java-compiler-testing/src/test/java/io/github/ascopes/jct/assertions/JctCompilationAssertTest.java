@@ -34,6 +34,7 @@ import io.github.ascopes.jct.containers.PackageContainerGroup;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.repr.TraceDiagnosticListRepresentation;
 import java.util.List;
+import java.util.Map;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
@@ -453,6 +454,25 @@ class JctCompilationAssertTest {
       assertThatCode(() -> assertions.containsExactlyElementsOf(diagnostics))
           .doesNotThrowAnyException();
     }
+
+    @DisplayName(".diagnostics() accounts for diagnostics that were not retained")
+    @Test
+    void diagnosticsAccountsForDiagnosticsThatWereNotRetained() {
+      // Given
+      var diagnostics = List.of(someTraceDiagnostic());
+      var compilation = mock(JctCompilation.class);
+      when(compilation.getDiagnostics())
+          .thenReturn(diagnostics);
+      when(compilation.getDiagnosticCounts())
+          .thenReturn(Map.of(Kind.ERROR, 100L, Kind.NOTE, 20L));
+
+      // When
+      var assertions = new JctCompilationAssert(compilation).diagnostics();
+
+      // Then
+      assertThatCode(() -> assertions.reportedCount().isEqualTo(120))
+          .doesNotThrowAnyException();
+    }
   }
 
   @DisplayName("JctCompilationAssert.packageGroup(...) tests")
@@ -32,6 +32,7 @@ import io.github.ascopes.jct.fixtures.ExtraArgumentMatchers;
 import io.github.ascopes.jct.repr.TraceDiagnosticListRepresentation;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -1229,6 +1230,136 @@ class TraceDiagnosticListAssertTest {
     }
   }
 
+  @DisplayName("TraceDiagnosticListAssert reported count tests")
+  @Nested
+  class ReportedCountTest {
+
+    @DisplayName(".reportedCount() returns the list size if no counts are known")
+    @Test
+    void reportedCountReturnsTheListSizeIfNoCountsAreKnown() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(List.of(
+          someTraceDiagnostic(Kind.ERROR),
+          someTraceDiagnostic(Kind.NOTE)
+      ));
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(() -> assertions.reportedCount().isEqualTo(2));
+    }
+
+    @DisplayName(".reportedCount() includes diagnostics that were not retained")
+    @Test
+    void reportedCountIncludesDiagnosticsThatWereNotRetained() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(someTraceDiagnostic(Kind.ERROR), someTraceDiagnostic(Kind.NOTE)),
+          Map.of(Kind.ERROR, 10L, Kind.NOTE, 500L)
+      );
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(() -> assertions.reportedCount().isEqualTo(510));
+    }
+
+    @DisplayName(".reportedCount() never reports fewer diagnostics than are retained")
+    @Test
+    void reportedCountNeverReportsFewerDiagnosticsThanAreRetained() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(someTraceDiagnostic(Kind.ERROR), someTraceDiagnostic(Kind.NOTE)),
+          Map.of()
+      );
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(() -> assertions.reportedCount().isEqualTo(2));
+    }
+
+    @DisplayName(".filteringByKinds(...) narrows the reported counts to the given kinds")
+    @Test
+    void filteringByKindsNarrowsTheReportedCountsToTheGivenKinds() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(someTraceDiagnostic(Kind.ERROR), someTraceDiagnostic(Kind.NOTE)),
+          Map.of(Kind.ERROR, 10L, Kind.NOTE, 500L, Kind.WARNING, 7L)
+      );
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(() -> assertions.errors().reportedCount().isEqualTo(10));
+      assertThatNoException()
+          .isThrownBy(() -> assertions.excludingKinds(Kind.NOTE).reportedCount().isEqualTo(17));
+    }
+
+    @DisplayName(".filteringBy(...) discards the reported counts")
+    @Test
+    void filteringByDiscardsTheReportedCounts() {
+      // Given
+      var error = someTraceDiagnostic(Kind.ERROR);
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(error, someTraceDiagnostic(Kind.ERROR)),
+          Map.of(Kind.ERROR, 10L)
+      );
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(() -> assertions.filteringBy(error::equals).reportedCount().isEqualTo(1));
+    }
+
+    @DisplayName(".hasNoDiagnosticsOfKinds(...) fails if matching diagnostics were not retained")
+    @Test
+    void hasNoDiagnosticsOfKindsFailsIfDiagnosticsWereReportedButNotRetained() {
+      // Given
+      var error = someTraceDiagnostic(Kind.ERROR);
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(error, someTraceDiagnostic(Kind.NOTE)),
+          Map.of(Kind.ERROR, 3L, Kind.NOTE, 1L)
+      );
+
+      // Then
+      assertThatExceptionOfType(AssertionError.class)
+          .isThrownBy(assertions::hasNoErrors)
+          .withMessage(
+              "Expected no error diagnostics.\n\n3 were reported, of which 2 were not retained."
+                  + "\n\nRetained diagnostics:\n%s",
+              TraceDiagnosticListRepresentation.getInstance().toStringOf(List.of(error))
+          );
+    }
+
+    @DisplayName(".hasNoDiagnosticsOfKinds(...) fails if none of the reported kinds were retained")
+    @Test
+    void hasNoDiagnosticsOfKindsFailsIfNoneOfTheReportedKindsWereRetained() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(someTraceDiagnostic(Kind.NOTE)),
+          Map.of(Kind.WARNING, 4L, Kind.NOTE, 1L)
+      );
+
+      // Then
+      assertThatExceptionOfType(AssertionError.class)
+          .isThrownBy(assertions::hasNoWarnings)
+          .withMessageStartingWith(
+              "Expected no mandatory warning, or warning diagnostics.\n\n"
+                  + "4 were reported, of which 4 were not retained."
+          );
+    }
+
+    @DisplayName(".hasNoDiagnosticsOfKinds(...) succeeds if only other kinds were not retained")
+    @Test
+    void hasNoDiagnosticsOfKindsSucceedsIfOnlyOtherKindsWereNotRetained() {
+      // Given
+      var assertions = new TraceDiagnosticListAssert(
+          List.of(someTraceDiagnostic(Kind.NOTE)),
+          Map.of(Kind.NOTE, 1_000L)
+      );
+
+      // Then
+      assertThatNoException()
+          .isThrownBy(assertions::hasNoErrorsOrWarnings);
+    }
+  }
+
   @DisplayName("TraceDiagnosticListAssert.filteringBy(...) tests")
   @Nested
   class FilteringByTest {
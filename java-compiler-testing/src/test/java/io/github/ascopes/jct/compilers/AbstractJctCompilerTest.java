@@ -21,6 +21,7 @@ import static io.github.ascopes.jct.fixtures.Fixtures.someInt;
 import static io.github.ascopes.jct.fixtures.Fixtures.someOf;
 import static io.github.ascopes.jct.fixtures.Fixtures.someRelease;
 import static io.github.ascopes.jct.fixtures.Fixtures.someText;
+import static io.github.ascopes.jct.fixtures.Fixtures.someTraceDiagnostic;
 import static io.github.ascopes.jct.fixtures.Fixtures.unused;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -38,6 +39,10 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.compilers.impl.JctCompilationFactoryImpl;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.OutputCaptureMode;
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.AnnotationProcessorDiscovery;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
@@ -60,6 +65,7 @@ import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaCompiler;
 import org.assertj.core.api.AbstractObjectAssert;
 import org.assertj.core.api.InstanceOfAssertFactories;
@@ -254,6 +260,92 @@ class AbstractJctCompilerTest {
           .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_LOGGING_MODE);
     }
 
+    @DisplayName("constructor initialises diagnosticStackTraceCaptureMode to null")
+    @Test
+    void constructorInitialisesDiagnosticStackTraceCaptureModeToNull() {
+      // Then
+      assertThatCompilerField("diagnosticStackTraceCaptureMode").isNull();
+    }
+
+    @DisplayName("constructor initialises diagnosticCallback to retain all diagnostics")
+    @Test
+    void constructorInitialisesDiagnosticCallbackToRetainAllDiagnostics() {
+      // Then
+      assertThat(compiler.getDiagnosticCallback().onDiagnostic(someTraceDiagnostic()))
+          .isEqualTo(TraceDiagnosticCallback.Action.RETAIN);
+    }
+
+    @DisplayName("constructor initialises diagnosticRetentionPolicy to keep all diagnostics")
+    @Test
+    void constructorInitialisesDiagnosticRetentionPolicyToKeepAllDiagnostics() {
+      // Then
+      assertThat(compiler.getDiagnosticRetentionPolicy().shouldRetain(Kind.NOTE, Long.MAX_VALUE))
+          .isTrue();
+    }
+
+    @DisplayName("constructor initialises outputCaptureMode to default value")
+    @Test
+    void constructorInitialisesOutputCaptureModeToDefaultValue() {
+      // Then
+      assertThatCompilerField("outputCaptureMode")
+          .isEqualTo(JctCompiler.DEFAULT_OUTPUT_CAPTURE_MODE);
+    }
+
+    @DisplayName("constructor initialises outputCaptureLineLimit to default value")
+    @Test
+    void constructorInitialisesOutputCaptureLineLimitToDefaultValue() {
+      // Then
+      assertThatCompilerField("outputCaptureLineLimit")
+          .isEqualTo(JctCompiler.DEFAULT_OUTPUT_CAPTURE_LINE_LIMIT);
+    }
+
+    @DisplayName("constructor initialises diagnosticStackTraceLimit to default value")
+    @Test
+    void constructorInitialisesDiagnosticStackTraceLimitToDefaultValue() {
+      // Then
+      assertThatCompilerField("diagnosticStackTraceLimit")
+          .isEqualTo(JctCompiler.DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT);
+    }
+
+    @DisplayName("constructor initialises directoryIndexing to default value")
+    @Test
+    void constructorInitialisesDirectoryIndexingToDefaultValue() {
+      // Then
+      assertThatCompilerField("directoryIndexing")
+          .isEqualTo(JctCompiler.DEFAULT_DIRECTORY_INDEXING);
+    }
+
+    @DisplayName("constructor initialises compilationCache to null")
+    @Test
+    void constructorInitialisesCompilationCacheToNull() {
+      // Then
+      assertThatCompilerField("compilationCache").isNull();
+    }
+
+    @DisplayName("constructor initialises contentCaching to default value")
+    @Test
+    void constructorInitialisesContentCachingToDefaultValue() {
+      // Then
+      assertThatCompilerField("contentCaching")
+          .isEqualTo(JctCompiler.DEFAULT_CONTENT_CACHING);
+    }
+
+    @DisplayName("constructor initialises fileManagerCallCounting to default value")
+    @Test
+    void constructorInitialisesFileManagerCallCountingToDefaultValue() {
+      // Then
+      assertThatCompilerField("fileManagerCallCounting")
+          .isEqualTo(JctCompiler.DEFAULT_FILE_MANAGER_CALL_COUNTING);
+    }
+
+    @DisplayName("constructor initialises incrementalCompilation to default value")
+    @Test
+    void constructorInitialisesIncrementalCompilationToDefaultValue() {
+      // Then
+      assertThatCompilerField("incrementalCompilation")
+          .isEqualTo(JctCompiler.DEFAULT_INCREMENTAL_COMPILATION);
+    }
+
     @DisplayName("constructor initialises fixJvmModulePathMismatch to default value")
     @Test
     void constructorInitialisesFixJvmModulePathMismatchToDefaultValue() {
@@ -336,11 +428,11 @@ class AbstractJctCompilerTest {
 
       when(flagBuilderFactory.createFlagBuilder()).thenReturn(flagBuilder);
       when(jsr199CompilerFactory.createCompiler()).thenReturn(jsr199Compiler);
-      when(fileManagerFactory.createFileManager(any())).thenReturn(fileManager);
+      when(fileManagerFactory.createFileManager(any(), any())).thenReturn(fileManager);
 
       // Default implementation. We can override this to make it throw exceptions, etc.
       compilationFactoryMockConfigurer =
-          (factory, ctx) -> when(factory.createCompilation(any(), any(), any(), any()))
+          (factory, ctx) -> when(factory.createCompilation(any(), any(), any(), any(), any()))
               .thenReturn(compilation);
     }
 
@@ -367,7 +459,8 @@ class AbstractJctCompilerTest {
         doCompile();
 
         // Then
-        verify(fileManagerFactory).createFileManager(workspace);
+        verify(fileManagerFactory)
+            .createFileManager(eq(workspace), any(JctCompilationMetricsCollector.class));
         verifyNoMoreInteractions(fileManagerFactory);
 
         verify(flagBuilderFactory).createFlagBuilder();
@@ -382,7 +475,13 @@ class AbstractJctCompilerTest {
 
         var compilationFactory = compilationFactoryConstructor.constructed().get(0);
         verify(compilationFactory)
-            .createCompilation(flags, fileManager, jsr199Compiler, classNames());
+            .createCompilation(
+                eq(flags),
+                eq(fileManager),
+                eq(jsr199Compiler),
+                eq(classNames()),
+                any(JctCompilationMetricsCollector.class)
+            );
         verifyNoMoreInteractions(compilationFactory);
       }
     }
@@ -432,7 +531,7 @@ class AbstractJctCompilerTest {
         );
 
         compilationFactoryMockConfigurer =
-            (factory, ctx) -> when(factory.createCompilation(any(), any(), any(), any()))
+            (factory, ctx) -> when(factory.createCompilation(any(), any(), any(), any(), any()))
                 .thenThrow(expectedException);
 
         // Then
@@ -1551,6 +1650,513 @@ class AbstractJctCompilerTest {
     }
   }
 
+  @DisplayName(".getDiagnosticStackTraceCaptureMode() returns the expected values")
+  @EnumSource(StackTraceCaptureMode.class)
+  @ParameterizedTest(name = "for diagnosticStackTraceCaptureMode = {0}")
+  void getDiagnosticStackTraceCaptureModeReturnsExpectedValue(StackTraceCaptureMode expected) {
+    // Given
+    setFieldOnCompiler("diagnosticStackTraceCaptureMode", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticStackTraceCaptureMode()).isEqualTo(expected);
+  }
+
+  @DisplayName(".getDiagnosticStackTraceCaptureMode() follows the diagnostic logging mode if unset")
+  @EnumSource(LoggingMode.class)
+  @ParameterizedTest(name = "for diagnosticLoggingMode = {0}")
+  void getDiagnosticStackTraceCaptureModeFollowsDiagnosticLoggingModeIfUnset(
+      LoggingMode loggingMode
+  ) {
+    // Given
+    setFieldOnCompiler("diagnosticLoggingMode", loggingMode);
+
+    // Then
+    assertThat(compiler.getDiagnosticStackTraceCaptureMode())
+        .isEqualTo(StackTraceCaptureMode.forLoggingMode(loggingMode));
+  }
+
+  @DisplayName("AbstractJctCompiler.diagnosticStackTraceCaptureMode(...) tests")
+  @Nested
+  class DiagnosticStackTraceCaptureModeTests {
+
+    @DisplayName(".diagnosticStackTraceCaptureMode(...) sets the expected values")
+    @EnumSource(StackTraceCaptureMode.class)
+    @ParameterizedTest(name = "for diagnosticStackTraceCaptureMode = {0}")
+    void diagnosticStackTraceCaptureModeSetsExpectedValue(StackTraceCaptureMode expected) {
+      // When
+      compiler.diagnosticStackTraceCaptureMode(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticStackTraceCaptureMode").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticStackTraceCaptureMode(...) throws a NullPointerException "
+        + "if diagnosticStackTraceCaptureMode is null")
+    @SuppressWarnings({"DataFlowIssue", "NullAway"})
+    @Test
+    void diagnosticStackTraceCaptureModeThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticStackTraceCaptureMode(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticStackTraceCaptureMode");
+    }
+
+    @DisplayName(".diagnosticStackTraceCaptureMode(...) returns the compiler")
+    @Test
+    void diagnosticStackTraceCaptureModeReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticStackTraceCaptureMode(StackTraceCaptureMode.NONE);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticCallback() returns the expected value")
+  @Test
+  void getDiagnosticCallbackReturnsExpectedValue() {
+    // Given
+    var expected = setFieldOnCompiler("diagnosticCallback", mock(TraceDiagnosticCallback.class));
+
+    // Then
+    assertThat(compiler.getDiagnosticCallback()).isSameAs(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.diagnosticCallback(...) tests")
+  @Nested
+  class DiagnosticCallbackTests {
+
+    @DisplayName(".diagnosticCallback(...) sets the expected value")
+    @Test
+    void diagnosticCallbackSetsExpectedValue() {
+      // Given
+      var expected = mock(TraceDiagnosticCallback.class);
+
+      // When
+      compiler.diagnosticCallback(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticCallback").isSameAs(expected);
+    }
+
+    @DisplayName(".diagnosticCallback(...) throws a NullPointerException "
+        + "if diagnosticCallback is null")
+    @SuppressWarnings({"DataFlowIssue", "NullAway"})
+    @Test
+    void diagnosticCallbackThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticCallback(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticCallback");
+    }
+
+    @DisplayName(".diagnosticCallback(...) returns the compiler")
+    @Test
+    void diagnosticCallbackReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticCallback(TraceDiagnosticCallback.retainAll());
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticRetentionPolicy() returns the expected value")
+  @Test
+  void getDiagnosticRetentionPolicyReturnsExpectedValue() {
+    // Given
+    var expected = setFieldOnCompiler(
+        "diagnosticRetentionPolicy",
+        mock(DiagnosticRetentionPolicy.class)
+    );
+
+    // Then
+    assertThat(compiler.getDiagnosticRetentionPolicy()).isSameAs(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.diagnosticRetentionPolicy(...) tests")
+  @Nested
+  class DiagnosticRetentionPolicyTests {
+
+    @DisplayName(".diagnosticRetentionPolicy(...) sets the expected value")
+    @Test
+    void diagnosticRetentionPolicySetsExpectedValue() {
+      // Given
+      var expected = mock(DiagnosticRetentionPolicy.class);
+
+      // When
+      compiler.diagnosticRetentionPolicy(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticRetentionPolicy").isSameAs(expected);
+    }
+
+    @DisplayName(".diagnosticRetentionPolicy(...) throws a NullPointerException "
+        + "if diagnosticRetentionPolicy is null")
+    @SuppressWarnings({"DataFlowIssue", "NullAway"})
+    @Test
+    void diagnosticRetentionPolicyThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticRetentionPolicy(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("diagnosticRetentionPolicy");
+    }
+
+    @DisplayName(".diagnosticRetentionPolicy(...) returns the compiler")
+    @Test
+    void diagnosticRetentionPolicyReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticRetentionPolicy(DiagnosticRetentionPolicy.keepAll());
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getOutputCaptureMode() returns the expected value")
+  @EnumSource(OutputCaptureMode.class)
+  @ParameterizedTest(name = "for outputCaptureMode = {0}")
+  void getOutputCaptureModeReturnsExpectedValue(OutputCaptureMode expected) {
+    // Given
+    setFieldOnCompiler("outputCaptureMode", expected);
+
+    // Then
+    assertThat(compiler.getOutputCaptureMode()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.outputCaptureMode(...) tests")
+  @Nested
+  class OutputCaptureModeTests {
+
+    @DisplayName(".outputCaptureMode(...) sets the expected value")
+    @EnumSource(OutputCaptureMode.class)
+    @ParameterizedTest(name = "for outputCaptureMode = {0}")
+    void outputCaptureModeSetsExpectedValue(OutputCaptureMode expected) {
+      // When
+      compiler.outputCaptureMode(expected);
+
+      // Then
+      assertThatCompilerField("outputCaptureMode").isEqualTo(expected);
+    }
+
+    @DisplayName(".outputCaptureMode(...) throws a NullPointerException "
+        + "if outputCaptureMode is null")
+    @SuppressWarnings({"DataFlowIssue", "NullAway"})
+    @Test
+    void outputCaptureModeThrowsNullPointerExceptionIfNull() {
+      // Then
+      assertThatThrownBy(() -> compiler.outputCaptureMode(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("outputCaptureMode");
+    }
+
+    @DisplayName(".outputCaptureMode(...) returns the compiler")
+    @Test
+    void outputCaptureModeReturnsTheCompiler() {
+      // When
+      var result = compiler.outputCaptureMode(OutputCaptureMode.CAPTURE);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getOutputCaptureLineLimit() returns the expected value")
+  @ValueSource(ints = {1, 10, 1_000, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "for outputCaptureLineLimit = {0}")
+  void getOutputCaptureLineLimitReturnsExpectedValue(int expected) {
+    // Given
+    setFieldOnCompiler("outputCaptureLineLimit", expected);
+
+    // Then
+    assertThat(compiler.getOutputCaptureLineLimit()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.outputCaptureLineLimit(...) tests")
+  @Nested
+  class OutputCaptureLineLimitTests {
+
+    @DisplayName(".outputCaptureLineLimit(...) sets the expected value")
+    @ValueSource(ints = {1, 10, 1_000, Integer.MAX_VALUE})
+    @ParameterizedTest(name = "for outputCaptureLineLimit = {0}")
+    void outputCaptureLineLimitSetsExpectedValue(int expected) {
+      // When
+      compiler.outputCaptureLineLimit(expected);
+
+      // Then
+      assertThatCompilerField("outputCaptureLineLimit").isEqualTo(expected);
+    }
+
+    @DisplayName(".outputCaptureLineLimit(...) throws an IllegalArgumentException "
+        + "if the limit is less than 1")
+    @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+    @ParameterizedTest(name = "for outputCaptureLineLimit = {0}")
+    void outputCaptureLineLimitThrowsIllegalArgumentExceptionIfLessThanOne(int limit) {
+      // Then
+      assertThatThrownBy(() -> compiler.outputCaptureLineLimit(limit))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("outputCaptureLineLimit must be at least 1");
+    }
+
+    @DisplayName(".outputCaptureLineLimit(...) returns the compiler")
+    @Test
+    void outputCaptureLineLimitReturnsTheCompiler() {
+      // When
+      var result = compiler.outputCaptureLineLimit(50);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getDiagnosticStackTraceLimit() returns the expected value")
+  @ValueSource(ints = {1, 10, 1_000, Integer.MAX_VALUE})
+  @ParameterizedTest(name = "for diagnosticStackTraceLimit = {0}")
+  void getDiagnosticStackTraceLimitReturnsExpectedValue(int expected) {
+    // Given
+    setFieldOnCompiler("diagnosticStackTraceLimit", expected);
+
+    // Then
+    assertThat(compiler.getDiagnosticStackTraceLimit()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.diagnosticStackTraceLimit(...) tests")
+  @Nested
+  class DiagnosticStackTraceLimitTests {
+
+    @DisplayName(".diagnosticStackTraceLimit(...) sets the expected value")
+    @ValueSource(ints = {1, 10, 1_000, Integer.MAX_VALUE})
+    @ParameterizedTest(name = "for diagnosticStackTraceLimit = {0}")
+    void diagnosticStackTraceLimitSetsExpectedValue(int expected) {
+      // When
+      compiler.diagnosticStackTraceLimit(expected);
+
+      // Then
+      assertThatCompilerField("diagnosticStackTraceLimit").isEqualTo(expected);
+    }
+
+    @DisplayName(".diagnosticStackTraceLimit(...) throws an IllegalArgumentException "
+        + "if the limit is less than 1")
+    @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+    @ParameterizedTest(name = "for diagnosticStackTraceLimit = {0}")
+    void diagnosticStackTraceLimitThrowsIllegalArgumentExceptionIfLessThanOne(int limit) {
+      // Then
+      assertThatThrownBy(() -> compiler.diagnosticStackTraceLimit(limit))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("diagnosticStackTraceLimit must be at least 1");
+    }
+
+    @DisplayName(".diagnosticStackTraceLimit(...) returns the compiler")
+    @Test
+    void diagnosticStackTraceLimitReturnsTheCompiler() {
+      // When
+      var result = compiler.diagnosticStackTraceLimit(50);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isDirectoryIndexing() returns the expected values")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for directoryIndexing = {0}")
+  void isDirectoryIndexingReturnsExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("directoryIndexing", expected);
+
+    // Then
+    assertThat(compiler.isDirectoryIndexing()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.directoryIndexing(...) tests")
+  @Nested
+  class DirectoryIndexingTests {
+
+    @DisplayName(".directoryIndexing(...) sets the expected values")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for directoryIndexing = {0}")
+    void directoryIndexingSetsExpectedValue(boolean expected) {
+      // When
+      compiler.directoryIndexing(expected);
+
+      // Then
+      assertThatCompilerField("directoryIndexing").isEqualTo(expected);
+    }
+
+    @DisplayName(".directoryIndexing(...) returns the compiler")
+    @Test
+    void directoryIndexingReturnsTheCompiler() {
+      // When
+      var result = compiler.directoryIndexing(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isContentCaching() returns the expected values")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for contentCaching = {0}")
+  void isContentCachingReturnsExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("contentCaching", expected);
+
+    // Then
+    assertThat(compiler.isContentCaching()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.contentCaching(...) tests")
+  @Nested
+  class ContentCachingTests {
+
+    @DisplayName(".contentCaching(...) sets the expected values")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for contentCaching = {0}")
+    void contentCachingSetsExpectedValue(boolean expected) {
+      // When
+      compiler.contentCaching(expected);
+
+      // Then
+      assertThatCompilerField("contentCaching").isEqualTo(expected);
+    }
+
+    @DisplayName(".contentCaching(...) returns the compiler")
+    @Test
+    void contentCachingReturnsTheCompiler() {
+      // When
+      var result = compiler.contentCaching(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isFileManagerCallCounting() returns the expected values")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for fileManagerCallCounting = {0}")
+  void isFileManagerCallCountingReturnsExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("fileManagerCallCounting", expected);
+
+    // Then
+    assertThat(compiler.isFileManagerCallCounting()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.fileManagerCallCounting(...) tests")
+  @Nested
+  class FileManagerCallCountingTests {
+
+    @DisplayName(".fileManagerCallCounting(...) sets the expected values")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for fileManagerCallCounting = {0}")
+    void fileManagerCallCountingSetsExpectedValue(boolean expected) {
+      // When
+      compiler.fileManagerCallCounting(expected);
+
+      // Then
+      assertThatCompilerField("fileManagerCallCounting").isEqualTo(expected);
+    }
+
+    @DisplayName(".fileManagerCallCounting(...) returns the compiler")
+    @Test
+    void fileManagerCallCountingReturnsTheCompiler() {
+      // When
+      var result = compiler.fileManagerCallCounting(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".getCompilationCache() returns the expected value")
+  @Test
+  void getCompilationCacheReturnsTheExpectedValue() {
+    // Given
+    var cache = JctCompilationCache.builder().build();
+    setFieldOnCompiler("compilationCache", cache);
+
+    // Then
+    assertThat(compiler.getCompilationCache()).isSameAs(cache);
+  }
+
+  @DisplayName("AbstractJctCompiler.compilationCache(...) tests")
+  @Nested
+  class CompilationCacheTests {
+
+    @DisplayName(".compilationCache(...) sets the expected value")
+    @Test
+    void compilationCacheSetsTheExpectedValue() {
+      // Given
+      var cache = JctCompilationCache.builder().build();
+
+      // When
+      compiler.compilationCache(cache);
+
+      // Then
+      assertThatCompilerField("compilationCache").isSameAs(cache);
+    }
+
+    @DisplayName(".compilationCache(null) disables caching")
+    @Test
+    void compilationCacheNullDisablesCaching() {
+      // Given
+      compiler.compilationCache(JctCompilationCache.builder().build());
+
+      // When
+      compiler.compilationCache(null);
+
+      // Then
+      assertThatCompilerField("compilationCache").isNull();
+    }
+
+    @DisplayName(".compilationCache(...) returns the compiler")
+    @Test
+    void compilationCacheReturnsTheCompiler() {
+      // When
+      var result = compiler.compilationCache(null);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
+  @DisplayName(".isIncrementalCompilation() returns the expected values")
+  @ValueSource(booleans = {true, false})
+  @ParameterizedTest(name = "for incrementalCompilation = {0}")
+  void isIncrementalCompilationReturnsExpectedValue(boolean expected) {
+    // Given
+    setFieldOnCompiler("incrementalCompilation", expected);
+
+    // Then
+    assertThat(compiler.isIncrementalCompilation()).isEqualTo(expected);
+  }
+
+  @DisplayName("AbstractJctCompiler.incrementalCompilation(...) tests")
+  @Nested
+  class IncrementalCompilationTests {
+
+    @DisplayName(".incrementalCompilation(...) sets the expected values")
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest(name = "for incrementalCompilation = {0}")
+    void incrementalCompilationSetsExpectedValue(boolean expected) {
+      // When
+      compiler.incrementalCompilation(expected);
+
+      // Then
+      assertThatCompilerField("incrementalCompilation").isEqualTo(expected);
+    }
+
+    @DisplayName(".incrementalCompilation(...) returns the compiler")
+    @Test
+    void incrementalCompilationReturnsTheCompiler() {
+      // When
+      var result = compiler.incrementalCompilation(true);
+
+      // Then
+      assertThat(result).isSameAs(compiler);
+    }
+  }
+
   @DisplayName(".getAnnotationProcessorDiscovery() returns the expected values")
   @EnumSource(AnnotationProcessorDiscovery.class)
   @ParameterizedTest(name = "for annotationProcessorDiscovery = {0}")
@@ -1793,6 +2399,36 @@ class AbstractJctCompilerTest {
     );
   }
 
+  @DisplayName("Copying a compiler copies its configuration")
+  @Test
+  void copyingCompilerCopiesItsConfiguration() {
+    // Given
+    var original = new CompilerImpl("original", "17");
+    var processor = mock(Processor.class);
+    original
+        .release("11")
+        .failOnWarnings(true)
+        .diagnosticStackTraceLimit(5)
+        .addCompilerOptions(List.of("-Xlint:all"))
+        .addAnnotationProcessors(List.of(processor));
+
+    // When
+    var copy = new CompilerImpl(original);
+    original
+        .release("17")
+        .failOnWarnings(false)
+        .addCompilerOptions(List.of("-Xlint:none"))
+        .addAnnotationProcessors(List.of(mock(Processor.class)));
+
+    // Then
+    assertThat(copy.getName()).isEqualTo("original");
+    assertThat(copy.getRelease()).isEqualTo("11");
+    assertThat(copy.isFailOnWarnings()).isTrue();
+    assertThat(copy.getDiagnosticStackTraceLimit()).isEqualTo(5);
+    assertThat(copy.getCompilerOptions()).containsExactly("-Xlint:all");
+    assertThat(copy.getAnnotationProcessors()).containsExactly(processor);
+  }
+
   /// ///////////////////////////// Helper methods and types /// /////////////////////////////
 
   class CompilerImpl extends AbstractJctCompiler {
@@ -1807,6 +2443,11 @@ class AbstractJctCompilerTest {
       this.defaultRelease = defaultRelease;
     }
 
+    CompilerImpl(CompilerImpl original) {
+      super(original);
+      defaultRelease = original.defaultRelease;
+    }
+
     @Override
     public String getDefaultRelease() {
       return defaultRelease;
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+
+import io.github.ascopes.jct.ex.JctCompilerException;
+import io.github.ascopes.jct.workspaces.Workspace;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link JctBatchCompiler} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctBatchCompiler tests")
+@Timeout(30)
+class JctBatchCompilerTest {
+
+  @DisplayName(".compile(Collection) returns an empty list for no entries")
+  @Test
+  void compileReturnsEmptyListForNoEntries() {
+    // Given
+    var batchCompiler = JctBatchCompiler.builder().build();
+
+    // When
+    var result = batchCompiler.compile(List.of());
+
+    // Then
+    assertThat(result).isEmpty();
+  }
+
+  @DisplayName(".compile(Collection) returns results in entry order")
+  @ParameterizedTest(name = "when virtualThreads = {0}")
+  @ValueSource(booleans = {true, false})
+  void compileReturnsResultsInEntryOrder(boolean virtualThreads) {
+    // Given
+    var compiler = mockCompiler();
+    var entries = new ArrayList<JctBatchCompiler.Entry>();
+    var expected = new ArrayList<JctCompilation>();
+
+    for (var i = 0; i < 20; ++i) {
+      var workspace = mock(Workspace.class);
+      var compilation = mock(JctCompilation.class);
+      given(compiler.compile(workspace)).willReturn(compilation);
+      entries.add(JctBatchCompiler.entry(compiler, workspace));
+      expected.add(compilation);
+    }
+
+    var batchCompiler = JctBatchCompiler.builder()
+        .maxConcurrency(4)
+        .virtualThreads(virtualThreads)
+        .build();
+
+    // When
+    var result = batchCompiler.compile(entries);
+
+    // Then
+    assertThat(result).containsExactlyElementsOf(expected);
+  }
+
+  @DisplayName(".compile(Collection) never exceeds the maximum concurrency")
+  @Test
+  void compileNeverExceedsTheMaximumConcurrency() {
+    // Given
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var compiler = mockCompiler();
+    given(compiler.compile(any(Workspace.class))).will(ctx -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(10);
+      running.decrementAndGet();
+      return mock(JctCompilation.class);
+    });
+
+    var entries = IntStream.range(0, 30)
+        .mapToObj(i -> JctBatchCompiler.entry(compiler, mock(Workspace.class)))
+        .collect(Collectors.toList());
+
+    var batchCompiler = JctBatchCompiler.builder()
+        .maxConcurrency(3)
+        .build();
+
+    // When
+    batchCompiler.compile(entries);
+
+    // Then
+    assertThat(maxRunning).hasValueBetween(1, 3);
+  }
+
+  @DisplayName(".compile(Collection) runs compilations serially without heap headroom")
+  @Test
+  void compileRunsCompilationsSeriallyWithoutHeapHeadroom() {
+    // Given
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var compiler = mockCompiler();
+    given(compiler.compile(any(Workspace.class))).will(ctx -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(5);
+      running.decrementAndGet();
+      return mock(JctCompilation.class);
+    });
+
+    var entries = IntStream.range(0, 10)
+        .mapToObj(i -> JctBatchCompiler.entry(compiler, mock(Workspace.class)))
+        .collect(Collectors.toList());
+
+    var batchCompiler = JctBatchCompiler.builder()
+        .maxConcurrency(8)
+        .heapSuppliers(() -> 0, () -> 1_000)
+        .build();
+
+    // When
+    var result = batchCompiler.compile(entries);
+
+    // Then
+    assertThat(result).hasSize(10);
+    assertThat(maxRunning).hasValue(1);
+  }
+
+  @DisplayName(".compile(Collection) reports the first failure and suppresses the rest")
+  @Test
+  void compileReportsTheFirstFailureAndSuppressesTheRest() {
+    // Given
+    var firstWorkspace = mock(Workspace.class);
+    var secondWorkspace = mock(Workspace.class);
+    var thirdWorkspace = mock(Workspace.class);
+    var firstFailure = new IllegalStateException("first");
+    var secondFailure = new IllegalStateException("second");
+
+    var compiler = mockCompiler();
+    given(compiler.compile(firstWorkspace)).willReturn(mock(JctCompilation.class));
+    given(compiler.compile(secondWorkspace)).willThrow(firstFailure);
+    given(compiler.compile(thirdWorkspace)).willThrow(secondFailure);
+
+    var batchCompiler = JctBatchCompiler.builder().build();
+
+    // Then
+    assertThatThrownBy(() -> batchCompiler.compile(List.of(
+        JctBatchCompiler.entry(compiler, firstWorkspace),
+        JctBatchCompiler.entry(compiler, secondWorkspace),
+        JctBatchCompiler.entry(compiler, thirdWorkspace)
+    )))
+        .isInstanceOf(JctCompilerException.class)
+        .hasMessage("Batch compilation failed for entry 1")
+        .hasCause(firstFailure)
+        .satisfies(ex -> assertThat(ex.getSuppressed()).containsExactly(secondFailure));
+  }
+
+  @DisplayName(".compile(Collection) compiles with a snapshot of each compiler")
+  @Test
+  void compileCompilesWithSnapshotOfEachCompiler() {
+    // Given
+    var snapshot = mockCompiler();
+    var compilation = mock(JctCompilation.class);
+    given(snapshot.compile(any(Workspace.class))).willReturn(compilation);
+
+    var compiler = mock(JctCompiler.class);
+    given(compiler.snapshot()).willReturn(snapshot);
+
+    var batchCompiler = JctBatchCompiler.builder().build();
+
+    // When
+    var result = batchCompiler.compile(List.of(
+        JctBatchCompiler.entry(compiler, mock(Workspace.class)),
+        JctBatchCompiler.entry(compiler, mock(Workspace.class))
+    ));
+
+    // Then
+    assertThat(result).containsExactly(compilation, compilation);
+    then(compiler).should().snapshot();
+    then(compiler).shouldHaveNoMoreInteractions();
+  }
+
+  @DisplayName(".compile(Collection) waits for running compilations when interrupted")
+  @Test
+  void compileWaitsForRunningCompilationsWhenInterrupted() throws InterruptedException {
+    // Given
+    var started = new CountDownLatch(1);
+    var proceed = new CountDownLatch(1);
+    var finished = new AtomicBoolean();
+
+    var compiler = mockCompiler();
+    given(compiler.compile(any(Workspace.class))).will(ctx -> {
+      started.countDown();
+      // Simulate a compiler that does not respond to interrupts.
+      while (true) {
+        try {
+          proceed.await();
+          break;
+        } catch (InterruptedException ex) {
+          // Keep going.
+        }
+      }
+      finished.set(true);
+      return mock(JctCompilation.class);
+    });
+
+    var batchCompiler = JctBatchCompiler.builder()
+        .maxConcurrency(1)
+        .virtualThreads(false)
+        .build();
+    var entries = List.of(
+        JctBatchCompiler.entry(compiler, mock(Workspace.class)),
+        JctBatchCompiler.entry(compiler, mock(Workspace.class))
+    );
+
+    var failure = new AtomicReference<Throwable>();
+    var finishedOnReturn = new AtomicBoolean();
+    var caller = new Thread(() -> {
+      try {
+        batchCompiler.compile(entries);
+      } catch (Throwable ex) {
+        failure.set(ex);
+      } finally {
+        finishedOnReturn.set(finished.get());
+      }
+    });
+
+    // When
+    caller.start();
+    started.await();
+    caller.interrupt();
+    Thread.sleep(100);
+    proceed.countDown();
+    caller.join();
+
+    // Then
+    assertThat(failure.get())
+        .isInstanceOf(JctCompilerException.class)
+        .hasMessage("Interrupted while running batch compilation");
+    assertThat(finishedOnReturn).isTrue();
+  }
+
+  @DisplayName(".maxConcurrency(int) rejects values less than 1")
+  @ParameterizedTest(name = "for maxConcurrency = {0}")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  void maxConcurrencyRejectsValuesLessThanOne(int maxConcurrency) {
+    // Given
+    var builder = JctBatchCompiler.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.maxConcurrency(maxConcurrency))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxConcurrency must be at least 1");
+  }
+
+  @DisplayName(".minHeapHeadroom(double) rejects values outside [0, 1]")
+  @ParameterizedTest(name = "for minHeapHeadroom = {0}")
+  @ValueSource(doubles = {-0.1, 1.1, Double.NaN})
+  void minHeapHeadroomRejectsValuesOutOfRange(double minHeapHeadroom) {
+    // Given
+    var builder = JctBatchCompiler.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.minHeapHeadroom(minHeapHeadroom))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("minHeapHeadroom must be between 0 and 1");
+  }
+
+  @DisplayName(".entry(JctCompiler, Workspace) rejects null arguments")
+  @SuppressWarnings("NullAway")
+  @Test
+  void entryRejectsNullArguments() {
+    // Then
+    assertThatThrownBy(() -> JctBatchCompiler.entry(null, mock(Workspace.class)))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("compiler");
+    assertThatThrownBy(() -> JctBatchCompiler.entry(mock(JctCompiler.class), null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("workspace");
+  }
+
+  static JctCompiler mockCompiler() {
+    var compiler = mock(JctCompiler.class);
+    given(compiler.snapshot()).willReturn(compiler);
+    return compiler;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback.Action;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.TypeElement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JctCompilationCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationCache tests")
+class JctCompilationCacheTest {
+
+  @DisplayName(".builder() uses the expected defaults")
+  @Test
+  void builderUsesTheExpectedDefaults() {
+    // When
+    var cache = JctCompilationCache.builder().build();
+
+    // Then
+    assertThat(cache.getMaxMemoryBytes()).isEqualTo(JctCompilationCache.DEFAULT_MAX_MEMORY_BYTES);
+    assertThat(cache.getDirectory()).isNull();
+    assertThat(cache.getMaxDiskBytes()).isEqualTo(JctCompilationCache.DEFAULT_MAX_DISK_BYTES);
+    assertThat(cache.getNonDeterministicProcessors()).isEmpty();
+    assertThat(cache.getHitCount()).isZero();
+    assertThat(cache.getMissCount()).isZero();
+  }
+
+  @DisplayName(".builder() sets the expected values")
+  @Test
+  void builderSetsTheExpectedValues() {
+    // Given
+    var directory = Path.of("foo", "bar");
+
+    // When
+    var cache = JctCompilationCache.builder()
+        .maxMemoryBytes(123)
+        .directory(directory)
+        .maxDiskBytes(456)
+        .nonDeterministicProcessor(AbstractProcessor.class)
+        .build();
+
+    // Then
+    assertThat(cache.getMaxMemoryBytes()).isEqualTo(123);
+    assertThat(cache.getDirectory()).isEqualTo(directory);
+    assertThat(cache.getMaxDiskBytes()).isEqualTo(456);
+    assertThat(cache.getNonDeterministicProcessors())
+        .containsExactly(AbstractProcessor.class);
+  }
+
+  @DisplayName(".maxMemoryBytes(long) rejects negative values")
+  @Test
+  void maxMemoryBytesRejectsNegativeValues() {
+    // Given
+    var builder = JctCompilationCache.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.maxMemoryBytes(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxMemoryBytes cannot be negative");
+  }
+
+  @DisplayName(".maxDiskBytes(long) rejects negative values")
+  @Test
+  void maxDiskBytesRejectsNegativeValues() {
+    // Given
+    var builder = JctCompilationCache.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.maxDiskBytes(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxDiskBytes cannot be negative");
+  }
+
+  @DisplayName(".nonDeterministicProcessor(Class) rejects null values")
+  @SuppressWarnings("NullAway")
+  @Test
+  void nonDeterministicProcessorRejectsNullValues() {
+    // Given
+    var builder = JctCompilationCache.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.nonDeterministicProcessor(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("processorType");
+  }
+
+  @DisplayName("Compilations using non-deterministic processors are not cacheable")
+  @Test
+  void compilationsUsingNonDeterministicProcessorsAreNotCacheable() {
+    // Given
+    var cache = JctCompilationCache.builder()
+        .nonDeterministicProcessor(AbstractProcessor.class)
+        .build();
+    Processor nonDeterministic = new AbstractProcessor() {
+      @Override
+      public boolean process(
+          Set<? extends TypeElement> annotations,
+          RoundEnvironment roundEnv
+      ) {
+        return false;
+      }
+    };
+
+    // Then
+    assertThat(cache.getResultCache().isCacheable(compiler(List.of()))).isTrue();
+    assertThat(cache.getResultCache().isCacheable(compiler(List.of(nonDeterministic)))).isFalse();
+  }
+
+  @DisplayName("Compilations using a custom diagnostic callback are not cacheable")
+  @Test
+  void compilationsUsingCustomDiagnosticCallbackAreNotCacheable() {
+    // Given
+    var cache = JctCompilationCache.builder().build();
+    var compiler = compiler(List.of());
+    when(compiler.getDiagnosticCallback()).thenReturn(diagnostic -> Action.ABORT);
+
+    // Then
+    assertThat(cache.getResultCache().isCacheable(compiler)).isFalse();
+  }
+
+  @DisplayName("Compilations using a custom diagnostic retention policy are not cacheable")
+  @Test
+  void compilationsUsingCustomDiagnosticRetentionPolicyAreNotCacheable() {
+    // Given
+    var cache = JctCompilationCache.builder().build();
+    var compiler = compiler(List.of());
+    when(compiler.getDiagnosticRetentionPolicy()).thenReturn((kind, index) -> false);
+
+    // Then
+    assertThat(cache.getResultCache().isCacheable(compiler)).isFalse();
+  }
+
+  private static JctCompiler compiler(List<Processor> processors) {
+    var compiler = mock(JctCompiler.class);
+    when(compiler.getAnnotationProcessors()).thenReturn(processors);
+    when(compiler.getDiagnosticCallback()).thenReturn(TraceDiagnosticCallback.retainAll());
+    when(compiler.getDiagnosticRetentionPolicy()).thenReturn(DiagnosticRetentionPolicy.keepAll());
+    return compiler;
+  }
+}
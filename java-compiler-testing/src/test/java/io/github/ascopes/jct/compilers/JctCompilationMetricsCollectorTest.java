@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.github.ascopes.jct.compilers.JctCompilationMetrics.Phase;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JctCompilationMetricsCollector} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JctCompilationMetricsCollector tests")
+class JctCompilationMetricsCollectorTest {
+
+  @DisplayName("A new collector produces empty metrics")
+  @Test
+  void newCollectorProducesEmptyMetrics() {
+    // When
+    var metrics = new JctCompilationMetricsCollector().toMetrics();
+
+    // Then
+    assertThat(metrics.getFileManagerBuildTime()).isZero();
+    assertThat(metrics.getCompilationUnitDiscoveryTime()).isZero();
+    assertThat(metrics.getCompilationTime()).isZero();
+    assertThat(metrics.getTotalTime()).isZero();
+    assertThat(metrics.getConfigurerTimes()).isEmpty();
+    assertThat(metrics.getPhaseTimes()).isEmpty();
+    assertThat(metrics.getAnnotationProcessingRoundTimes()).isEmpty();
+    assertThat(metrics.getFileManagerCallCounts()).isEmpty();
+  }
+
+  @DisplayName("Recorded durations are exposed in the metrics")
+  @Test
+  void recordedDurationsAreExposedInTheMetrics() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+
+    // When
+    collector.recordFileManagerBuildTime(Duration.ofMillis(10));
+    collector.recordCompilationUnitDiscoveryTime(Duration.ofMillis(20));
+    collector.recordCompilationTime(Duration.ofMillis(30));
+    var metrics = collector.toMetrics();
+
+    // Then
+    assertThat(metrics.getFileManagerBuildTime()).isEqualTo(Duration.ofMillis(10));
+    assertThat(metrics.getCompilationUnitDiscoveryTime()).isEqualTo(Duration.ofMillis(20));
+    assertThat(metrics.getCompilationTime()).isEqualTo(Duration.ofMillis(30));
+    assertThat(metrics.getTotalTime()).isEqualTo(Duration.ofMillis(60));
+  }
+
+  @DisplayName("Configurer times are summed by name and kept in insertion order")
+  @Test
+  void configurerTimesAreSummedByNameAndKeptInInsertionOrder() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+
+    // When
+    collector.recordConfigurerTime("Foo", Duration.ofMillis(1));
+    collector.recordConfigurerTime("Bar", Duration.ofMillis(2));
+    collector.recordConfigurerTime("Foo", Duration.ofMillis(3));
+    var metrics = collector.toMetrics();
+
+    // Then
+    assertThat(metrics.getConfigurerTimes())
+        .containsExactly(
+            entry("Foo", Duration.ofMillis(4)),
+            entry("Bar", Duration.ofMillis(2))
+        );
+  }
+
+  @DisplayName("Phase times are summed by phase")
+  @Test
+  void phaseTimesAreSummedByPhase() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+
+    // When
+    collector.recordPhaseTime(Phase.GENERATE, Duration.ofMillis(5));
+    collector.recordPhaseTime(Phase.PARSE, Duration.ofMillis(1));
+    collector.recordPhaseTime(Phase.GENERATE, Duration.ofMillis(7));
+    var metrics = collector.toMetrics();
+
+    // Then
+    assertThat(metrics.getPhaseTimes())
+        .containsExactly(
+            entry(Phase.PARSE, Duration.ofMillis(1)),
+            entry(Phase.GENERATE, Duration.ofMillis(12))
+        );
+  }
+
+  @DisplayName("Annotation processing rounds are kept in order")
+  @Test
+  void annotationProcessingRoundsAreKeptInOrder() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+
+    // When
+    collector.recordAnnotationProcessingRoundTime(Duration.ofMillis(3));
+    collector.recordAnnotationProcessingRoundTime(Duration.ofMillis(1));
+    var metrics = collector.toMetrics();
+
+    // Then
+    assertThat(metrics.getAnnotationProcessingRoundTimes())
+        .containsExactly(Duration.ofMillis(3), Duration.ofMillis(1));
+  }
+
+  @DisplayName("File manager calls are counted by method name")
+  @Test
+  void fileManagerCallsAreCountedByMethodName() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+
+    // When
+    collector.recordFileManagerCall("list");
+    collector.recordFileManagerCall("getJavaFileForInput");
+    collector.recordFileManagerCall("list");
+    var metrics = collector.toMetrics();
+
+    // Then
+    assertThat(metrics.getFileManagerCallCounts())
+        .containsExactly(entry("getJavaFileForInput", 1L), entry("list", 2L));
+  }
+
+  @DisplayName("Snapshots are not affected by later recordings")
+  @Test
+  void snapshotsAreNotAffectedByLaterRecordings() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+    collector.recordFileManagerCall("list");
+    var metrics = collector.toMetrics();
+
+    // When
+    collector.recordFileManagerCall("list");
+    collector.recordPhaseTime(Phase.ENTER, Duration.ofMillis(1));
+
+    // Then
+    assertThat(metrics.getFileManagerCallCounts()).containsExactly(entry("list", 1L));
+    assertThat(metrics.getPhaseTimes()).isEmpty();
+  }
+
+  @DisplayName("Snapshots are immutable")
+  @Test
+  void snapshotsAreImmutable() {
+    // Given
+    var metrics = new JctCompilationMetricsCollector().toMetrics();
+
+    // Then
+    assertThatThrownBy(() -> metrics.getConfigurerTimes().put("Foo", Duration.ZERO))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> metrics.getPhaseTimes().put(Phase.PARSE, Duration.ZERO))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> metrics.getAnnotationProcessingRoundTimes().add(Duration.ZERO))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> metrics.getFileManagerCallCounts().put("list", 1L))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
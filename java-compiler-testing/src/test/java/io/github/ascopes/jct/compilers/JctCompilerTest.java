@@ -296,6 +296,37 @@ class JctCompilerTest {
     then(compiler).should().compile(workspace, List.of(firstClass, secondClass, thirdClass));
   }
 
+  @DisplayName(".compileAll(Collection) compiles each workspace in order")
+  @Test
+  void compileAllCompilesEachWorkspaceInOrder() {
+    // Given
+    var firstWorkspace = mock(Workspace.class);
+    var secondWorkspace = mock(Workspace.class);
+    var firstCompilation = mock(JctCompilation.class);
+    var secondCompilation = mock(JctCompilation.class);
+
+    given(compiler.compileAll(any())).willCallRealMethod();
+    given(compiler.snapshot()).willReturn(compiler);
+    given(compiler.compile(firstWorkspace)).willReturn(firstCompilation);
+    given(compiler.compile(secondWorkspace)).willReturn(secondCompilation);
+
+    // When
+    var result = compiler.compileAll(List.of(firstWorkspace, secondWorkspace));
+
+    // Then
+    assertThat(result).containsExactly(firstCompilation, secondCompilation);
+  }
+
+  @DisplayName(".snapshot() returns the compiler itself by default")
+  @Test
+  void snapshotReturnsTheCompilerItselfByDefault() {
+    // Given
+    given(compiler.snapshot()).willCallRealMethod();
+
+    // Then
+    assertThat(compiler.snapshot()).isSameAs(compiler);
+  }
+
   @SuppressWarnings("EnumOrdinal")
   static Stream<Arguments> sourceVersions() {
     return Stream
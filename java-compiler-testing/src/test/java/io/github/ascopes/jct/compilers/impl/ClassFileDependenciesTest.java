@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ClassFileDependencies} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("ClassFileDependencies tests")
+class ClassFileDependenciesTest {
+
+  @DisplayName("The class name and source path are read")
+  @Test
+  void theClassNameAndSourcePathAreRead() throws IOException {
+    // When
+    var dependencies = read(WithConstants.class);
+
+    // Then
+    assertThat(dependencies.getClassName())
+        .isEqualTo("io/github/ascopes/jct/compilers/impl/ClassFileDependenciesTest$WithConstants");
+    assertThat(dependencies.getSourcePath())
+        .isEqualTo("io/github/ascopes/jct/compilers/impl/ClassFileDependenciesTest.java");
+  }
+
+  @DisplayName("Compile-time constants are detected")
+  @Test
+  void compileTimeConstantsAreDetected() throws IOException {
+    // Then
+    assertThat(read(WithConstants.class).isDeclaresConstants()).isTrue();
+    assertThat(read(WithReferences.class).isDeclaresConstants()).isFalse();
+  }
+
+  @DisplayName("Referenced classes are read from the constant pool and descriptors")
+  @Test
+  void referencedClassesAreReadFromTheConstantPoolAndDescriptors() throws IOException {
+    // When
+    var dependencies = read(WithReferences.class);
+
+    // Then
+    assertThat(dependencies.getReferencedClassNames())
+        .contains(
+            // Superclass.
+            "java/lang/Object",
+            // Only used in a method descriptor.
+            "java/io/InputStream",
+            // Only used in a generic signature.
+            "java/util/Map",
+            // Only used as an array.
+            "java/lang/StringBuilder",
+            // Used in an instruction.
+            "java/util/List"
+        )
+        .doesNotContain(dependencies.getClassName());
+  }
+
+  @DisplayName("Invalid class files are rejected")
+  @Test
+  void invalidClassFilesAreRejected() {
+    // Given
+    var input = new ByteArrayInputStream(new byte[]{1, 2, 3, 4});
+
+    // Then
+    assertThatThrownBy(() -> ClassFileDependencies.read(input))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Not a valid class file");
+  }
+
+  private static ClassFileDependencies read(Class<?> cls) throws IOException {
+    var resource = cls.getName().replace('.', '/') + ".class";
+    try (var input = requireNonNull(cls.getClassLoader().getResourceAsStream(resource))) {
+      return requireNonNull(ClassFileDependencies.read(input));
+    }
+  }
+
+  static final class WithConstants {
+
+    static final int VALUE = 12;
+    static final String NAME = "foo";
+  }
+
+  @SuppressWarnings("unused")
+  static final class WithReferences {
+
+    Map<String, Integer> map;
+    StringBuilder[] builders;
+
+    WithReferences() {
+      map = Map.of();
+      builders = new StringBuilder[0];
+    }
+
+    void read(InputStream inputStream) {
+      // Nothing to do.
+    }
+
+    int size() {
+      return List.of(1, 2).size();
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.Isolated;
+
+/**
+ * {@link JavacCompilerPool} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JavacCompilerPool tests")
+@Execution(ExecutionMode.SAME_THREAD)
+@Isolated("This modifies global state")
+class JavacCompilerPoolTest {
+
+  @AfterEach
+  void tearDown() {
+    var pool = JavacCompilerPool.getActive();
+    while (pool != null) {
+      pool.close();
+      pool = JavacCompilerPool.getActive();
+    }
+  }
+
+  @DisplayName("The pool is inactive by default")
+  @Test
+  void poolIsInactiveByDefault() {
+    // Then
+    assertThat(JavacCompilerPool.getActive()).isNull();
+  }
+
+  @DisplayName("Negative warm-up iteration counts are rejected")
+  @Test
+  void negativeWarmUpIterationCountsAreRejected() {
+    // Then
+    assertThatThrownBy(() -> JavacCompilerPool.activate(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("warmUpIterations cannot be negative");
+    assertThat(JavacCompilerPool.getActive()).isNull();
+  }
+
+  @DisplayName("Activating the pool makes compilers use the pooled instance")
+  @Test
+  void activatingThePoolMakesCompilersUseThePooledInstance() {
+    // Given
+    try (var pool = JavacCompilerPool.activate(0)) {
+      // When
+      var compiler = new JavacJctCompilerImpl().getCompilerFactory().createCompiler();
+
+      // Then
+      assertThat(JavacCompilerPool.getActive()).isSameAs(pool);
+      assertThat(compiler).isSameAs(pool.getCompiler());
+      assertThat(pool.getWarmUpIterations()).isZero();
+      assertThat(pool.getWarmUpDuration()).isZero();
+    }
+
+    assertThat(JavacCompilerPool.getActive()).isNull();
+  }
+
+  @DisplayName("The pool stays active until the last reference is closed")
+  @Test
+  void poolStaysActiveUntilLastReferenceIsClosed() {
+    // Given
+    var first = JavacCompilerPool.activate(0);
+    var second = JavacCompilerPool.activate(0);
+
+    // Then
+    assertThat(second).isSameAs(first);
+
+    first.close();
+    assertThat(JavacCompilerPool.getActive()).isSameAs(first);
+
+    second.close();
+    assertThat(JavacCompilerPool.getActive()).isNull();
+  }
+
+  @DisplayName("Warming up the pool performs the requested number of compilations")
+  @Test
+  void warmingUpThePoolPerformsTheRequestedNumberOfCompilations() {
+    // Given
+    try (var pool = JavacCompilerPool.activate(2)) {
+      // Then
+      assertThat(pool.getWarmUpIterations()).isEqualTo(2);
+      assertThat(pool.getWarmUpDuration()).isPositive();
+    }
+  }
+}
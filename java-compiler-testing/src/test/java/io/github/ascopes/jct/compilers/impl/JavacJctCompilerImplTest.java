@@ -127,6 +127,24 @@ class JavacJctCompilerImplTest {
     assertThat(compiler.getAnnotationProcessors()).isEmpty();
   }
 
+  @DisplayName("Snapshots are independent copies of the compiler")
+  @Test
+  void snapshotsAreIndependentCopiesOfTheCompiler() {
+    // Given
+    compiler.release("17");
+
+    // When
+    var snapshot = compiler.snapshot();
+    compiler.release("21");
+
+    // Then
+    assertThat(snapshot)
+        .isNotSameAs(compiler)
+        .isInstanceOf(JavacJctCompilerImpl.class);
+    assertThat(snapshot.getRelease()).isEqualTo("17");
+    assertThat(snapshot.getName()).isEqualTo(compiler.getName());
+  }
+
   @DisplayName("the earliest supported version int has the expected value")
   @CsvSource(useHeadersInDisplayName = true, value = {
       "SourceVersion.latest(), expectedResult",
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.compilers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import io.github.ascopes.jct.compilers.JctCompilationMetrics.Phase;
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
+import javax.tools.JavaCompiler.CompilationTask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JavacPhaseTimingListener} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JavacPhaseTimingListener tests")
+class JavacPhaseTimingListenerTest {
+
+  @DisplayName(".register(...) registers a listener on javac tasks")
+  @Test
+  void registerRegistersListenerOnJavacTasks() {
+    // Given
+    var task = mock(JavacTask.class);
+
+    // When
+    var result = JavacPhaseTimingListener.register(task, new JctCompilationMetricsCollector());
+
+    // Then
+    assertThat(result).isTrue();
+    verify(task).addTaskListener(any(JavacPhaseTimingListener.class));
+  }
+
+  @DisplayName(".register(...) ignores tasks that are not javac tasks")
+  @Test
+  void registerIgnoresTasksThatAreNotJavacTasks() {
+    // Given
+    var task = mock(CompilationTask.class);
+
+    // When
+    var result = JavacPhaseTimingListener.register(task, new JctCompilationMetricsCollector());
+
+    // Then
+    assertThat(result).isFalse();
+  }
+
+  @DisplayName("Phases are recorded once all nested events have finished")
+  @Test
+  void phasesAreRecordedOnceAllNestedEventsHaveFinished() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+    var listener = new JavacPhaseTimingListener(collector);
+    var event = someEvent(TaskEvent.Kind.ANALYZE);
+
+    // When
+    listener.started(event);
+    listener.started(event);
+    listener.finished(event);
+    var beforeAllFinished = collector.toMetrics();
+    listener.finished(event);
+    var afterAllFinished = collector.toMetrics();
+
+    // Then
+    assertThat(beforeAllFinished.getPhaseTimes()).isEmpty();
+    assertThat(afterAllFinished.getPhaseTimes()).containsOnlyKeys(Phase.ANALYZE);
+  }
+
+  @DisplayName("Each javac phase is mapped to the expected phase")
+  @Test
+  void eachJavacPhaseIsMappedToTheExpectedPhase() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+    var listener = new JavacPhaseTimingListener(collector);
+
+    // When
+    for (var kind : new TaskEvent.Kind[]{
+        TaskEvent.Kind.PARSE,
+        TaskEvent.Kind.ENTER,
+        TaskEvent.Kind.ANALYZE,
+        TaskEvent.Kind.GENERATE,
+        TaskEvent.Kind.ANNOTATION_PROCESSING,
+    }) {
+      var event = someEvent(kind);
+      listener.started(event);
+      listener.finished(event);
+    }
+
+    // Then
+    assertThat(collector.toMetrics().getPhaseTimes())
+        .containsOnlyKeys(Phase.values());
+  }
+
+  @DisplayName("Annotation processing rounds are recorded individually")
+  @Test
+  void annotationProcessingRoundsAreRecordedIndividually() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+    var listener = new JavacPhaseTimingListener(collector);
+    var event = someEvent(TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND);
+
+    // When
+    listener.started(event);
+    listener.finished(event);
+    listener.started(event);
+    listener.finished(event);
+
+    // Then
+    var metrics = collector.toMetrics();
+    assertThat(metrics.getAnnotationProcessingRoundTimes()).hasSize(2);
+    assertThat(metrics.getPhaseTimes()).isEmpty();
+  }
+
+  @DisplayName("Finish events without a start event are ignored")
+  @Test
+  void finishEventsWithoutStartEventAreIgnored() {
+    // Given
+    var collector = new JctCompilationMetricsCollector();
+    var listener = new JavacPhaseTimingListener(collector);
+
+    // When
+    listener.finished(someEvent(TaskEvent.Kind.GENERATE));
+
+    // Then
+    assertThat(collector.toMetrics().getPhaseTimes()).isEmpty();
+  }
+
+  static TaskEvent someEvent(TaskEvent.Kind kind) {
+    return new TaskEvent(kind);
+  }
+}
@@ -19,11 +19,13 @@ import static io.github.ascopes.jct.fixtures.ExtraArgumentMatchers.containsExact
 import static io.github.ascopes.jct.fixtures.Fixtures.oneOf;
 import static io.github.ascopes.jct.fixtures.Fixtures.someBinaryName;
 import static io.github.ascopes.jct.fixtures.Fixtures.someFlags;
+import static io.github.ascopes.jct.fixtures.Fixtures.someInt;
 import static io.github.ascopes.jct.fixtures.Fixtures.someLinesOfText;
 import static io.github.ascopes.jct.fixtures.Fixtures.someText;
 import static io.github.ascopes.jct.fixtures.Fixtures.someTraceDiagnostic;
 import static io.github.ascopes.jct.fixtures.Fixtures.unused;
 import static io.github.ascopes.jct.utils.IterableUtils.flatten;
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +34,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
@@ -44,18 +47,25 @@ import static org.mockito.Mockito.withSettings;
 
 import io.github.ascopes.jct.compilers.JctCompilation;
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.diagnostics.OutputCaptureMode;
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
 import io.github.ascopes.jct.diagnostics.TeeWriter;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
 import io.github.ascopes.jct.diagnostics.TracingDiagnosticListener;
+import io.github.ascopes.jct.ex.JctCompilationAbortedException;
 import io.github.ascopes.jct.ex.JctCompilerException;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
 import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.PathFileObject;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.processing.Processor;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaCompiler.CompilationTask;
@@ -104,12 +114,37 @@ class JctCompilationFactoryImplTest {
   @BeforeEach
   void setUp() {
     flags = someFlags();
+    lenient().when(jctCompiler.getDiagnosticStackTraceCaptureMode())
+        .thenReturn(StackTraceCaptureMode.LIMITED);
+    lenient().when(jctCompiler.getDiagnosticStackTraceLimit())
+        .thenReturn(JctCompiler.DEFAULT_DIAGNOSTIC_STACK_TRACE_LIMIT);
+    lenient().when(jctCompiler.getDiagnosticCallback())
+        .thenReturn(TraceDiagnosticCallback.retainAll());
+    lenient().when(jctCompiler.getDiagnosticRetentionPolicy())
+        .thenReturn(DiagnosticRetentionPolicy.keepAll());
+    lenient().when(jctCompiler.getOutputCaptureMode())
+        .thenReturn(OutputCaptureMode.TEE);
   }
 
   JctCompilation doCompile(@Nullable Collection<String> classNames) {
     return factory.createCompilation(flags, fileManager, javaCompiler, classNames);
   }
 
+  void writeOutputDuringCompilation(String output) {
+    var writer = new AtomicReference<Writer>();
+    var task = mock(CompilationTask.class);
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .then(ctx -> {
+          writer.set(ctx.getArgument(0, Writer.class));
+          return task;
+        });
+    when(task.call())
+        .then(ctx -> {
+          requireNonNull(writer.get()).write(output);
+          return true;
+        });
+  }
+
   @DisplayName("Multi-module sources are used when they exist")
   @SuppressWarnings("DistinctVarargsChecker")
   @Test
@@ -344,8 +379,6 @@ class JctCompilationFactoryImplTest {
       var teeWriter = mock(TeeWriter.class);
       teeWriterStatic.when(() -> TeeWriter.wrapOutputStream(any(), any()))
           .thenReturn(teeWriter);
-      when(teeWriter.getContent())
-          .thenReturn(someLinesOfText());
 
       // Do not inline this, it will break in Mockito's stubber backend.
       var fileObjects = Set.of(somePathFileObject(someBinaryName()));
@@ -398,29 +431,143 @@ class JctCompilationFactoryImplTest {
     }
   }
 
+  @DisplayName("The tee writer content is not copied until the output lines are requested")
+  @Test
+  void teeWriterContentIsNotCopiedUntilTheOutputLinesAreRequested() throws IOException {
+    // Given
+    try (var teeWriterStatic = mockStatic(TeeWriter.class)) {
+      var teeWriter = mock(TeeWriter.class);
+      teeWriterStatic.when(() -> TeeWriter.wrapOutputStream(any(), any()))
+          .thenReturn(teeWriter);
+      when(teeWriter.getContent()).thenReturn("foo\nbar");
+
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      verify(teeWriter, never()).getContent();
+      assertThat(result.getOutputLines()).containsExactly("foo", "bar");
+      assertThat(result.getOutputLines()).containsExactly("foo", "bar");
+      verify(teeWriter).getContent();
+    }
+  }
+
+  @DisplayName("Output is not written anywhere when the output capture mode is DISCARD")
+  @Test
+  void outputIsNotWrittenAnywhereWhenTheOutputCaptureModeIsDiscard() throws IOException {
+    // Given
+    try (var teeWriterStatic = mockStatic(TeeWriter.class)) {
+      when(jctCompiler.getOutputCaptureMode()).thenReturn(OutputCaptureMode.DISCARD);
+      writeOutputDuringCompilation("foo\nbar\nbaz\n");
+
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.getOutputLines()).isEmpty();
+      teeWriterStatic.verifyNoInteractions();
+    }
+  }
+
+  @DisplayName("Output is captured without a tee writer when the output capture mode is CAPTURE")
+  @Test
+  void outputIsCapturedWithoutTeeWriterWhenTheOutputCaptureModeIsCapture() throws IOException {
+    // Given
+    try (var teeWriterStatic = mockStatic(TeeWriter.class)) {
+      when(jctCompiler.getOutputCaptureMode()).thenReturn(OutputCaptureMode.CAPTURE);
+      writeOutputDuringCompilation("foo\nbar\r\nbaz");
+
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.getOutputLines()).containsExactly("foo", "bar", "baz");
+      teeWriterStatic.verifyNoInteractions();
+    }
+  }
+
+  @DisplayName("Only the last lines are kept when the output capture mode is CAPTURE_LAST_LINES")
+  @Test
+  void onlyTheLastLinesAreKeptWhenTheOutputCaptureModeIsCaptureLastLines() throws IOException {
+    // Given
+    try (var teeWriterStatic = mockStatic(TeeWriter.class)) {
+      when(jctCompiler.getOutputCaptureMode()).thenReturn(OutputCaptureMode.CAPTURE_LAST_LINES);
+      when(jctCompiler.getOutputCaptureLineLimit()).thenReturn(2);
+      writeOutputDuringCompilation("foo\nbar\nbaz\nbork\n");
+
+      // Do not inline this, it will break in Mockito's stubber backend.
+      var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+      when(fileManager.list(any(), any(), any(), anyBoolean()))
+          .thenReturn(fileObjects);
+
+      // When
+      var result = doCompile(null);
+
+      // Then
+      assertThat(result.getOutputLines()).containsExactly("baz", "bork");
+      assertThat(result.getDiscardedOutputLineCount()).isEqualTo(2);
+      teeWriterStatic.verifyNoInteractions();
+    }
+  }
+
   @DisplayName("A correctly configured diagnostic listener is used for compilation")
   @CsvSource({
-      "DISABLED,   false, false",
-      "ENABLED,     true, false",
-      "STACKTRACES, true,  true"
+      "DISABLED,       NONE, false, false",
+      "ENABLED,     LIMITED,  true, false",
+      "STACKTRACES,    FULL,  true,  true",
+      "ENABLED,        NONE,  true, false",
   })
-  @ParameterizedTest(name = "- LoggingMode.{0} should use new TracingDiagnosticListener({1}, {2})")
+  @ParameterizedTest(
+      name = "- LoggingMode.{0} and StackTraceCaptureMode.{1} should use "
+          + "new TracingDiagnosticListener({2}, {3}, {1})"
+  )
   @SuppressWarnings({"unchecked", "rawtypes"})
   void correctlyConfiguredDiagnosticListenerIsUsedForCompilation(
       LoggingMode loggingMode,
+      StackTraceCaptureMode stackTraceCaptureMode,
       boolean expectedEnabled,
       boolean expectedStackTraces
   ) throws IOException {
     // Given
     when(jctCompiler.getDiagnosticLoggingMode())
         .thenReturn(loggingMode);
+    when(jctCompiler.getDiagnosticStackTraceCaptureMode())
+        .thenReturn(stackTraceCaptureMode);
+    var stackTraceLimit = someInt(1, 100);
+    when(jctCompiler.getDiagnosticStackTraceLimit())
+        .thenReturn(stackTraceLimit);
+    var callback = mock(TraceDiagnosticCallback.class);
+    when(jctCompiler.getDiagnosticCallback())
+        .thenReturn(callback);
+    var retentionPolicy = mock(DiagnosticRetentionPolicy.class);
+    when(jctCompiler.getDiagnosticRetentionPolicy())
+        .thenReturn(retentionPolicy);
 
     MockInitializer<TracingDiagnosticListener> verifier = (mock, ctx) -> {
       assertThat(ctx.arguments())
-          .hasSize(2)
+          .hasSize(6)
           .satisfies(
               args -> assertThat(args).element(0).isEqualTo(expectedEnabled),
-              args -> assertThat(args).element(1).isEqualTo(expectedStackTraces)
+              args -> assertThat(args).element(1).isEqualTo(expectedStackTraces),
+              args -> assertThat(args).element(2).isEqualTo(stackTraceCaptureMode),
+              args -> assertThat(args).element(3).isEqualTo(stackTraceLimit),
+              args -> assertThat(args).element(4).isSameAs(callback),
+              args -> assertThat(args).element(5).isSameAs(retentionPolicy)
           );
     };
 
@@ -678,6 +825,31 @@ class JctCompilationFactoryImplTest {
         .hasCause(cause);
   }
 
+  @DisplayName("Compilations aborted by the diagnostic callback are reported as failures")
+  @Test
+  void compilationsAbortedByTheDiagnosticCallbackAreReportedAsFailures() throws IOException {
+    // Given
+    var task = mock(CompilationTask.class);
+    // Compilers usually wrap exceptions raised by diagnostic listeners.
+    var abort = new RuntimeException(new JctCompilationAbortedException("stop!"));
+
+    when(javaCompiler.getTask(any(), any(), any(), any(), any(), any()))
+        .thenReturn(task);
+    when(task.call())
+        .thenThrow(abort);
+
+    // Do not inline this, it will break in Mockito's stubber backend.
+    var fileObjects = Set.of(somePathFileObject(someBinaryName()));
+    when(fileManager.list(any(), any(), any(), anyBoolean()))
+        .thenReturn(fileObjects);
+
+    // When
+    var result = doCompile(null);
+
+    // Then
+    assertThat(result.isSuccessful()).isFalse();
+  }
+
   @DisplayName("Compilers returning null outcomes will be raised as an exception")
   @Test
   void compilersReturningNullOutcomesWillBeRaisedAsAnException() throws IOException {
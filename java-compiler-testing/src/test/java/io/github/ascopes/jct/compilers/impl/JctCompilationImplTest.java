@@ -19,7 +19,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.iterable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetrics;
 import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.fixtures.Fixtures;
@@ -27,11 +31,14 @@ import io.github.ascopes.jct.utils.StringUtils;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -113,6 +120,49 @@ class JctCompilationImplTest {
         .containsExactlyElementsOf(lines);
   }
 
+  @DisplayName(".getOutputLines() only calls the output lines supplier once, when first needed")
+  @Test
+  void getOutputLinesOnlyCallsTheOutputLinesSupplierOnceWhenFirstNeeded() {
+    // Given
+    var lines = List.of("foo", "bar", "baz");
+    Supplier<List<String>> supplier = mock();
+    when(supplier.get()).thenReturn(lines);
+
+    // When
+    var compilation = filledBuilder()
+        .outputLinesSupplier(supplier)
+        .build();
+
+    // Then
+    verifyNoInteractions(supplier);
+    assertThat(compilation.getOutputLines()).containsExactlyElementsOf(lines);
+    assertThat(compilation.getOutputLines()).containsExactlyElementsOf(lines);
+    verify(supplier).get();
+  }
+
+  @DisplayName(".getDiscardedOutputLineCount() returns the expected value")
+  @ValueSource(longs = {0, 1, 2, 100, Long.MAX_VALUE})
+  @ParameterizedTest(name = "for discardedOutputLineCount = {0}")
+  void getDiscardedOutputLineCountReturnsExpectedValue(long discardedOutputLineCount) {
+    // Given
+    var compilation = filledBuilder()
+        .discardedOutputLineCount(discardedOutputLineCount)
+        .build();
+
+    // Then
+    assertThat(compilation.getDiscardedOutputLineCount()).isEqualTo(discardedOutputLineCount);
+  }
+
+  @DisplayName(".getDiscardedOutputLineCount() returns zero by default")
+  @Test
+  void getDiscardedOutputLineCountReturnsZeroByDefault() {
+    // Given
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getDiscardedOutputLineCount()).isZero();
+  }
+
   @DisplayName(".getCompilationUnits() returns the expected value")
   @ValueSource(ints = {0, 1, 2, 3, 5, 10, 100})
   @ParameterizedTest(name = "for compilationUnitCount = {0}")
@@ -153,6 +203,42 @@ class JctCompilationImplTest {
         .containsExactlyElementsOf(diagnostics);
   }
 
+  @DisplayName(".getDiagnosticCounts() returns the expected value")
+  @Test
+  void getDiagnosticCountsReturnsExpectedValue() {
+    // Given
+    var counts = Map.of(Kind.ERROR, 12L, Kind.NOTE, 3_000L);
+    var compilation = filledBuilder()
+        .diagnostics(List.of(Fixtures.someTraceDiagnostic()))
+        .diagnosticCounts(counts)
+        .build();
+
+    // Then
+    assertThat(compilation.getDiagnosticCounts())
+        .containsExactlyInAnyOrderEntriesOf(counts);
+  }
+
+  @DisplayName(".getDiagnosticCounts() derives the counts from the diagnostics by default")
+  @Test
+  void getDiagnosticCountsDerivesTheCountsFromTheDiagnosticsByDefault() {
+    // Given
+    var diagnostics = Stream.of(Kind.ERROR, Kind.WARNING, Kind.ERROR)
+        .map(kind -> {
+          var diagnostic = Fixtures.someTraceDiagnostic();
+          when(diagnostic.getKind()).thenReturn(kind);
+          return diagnostic;
+        })
+        .toList();
+
+    var compilation = filledBuilder()
+        .diagnostics(diagnostics)
+        .build();
+
+    // Then
+    assertThat(compilation.getDiagnosticCounts())
+        .containsExactlyInAnyOrderEntriesOf(Map.of(Kind.ERROR, 2L, Kind.WARNING, 1L));
+  }
+
   @DisplayName(".getFileManager() returns the expected value")
   @Test
   void getFileManagerReturnsExpectedValue() {
@@ -166,6 +252,29 @@ class JctCompilationImplTest {
     assertThat(compilation.getFileManager()).isEqualTo(fileManager);
   }
 
+  @DisplayName(".getMetrics() returns the expected value")
+  @Test
+  void getMetricsReturnsExpectedValue() {
+    // Given
+    var metrics = mock(JctCompilationMetrics.class);
+    var compilation = filledBuilder()
+        .metrics(metrics)
+        .build();
+
+    // Then
+    assertThat(compilation.getMetrics()).isSameAs(metrics);
+  }
+
+  @DisplayName(".getMetrics() returns empty metrics by default")
+  @Test
+  void getMetricsReturnsEmptyMetricsByDefault() {
+    // Given
+    var compilation = filledBuilder().build();
+
+    // Then
+    assertThat(compilation.getMetrics().getTotalTime()).isZero();
+  }
+
   @DisplayName(".toString() returns the expected value")
   @Test
   void toStringReturnsExpectedValue() {
@@ -438,6 +547,33 @@ class JctCompilationImplTest {
           .hasMessage("outputLines");
     }
 
+    @DisplayName("Setting a null output lines supplier raises a NullPointerException")
+    @SuppressWarnings({"DataFlowIssue", "NullAway"})
+    @Test
+    void settingNullOutputLinesSupplierRaisesNullPointerException() {
+      // Given
+      var builder = filledBuilder();
+
+      // Then
+      assertThatThrownBy(() -> builder.outputLinesSupplier(null))
+          .isInstanceOf(NullPointerException.class)
+          .hasMessage("outputLinesSupplier");
+    }
+
+    @DisplayName("Setting a negative discarded output line count raises an "
+        + "IllegalArgumentException")
+    @ValueSource(longs = {-1, Long.MIN_VALUE})
+    @ParameterizedTest(name = "for discardedOutputLineCount = {0}")
+    void settingNegativeDiscardedOutputLineCountRaisesIllegalArgumentException(long count) {
+      // Given
+      var builder = filledBuilder();
+
+      // Then
+      assertThatThrownBy(() -> builder.discardedOutputLineCount(count))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("discardedOutputLineCount cannot be negative");
+    }
+
     @DisplayName("Building without output lines raises a NullPointerException")
     @Test
     void buildingWithoutOutputLinesRaisesNullPointerException() {
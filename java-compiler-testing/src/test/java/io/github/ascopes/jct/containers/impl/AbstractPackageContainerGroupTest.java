@@ -16,15 +16,47 @@
 package io.github.ascopes.jct.containers.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.array;
+import static org.assertj.core.api.InstanceOfAssertFactories.type;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import io.github.ascopes.jct.containers.Container;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardLocation;
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * {@link AbstractPackageContainerGroup} tests.
@@ -82,4 +114,353 @@ class AbstractPackageContainerGroupTest {
             .hasSize(3)
             .containsExactly(container3Path1, container3Path2, container3Path3));
   }
+
+  @DisplayName(".getJavaFileForInput(...) only consults containers that may hold the package")
+  @SuppressWarnings("resource")
+  @Test
+  void getJavaFileForInputOnlyConsultsContainersThatMayHoldThePackage() {
+    // Given
+    var directory1 = mock(Container.class, "directory 1");
+    var jar1 = someJar("jar 1", "org.example");
+    var directory2 = mock(Container.class, "directory 2");
+    var jar2 = someJar("jar 2", "com.example");
+    var expected = mock(PathFileObject.class);
+    when(directory2.getJavaFileForInput("com.example.Foo", Kind.CLASS)).thenReturn(expected);
+
+    var group = newGroup(directory1, jar1, directory2, jar2);
+
+    // When
+    var result = group.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+    // Then
+    assertThat(result).isSameAs(expected);
+    then(directory1).should().getJavaFileForInput("com.example.Foo", Kind.CLASS);
+    then(jar1).should(never()).getJavaFileForInput(any(), any());
+    then(jar2).should(never()).getJavaFileForInput(any(), any());
+    assertThat(group.getRoutingHitCount()).isOne();
+    assertThat(group.getRoutingMissCount()).isZero();
+  }
+
+  @DisplayName(".getJavaFileForInput(...) consults routed containers in their original order")
+  @SuppressWarnings("resource")
+  @Test
+  void getJavaFileForInputConsultsRoutedContainersInTheirOriginalOrder() {
+    // Given
+    var jar1 = someJar("jar 1", "com.example");
+    var directory = mock(Container.class, "directory");
+    var jar2 = someJar("jar 2", "com.example");
+    var expected = mock(PathFileObject.class);
+    when(jar2.getJavaFileForInput("com.example.Foo", Kind.SOURCE)).thenReturn(expected);
+
+    var group = newGroup(jar1, directory, jar2);
+
+    // When
+    var result = group.getJavaFileForInput("com.example.Foo", Kind.SOURCE);
+
+    // Then
+    assertThat(result).isSameAs(expected);
+    var order = inOrder(jar1, directory, jar2);
+    order.verify(jar1).getJavaFileForInput("com.example.Foo", Kind.SOURCE);
+    order.verify(directory).getJavaFileForInput("com.example.Foo", Kind.SOURCE);
+    order.verify(jar2).getJavaFileForInput("com.example.Foo", Kind.SOURCE);
+  }
+
+  @DisplayName(".getFileForInput(...) records a miss when no JAR holds the package")
+  @SuppressWarnings("resource")
+  @Test
+  void getFileForInputRecordsMissWhenNoJarHoldsThePackage() {
+    // Given
+    var jar = someJar("jar", "com.example");
+    var directory = mock(Container.class, "directory");
+    var group = newGroup(jar, directory);
+
+    // When
+    var result = group.getFileForInput("java.lang", "Foo.txt");
+
+    // Then
+    assertThat(result).isNull();
+    then(jar).should(never()).getFileForInput(any(), any());
+    then(directory).should().getFileForInput("java.lang", "Foo.txt");
+    assertThat(group.getRoutingHitCount()).isZero();
+    assertThat(group.getRoutingMissCount()).isOne();
+  }
+
+  @DisplayName("Adding a container rebuilds the routing table")
+  @SuppressWarnings("resource")
+  @Test
+  void addingContainerRebuildsTheRoutingTable() {
+    // Given
+    var jar1 = someJar("jar 1", "org.example");
+    var group = newGroup(jar1);
+    assertThat(group.getFileForInput("com.example", "foo.txt")).isNull();
+
+    var jar2 = someJar("jar 2", "com.example");
+    var expected = mock(PathFileObject.class);
+    when(jar2.getFileForInput("com.example", "foo.txt")).thenReturn(expected);
+
+    // When
+    group.addPackage(jar2);
+
+    // Then
+    assertThat(group.getFileForInput("com.example", "foo.txt")).isSameAs(expected);
+    assertThat(group.getRoutingHitCount()).isOne();
+    assertThat(group.getRoutingMissCount()).isOne();
+  }
+
+  @DisplayName(".inferBinaryName(...) only consults JARs on the same file system")
+  @SuppressWarnings("resource")
+  @Test
+  void inferBinaryNameOnlyConsultsJarsOnTheSameFileSystem() {
+    // Given
+    var jar1 = someJar("jar 1", "org.example");
+    var jar2 = someJar("jar 2", "com.example");
+    var fileObject = mock(PathFileObject.class, RETURNS_DEEP_STUBS);
+    var fileSystem = jar2.getInnerPathRoot().getPath().getFileSystem();
+    when(fileObject.getAbsolutePath().getFileSystem()).thenReturn(fileSystem);
+    when(jar2.inferBinaryName(fileObject)).thenReturn("com.example.Foo");
+
+    var group = newGroup(jar1, jar2);
+
+    // When
+    var result = group.inferBinaryName(fileObject);
+
+    // Then
+    assertThat(result).isEqualTo("com.example.Foo");
+    then(jar1).should(never()).inferBinaryName(any());
+    assertThat(group.getRoutingHitCount()).isOne();
+  }
+
+  @DisplayName("JARs that cannot be indexed are always consulted")
+  @SuppressWarnings("resource")
+  @Test
+  void jarsThatCannotBeIndexedAreAlwaysConsulted() {
+    // Given
+    var jar = someJar("jar");
+    when(jar.getPackageNames()).thenThrow(new UncheckedIOException(new IOException("bang")));
+    var group = newGroup(jar);
+
+    // When
+    group.getJavaFileForInput("com.example.Foo", Kind.CLASS);
+
+    // Then
+    then(jar).should().getJavaFileForInput("com.example.Foo", Kind.CLASS);
+    assertThat(group.getRoutingMissCount()).isOne();
+  }
+
+  @DisplayName(".listFileObjects(...) lists small groups on the calling thread")
+  @SuppressWarnings("resource")
+  @Test
+  void listFileObjectsListsSmallGroupsOnTheCallingThread() throws IOException {
+    // Given
+    var threads = ConcurrentHashMap.<Thread>newKeySet();
+    var containers = slowContainers(
+        AbstractPackageContainerGroup.PARALLEL_LIST_MIN_CONTAINERS - 1,
+        threads
+    );
+    var group = newGroup(containers);
+
+    // When
+    for (var i = 0; i < 3; ++i) {
+      group.listFileObjects("com.example", Set.of(Kind.SOURCE), false);
+    }
+
+    // Then
+    assertThat(threads).containsExactly(Thread.currentThread());
+    assertThat(group.getEstimatedListNanosPerContainer()).isPositive();
+  }
+
+  @DisplayName(".listFileObjects(...) lists slow groups in parallel with the same results")
+  @SuppressWarnings("resource")
+  @Test
+  void listFileObjectsListsSlowGroupsInParallelWithTheSameResults() throws IOException {
+    assumeThat(ForkJoinPool.getCommonPoolParallelism())
+        .as("common pool parallelism")
+        .isGreaterThan(1);
+
+    // Given
+    var threads = ConcurrentHashMap.<Thread>newKeySet();
+    var containers = slowContainers(8, threads);
+    var group = newGroup(containers);
+    var sequential = group.listFileObjects("com.example", Set.of(Kind.SOURCE), false);
+    assertThat(threads).containsExactly(Thread.currentThread());
+    threads.clear();
+
+    // When
+    var parallel = group.listFileObjects("com.example", Set.of(Kind.SOURCE), false);
+
+    // Then
+    assertThat(parallel)
+        .hasSize(8)
+        .containsExactlyInAnyOrderElementsOf(sequential);
+    assertThat(threads).anySatisfy(thread -> assertThat(thread)
+        .asInstanceOf(type(ForkJoinWorkerThread.class))
+        .extracting(ForkJoinWorkerThread::getPool)
+        .isSameAs(ForkJoinPool.commonPool()));
+  }
+
+  @DisplayName(".listFileObjects(...) rethrows IOExceptions raised in parallel")
+  @SuppressWarnings("resource")
+  @Test
+  void listFileObjectsRethrowsIoExceptionsRaisedInParallel() throws IOException {
+    assumeThat(ForkJoinPool.getCommonPoolParallelism())
+        .as("common pool parallelism")
+        .isGreaterThan(1);
+
+    // Given
+    var containers = slowContainers(8, ConcurrentHashMap.newKeySet());
+    var group = newGroup(containers);
+    group.listFileObjects("com.example", Set.of(Kind.SOURCE), false);
+
+    var ex = new IOException("bang");
+    doThrow(ex).when(containers[5]).listFileObjects(any(), any(), anyBoolean(), any());
+
+    // Then
+    assertThatThrownBy(() -> group.listFileObjects("com.example", Set.of(Kind.SOURCE), false))
+        .isSameAs(ex);
+  }
+
+  @DisplayName(".listFileObjects(...) reports parallel failures in container order")
+  @SuppressWarnings("resource")
+  @Test
+  void listFileObjectsReportsParallelFailuresInContainerOrder() throws IOException {
+    assumeThat(ForkJoinPool.getCommonPoolParallelism())
+        .as("common pool parallelism")
+        .isGreaterThan(1);
+
+    // Given
+    var containers = slowContainers(8, ConcurrentHashMap.newKeySet());
+    var group = newGroup(containers);
+    group.listFileObjects("com.example", Set.of(Kind.SOURCE), false);
+
+    var first = new IOException("first");
+    var second = new IOException("second");
+    var third = new IOException("third");
+    // Make the earliest container fail last, so that completion order differs from
+    // container order.
+    doAnswer(ctx -> {
+      Thread.sleep(50);
+      throw first;
+    }).when(containers[1]).listFileObjects(any(), any(), anyBoolean(), any());
+    doThrow(second).when(containers[4]).listFileObjects(any(), any(), anyBoolean(), any());
+    doThrow(third).when(containers[6]).listFileObjects(any(), any(), anyBoolean(), any());
+
+    // Then
+    assertThatThrownBy(() -> group.listFileObjects("com.example", Set.of(Kind.SOURCE), false))
+        .isSameAs(first)
+        .extracting(Throwable::getSuppressed, array(Throwable[].class))
+        .containsExactly(second, third);
+  }
+
+  @DisplayName("Class path groups share a parent class loader for inherited entries")
+  @Test
+  void classPathGroupsShareParentClassLoaderForInheritedEntries(
+      @TempDir Path tempDir
+  ) throws IOException {
+    // Given
+    var inheritedRoots = JvmEnvironmentSnapshot.current().getClassPath();
+    assumeThat(inheritedRoots).isNotEmpty();
+
+    try (
+        var firstGroup = newGroup(StandardLocation.CLASS_PATH, tempDir, inheritedRoots);
+        var secondGroup = newGroup(StandardLocation.CLASS_PATH, tempDir, inheritedRoots)
+    ) {
+      // When
+      var firstClassLoader = firstGroup.getClassLoader();
+      var secondClassLoader = secondGroup.getClassLoader();
+
+      // Then
+      assertThat(firstClassLoader).isNotSameAs(secondClassLoader);
+      assertThat(firstClassLoader.getParent())
+          .isNotSameAs(ClassLoader.getSystemClassLoader())
+          .isSameAs(secondClassLoader.getParent());
+      assertThat(firstClassLoader)
+          .asInstanceOf(type(URLClassLoader.class))
+          .extracting(URLClassLoader::getURLs, InstanceOfAssertFactories.ARRAY)
+          .containsExactly(tempDir.toUri().toURL());
+    }
+  }
+
+  @DisplayName("Other groups do not share a parent class loader for inherited entries")
+  @Test
+  void otherGroupsDoNotShareParentClassLoaderForInheritedEntries(
+      @TempDir Path tempDir
+  ) throws IOException {
+    // Given
+    var inheritedRoots = JvmEnvironmentSnapshot.current().getClassPath();
+
+    try (var group = newGroup(StandardLocation.CLASS_OUTPUT, tempDir, inheritedRoots)) {
+      // When
+      var classLoader = group.getClassLoader();
+
+      // Then
+      assertThat(classLoader.getParent()).isSameAs(ClassLoader.getSystemClassLoader());
+    }
+  }
+
+  @DisplayName(".close() closes the class loader if it was created")
+  @Test
+  void closeClosesTheClassLoaderIfItWasCreated(@TempDir Path tempDir) throws IOException {
+    // Given
+    Files.writeString(tempDir.resolve("resource.txt"), "Hello, World!");
+    var group = newGroup(StandardLocation.CLASS_PATH, tempDir, List.of());
+    var classLoader = group.getClassLoader();
+    assertThat(classLoader.getResource("resource.txt")).isNotNull();
+
+    // When
+    group.close();
+
+    // Then
+    assertThat(classLoader.getResource("resource.txt")).isNull();
+    assertThat(group.getClassLoader()).isNotSameAs(classLoader);
+  }
+
+  static Container[] slowContainers(int count, Set<Thread> threads) throws IOException {
+    var containers = new Container[count];
+
+    for (var i = 0; i < count; ++i) {
+      var container = mock(Container.class, "container " + i);
+      var fileObject = mock(JavaFileObject.class, "file object " + i);
+      doAnswer(ctx -> {
+        threads.add(Thread.currentThread());
+        Thread.sleep(1);
+        ctx.<Collection<JavaFileObject>>getArgument(3).add(fileObject);
+        return null;
+      }).when(container).listFileObjects(any(), any(), anyBoolean(), any());
+      containers[i] = container;
+    }
+
+    return containers;
+  }
+
+  static JarContainerImpl someJar(String name, String... packageNames) {
+    var jar = mock(
+        JarContainerImpl.class,
+        withSettings().name(name).defaultAnswer(RETURNS_DEEP_STUBS)
+    );
+    when(jar.getPackageNames()).thenReturn(Set.of(packageNames));
+    when(jar.getInnerPathRoot().getPath().getFileSystem()).thenReturn(mock(FileSystem.class));
+    when(jar.getJavaFileForInput(any(), any())).thenReturn(null);
+    when(jar.getFileForInput(any(), any())).thenReturn(null);
+    when(jar.inferBinaryName(any())).thenReturn(null);
+    return jar;
+  }
+
+  static AbstractPackageContainerGroup newGroup(Container... containers) {
+    var group = new AbstractPackageContainerGroup(StandardLocation.CLASS_PATH, "17") {};
+    for (var container : containers) {
+      group.addPackage(container);
+    }
+    return group;
+  }
+
+  static AbstractPackageContainerGroup newGroup(
+      Location location,
+      Path ownRoot,
+      List<PathRoot> inheritedRoots
+  ) {
+    var group = new AbstractPackageContainerGroup(location, "17") {};
+    group.addPackage(new WrappingDirectoryImpl(ownRoot));
+    inheritedRoots.forEach(group::addPackage);
+    return group;
+  }
 }
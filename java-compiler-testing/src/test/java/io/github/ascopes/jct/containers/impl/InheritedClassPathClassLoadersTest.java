@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link InheritedClassPathClassLoaders} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("InheritedClassPathClassLoaders tests")
+class InheritedClassPathClassLoadersTest {
+
+  @DisplayName("The same entries share the same class loader")
+  @Test
+  void theSameEntriesShareTheSameClassLoader(@TempDir Path tempDir) {
+    // Given
+    var first = List.of(new WrappingDirectoryImpl(tempDir));
+    var second = List.of(new WrappingDirectoryImpl(tempDir));
+
+    // When
+    var firstClassLoader = InheritedClassPathClassLoaders.getSharedClassLoader(first);
+    var secondClassLoader = InheritedClassPathClassLoaders.getSharedClassLoader(second);
+
+    // Then
+    assertThat(firstClassLoader).isSameAs(secondClassLoader);
+    assertThat(firstClassLoader.getParent()).isSameAs(ClassLoader.getSystemClassLoader());
+  }
+
+  @DisplayName("Different entries use different class loaders")
+  @Test
+  void differentEntriesUseDifferentClassLoaders(@TempDir Path tempDir) {
+    // Given
+    var first = new WrappingDirectoryImpl(tempDir.resolve("first"));
+    var second = new WrappingDirectoryImpl(tempDir.resolve("second"));
+
+    // When
+    var firstClassLoader = InheritedClassPathClassLoaders
+        .getSharedClassLoader(List.of(first, second));
+    var secondClassLoader = InheritedClassPathClassLoaders
+        .getSharedClassLoader(List.of(second, first));
+
+    // Then
+    assertThat(firstClassLoader).isNotSameAs(secondClassLoader);
+  }
+
+  @DisplayName("The number of cached class loaders is bounded")
+  @Test
+  void theNumberOfCachedClassLoadersIsBounded(@TempDir Path tempDir) {
+    // When
+    for (var i = 0; i <= InheritedClassPathClassLoaders.MAX_CACHED_LOADERS; ++i) {
+      var root = new WrappingDirectoryImpl(tempDir.resolve("entry" + i));
+      InheritedClassPathClassLoaders.getSharedClassLoader(List.of(root));
+    }
+
+    // Then
+    assertThat(InheritedClassPathClassLoaders.getCachedLoaderCount())
+        .isLessThanOrEqualTo(InheritedClassPathClassLoaders.MAX_CACHED_LOADERS);
+  }
+}
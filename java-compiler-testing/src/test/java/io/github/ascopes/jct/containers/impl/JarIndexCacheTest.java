@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JarIndexCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JarIndexCache tests")
+class JarIndexCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName("The cache cannot be created with a maximum size less than 1")
+  @Test
+  void cacheCannotBeCreatedWithMaximumSizeLessThanOne() {
+    // Then
+    assertThatThrownBy(() -> new JarIndexCache(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxEntries must be at least 1");
+  }
+
+  @DisplayName("Acquiring the same JAR twice reuses the same index")
+  @Test
+  void acquiringSameJarTwiceReusesSameIndex() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var jar = new WrappingDirectoryImpl(createJar("foo.jar", "com/example/Foo.class"));
+
+    // When
+    var first = cache.acquire(jar, "17");
+    var second = cache.acquire(jar, "17");
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(cache.getMissCount()).isOne();
+    assertThat(cache.getHitCount()).isOne();
+    assertThat(cache.getEvictionCount()).isZero();
+    assertThat(cache.size()).isOne();
+    assertThat(first.getPackage("com.example")).isNotNull();
+    assertThat(first.getPackage("org.example")).isNull();
+
+    first.release();
+    second.release();
+    assertThat(first.isClosed()).isFalse();
+    cache.clear();
+    assertThat(first.isClosed()).isTrue();
+  }
+
+  @DisplayName("Acquiring the same JAR with different releases creates different indexes")
+  @Test
+  void acquiringSameJarWithDifferentReleasesCreatesDifferentIndexes() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var jar = new WrappingDirectoryImpl(createJar("foo.jar", "com/example/Foo.class"));
+
+    // When
+    var first = cache.acquire(jar, "17");
+    var second = cache.acquire(jar, "21");
+
+    // Then
+    assertThat(second).isNotSameAs(first);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+    assertThat(cache.getHitCount()).isZero();
+
+    first.release();
+    second.release();
+    cache.clear();
+  }
+
+  @DisplayName("Modifying the JAR on disk results in a new index being created")
+  @Test
+  void modifyingJarOnDiskResultsInNewIndex() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var path = createJar("foo.jar", "com/example/Foo.class");
+    var jar = new WrappingDirectoryImpl(path);
+    var first = cache.acquire(jar, "17");
+
+    // When
+    createJar("foo.jar", "com/example/Foo.class", "org/example/Bar.class");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now().plusSeconds(60)));
+    var second = cache.acquire(jar, "17");
+
+    // Then
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getPackage("org.example")).isNotNull();
+    assertThat(cache.size()).isOne();
+    assertThat(cache.getEvictionCount()).isOne();
+
+    first.release();
+    assertThat(first.isClosed()).isTrue();
+    second.release();
+    cache.clear();
+  }
+
+  @DisplayName("Unreferenced stale indexes are closed as soon as they are invalidated")
+  @Test
+  void unreferencedStaleIndexesAreClosedWhenInvalidated() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var path = createJar("foo.jar", "com/example/Foo.class");
+    var jar = new WrappingDirectoryImpl(path);
+    var first = cache.acquire(jar, "17");
+    first.getAllFiles();
+    first.release();
+
+    // When
+    createJar("foo.jar", "com/example/Foo.class", "org/example/Bar.class");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now().plusSeconds(60)));
+    var second = cache.acquire(jar, "17");
+
+    // Then
+    assertThat(first.isClosed()).isTrue();
+    assertThat(second.isClosed()).isFalse();
+    assertThat(cache.size()).isOne();
+
+    second.release();
+    cache.clear();
+  }
+
+  @DisplayName("Unreferenced indexes are closed as soon as they are evicted")
+  @Test
+  void unreferencedIndexesAreClosedWhenEvicted() throws IOException {
+    // Given
+    var cache = new JarIndexCache(1);
+    var foo = cache.acquire(new WrappingDirectoryImpl(createJar("foo.jar", "a/A.class")), "17");
+    foo.getAllFiles();
+    foo.release();
+
+    // When
+    var bar = cache.acquire(new WrappingDirectoryImpl(createJar("bar.jar", "b/B.class")), "17");
+
+    // Then
+    assertThat(cache.getEvictionCount()).isOne();
+    assertThat(cache.size()).isOne();
+    assertThat(foo.isClosed()).isTrue();
+    assertThat(bar.isClosed()).isFalse();
+
+    bar.release();
+    cache.clear();
+  }
+
+  @DisplayName("Referenced indexes are only closed once the last holder releases them")
+  @Test
+  void referencedIndexesAreClosedWhenLastHolderReleasesThem() throws IOException {
+    // Given
+    var cache = new JarIndexCache(1);
+    var fooJar = new WrappingDirectoryImpl(createJar("foo.jar", "a/A.class"));
+    final var foo1 = cache.acquire(fooJar, "17");
+    final var foo2 = cache.acquire(fooJar, "17");
+
+    // When
+    final var bar = cache.acquire(
+        new WrappingDirectoryImpl(createJar("bar.jar", "b/B.class")),
+        "17"
+    );
+
+    // Then
+    assertThat(cache.getEvictionCount()).isOne();
+    assertThat(foo1.getAllFiles()).isNotEmpty();
+
+    foo1.release();
+    assertThat(foo1.isClosed()).isFalse();
+
+    foo2.release();
+    assertThat(foo1.isClosed()).isTrue();
+
+    bar.release();
+    cache.clear();
+  }
+
+  @DisplayName("Containers for the same JAR share the index until closed")
+  @Test
+  void containersForSameJarShareIndexUntilClosed() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var jar = new WrappingDirectoryImpl(createJar("foo.jar", "com/example/Foo.class"));
+    var location = StandardLocation.CLASS_PATH;
+
+    try (
+        var first = new JarContainerImpl(location, jar, "17", cache);
+        var second = new JarContainerImpl(location, jar, "17", cache)
+    ) {
+      // When
+      var firstRoot = first.getInnerPathRoot();
+      var secondRoot = second.getInnerPathRoot();
+
+      // Then
+      assertThat(secondRoot).isSameAs(firstRoot);
+      assertThat(first.getFile("com", "example", "Foo.class")).isNotNull();
+      assertThat(cache.getHitCount()).isOne();
+      assertThat(cache.getMissCount()).isOne();
+    }
+
+    cache.clear();
+  }
+
+  @DisplayName("Closed containers do not acquire the index again")
+  @Test
+  void closedContainersDoNotAcquireIndexAgain() throws IOException {
+    // Given
+    var cache = new JarIndexCache(10);
+    var jar = new WrappingDirectoryImpl(createJar("foo.jar", "com/example/Foo.class"));
+    var container = new JarContainerImpl(StandardLocation.CLASS_PATH, jar, "17", cache);
+    container.getInnerPathRoot();
+    container.close();
+
+    // Then
+    assertThatThrownBy(container::getInnerPathRoot)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("is closed");
+    assertThat(cache.getMissCount()).isOne();
+    assertThat(cache.getHitCount()).isZero();
+
+    cache.clear();
+  }
+
+  private Path createJar(String name, String... entries) throws IOException {
+    var path = tempDir.resolve(name);
+    try (var zip = new ZipOutputStream(Files.newOutputStream(path))) {
+      for (var entry : entries) {
+        zip.putNextEntry(new ZipEntry(entry));
+        zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+        zip.closeEntry();
+      }
+    }
+    return path;
+  }
+}
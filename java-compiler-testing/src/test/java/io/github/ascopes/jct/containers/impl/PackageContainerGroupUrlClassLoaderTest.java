@@ -18,6 +18,7 @@ package io.github.ascopes.jct.containers.impl;
 import static io.github.ascopes.jct.fixtures.Fixtures.oneOf;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -150,6 +151,76 @@ class PackageContainerGroupUrlClassLoaderTest {
     }
   }
 
+  @DisplayName("The class loader is parallel capable")
+  @Test
+  void classLoaderIsParallelCapable() {
+    // Given
+    var group = mock(PackageContainerGroup.class);
+    when(group.getLocation()).thenReturn(oneOf(StandardLocation.class));
+    when(group.getPackages()).thenReturn(List.of());
+    var classLoader = new PackageContainerGroupUrlClassLoader(group);
+
+    // Then
+    assertThat(classLoader.isRegisteredAsParallelCapable()).isTrue();
+  }
+
+  @DisplayName("Classes in directories are defined directly from their paths")
+  @Test
+  void classesInDirectoriesAreDefinedDirectlyFromTheirPaths() throws Exception {
+    try (
+        var fs = Fixtures.someTemporaryFileSystem();
+        var emptyFs = Fixtures.someTemporaryFileSystem()
+    ) {
+      // Given
+      FOO_BAR_BAZ.writeClassFileToBaseDir(fs.getRootPath());
+
+      // The URL points somewhere empty, so the class can only be found via the path.
+      var emptyUrl = emptyFs.getRootPath().toUri().toURL();
+      var pathRoot = mock(PathRoot.class);
+      when(pathRoot.getPath()).thenReturn(fs.getRootPath());
+      when(pathRoot.getUrl()).thenReturn(emptyUrl);
+      var container = new PathWrappingContainerImpl(StandardLocation.CLASS_OUTPUT, pathRoot);
+
+      var group = mock(PackageContainerGroup.class);
+      when(group.getLocation()).thenReturn(StandardLocation.CLASS_OUTPUT);
+      when(group.getPackages()).thenReturn(List.of(container));
+
+      // When
+      var classLoader = new PackageContainerGroupUrlClassLoader(group);
+      var cls = classLoader.loadClass(FOO_BAR_BAZ.qualifiedName);
+
+      // Then
+      assertThat(cls.getClassLoader()).isSameAs(classLoader);
+      assertThat(cls.getPackage().getName()).isEqualTo(FOO_BAR_BAZ.packageName);
+      assertThat(cls.getProtectionDomain().getCodeSource().getLocation()).isEqualTo(emptyUrl);
+      assertThat(cls.getMethod("getName").invoke(cls.getConstructor().newInstance()))
+          .isEqualTo(FOO_BAR_BAZ.qualifiedName);
+    }
+  }
+
+  @DisplayName("Missing classes raise a ClassNotFoundException")
+  @Test
+  void missingClassesRaiseClassNotFoundException() throws IOException {
+    try (var fs = Fixtures.someTemporaryFileSystem()) {
+      // Given
+      var pathRoot = mock(PathRoot.class);
+      when(pathRoot.getPath()).thenReturn(fs.getRootPath());
+      when(pathRoot.getUrl()).thenReturn(fs.getRootPath().toUri().toURL());
+      var container = new PathWrappingContainerImpl(StandardLocation.CLASS_OUTPUT, pathRoot);
+
+      var group = mock(PackageContainerGroup.class);
+      when(group.getLocation()).thenReturn(StandardLocation.CLASS_OUTPUT);
+      when(group.getPackages()).thenReturn(List.of(container));
+
+      // When
+      var classLoader = new PackageContainerGroupUrlClassLoader(group);
+
+      // Then
+      assertThatThrownBy(() -> classLoader.loadClass("does.not.Exist"))
+          .isInstanceOf(ClassNotFoundException.class);
+    }
+  }
+
   private static Container createClassInTempFs(
       TempFileSystem fs,
       SomeClassFile classFile
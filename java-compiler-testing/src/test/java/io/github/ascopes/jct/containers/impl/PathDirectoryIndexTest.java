@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.containers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link PathDirectoryIndex} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("PathDirectoryIndex tests")
+class PathDirectoryIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName(".isRegularFile(Path) returns true for files that existed when indexed")
+  @Test
+  void isRegularFileReturnsTrueForFilesThatExistedWhenIndexed() throws IOException {
+    // Given
+    var file = createFile("com", "example", "Foo.java");
+    var index = new PathDirectoryIndex(tempDir);
+
+    // Then
+    assertThat(index.isRegularFile(file)).isTrue();
+    assertThat(index.isRegularFile(file.resolveSibling("Bar.java"))).isFalse();
+    assertThat(index.isRegularFile(tempDir.resolve("com").resolve("example"))).isFalse();
+  }
+
+  @DisplayName(".isRegularFile(Path) remembers files that do not exist")
+  @Test
+  void isRegularFileRemembersFilesThatDoNotExist() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var index = new PathDirectoryIndex(tempDir);
+    var bar = foo.resolveSibling("Bar.java");
+    assertThat(index.isRegularFile(bar)).isFalse();
+
+    // When
+    Files.writeString(bar, "");
+
+    // Then
+    assertThat(index.isRegularFile(bar)).isFalse();
+  }
+
+  @DisplayName(".isRegularFile(Path) resolves missing packages from the listing of their parent")
+  @Test
+  void isRegularFileResolvesMissingPackagesFromTheListingOfTheirParent() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var index = new PathDirectoryIndex(tempDir);
+    final var bar = tempDir.resolve("org").resolve("example").resolve("Bar.java");
+    final var baz = foo.resolveSibling("nested").resolve("Baz.java");
+    assertThat(index.isRegularFile(foo)).isTrue();
+
+    // When
+    createFile("org", "example", "Bar.java");
+    createFile("com", "example", "nested", "Baz.java");
+
+    // Then
+    // Neither package existed when its parent was listed, so the file system is never queried.
+    assertThat(index.isRegularFile(bar)).isFalse();
+    assertThat(index.isRegularFile(baz)).isFalse();
+  }
+
+  @DisplayName(".isRegularFile(Path) sees files created before they were invalidated")
+  @Test
+  void isRegularFileSeesFilesCreatedBeforeTheyWereInvalidated() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var index = new PathDirectoryIndex(tempDir);
+    var bar = foo.resolveSibling("Bar.java");
+    var baz = foo.resolveSibling("nested").resolve("deeper").resolve("Baz.java");
+    assertThat(index.isRegularFile(bar)).isFalse();
+    assertThat(index.isRegularFile(baz)).isFalse();
+
+    // When
+    createFile("com", "example", "Bar.java");
+    createFile("com", "example", "nested", "deeper", "Baz.java");
+    index.invalidate(bar);
+    index.invalidate(baz);
+
+    // Then
+    assertThat(index.isRegularFile(bar)).isTrue();
+    assertThat(index.isRegularFile(baz)).isTrue();
+  }
+
+  @DisplayName(".isRegularFile(Path) does not see files deleted before they were invalidated")
+  @Test
+  void isRegularFileDoesNotSeeFilesDeletedBeforeTheyWereInvalidated() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var index = new PathDirectoryIndex(tempDir);
+    assertThat(index.isRegularFile(foo)).isTrue();
+
+    // When
+    Files.delete(foo);
+    index.invalidate(foo);
+
+    // Then
+    assertThat(index.isRegularFile(foo)).isFalse();
+  }
+
+  @DisplayName(".isRegularFile(Path) checks the file system for paths outside the root")
+  @Test
+  void isRegularFileChecksTheFileSystemForPathsOutsideTheRoot() throws IOException {
+    // Given
+    var root = Files.createDirectory(tempDir.resolve("root"));
+    var index = new PathDirectoryIndex(root);
+
+    // When
+    var file = createFile("Foo.java");
+
+    // Then
+    assertThat(index.isRegularFile(file)).isTrue();
+  }
+
+  @DisplayName(".listFiles(Path, false) lists files in the given directory only")
+  @Test
+  void listFilesWithoutRecursionListsFilesInTheGivenDirectoryOnly() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var bar = createFile("com", "example", "Bar.java");
+    createFile("com", "example", "nested", "Baz.java");
+    createFile("com", "Bork.java");
+    var index = new PathDirectoryIndex(tempDir);
+
+    // When
+    var files = index.listFiles(tempDir.resolve("com").resolve("example"), false);
+
+    // Then
+    assertThat(files).containsExactlyInAnyOrder(foo, bar);
+  }
+
+  @DisplayName(".listFiles(Path, true) lists files in the given directory and subdirectories")
+  @Test
+  void listFilesWithRecursionListsFilesInTheGivenDirectoryAndSubdirectories() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.java");
+    var baz = createFile("com", "example", "nested", "Baz.java");
+    createFile("com", "Bork.java");
+    createFile("com", "examples", "Qux.java");
+    var index = new PathDirectoryIndex(tempDir);
+
+    // When
+    var files = index.listFiles(tempDir.resolve("com").resolve("example"), true);
+
+    // Then
+    assertThat(files).containsExactlyInAnyOrder(foo, baz);
+  }
+
+  @DisplayName(".listFiles(Path, boolean) reuses the listing until it is invalidated")
+  @Test
+  void listFilesReusesTheListingUntilItIsInvalidated() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.class");
+    var index = new PathDirectoryIndex(tempDir);
+    var directory = foo.getParent();
+    assertThat(index.listFiles(directory, false)).containsExactly(foo);
+    assertThat(index.listFiles(tempDir, true)).containsExactly(foo);
+
+    // When
+    var bar = createFile("com", "example", "Bar.class");
+    final var baz = createFile("com", "example", "nested", "Baz.class");
+
+    // Then
+    assertThat(index.listFiles(directory, false)).containsExactly(foo);
+    assertThat(index.listFiles(tempDir, true)).containsExactly(foo);
+
+    // When
+    index.invalidate(bar);
+    index.invalidate(baz);
+
+    // Then
+    assertThat(index.listFiles(directory, false)).containsExactlyInAnyOrder(foo, bar);
+    assertThat(index.listFiles(tempDir, true)).containsExactlyInAnyOrder(foo, bar, baz);
+  }
+
+  @DisplayName(".listFiles(Path, boolean) does not see files deleted before they were invalidated")
+  @Test
+  void listFilesDoesNotSeeFilesDeletedBeforeTheyWereInvalidated() throws IOException {
+    // Given
+    var foo = createFile("com", "example", "Foo.class");
+    var bar = createFile("com", "example", "nested", "Bar.class");
+    var index = new PathDirectoryIndex(tempDir);
+    assertThat(index.listFiles(tempDir, true)).containsExactlyInAnyOrder(foo, bar);
+
+    // When
+    Files.delete(bar);
+    Files.delete(bar.getParent());
+    index.invalidate(bar);
+
+    // Then
+    assertThat(index.listFiles(tempDir, true)).containsExactly(foo);
+    assertThat(index.listFiles(bar.getParent(), false)).isEmpty();
+  }
+
+  @DisplayName(".listFiles(Path, true) follows symbolic links to directories")
+  @Test
+  void listFilesFollowsSymbolicLinksToDirectories() throws IOException {
+    // Given
+    var foo = createFile("other", "Foo.java");
+    var root = Files.createDirectory(tempDir.resolve("root"));
+    var link = Files.createSymbolicLink(root.resolve("link"), foo.getParent());
+    var index = new PathDirectoryIndex(root);
+
+    // When
+    var files = index.listFiles(root, true);
+
+    // Then
+    assertThat(files).containsExactly(link.resolve("Foo.java"));
+  }
+
+  @DisplayName(".listFiles(Path, true) does not follow cyclic symbolic links")
+  @Test
+  void listFilesDoesNotFollowCyclicSymbolicLinks() throws IOException {
+    // Given
+    final var foo = createFile("a", "Foo.java");
+    final var bar = createFile("b", "Bar.java");
+    Files.createSymbolicLink(tempDir.resolve("a").resolve("parent"), tempDir);
+    Files.createSymbolicLink(tempDir.resolve("a").resolve("b"), tempDir.resolve("b"));
+    Files.createSymbolicLink(tempDir.resolve("b").resolve("a"), tempDir.resolve("a"));
+    var index = new PathDirectoryIndex(tempDir);
+
+    // When
+    var files = index.listFiles(tempDir, true);
+
+    // Then
+    assertThat(files)
+        .contains(foo, bar)
+        .doesNotHaveDuplicates()
+        .hasSizeLessThanOrEqualTo(4);
+  }
+
+  @DisplayName(".listFiles(Path, boolean) returns nothing if the root does not exist")
+  @Test
+  void listFilesReturnsNothingIfTheRootDoesNotExist() throws IOException {
+    // Given
+    var index = new PathDirectoryIndex(tempDir.resolve("does-not-exist"));
+
+    // Then
+    assertThat(index.listFiles(tempDir.resolve("does-not-exist"), true)).isEmpty();
+  }
+
+  private Path createFile(String... fragments) throws IOException {
+    var path = tempDir;
+    for (var fragment : fragments) {
+      path = path.resolve(fragment);
+    }
+    Files.createDirectories(path.getParent());
+    return Files.writeString(path, "");
+  }
+}
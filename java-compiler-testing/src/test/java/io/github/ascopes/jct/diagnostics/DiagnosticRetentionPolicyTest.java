@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.tools.Diagnostic.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link DiagnosticRetentionPolicy} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("DiagnosticRetentionPolicy tests")
+class DiagnosticRetentionPolicyTest {
+
+  @DisplayName(".keepAll() retains every diagnostic")
+  @EnumSource(Kind.class)
+  @ParameterizedTest(name = "for kind = {0}")
+  void keepAllRetainsEveryDiagnostic(Kind kind) {
+    // Given
+    var policy = DiagnosticRetentionPolicy.keepAll();
+
+    // Then
+    assertThat(policy.shouldRetain(kind, 0)).isTrue();
+    assertThat(policy.shouldRetain(kind, Long.MAX_VALUE)).isTrue();
+  }
+
+  @DisplayName(".firstPerKind(int) retains diagnostics with an index below the limit")
+  @CsvSource({
+      "0, 0, false",
+      "1, 0, true",
+      "1, 1, false",
+      "10, 9, true",
+      "10, 10, false",
+      "10, 11, false",
+  })
+  @ParameterizedTest(name = "for limit = {0}, index = {1}, expect {2}")
+  void firstPerKindRetainsDiagnosticsWithAnIndexBelowTheLimit(
+      int limit,
+      long index,
+      boolean expected
+  ) {
+    // Given
+    var policy = DiagnosticRetentionPolicy.firstPerKind(limit);
+
+    // Then
+    for (var kind : Kind.values()) {
+      assertThat(policy.shouldRetain(kind, index))
+          .as("shouldRetain(%s, %s)", kind, index)
+          .isEqualTo(expected);
+    }
+  }
+
+  @DisplayName(".firstPerKind(int) rejects negative limits")
+  @ValueSource(ints = {-1, -100, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "for limit = {0}")
+  void firstPerKindRejectsNegativeLimits(int limit) {
+    // Then
+    assertThatThrownBy(() -> DiagnosticRetentionPolicy.firstPerKind(limit))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("limit must not be negative");
+  }
+
+  @DisplayName(".errorsAndWarnings() retains errors and warnings")
+  @EnumSource(value = Kind.class, names = {"ERROR", "WARNING", "MANDATORY_WARNING"})
+  @ParameterizedTest(name = "for kind = {0}")
+  void errorsAndWarningsRetainsErrorsAndWarnings(Kind kind) {
+    // Given
+    var policy = DiagnosticRetentionPolicy.errorsAndWarnings();
+
+    // Then
+    assertThat(policy.shouldRetain(kind, Long.MAX_VALUE)).isTrue();
+  }
+
+  @DisplayName(".errorsAndWarnings() does not retain other diagnostics")
+  @EnumSource(value = Kind.class, names = {"NOTE", "OTHER"})
+  @ParameterizedTest(name = "for kind = {0}")
+  void errorsAndWarningsDoesNotRetainOtherDiagnostics(Kind kind) {
+    // Given
+    var policy = DiagnosticRetentionPolicy.errorsAndWarnings();
+
+    // Then
+    assertThat(policy.shouldRetain(kind, 0)).isFalse();
+  }
+}
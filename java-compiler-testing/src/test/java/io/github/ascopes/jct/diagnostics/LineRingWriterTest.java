@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static io.github.ascopes.jct.fixtures.Fixtures.someText;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link LineRingWriter} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("LineRingWriter tests")
+@SuppressWarnings("resource")
+class LineRingWriterTest {
+
+  @DisplayName("A maximum number of lines less than 1 is disallowed")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "for maxLines = {0}")
+  void maxLinesLessThanOneIsDisallowed(int maxLines) {
+    // Then
+    assertThatThrownBy(() -> new LineRingWriter(maxLines))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxLines must be at least 1");
+  }
+
+  @DisplayName(".getMaxLines() returns the maximum number of lines")
+  @Test
+  void getMaxLinesReturnsTheMaximumNumberOfLines() {
+    // Given
+    var writer = new LineRingWriter(123);
+
+    // Then
+    assertThat(writer.getMaxLines()).isEqualTo(123);
+  }
+
+  @DisplayName(".getLines() returns an empty list if nothing was written")
+  @Test
+  void getLinesReturnsAnEmptyListIfNothingWasWritten() {
+    // Given
+    var writer = new LineRingWriter(10);
+
+    // Then
+    assertThat(writer.getLines()).isEmpty();
+    assertThat(writer.getDiscardedLineCount()).isZero();
+  }
+
+  @DisplayName(".getLines() splits lines in the same way as String.lines()")
+  @ValueSource(strings = {
+      "foo",
+      "foo\nbar",
+      "foo\nbar\n",
+      "foo\r\nbar\r\n",
+      "foo\rbar\r",
+      "foo\n\nbar",
+      "foo\r\r\nbar",
+      "\nfoo",
+  })
+  @ParameterizedTest(name = "for content {0}")
+  void getLinesSplitsLinesInTheSameWayAsStringLines(String content) throws IOException {
+    // Given
+    var writer = new LineRingWriter(100);
+
+    // When
+    writer.write(content);
+
+    // Then
+    assertThat(writer.getLines()).containsExactlyElementsOf(content.lines().toList());
+  }
+
+  @DisplayName(".getLines() handles line terminators split across writes")
+  @Test
+  void getLinesHandlesLineTerminatorsSplitAcrossWrites() throws IOException {
+    // Given
+    var writer = new LineRingWriter(100);
+
+    // When
+    writer.write("foo\r");
+    writer.write("\nba");
+    writer.write("r\r");
+    writer.write("baz");
+
+    // Then
+    assertThat(writer.getLines()).containsExactly("foo", "bar", "baz");
+  }
+
+  @DisplayName(".getLines() only returns the most recent lines")
+  @Test
+  void getLinesOnlyReturnsTheMostRecentLines() throws IOException {
+    // Given
+    var writer = new LineRingWriter(3);
+
+    // When
+    for (var i = 0; i < 10; ++i) {
+      writer.write("line " + i + "\n");
+    }
+
+    // Then
+    assertThat(writer.getLines()).containsExactly("line 7", "line 8", "line 9");
+    assertThat(writer.getDiscardedLineCount()).isEqualTo(7);
+  }
+
+  @DisplayName(".getLines() includes an incomplete trailing line within the limit")
+  @Test
+  void getLinesIncludesAnIncompleteTrailingLineWithinTheLimit() throws IOException {
+    // Given
+    var writer = new LineRingWriter(2);
+
+    // When
+    writer.write("foo\nbar\nbaz");
+
+    // Then
+    assertThat(writer.getLines()).containsExactly("bar", "baz");
+  }
+
+  @DisplayName(".getLines() returns an immutable copy")
+  @Test
+  void getLinesReturnsAnImmutableCopy() throws IOException {
+    // Given
+    var writer = new LineRingWriter(10);
+    writer.write("foo\n");
+
+    // When
+    var lines = writer.getLines();
+    writer.write("bar\n");
+
+    // Then
+    assertThat(lines).containsExactly("foo");
+    assertThatThrownBy(() -> lines.add("baz"))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName(".write() fails if the writer is closed")
+  @Test
+  void writeFailsIfTheWriterIsClosed() {
+    // Given
+    var writer = new LineRingWriter(10);
+    var text = someText();
+    writer.close();
+
+    // Then
+    assertThatThrownBy(() -> writer.write(text))
+        .isInstanceOf(IOException.class)
+        .hasMessage("LineRingWriter is closed");
+    assertThat(writer.getLines()).isEmpty();
+  }
+
+  @DisplayName(".flush() fails if the writer is closed")
+  @Test
+  void flushFailsIfTheWriterIsClosed() {
+    // Given
+    var writer = new LineRingWriter(10);
+    writer.close();
+
+    // Then
+    assertThatThrownBy(writer::flush)
+        .isInstanceOf(IOException.class)
+        .hasMessage("LineRingWriter is closed");
+  }
+
+  @DisplayName(".toString() joins the lines")
+  @Test
+  void toStringJoinsTheLines() throws IOException {
+    // Given
+    var writer = new LineRingWriter(10);
+    writer.write("foo\r\nbar\nbaz");
+
+    // Then
+    assertThat(writer).hasToString("foo\nbar\nbaz");
+  }
+
+  @DisplayName("Concurrent writes of whole lines do not lose or corrupt lines")
+  @Test
+  void concurrentWritesOfWholeLinesDoNotLoseOrCorruptLines() throws Exception {
+    // Given
+    var writer = new LineRingWriter(10_000);
+    var executor = Executors.newFixedThreadPool(4);
+    var latch = new CountDownLatch(1);
+
+    try {
+      // When
+      var futures = IntStream.range(0, 4)
+          .mapToObj(thread -> executor.submit(() -> {
+            latch.await();
+            for (var i = 0; i < 500; ++i) {
+              writer.write("thread " + thread + " line " + i + "\n");
+            }
+            return null;
+          }))
+          .toList();
+
+      latch.countDown();
+
+      for (var future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertThat(writer.getLines())
+        .hasSize(2_000)
+        .allMatch(line -> line.matches("thread \\d line \\d+"));
+  }
+}
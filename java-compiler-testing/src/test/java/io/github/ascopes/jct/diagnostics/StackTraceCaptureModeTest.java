@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.filemanagers.LoggingMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * {@link StackTraceCaptureMode} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("StackTraceCaptureMode tests")
+class StackTraceCaptureModeTest {
+
+  @DisplayName(".forLoggingMode(LoggingMode) returns the expected capture mode")
+  @CsvSource({
+      "DISABLED,       NONE",
+      "ENABLED,     LIMITED",
+      "AGGREGATE,   LIMITED",
+      "STACKTRACES,    FULL",
+  })
+  @ParameterizedTest(name = "LoggingMode.{0} should use StackTraceCaptureMode.{1}")
+  void forLoggingModeReturnsTheExpectedCaptureMode(
+      LoggingMode loggingMode,
+      StackTraceCaptureMode expectedMode
+  ) {
+    // Then
+    assertThat(StackTraceCaptureMode.forLoggingMode(loggingMode)).isEqualTo(expectedMode);
+  }
+
+  @DisplayName(".forLoggingMode(null) throws a NullPointerException")
+  @SuppressWarnings("NullAway")
+  @Test
+  void forLoggingModeNullThrowsNullPointerException() {
+    // Then
+    assertThatThrownBy(() -> StackTraceCaptureMode.forLoggingMode(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("loggingMode");
+  }
+}
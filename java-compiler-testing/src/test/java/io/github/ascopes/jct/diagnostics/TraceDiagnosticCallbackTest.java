@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.diagnostics;
+
+import static io.github.ascopes.jct.fixtures.Fixtures.someTraceDiagnostic;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback.Action;
+import javax.tools.Diagnostic.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * {@link TraceDiagnosticCallback} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("TraceDiagnosticCallback tests")
+class TraceDiagnosticCallbackTest {
+
+  @DisplayName(".retainAll() retains every diagnostic")
+  @EnumSource(Kind.class)
+  @ParameterizedTest(name = "for kind = {0}")
+  void retainAllRetainsEveryDiagnostic(Kind kind) {
+    // Given
+    var diagnostic = someTraceDiagnostic();
+    when(diagnostic.getKind()).thenReturn(kind);
+
+    // Then
+    assertThat(TraceDiagnosticCallback.retainAll().onDiagnostic(diagnostic))
+        .isEqualTo(Action.RETAIN);
+  }
+
+  @DisplayName(".abortOnFirstError() aborts on errors")
+  @Test
+  void abortOnFirstErrorAbortsOnErrors() {
+    // Given
+    var diagnostic = someTraceDiagnostic();
+    when(diagnostic.getKind()).thenReturn(Kind.ERROR);
+
+    // Then
+    assertThat(TraceDiagnosticCallback.abortOnFirstError().onDiagnostic(diagnostic))
+        .isEqualTo(Action.ABORT);
+  }
+
+  @DisplayName(".abortOnFirstError() retains non-errors")
+  @EnumSource(value = Kind.class, mode = EnumSource.Mode.EXCLUDE, names = "ERROR")
+  @ParameterizedTest(name = "for kind = {0}")
+  void abortOnFirstErrorRetainsNonErrors(Kind kind) {
+    // Given
+    var diagnostic = someTraceDiagnostic();
+    when(diagnostic.getKind()).thenReturn(kind);
+
+    // Then
+    assertThat(TraceDiagnosticCallback.abortOnFirstError().onDiagnostic(diagnostic))
+        .isEqualTo(Action.RETAIN);
+  }
+
+  @DisplayName(".abortOnError(Predicate) only aborts on errors that match the predicate")
+  @Test
+  void abortOnErrorOnlyAbortsOnErrorsThatMatchThePredicate() {
+    // Given
+    var matching = someTraceDiagnostic();
+    when(matching.getKind()).thenReturn(Kind.ERROR);
+    when(matching.getCode()).thenReturn("compiler.err.foo");
+
+    var notMatching = someTraceDiagnostic();
+    when(notMatching.getKind()).thenReturn(Kind.ERROR);
+    when(notMatching.getCode()).thenReturn("compiler.err.bar");
+
+    var warning = someTraceDiagnostic();
+    when(warning.getKind()).thenReturn(Kind.WARNING);
+    when(warning.getCode()).thenReturn("compiler.err.foo");
+
+    var callback = TraceDiagnosticCallback.abortOnError(
+        diagnostic -> "compiler.err.foo".equals(diagnostic.getCode())
+    );
+
+    // Then
+    assertThat(callback.onDiagnostic(matching)).isEqualTo(Action.ABORT);
+    assertThat(callback.onDiagnostic(notMatching)).isEqualTo(Action.RETAIN);
+    assertThat(callback.onDiagnostic(warning)).isEqualTo(Action.RETAIN);
+  }
+
+  @DisplayName(".abortOnError(null) throws a NullPointerException")
+  @SuppressWarnings("NullAway")
+  @Test
+  void abortOnErrorNullThrowsNullPointerException() {
+    // Then
+    assertThatThrownBy(() -> TraceDiagnosticCallback.abortOnError(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("predicate");
+  }
+}
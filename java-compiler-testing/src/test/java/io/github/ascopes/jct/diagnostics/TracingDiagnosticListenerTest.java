@@ -20,27 +20,37 @@ import static io.github.ascopes.jct.fixtures.Fixtures.someDiagnostic;
 import static io.github.ascopes.jct.fixtures.Fixtures.someLong;
 import static io.github.ascopes.jct.fixtures.Fixtures.someRealStackTrace;
 import static io.github.ascopes.jct.fixtures.Fixtures.someText;
+import static io.github.ascopes.jct.fixtures.Fixtures.someTraceDiagnostic;
 import static java.util.Locale.ROOT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.ascopes.jct.ex.JctCompilationAbortedException;
 import io.github.ascopes.jct.fixtures.Slf4jLoggerFake;
 import io.github.ascopes.jct.utils.LoomPolyfill;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -81,6 +91,384 @@ class TracingDiagnosticListenerTest {
     assertThat(listener.isStackTraceReportingEnabled()).isEqualTo(stackTraces);
   }
 
+  @DisplayName("getStackTraceCaptureMode() defaults to the expected value")
+  @CsvSource({
+      "false, false,    NONE",
+      "false,  true,    NONE",
+      " true, false, LIMITED",
+      " true,  true,    FULL",
+  })
+  @ParameterizedTest(name = "when logging = {0} and stackTraces = {1}, expect {2}")
+  void getStackTraceCaptureModeDefaultsToTheExpectedValue(
+      boolean logging,
+      boolean stackTraces,
+      StackTraceCaptureMode expectedMode
+  ) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(logging, stackTraces);
+
+    // Then
+    assertThat(listener.getStackTraceCaptureMode()).isEqualTo(expectedMode);
+  }
+
+  @DisplayName("getStackTraceCaptureMode() returns the explicitly provided value")
+  @EnumSource(StackTraceCaptureMode.class)
+  @ParameterizedTest(name = "for {0}")
+  void getStackTraceCaptureModeReturnsTheExplicitlyProvidedValue(StackTraceCaptureMode mode) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean(), mode);
+
+    // Then
+    assertThat(listener.getStackTraceCaptureMode()).isEqualTo(mode);
+  }
+
+  @DisplayName("No stack trace is captured when the capture mode is NONE")
+  @Test
+  void noStackTraceIsCapturedWhenTheCaptureModeIsNone() {
+    // Given
+    var currentThread = mock(Thread.class);
+    var listener = new TracingDiagnosticListener<>(
+        LoggerFactory.getLogger(TracingDiagnosticListenerTest.class),
+        () -> currentThread,
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.keepAll()
+    );
+
+    var originalDiagnostic = someDiagnostic();
+
+    // When
+    listener.report(originalDiagnostic);
+
+    // Then
+    verify(currentThread, never()).getStackTrace();
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(TraceDiagnostic::getStackTrace, list(StackTraceElement.class))
+        .isEmpty();
+  }
+
+  @DisplayName("A limited stack trace is captured when the capture mode is LIMITED")
+  @Test
+  void limitedStackTraceIsCapturedWhenTheCaptureModeIsLimited() {
+    // Given
+    var currentThread = mock(Thread.class);
+    var listener = new TracingDiagnosticListener<>(
+        LoggerFactory.getLogger(TracingDiagnosticListenerTest.class),
+        () -> currentThread,
+        false,
+        false,
+        StackTraceCaptureMode.LIMITED,
+        TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.keepAll()
+    );
+
+    var originalDiagnostic = someDiagnostic();
+
+    // When
+    listener.report(originalDiagnostic);
+
+    // Then
+    verify(currentThread, never()).getStackTrace();
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(TraceDiagnostic::getStackTrace, list(StackTraceElement.class))
+        .hasSizeLessThanOrEqualTo(TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT)
+        .first()
+        .satisfies(
+            frame -> assertThat(frame.getClassName())
+                .isEqualTo(TracingDiagnosticListenerTest.class.getName()),
+            frame -> assertThat(frame.getMethodName())
+                .isEqualTo("limitedStackTraceIsCapturedWhenTheCaptureModeIsLimited")
+        );
+  }
+
+  @DisplayName("A limited stack trace respects the configured stack trace limit")
+  @ValueSource(ints = {1, 2, 3})
+  @ParameterizedTest(name = "for stackTraceLimit = {0}")
+  void limitedStackTraceRespectsTheConfiguredStackTraceLimit(int stackTraceLimit) {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.LIMITED,
+        stackTraceLimit,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.keepAll()
+    );
+
+    // When
+    listener.report(someDiagnostic());
+
+    // Then
+    assertThat(listener.getStackTraceLimit()).isEqualTo(stackTraceLimit);
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(TraceDiagnostic::getStackTrace, list(StackTraceElement.class))
+        .hasSize(stackTraceLimit);
+  }
+
+  @DisplayName("getStackTraceLimit() defaults to the expected value")
+  @Test
+  void getStackTraceLimitDefaultsToTheExpectedValue() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getStackTraceLimit())
+        .isEqualTo(TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT);
+  }
+
+  @DisplayName("Initializing with a stack trace limit less than 1 raises an exception")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  @ParameterizedTest(name = "for stackTraceLimit = {0}")
+  void initializingWithStackTraceLimitLessThanOneRaisesAnException(int stackTraceLimit) {
+    // Then
+    assertThatThrownBy(() -> new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        StackTraceCaptureMode.LIMITED,
+        stackTraceLimit,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.keepAll()
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("stackTraceLimit must be at least 1");
+  }
+
+  @DisplayName("getCallback() returns the callback")
+  @Test
+  void getCallbackReturnsTheCallback() {
+    // Given
+    var callback = mock(TraceDiagnosticCallback.class);
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        StackTraceCaptureMode.NONE,
+        callback,
+        DiagnosticRetentionPolicy.keepAll()
+    );
+
+    // Then
+    assertThat(listener.getCallback()).isSameAs(callback);
+  }
+
+  @DisplayName("getCallback() defaults to retaining all diagnostics")
+  @Test
+  void getCallbackDefaultsToRetainingAllDiagnostics() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getCallback().onDiagnostic(someTraceDiagnostic()))
+        .isEqualTo(TraceDiagnosticCallback.Action.RETAIN);
+  }
+
+  @DisplayName("The callback is invoked with each diagnostic as it is reported")
+  @Test
+  void theCallbackIsInvokedWithEachDiagnosticAsItIsReported() {
+    // Given
+    var callback = mock(TraceDiagnosticCallback.class);
+    when(callback.onDiagnostic(any())).thenReturn(TraceDiagnosticCallback.Action.RETAIN);
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        callback,
+        DiagnosticRetentionPolicy.keepAll()
+    );
+    var originalDiagnostic = someDiagnostic();
+
+    // When
+    listener.report(originalDiagnostic);
+
+    // Then
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .satisfies(diagnostic -> verify(callback).onDiagnostic(diagnostic));
+  }
+
+  @DisplayName("Diagnostics discarded by the callback are not retained")
+  @Test
+  void diagnosticsDiscardedByTheCallbackAreNotRetained() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        diagnostic -> TraceDiagnosticCallback.Action.DISCARD,
+        DiagnosticRetentionPolicy.keepAll()
+    );
+
+    // When
+    listener.report(someDiagnostic());
+
+    // Then
+    assertThat(listener.getDiagnostics()).isEmpty();
+  }
+
+  @DisplayName("Diagnostics that abort the compilation are retained and then raise an exception")
+  @Test
+  void diagnosticsThatAbortTheCompilationAreRetainedAndThenRaiseAnException() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        diagnostic -> TraceDiagnosticCallback.Action.ABORT,
+        DiagnosticRetentionPolicy.keepAll()
+    );
+    var originalDiagnostic = someDiagnostic();
+    when(originalDiagnostic.getMessage(ROOT)).thenReturn("bad things happened");
+
+    // Then
+    assertThatThrownBy(() -> listener.report(originalDiagnostic))
+        .isInstanceOf(JctCompilationAbortedException.class)
+        .hasMessage("Compilation aborted by diagnostic callback: bad things happened");
+    assertThat(listener.getDiagnostics())
+        .singleElement()
+        .extracting(diagnostic -> diagnostic.getMessage(ROOT))
+        .isEqualTo("bad things happened");
+  }
+
+  @DisplayName("getRetentionPolicy() returns the retention policy")
+  @Test
+  void getRetentionPolicyReturnsTheRetentionPolicy() {
+    // Given
+    var retentionPolicy = mock(DiagnosticRetentionPolicy.class);
+    var listener = new TracingDiagnosticListener<>(
+        someBoolean(),
+        someBoolean(),
+        StackTraceCaptureMode.NONE,
+        TraceDiagnosticCallback.retainAll(),
+        retentionPolicy
+    );
+
+    // Then
+    assertThat(listener.getRetentionPolicy()).isSameAs(retentionPolicy);
+  }
+
+  @DisplayName("getRetentionPolicy() defaults to keeping all diagnostics")
+  @Test
+  void getRetentionPolicyDefaultsToKeepingAllDiagnostics() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(someBoolean(), someBoolean());
+
+    // Then
+    assertThat(listener.getRetentionPolicy().shouldRetain(Kind.ERROR, Long.MAX_VALUE))
+        .isTrue();
+  }
+
+  @DisplayName("Diagnostics not retained by the retention policy are still counted")
+  @Test
+  void diagnosticsNotRetainedByTheRetentionPolicyAreStillCounted() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        TraceDiagnosticCallback.retainAll(),
+        DiagnosticRetentionPolicy.firstPerKind(2)
+    );
+
+    var warnings = Stream.generate(() -> someDiagnosticOfKind(Kind.WARNING))
+        .limit(5)
+        .collect(Collectors.toList());
+    var note = someDiagnosticOfKind(Kind.NOTE);
+
+    // When
+    warnings.forEach(listener::report);
+    listener.report(note);
+
+    // Then
+    assertThat(listener.getDiagnostics())
+        .map(TraceDiagnostic::getKind)
+        .containsExactly(Kind.WARNING, Kind.WARNING, Kind.NOTE);
+    assertThat(listener.getDiagnosticCounts())
+        .containsExactlyInAnyOrderEntriesOf(Map.of(Kind.WARNING, 5L, Kind.NOTE, 1L));
+  }
+
+  @DisplayName("The retention policy is passed the index of each diagnostic within its kind")
+  @Test
+  void theRetentionPolicyIsPassedTheIndexOfEachDiagnosticWithinItsKind() {
+    // Given
+    var retentionPolicy = mock(DiagnosticRetentionPolicy.class);
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        TraceDiagnosticCallback.retainAll(),
+        retentionPolicy
+    );
+
+    // When
+    listener.report(someDiagnosticOfKind(Kind.ERROR));
+    listener.report(someDiagnosticOfKind(Kind.NOTE));
+    listener.report(someDiagnosticOfKind(Kind.ERROR));
+
+    // Then
+    var inOrder = inOrder(retentionPolicy);
+    inOrder.verify(retentionPolicy).shouldRetain(Kind.ERROR, 0);
+    inOrder.verify(retentionPolicy).shouldRetain(Kind.NOTE, 0);
+    inOrder.verify(retentionPolicy).shouldRetain(Kind.ERROR, 1);
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @DisplayName("Diagnostics discarded by the callback are counted but not passed to the policy")
+  @Test
+  void diagnosticsDiscardedByTheCallbackAreCountedButNotPassedToThePolicy() {
+    // Given
+    var retentionPolicy = mock(DiagnosticRetentionPolicy.class);
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        diagnostic -> TraceDiagnosticCallback.Action.DISCARD,
+        retentionPolicy
+    );
+
+    // When
+    listener.report(someDiagnosticOfKind(Kind.ERROR));
+
+    // Then
+    verifyNoInteractions(retentionPolicy);
+    assertThat(listener.getDiagnostics()).isEmpty();
+    assertThat(listener.getDiagnosticCounts())
+        .containsExactlyInAnyOrderEntriesOf(Map.of(Kind.ERROR, 1L));
+  }
+
+  @DisplayName("Diagnostics that abort the compilation are retained regardless of the policy")
+  @Test
+  void diagnosticsThatAbortTheCompilationAreRetainedRegardlessOfThePolicy() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(
+        false,
+        false,
+        StackTraceCaptureMode.NONE,
+        diagnostic -> TraceDiagnosticCallback.Action.ABORT,
+        DiagnosticRetentionPolicy.firstPerKind(0)
+    );
+
+    // Then
+    assertThatThrownBy(() -> listener.report(someDiagnosticOfKind(Kind.ERROR)))
+        .isInstanceOf(JctCompilationAbortedException.class);
+    assertThat(listener.getDiagnostics()).hasSize(1);
+  }
+
+  @DisplayName("getDiagnosticCounts() returns an empty map when nothing was reported")
+  @Test
+  void getDiagnosticCountsReturnsAnEmptyMapWhenNothingWasReported() {
+    // Given
+    var listener = new TracingDiagnosticListener<>(false, false);
+
+    // Then
+    assertThat(listener.getDiagnosticCounts()).isEmpty();
+  }
+
   @DisplayName("getDiagnostics() returns a copy")
   @Test
   void getDiagnosticsReturnsCopy() {
@@ -484,6 +872,12 @@ class TracingDiagnosticListenerTest {
     return () -> thread;
   }
 
+  static Diagnostic<JavaFileObject> someDiagnosticOfKind(Kind kind) {
+    var diagnostic = someDiagnostic();
+    when(diagnostic.getKind()).thenReturn(kind);
+    return diagnostic;
+  }
+
   static class AccessibleImpl<T extends JavaFileObject> extends TracingDiagnosticListener<T> {
 
     AccessibleImpl(
@@ -494,7 +888,11 @@ class TracingDiagnosticListenerTest {
           LoggerFactory.getLogger(AccessibleImpl.class),
           dummyThreadSupplier(),
           logging,
-          stackTraces
+          stackTraces,
+          StackTraceCaptureMode.FULL,
+          TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+          TraceDiagnosticCallback.retainAll(),
+          DiagnosticRetentionPolicy.keepAll()
       );
     }
 
@@ -507,7 +905,11 @@ class TracingDiagnosticListenerTest {
           logger,
           dummyThreadSupplier(),
           logging,
-          stackTraces
+          stackTraces,
+          StackTraceCaptureMode.FULL,
+          TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+          TraceDiagnosticCallback.retainAll(),
+          DiagnosticRetentionPolicy.keepAll()
       );
     }
 
@@ -520,7 +922,11 @@ class TracingDiagnosticListenerTest {
           LoggerFactory.getLogger(AccessibleImpl.class),
           currentThreadSupplier,
           logging,
-          stackTraces
+          stackTraces,
+          StackTraceCaptureMode.FULL,
+          TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+          TraceDiagnosticCallback.retainAll(),
+          DiagnosticRetentionPolicy.keepAll()
       );
     }
 
@@ -534,7 +940,11 @@ class TracingDiagnosticListenerTest {
           logger,
           currentThreadSupplier,
           logging,
-          stackTraces
+          stackTraces,
+          StackTraceCaptureMode.FULL,
+          TracingDiagnosticListener.DEFAULT_STACK_TRACE_LIMIT,
+          TraceDiagnosticCallback.retainAll(),
+          DiagnosticRetentionPolicy.keepAll()
       );
     }
   }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link JvmEnvironmentSnapshot} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JvmEnvironmentSnapshot tests")
+class JvmEnvironmentSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @DisplayName(".current() returns the same snapshot while the JVM paths are unchanged")
+  @Test
+  void currentReturnsSameSnapshotWhileJvmPathsAreUnchanged() {
+    // When
+    var first = JvmEnvironmentSnapshot.current();
+    var second = JvmEnvironmentSnapshot.current();
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(first.getClassPath())
+        .map(PathRoot::getPath)
+        .containsExactlyElementsOf(SpecialLocationUtils.currentClassPathLocations());
+    assertThat(first.getModulePath())
+        .map(PathRoot::getPath)
+        .containsExactlyElementsOf(SpecialLocationUtils.currentModulePathLocations());
+    assertThat(first.getSystemModules())
+        .map(PathRoot::getPath)
+        .containsExactlyElementsOf(SpecialLocationUtils.javaRuntimeLocations());
+  }
+
+  @DisplayName(".orCurrent(...) returns the given snapshot if one is provided")
+  @Test
+  void orCurrentReturnsTheGivenSnapshotIfOneIsProvided() {
+    // Given
+    var snapshot = new JvmEnvironmentSnapshot("", "");
+
+    // Then
+    assertThat(JvmEnvironmentSnapshot.orCurrent(snapshot)).isSameAs(snapshot);
+  }
+
+  @DisplayName(".orCurrent(null) returns the current snapshot")
+  @Test
+  void orCurrentNullReturnsTheCurrentSnapshot() {
+    // Then
+    assertThat(JvmEnvironmentSnapshot.orCurrent(null)).isSameAs(JvmEnvironmentSnapshot.current());
+  }
+
+  @DisplayName("Only existing paths are included in the snapshot")
+  @Test
+  void onlyExistingPathsAreIncludedInTheSnapshot() throws IOException {
+    // Given
+    var foo = Files.createDirectory(tempDir.resolve("foo"));
+    var bar = tempDir.resolve("bar");
+    var baz = Files.createDirectory(tempDir.resolve("baz"));
+    var raw = String.join(File.pathSeparator, foo.toString(), bar.toString(), baz.toString());
+
+    // When
+    var snapshot = new JvmEnvironmentSnapshot(raw, "");
+
+    // Then
+    assertThat(snapshot.getClassPath())
+        .map(PathRoot::getPath)
+        .containsExactly(foo.toAbsolutePath(), baz.toAbsolutePath());
+    assertThat(snapshot.getModulePath()).isEmpty();
+  }
+
+  @DisplayName("Paths that contain no modules do not produce any discovered modules")
+  @Test
+  void pathsWithNoModulesDoNotProduceAnyDiscoveredModules() throws IOException {
+    // Given
+    var plainDirectory = Files.createDirectory(tempDir.resolve("not-a-module"));
+    var raw = plainDirectory.toString();
+
+    // When
+    var snapshot = new JvmEnvironmentSnapshot(raw, raw);
+
+    // Then
+    assertThat(snapshot.getClassPathModules()).isEmpty();
+    assertThat(snapshot.getModulePathModules()).isEmpty();
+  }
+}
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -183,6 +184,30 @@ class JctFileManagerConfigurerChainTest {
         .isSameAs(fileManager3);
   }
 
+  @DisplayName(".configure(..., metrics) records the time taken by each enabled configurer")
+  @Test
+  void configureRecordsTheTimeTakenByEachEnabledConfigurer() {
+    // Given
+    var fileManager = mock(JctFileManager.class);
+
+    var enabledConfigurer = new NoOpConfigurer();
+    var disabledConfigurer = mock(JctFileManagerConfigurer.class);
+    when(disabledConfigurer.isEnabled()).thenReturn(false);
+
+    var metrics = new JctCompilationMetricsCollector();
+
+    chain
+        .addLast(enabledConfigurer)
+        .addLast(disabledConfigurer);
+
+    // When
+    chain.configure(fileManager, metrics);
+
+    // Then
+    assertThat(metrics.toMetrics().getConfigurerTimes())
+        .containsOnlyKeys("NoOpConfigurer");
+  }
+
   @SafeVarargs
   @SuppressWarnings("unchecked")
   static <T> Answer<T> returnParameter(T... sentinel) {
@@ -194,4 +219,12 @@ class JctFileManagerConfigurerChainTest {
     }
     return ctx -> (T) ctx.getArgument(0, sentinel.getClass().getComponentType());
   }
+
+  static final class NoOpConfigurer implements JctFileManagerConfigurer {
+
+    @Override
+    public JctFileManager configure(JctFileManager fileManager) {
+      return fileManager;
+    }
+  }
 }
@@ -18,14 +18,14 @@ package io.github.ascopes.jct.filemanagers.config;
 import static io.github.ascopes.jct.fixtures.Fixtures.somePath;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
 import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.workspaces.PathRoot;
 import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.util.List;
 import javax.tools.StandardLocation;
@@ -54,6 +54,9 @@ class JctFileManagerJvmClassPathConfigurerTest {
   @Mock
   JctFileManagerImpl fileManager;
 
+  @Mock
+  JvmEnvironmentSnapshot environment;
+
   @InjectMocks
   JctFileManagerJvmClassPathConfigurer configurer;
 
@@ -61,30 +64,28 @@ class JctFileManagerJvmClassPathConfigurerTest {
   @Test
   void configureAddsTheClassPathToTheFileManager() {
     // Given
-    try (var specialLocationUtilsStatic = mockStatic(SpecialLocationUtils.class)) {
-      var paths = List.of(
-          somePath(),
-          somePath(),
-          somePath(),
-          somePath()
-      );
-
-      specialLocationUtilsStatic.when(SpecialLocationUtils::currentClassPathLocations)
-          .thenReturn(paths);
-
-      // When
-      configurer.configure(fileManager);
-
-      // Then
-      var captor = ArgumentCaptor.forClass(WrappingDirectoryImpl.class);
-
-      verify(fileManager, times(paths.size()))
-          .addPath(eq(StandardLocation.CLASS_PATH), captor.capture());
-
-      assertThat(captor.getAllValues())
-          .map(WrappingDirectoryImpl::getPath)
-          .containsExactlyElementsOf(paths);
-    }
+    var paths = List.of(
+        somePath(),
+        somePath(),
+        somePath(),
+        somePath()
+    );
+
+    when(environment.getClassPath())
+        .thenReturn(paths.stream().<PathRoot>map(WrappingDirectoryImpl::new).toList());
+
+    // When
+    configurer.configure(fileManager);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(WrappingDirectoryImpl.class);
+
+    verify(fileManager, times(paths.size()))
+        .addPath(eq(StandardLocation.CLASS_PATH), captor.capture());
+
+    assertThat(captor.getAllValues())
+        .map(WrappingDirectoryImpl::getPath)
+        .containsExactlyElementsOf(paths);
   }
 
   @DisplayName(".configure(...) returns the input file manager")
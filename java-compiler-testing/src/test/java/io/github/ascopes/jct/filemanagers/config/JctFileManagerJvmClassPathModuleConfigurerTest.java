@@ -17,20 +17,18 @@ package io.github.ascopes.jct.filemanagers.config;
 
 import static io.github.ascopes.jct.fixtures.Fixtures.somePath;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
-import io.github.ascopes.jct.utils.ModuleDiscoverer;
-import io.github.ascopes.jct.utils.ModuleDiscoverer.ModuleCandidate;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.workspaces.PathRoot;
+import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
 import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -57,6 +55,9 @@ class JctFileManagerJvmClassPathModuleConfigurerTest {
   @Mock
   JctFileManagerImpl fileManager;
 
+  @Mock
+  JvmEnvironmentSnapshot environment;
+
   @InjectMocks
   JctFileManagerJvmClassPathModuleConfigurer configurer;
 
@@ -66,49 +67,27 @@ class JctFileManagerJvmClassPathModuleConfigurerTest {
   @Test
   void configureAddsTheClassPathToTheFileManagerModulePath() {
     // Given
-    try (
-        var specialLocationUtilsStatic = mockStatic(SpecialLocationUtils.class);
-        var moduleDiscovererStatic = mockStatic(ModuleDiscoverer.class)
-    ) {
-
-      var path1 = somePath();
-      var modulePath1a = somePath();
-      var module1a = new ModuleCandidate("module1a", modulePath1a, mock());
-      var modulePath1b = somePath();
-      var module1b = new ModuleCandidate("module1b", modulePath1b, mock());
-
-      var path2 = somePath();
+    var module1a = new WrappingDirectoryImpl(somePath());
+    var module1b = new WrappingDirectoryImpl(somePath());
+    var module2a = new WrappingDirectoryImpl(somePath());
+    var module2b = new WrappingDirectoryImpl(somePath());
 
-      var path3 = somePath();
-      var modulePath3a = somePath();
-      var module3a = new ModuleCandidate("module3a", modulePath3a, mock());
-      var modulePath3b = somePath();
-      var module3b = new ModuleCandidate("module3b", modulePath3b, mock());
-      var modulePath3c = somePath();
-      var module3c = new ModuleCandidate("module3c", modulePath3c, mock());
+    var modules = new LinkedHashMap<String, List<PathRoot>>();
+    modules.put("module1", List.of(module1a, module1b));
+    modules.put("module2", List.of(module2a, module2b));
+    when(environment.getClassPathModules()).thenReturn(modules);
 
-      var path4 = somePath();
-
-      specialLocationUtilsStatic.when(SpecialLocationUtils::currentClassPathLocations)
-          .thenReturn(List.of(path1, path2, path3, path4));
-      moduleDiscovererStatic.when(() -> ModuleDiscoverer.findModulesIn(any()))
-          .thenReturn(Set.of());
-      moduleDiscovererStatic.when(() -> ModuleDiscoverer.findModulesIn(path1))
-          .thenReturn(Set.of(module1a, module1b));
-      moduleDiscovererStatic.when(() -> ModuleDiscoverer.findModulesIn(path3))
-          .thenReturn(Set.of(module3a, module3b, module3c));
-
-      // When
-      configurer.configure(fileManager);
+    // When
+    configurer.configure(fileManager);
 
-      // Then
-      verify(fileManager).addPath(StandardLocation.MODULE_PATH, module1a.createPathRoot());
-      verify(fileManager).addPath(StandardLocation.MODULE_PATH, module1b.createPathRoot());
-      verify(fileManager).addPath(StandardLocation.MODULE_PATH, module3a.createPathRoot());
-      verify(fileManager).addPath(StandardLocation.MODULE_PATH, module3b.createPathRoot());
-      verify(fileManager).addPath(StandardLocation.MODULE_PATH, module3c.createPathRoot());
-      verifyNoMoreInteractions(fileManager);
-    }
+    // Then
+    var module1 = new ModuleLocation(StandardLocation.MODULE_PATH, "module1");
+    var module2 = new ModuleLocation(StandardLocation.MODULE_PATH, "module2");
+    verify(fileManager).addPath(module1, module1a);
+    verify(fileManager).addPath(module1, module1b);
+    verify(fileManager).addPath(module2, module2a);
+    verify(fileManager).addPath(module2, module2b);
+    verifyNoMoreInteractions(fileManager);
   }
 
   @DisplayName(".configure(...) returns the input file manager")
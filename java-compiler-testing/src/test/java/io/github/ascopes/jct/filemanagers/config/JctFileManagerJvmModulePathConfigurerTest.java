@@ -17,18 +17,20 @@ package io.github.ascopes.jct.filemanagers.config;
 
 import static io.github.ascopes.jct.fixtures.Fixtures.somePath;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.JvmEnvironmentSnapshot;
+import io.github.ascopes.jct.filemanagers.ModuleLocation;
 import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
-import io.github.ascopes.jct.utils.SpecialLocationUtils;
+import io.github.ascopes.jct.workspaces.PathRoot;
 import io.github.ascopes.jct.workspaces.impl.WrappingDirectoryImpl;
 import java.util.List;
+import java.util.Map;
 import javax.tools.StandardLocation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -55,6 +57,9 @@ class JctFileManagerJvmModulePathConfigurerTest {
   @Mock
   JctFileManagerImpl fileManager;
 
+  @Mock
+  JvmEnvironmentSnapshot environment;
+
   @InjectMocks
   JctFileManagerJvmModulePathConfigurer configurer;
 
@@ -62,41 +67,42 @@ class JctFileManagerJvmModulePathConfigurerTest {
   @Test
   void configureAddsTheModulePathToTheFileManager() {
     // Given
-    try (var specialLocationUtilsStatic = mockStatic(SpecialLocationUtils.class)) {
-      var paths = List.of(
-          somePath(),
-          somePath(),
-          somePath(),
-          somePath()
-      );
-
-      specialLocationUtilsStatic.when(SpecialLocationUtils::currentModulePathLocations)
-          .thenReturn(paths);
-
-      // When
-      configurer.configure(fileManager);
-
-      // Then
-      var classPathCaptor = ArgumentCaptor.forClass(WrappingDirectoryImpl.class);
+    var paths = List.of(
+        somePath(),
+        somePath(),
+        somePath(),
+        somePath()
+    );
+    var module1 = new WrappingDirectoryImpl(somePath());
+    var module2 = new WrappingDirectoryImpl(somePath());
+
+    when(environment.getModulePath())
+        .thenReturn(paths.stream().<PathRoot>map(WrappingDirectoryImpl::new).toList());
+    when(environment.getModulePathModules())
+        .thenReturn(Map.of("module1", List.of(module1), "module2", List.of(module2)));
 
-      verify(fileManager, times(paths.size()))
-          .addPath(eq(StandardLocation.CLASS_PATH), classPathCaptor.capture());
-
-      var modulePathCaptor = ArgumentCaptor.forClass(WrappingDirectoryImpl.class);
-
-      verify(fileManager, times(paths.size()))
-          .addPath(eq(StandardLocation.MODULE_PATH), modulePathCaptor.capture());
-
-      assertSoftly(softly -> {
-        softly.assertThat(classPathCaptor.getAllValues())
-            .map(WrappingDirectoryImpl::getPath)
-            .containsExactlyElementsOf(paths);
+    // When
+    configurer.configure(fileManager);
 
-        softly.assertThat(modulePathCaptor.getAllValues())
-            .map(WrappingDirectoryImpl::getPath)
-            .containsExactlyElementsOf(paths);
-      });
-    }
+    // Then
+    var classPathCaptor = ArgumentCaptor.forClass(WrappingDirectoryImpl.class);
+
+    verify(fileManager, times(paths.size()))
+        .addPath(eq(StandardLocation.CLASS_PATH), classPathCaptor.capture());
+
+    assertThat(classPathCaptor.getAllValues())
+        .map(WrappingDirectoryImpl::getPath)
+        .containsExactlyElementsOf(paths);
+
+    verify(fileManager).addPath(
+        new ModuleLocation(StandardLocation.MODULE_PATH, "module1"),
+        module1
+    );
+    verify(fileManager).addPath(
+        new ModuleLocation(StandardLocation.MODULE_PATH, "module2"),
+        module2
+    );
+    verifyNoMoreInteractions(fileManager);
   }
 
   @DisplayName(".configure(...) returns the input file manager")
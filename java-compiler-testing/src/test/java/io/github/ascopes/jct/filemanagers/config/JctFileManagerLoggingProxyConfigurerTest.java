@@ -25,15 +25,15 @@ import static org.mockito.Mockito.when;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.LoggingMode;
+import io.github.ascopes.jct.filemanagers.impl.AggregatingFileManagerInterceptor;
 import io.github.ascopes.jct.filemanagers.impl.JctFileManagerImpl;
-import io.github.ascopes.jct.filemanagers.impl.LoggingFileManagerProxy;
+import io.github.ascopes.jct.filemanagers.impl.LoggingFileManagerInterceptor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
-import org.junit.jupiter.params.provider.EnumSource.Mode;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -69,8 +69,9 @@ class JctFileManagerLoggingProxyConfigurerTest {
   )
   void configureWillCopyAllWorkspacePathsToTheFileManager(LoggingMode mode, boolean stacktraces) {
     // Given
-    try (var loggingFileManagerProxyStatic = mockStatic(LoggingFileManagerProxy.class)) {
-      loggingFileManagerProxyStatic.when(() -> LoggingFileManagerProxy.wrap(any(), anyBoolean()))
+    try (var loggingInterceptorStatic = mockStatic(LoggingFileManagerInterceptor.class)) {
+      loggingInterceptorStatic
+          .when(() -> LoggingFileManagerInterceptor.wrap(any(), anyBoolean()))
           .thenReturn(proxiedFileManager);
 
       when(compiler.getFileManagerLoggingMode()).thenReturn(mode);
@@ -79,8 +80,33 @@ class JctFileManagerLoggingProxyConfigurerTest {
       configurer.configure(fileManager);
 
       // Then
-      loggingFileManagerProxyStatic
-          .verify(() -> LoggingFileManagerProxy.wrap(fileManager, stacktraces));
+      loggingInterceptorStatic
+          .verify(() -> LoggingFileManagerInterceptor.wrap(fileManager, stacktraces));
+    }
+  }
+
+  @DisplayName(".configure(...) will wrap the file manager in an aggregating proxy")
+  @Test
+  void configureWillWrapTheFileManagerInAnAggregatingProxy() {
+    // Given
+    try (var aggregatingInterceptorStatic = mockStatic(
+        AggregatingFileManagerInterceptor.class
+    )) {
+      aggregatingInterceptorStatic
+          .when(() -> AggregatingFileManagerInterceptor.wrap(any()))
+          .thenReturn(proxiedFileManager);
+
+      when(compiler.getFileManagerLoggingMode()).thenReturn(LoggingMode.AGGREGATE);
+
+      // When
+      var result = configurer.configure(fileManager);
+
+      // Then
+      aggregatingInterceptorStatic
+          .verify(() -> AggregatingFileManagerInterceptor.wrap(fileManager));
+      assertThat(result)
+          .isNotSameAs(fileManager)
+          .isSameAs(proxiedFileManager);
     }
   }
 
@@ -96,12 +122,13 @@ class JctFileManagerLoggingProxyConfigurerTest {
   }
 
   @DisplayName(".configure(...) returns the proxied file manager")
-  @EnumSource(value = LoggingMode.class, names = "DISABLED", mode = Mode.EXCLUDE)
+  @EnumSource(value = LoggingMode.class, names = {"ENABLED", "STACKTRACES"})
   @ParameterizedTest(name = "for logging mode = {0}")
   void configureReturnsTheProxiedFileManager(LoggingMode mode) {
     // Given
-    try (var loggingFileManagerProxyStatic = mockStatic(LoggingFileManagerProxy.class)) {
-      loggingFileManagerProxyStatic.when(() -> LoggingFileManagerProxy.wrap(any(), anyBoolean()))
+    try (var loggingInterceptorStatic = mockStatic(LoggingFileManagerInterceptor.class)) {
+      loggingInterceptorStatic
+          .when(() -> LoggingFileManagerInterceptor.wrap(any(), anyBoolean()))
           .thenReturn(proxiedFileManager);
       when(compiler.getFileManagerLoggingMode()).thenReturn(mode);
 
@@ -119,6 +146,7 @@ class JctFileManagerLoggingProxyConfigurerTest {
   @CsvSource({
       "STACKTRACES, true",
       "ENABLED, true",
+      "AGGREGATE, true",
       "DISABLED, false",
   })
   @ParameterizedTest(name = "returns {1} when logging mode is {0}")
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import java.io.IOException;
+import java.util.Set;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link AggregatingFileManagerInterceptor} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("AggregatingFileManagerInterceptor tests")
+@Isolated("Messes with static mocks")
+class AggregatingFileManagerInterceptorTest {
+
+  @DisplayName("Calls are counted per method")
+  @Test
+  void callsAreCountedPerMethod() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var interceptor = new AggregatingFileManagerInterceptor();
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // When
+    fileManager.hasLocation(StandardLocation.CLASS_PATH);
+    fileManager.hasLocation(StandardLocation.SOURCE_PATH);
+    fileManager.flush();
+
+    // Then
+    assertThat(interceptor.getCallCount(FileManagerMethod.HAS_LOCATION)).isEqualTo(2);
+    assertThat(interceptor.getCallCount(FileManagerMethod.FLUSH)).isOne();
+    assertThat(interceptor.getCallCount(FileManagerMethod.LIST)).isZero();
+    assertThat(interceptor.getTotalCallCount()).isEqualTo(3);
+  }
+
+  @DisplayName("Hits and misses are counted for lookup methods")
+  @Test
+  void hitsAndMissesAreCountedForLookupMethods() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var file = mock(FileObject.class);
+    given(impl.getFileForInput(StandardLocation.CLASS_PATH, "foo", "Bar.class"))
+        .willReturn(file);
+    given(impl.hasLocation(StandardLocation.CLASS_PATH)).willReturn(true);
+    given(impl.list(StandardLocation.CLASS_PATH, "foo", Set.of(), false))
+        .willReturn(Set.of(mock(JavaFileObject.class)));
+    var interceptor = new AggregatingFileManagerInterceptor();
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // When
+    fileManager.getFileForInput(StandardLocation.CLASS_PATH, "foo", "Bar.class");
+    fileManager.getFileForInput(StandardLocation.CLASS_PATH, "foo", "Baz.class");
+    fileManager.getFileForInput(StandardLocation.CLASS_PATH, "foo", "Bork.class");
+    fileManager.hasLocation(StandardLocation.CLASS_PATH);
+    fileManager.hasLocation(StandardLocation.SOURCE_PATH);
+    fileManager.list(StandardLocation.CLASS_PATH, "foo", Set.of(), false);
+    fileManager.list(StandardLocation.CLASS_PATH, "bar", Set.of(), false);
+    fileManager.flush();
+
+    // Then
+    assertThat(interceptor.getHitCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isOne();
+    assertThat(interceptor.getMissCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isEqualTo(2);
+    assertThat(interceptor.getHitCount(FileManagerMethod.HAS_LOCATION)).isOne();
+    assertThat(interceptor.getMissCount(FileManagerMethod.HAS_LOCATION)).isOne();
+    assertThat(interceptor.getHitCount(FileManagerMethod.LIST)).isOne();
+    assertThat(interceptor.getMissCount(FileManagerMethod.LIST)).isOne();
+    assertThat(interceptor.getHitCount(FileManagerMethod.FLUSH)).isZero();
+    assertThat(interceptor.getMissCount(FileManagerMethod.FLUSH)).isZero();
+  }
+
+  @DisplayName("Failures are counted and propagated")
+  @Test
+  void failuresAreCountedAndPropagated() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var ex = new IOException("bang");
+    given(impl.getFileForInput(StandardLocation.CLASS_PATH, "foo", "Bar.class"))
+        .willThrow(ex);
+    var interceptor = new AggregatingFileManagerInterceptor();
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // Then
+    assertThatThrownBy(() -> fileManager
+        .getFileForInput(StandardLocation.CLASS_PATH, "foo", "Bar.class"))
+        .isSameAs(ex);
+    assertThat(interceptor.getCallCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isOne();
+    assertThat(interceptor.getFailureCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isOne();
+    assertThat(interceptor.getHitCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isZero();
+    assertThat(interceptor.getMissCount(FileManagerMethod.GET_FILE_FOR_INPUT)).isZero();
+    assertThat(interceptor.getSummary()).contains("failures=1");
+  }
+
+  @DisplayName(".getSummary() describes each called method")
+  @Test
+  void getSummaryDescribesEachCalledMethod() {
+    // Given
+    var interceptor = new AggregatingFileManagerInterceptor();
+
+    // When
+    interceptor.afterReturning(FileManagerMethod.HAS_LOCATION, System.nanoTime(), true);
+    interceptor.afterReturning(FileManagerMethod.HAS_LOCATION, System.nanoTime(), false);
+    interceptor.afterReturning(FileManagerMethod.HAS_LOCATION, System.nanoTime(), true);
+    interceptor.afterReturning(FileManagerMethod.HAS_LOCATION, System.nanoTime(), true);
+    interceptor.afterReturning(FileManagerMethod.FLUSH, System.nanoTime(), null);
+
+    // Then
+    assertThat(interceptor.getSummary().lines())
+        .hasSize(3)
+        .first()
+        .asString()
+        .startsWith("File manager calls (5 calls, ")
+        .endsWith(" total):");
+    assertThat(interceptor.getSummary().lines())
+        .filteredOn(line -> line.startsWith("\thasLocation(Location): "))
+        .singleElement()
+        .asString()
+        .contains("calls=4, hits=3, misses=1, hitRate=75.0%, total=")
+        .contains(", p50<=", ", p90<=", ", p99<=", ", max=")
+        .doesNotContain("failures=");
+    assertThat(interceptor.getSummary().lines())
+        .filteredOn(line -> line.startsWith("\tflush(): "))
+        .singleElement()
+        .asString()
+        .startsWith("\tflush(): calls=1, total=")
+        .doesNotContain("hits=");
+  }
+
+  @DisplayName(".afterClose() logs a single summary and resets the statistics")
+  @Test
+  void afterCloseLogsOneSummaryAndResetsTheStatistics() throws IOException {
+    try (var loggerFactoryMockedStatic = mockStatic(LoggerFactory.class)) {
+      // Given
+      var logger = mock(Logger.class);
+      loggerFactoryMockedStatic.when(() -> LoggerFactory.getLogger(any(Class.class)))
+          .thenReturn(logger);
+      var impl = mock(JctFileManager.class);
+      var interceptor = new AggregatingFileManagerInterceptor();
+      var fileManager = new InterceptingFileManager(impl, interceptor);
+      fileManager.flush();
+      fileManager.hasLocation(StandardLocation.CLASS_PATH);
+
+      // When
+      fileManager.close();
+
+      // Then
+      var summaryCaptor = ArgumentCaptor.forClass(Object.class);
+      verify(impl).close();
+      verify(logger).info(eq("{}"), summaryCaptor.capture());
+      verifyNoMoreInteractions(logger);
+      assertThat(summaryCaptor.getValue())
+          .asString()
+          .startsWith("File manager calls (3 calls, ")
+          .contains("\tflush(): calls=1", "\tclose(): calls=1", "\thasLocation(Location): calls=1");
+      assertThat(interceptor.getTotalCallCount()).isZero();
+      assertThat(interceptor.getCallCount(FileManagerMethod.FLUSH)).isZero();
+    }
+  }
+
+  @DisplayName(".afterClose() does not log anything if no calls were made")
+  @Test
+  void afterCloseDoesNotLogAnythingIfNoCallsWereMade() {
+    try (var loggerFactoryMockedStatic = mockStatic(LoggerFactory.class)) {
+      // Given
+      var logger = mock(Logger.class);
+      loggerFactoryMockedStatic.when(() -> LoggerFactory.getLogger(any(Class.class)))
+          .thenReturn(logger);
+      var interceptor = new AggregatingFileManagerInterceptor();
+
+      // When
+      interceptor.afterClose();
+
+      // Then
+      verifyNoInteractions(logger);
+    }
+  }
+
+  @DisplayName(".formatNanos(long) formats durations with the expected unit")
+  @CsvSource({
+      "0,             0 ns",
+      "999,           999 ns",
+      "1000,          1.0 us",
+      "1560,          1.6 us",
+      "2500000,       2.5 ms",
+      "3210000000,    3.21 s",
+  })
+  @ParameterizedTest(name = "expect {0} to be formatted as {1}")
+  void formatNanosFormatsDurationsWithTheExpectedUnit(long nanos, String expected) {
+    // Then
+    assertThat(AggregatingFileManagerInterceptor.formatNanos(nanos)).isEqualTo(expected);
+  }
+
+  @DisplayName(".bucketFor(long) returns the power of two bucket for the latency")
+  @CsvSource({
+      "0,     0",
+      "1,     0",
+      "2,     1",
+      "3,     1",
+      "4,     2",
+      "1023,  9",
+      "1024,  10",
+      "9223372036854775807, 62",
+  })
+  @ParameterizedTest(name = "expect {0} to be in bucket {1}")
+  void bucketForReturnsThePowerOfTwoBucketForTheLatency(long nanos, int expected) {
+    // Then
+    assertThat(AggregatingFileManagerInterceptor.bucketFor(nanos)).isEqualTo(expected);
+  }
+
+  @DisplayName(".wrap(...) wraps the file manager in an intercepting file manager")
+  @Test
+  void wrapWrapsTheFileManagerInAnInterceptingFileManager() {
+    // Given
+    var impl = mock(JctFileManager.class);
+
+    // When
+    var result = AggregatingFileManagerInterceptor.wrap(impl);
+
+    // Then
+    assertThat(result)
+        .isInstanceOfSatisfying(InterceptingFileManager.class, fileManager -> {
+          assertThat(fileManager.getDelegate()).isSameAs(impl);
+          assertThat(fileManager.getInterceptor())
+              .isInstanceOf(AggregatingFileManagerInterceptor.class);
+        });
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import java.io.IOException;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CallCountingFileManagerInterceptor} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("CallCountingFileManagerInterceptor tests")
+class CallCountingFileManagerInterceptorTest {
+
+  @DisplayName("toString() returns the expected result")
+  @Test
+  void toStringReturnsTheExpectedResult() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var metrics = new JctCompilationMetricsCollector();
+    var proxy = CallCountingFileManagerInterceptor.wrap(impl, metrics);
+
+    // Then
+    assertThat(proxy)
+        .hasToString(
+            "InterceptingFileManager{delegate=%s, "
+                + "interceptor=CallCountingFileManagerInterceptor{metrics=%s}}",
+            impl,
+            metrics
+        );
+  }
+
+  @DisplayName("Calls are delegated to the implementation and counted")
+  @Test
+  void callsAreDelegatedToTheImplementationAndCounted() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    when(impl.hasLocation(StandardLocation.CLASS_PATH)).thenReturn(true);
+    when(impl.getEffectiveRelease()).thenReturn("17");
+    var metrics = new JctCompilationMetricsCollector();
+    var proxy = CallCountingFileManagerInterceptor.wrap(impl, metrics);
+
+    // When
+    var hasLocation1 = proxy.hasLocation(StandardLocation.CLASS_PATH);
+    var hasLocation2 = proxy.hasLocation(StandardLocation.SOURCE_PATH);
+    var release = proxy.getEffectiveRelease();
+
+    // Then
+    assertThat(hasLocation1).isTrue();
+    assertThat(hasLocation2).isFalse();
+    assertThat(release).isEqualTo("17");
+    verify(impl).hasLocation(StandardLocation.CLASS_PATH);
+    verify(impl).hasLocation(StandardLocation.SOURCE_PATH);
+    verify(impl).getEffectiveRelease();
+    assertThat(metrics.toMetrics().getFileManagerCallCounts())
+        .containsExactly(entry("getEffectiveRelease", 1L), entry("hasLocation", 2L));
+  }
+
+  @DisplayName("Arguments are not inspected")
+  @Test
+  void argumentsAreNotInspected() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var metrics = new JctCompilationMetricsCollector();
+    var proxy = (InterceptingFileManager) CallCountingFileManagerInterceptor.wrap(impl, metrics);
+
+    // Then
+    assertThat(proxy.getInterceptor().isInspectingArguments()).isFalse();
+  }
+
+  @DisplayName("Exceptions thrown by the implementation are propagated unwrapped")
+  @Test
+  void exceptionsThrownByTheImplementationArePropagatedUnwrapped() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var ex = new IOException("bang");
+    when(impl.getFileForInput(StandardLocation.CLASS_PATH, "foo", "bar")).thenThrow(ex);
+    var metrics = new JctCompilationMetricsCollector();
+    var proxy = CallCountingFileManagerInterceptor.wrap(impl, metrics);
+
+    // Then
+    assertThatThrownBy(() -> proxy.getFileForInput(StandardLocation.CLASS_PATH, "foo", "bar"))
+        .isSameAs(ex);
+    assertThat(metrics.toMetrics().getFileManagerCallCounts())
+        .containsExactly(entry("getFileForInput", 1L));
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.net.URI;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link FileContentCache} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("FileContentCache tests")
+class FileContentCacheTest {
+
+  @DisplayName("Negative limits are rejected")
+  @Test
+  void negativeLimitsAreRejected() {
+    // Then
+    assertThatThrownBy(() -> new FileContentCache(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxCachedChars cannot be negative");
+  }
+
+  @DisplayName(".get(...) returns the stored content while the attributes are unchanged")
+  @Test
+  void getReturnsTheStoredContentWhileTheAttributesAreUnchanged() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    var content = "class Foo {}";
+    cache.put(uri, attributes(12, 1_000), false, content);
+
+    // When
+    var result = cache.get(uri, attributes(12, 1_000), false);
+
+    // Then
+    assertThat(result).isSameAs(content);
+    assertThat(cache.getHitCount()).isOne();
+    assertThat(cache.getMissCount()).isZero();
+  }
+
+  @DisplayName(".get(...) returns null if the file has changed since it was stored")
+  @Test
+  void getReturnsNullIfTheFileHasChangedSinceItWasStored() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    cache.put(uri, attributes(12, 1_000), false, "class Foo {}");
+
+    // Then
+    assertThat(cache.get(uri, attributes(12, 2_000), false)).isNull();
+    assertThat(cache.get(uri, attributes(13, 1_000), false)).isNull();
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @DisplayName(".get(...) only returns leniently decoded content to lenient callers")
+  @Test
+  void getOnlyReturnsLenientlyDecodedContentToLenientCallers() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    cache.put(uri, attributes(12, 1_000), true, "class Foo {}");
+
+    // Then
+    assertThat(cache.get(uri, attributes(12, 1_000), false)).isNull();
+    assertThat(cache.get(uri, attributes(12, 1_000), true)).isEqualTo("class Foo {}");
+  }
+
+  @DisplayName(".get(...) returns strictly decoded content to lenient callers")
+  @Test
+  void getReturnsStrictlyDecodedContentToLenientCallers() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    cache.put(uri, attributes(12, 1_000), false, "class Foo {}");
+
+    // Then
+    assertThat(cache.get(uri, attributes(12, 1_000), true)).isEqualTo("class Foo {}");
+  }
+
+  @DisplayName(".put(...) evicts the least recently used entries when over the limit")
+  @Test
+  void putEvictsTheLeastRecentlyUsedEntriesWhenOverTheLimit() {
+    // Given
+    var cache = new FileContentCache(10);
+    var first = URI.create("file:///First.java");
+    var second = URI.create("file:///Second.java");
+    var third = URI.create("file:///Third.java");
+    cache.put(first, attributes(4, 1), false, "aaaa");
+    cache.put(second, attributes(4, 1), false, "bbbb");
+    cache.get(first, attributes(4, 1), false);
+
+    // When
+    cache.put(third, attributes(4, 1), false, "cccc");
+
+    // Then
+    assertThat(cache.get(first, attributes(4, 1), false)).isEqualTo("aaaa");
+    assertThat(cache.get(second, attributes(4, 1), false)).isNull();
+    assertThat(cache.get(third, attributes(4, 1), false)).isEqualTo("cccc");
+    assertThat(cache.getCachedChars()).isEqualTo(8);
+  }
+
+  @DisplayName(".put(...) does not store content that is larger than the limit")
+  @Test
+  void putDoesNotStoreContentThatIsLargerThanTheLimit() {
+    // Given
+    var cache = new FileContentCache(3);
+    var uri = URI.create("file:///Foo.java");
+
+    // When
+    cache.put(uri, attributes(4, 1), false, "aaaa");
+
+    // Then
+    assertThat(cache.get(uri, attributes(4, 1), false)).isNull();
+    assertThat(cache.getCachedChars()).isZero();
+  }
+
+  @DisplayName(".put(...) replaces existing entries for the same URI")
+  @Test
+  void putReplacesExistingEntriesForTheSameUri() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    cache.put(uri, attributes(4, 1), false, "aaaa");
+
+    // When
+    cache.put(uri, attributes(2, 2), false, "bb");
+
+    // Then
+    assertThat(cache.get(uri, attributes(2, 2), false)).isEqualTo("bb");
+    assertThat(cache.getCachedChars()).isEqualTo(2);
+  }
+
+  @DisplayName(".get(...) returns null if the file was replaced since it was stored")
+  @Test
+  void getReturnsNullIfTheFileWasReplacedSinceItWasStored() {
+    // Given
+    var cache = new FileContentCache(100);
+    var uri = URI.create("file:///Foo.java");
+    cache.put(uri, attributes("inode-1", 12, 1_000), false, "class Foo {}");
+
+    // Then
+    assertThat(cache.get(uri, attributes("inode-1", 12, 1_000), false)).isEqualTo("class Foo {}");
+    assertThat(cache.get(uri, attributes("inode-2", 12, 1_000), false)).isNull();
+  }
+
+  private static BasicFileAttributes attributes(long size, long lastModifiedMillis) {
+    return attributes(null, size, lastModifiedMillis);
+  }
+
+  private static BasicFileAttributes attributes(
+      @Nullable Object fileKey,
+      long size,
+      long lastModifiedMillis
+  ) {
+    var attributes = mock(BasicFileAttributes.class);
+    given(attributes.fileKey()).willReturn(fileKey);
+    given(attributes.size()).willReturn(size);
+    given(attributes.lastModifiedTime()).willReturn(FileTime.fromMillis(lastModifiedMillis));
+    return attributes;
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static io.github.ascopes.jct.fixtures.Fixtures.oneOf;
+import static io.github.ascopes.jct.fixtures.Fixtures.someBoolean;
+import static io.github.ascopes.jct.fixtures.Fixtures.someInt;
+import static io.github.ascopes.jct.fixtures.Fixtures.someLong;
+import static io.github.ascopes.jct.fixtures.Fixtures.someText;
+import static java.util.function.Predicate.not;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.withSettings;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.quality.Strictness;
+
+/**
+ * {@link InterceptingFileManager} tests.
+ *
+ * <p>Each method is tested reflectively, so these tests are a bit funky with a lot of Mockito
+ * voodoo.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("InterceptingFileManager tests")
+class InterceptingFileManagerTest {
+
+  @DisplayName("toString() returns the expected result")
+  @Test
+  void toStringReturnsTheExpectedResult() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var interceptor = mock(FileManagerInterceptor.class);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // Then
+    assertThat(fileManager)
+        .hasToString("InterceptingFileManager{delegate=%s, interceptor=%s}", impl, interceptor);
+  }
+
+  @DisplayName("Getters return the expected values")
+  @Test
+  void gettersReturnTheExpectedValues() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var interceptor = mock(FileManagerInterceptor.class);
+
+    // When
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // Then
+    assertThat(fileManager.getDelegate()).isSameAs(impl);
+    assertThat(fileManager.getInterceptor()).isSameAs(interceptor);
+  }
+
+  @DisplayName("Every method is described by exactly one FileManagerMethod")
+  @Test
+  void everyMethodIsDescribedByExactlyOneFileManagerMethod() {
+    // Given
+    var signatures = interceptedMethods()
+        .map(args -> describe((Method) args.get()[1]))
+        .collect(Collectors.toList());
+
+    // Then
+    assertThat(Stream.of(FileManagerMethod.values()).map(FileManagerMethod::toString))
+        .containsExactlyInAnyOrderElementsOf(signatures);
+  }
+
+  @DisplayName("Methods return the result of calling the delegate")
+  @MethodSource("interceptedMethods")
+  @ParameterizedTest(name = "for method {0}")
+  void methodsReturnTheDelegateResult(String ignored, Method method) throws Throwable {
+    // Given
+    var expectedParams = mockParams(method);
+    var expectedResult = isVoidReturnType(method) ? null : mockReturnType(method);
+    var impl = mock(JctFileManager.class, (ctx) -> expectedResult);
+    var fileManager = new InterceptingFileManager(impl, mock(FileManagerInterceptor.class));
+
+    // When
+    var actualResult = method.invoke(fileManager, expectedParams);
+
+    // Then
+    method.invoke(verify(impl), expectedParams);
+    assertThat(actualResult).satisfiesAnyOf(
+        actual -> assertThat(actual).isSameAs(expectedResult),
+        actual -> assertThat(actual).isEqualTo(expectedResult)
+    );
+    verifyNoMoreInteractions(impl);
+  }
+
+  @DisplayName("Methods notify the interceptor around calls to the delegate")
+  @MethodSource("interceptedMethods")
+  @ParameterizedTest(name = "for method {0}")
+  @SuppressWarnings("NullAway")
+  void methodsNotifyTheInterceptorAroundCalls(String ignored, Method method) throws Throwable {
+    // Given
+    var params = mockParams(method);
+    var expectedResult = isVoidReturnType(method) ? null : mockReturnType(method);
+    var impl = mock(JctFileManager.class, (ctx) -> expectedResult);
+    var interceptor = mock(FileManagerInterceptor.class);
+    var token = someLong(Long.MAX_VALUE);
+    given(interceptor.isInspectingArguments()).willReturn(true);
+    given(interceptor.before(any(), any())).willReturn(token);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // When
+    method.invoke(fileManager, params);
+
+    // Then
+    var methodCaptor = ArgumentCaptor.forClass(FileManagerMethod.class);
+    var argsCaptor = ArgumentCaptor.forClass(Object[].class);
+    var order = inOrder(interceptor, impl);
+    order.verify(interceptor).before(methodCaptor.capture(), argsCaptor.capture());
+    method.invoke(order.verify(impl), params);
+    order.verify(interceptor).afterReturning(methodCaptor.getValue(), token, expectedResult);
+    verify(interceptor, never()).afterThrowing(any(), eq(token), any());
+
+    assertThat(methodCaptor.getValue()).hasToString(describe(method));
+    assertThat(argsCaptor.getValue()).containsExactly(params);
+  }
+
+  @DisplayName("Methods do not pass arguments to interceptors that do not inspect them")
+  @MethodSource("interceptedMethods")
+  @ParameterizedTest(name = "for method {0}")
+  void methodsDoNotPassArgumentsToInterceptorsThatDoNotInspectThem(
+      String ignored,
+      Method method
+  ) throws Throwable {
+    // Given
+    var params = mockParams(method);
+    var expectedResult = isVoidReturnType(method) ? null : mockReturnType(method);
+    var impl = mock(JctFileManager.class, (ctx) -> expectedResult);
+    var interceptor = mock(FileManagerInterceptor.class);
+    var token = someLong(Long.MAX_VALUE);
+    given(interceptor.isInspectingArguments()).willReturn(false);
+    given(interceptor.before(any())).willReturn(token);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // When
+    method.invoke(fileManager, params);
+
+    // Then
+    var methodCaptor = ArgumentCaptor.forClass(FileManagerMethod.class);
+    var order = inOrder(interceptor, impl);
+    order.verify(interceptor).before(methodCaptor.capture());
+    method.invoke(order.verify(impl), params);
+    order.verify(interceptor).afterReturning(methodCaptor.getValue(), token, expectedResult);
+    verify(interceptor, never()).before(any(), any());
+
+    assertThat(methodCaptor.getValue()).hasToString(describe(method));
+  }
+
+  @DisplayName("Methods propagate exceptions thrown by the delegate")
+  @MethodSource("interceptedMethods")
+  @ParameterizedTest(name = "for method {0}")
+  void methodsPropagateDelegateExceptions(String ignored, Method method) throws Throwable {
+    // Given
+    var params = mockParams(method);
+    var expectedException = new RuntimeException("Chill out! " + someText());
+    var impl = mock(JctFileManager.class, (ctx) -> {
+      throw expectedException;
+    });
+    var interceptor = mock(FileManagerInterceptor.class);
+    var token = someLong(Long.MAX_VALUE);
+    given(interceptor.isInspectingArguments()).willReturn(true);
+    given(interceptor.before(any(), any())).willReturn(token);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // Then
+    assertThatThrownBy(() -> method.invoke(fileManager, params))
+        .isInstanceOf(InvocationTargetException.class)
+        .hasCause(expectedException);
+
+    method.invoke(verify(impl), params);
+    verifyNoMoreInteractions(impl);
+
+    var methodCaptor = ArgumentCaptor.forClass(FileManagerMethod.class);
+    verify(interceptor).afterThrowing(methodCaptor.capture(), eq(token), eq(expectedException));
+    verify(interceptor, never()).afterReturning(any(), eq(token), any());
+    assertThat(methodCaptor.getValue()).hasToString(describe(method));
+  }
+
+  @DisplayName(".close() notifies the interceptor that the file manager was closed")
+  @Test
+  void closeNotifiesTheInterceptorThatTheFileManagerWasClosed() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var interceptor = mock(FileManagerInterceptor.class);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // When
+    fileManager.close();
+
+    // Then
+    var order = inOrder(impl, interceptor);
+    order.verify(impl).close();
+    order.verify(interceptor).afterReturning(eq(FileManagerMethod.CLOSE), eq(0L), any());
+    order.verify(interceptor).afterClose();
+  }
+
+  @DisplayName(".close() notifies the interceptor even if closing the delegate fails")
+  @Test
+  void closeNotifiesTheInterceptorEvenIfClosingTheDelegateFails() throws IOException {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var ex = new IOException("bang");
+    willThrow(ex).given(impl).close();
+    var interceptor = mock(FileManagerInterceptor.class);
+    var fileManager = new InterceptingFileManager(impl, interceptor);
+
+    // Then
+    assertThatThrownBy(fileManager::close)
+        .isSameAs(ex);
+    verify(interceptor).afterThrowing(FileManagerMethod.CLOSE, 0L, ex);
+    verify(interceptor).afterClose();
+  }
+
+  //////////////////////////////////////////////////////
+  /// Reflective access for tests. Here be dragons.  ///
+  //////////////////////////////////////////////////////
+
+  static Stream<Arguments> interceptedMethods() {
+    var inheritedMethods = Stream
+        .of(JctFileManager.class.getMethods())
+        .filter(not(inherited -> inherited.getDeclaringClass().equals(JctFileManager.class)));
+
+    var declaredMethods = Stream
+        .of(JctFileManager.class.getDeclaredMethods());
+
+    // Default methods added in newer JDKs are not overridden, so they are not intercepted
+    // directly. They still reach the delegate via the methods they call.
+    return Stream
+        .concat(declaredMethods, inheritedMethods)
+        .filter(not(Method::isSynthetic))
+        .filter(not(m -> m.getName().equals("toString")))
+        .filter(InterceptingFileManagerTest::isOverridden)
+        .map(m -> arguments(signature(m), m));
+  }
+
+  static boolean isOverridden(Method method) {
+    return Stream
+        .of(InterceptingFileManager.class.getDeclaredMethods())
+        .anyMatch(declared -> declared.getName().equals(method.getName())
+            && Arrays.equals(declared.getParameterTypes(), method.getParameterTypes()));
+  }
+
+  static String describe(Method method) {
+    return method.getReturnType().getSimpleName()
+        + " "
+        + method.getName()
+        + Stream.of(method.getParameterTypes())
+            .map(Class::getSimpleName)
+            .collect(Collectors.joining(", ", "(", ")"));
+  }
+
+  static String signature(Method method) {
+    var sb = new StringBuilder()
+        .append(method.getReturnType().getSimpleName())
+        .append(" ")
+        .append(method.getName())
+        .append("(");
+
+    for (var i = 0; i < method.getParameterCount(); ++i) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+
+      var param = method.getParameters()[i];
+      sb.append(param.getType().getSimpleName())
+          .append(" ")
+          .append(param.getName());
+    }
+
+    return sb
+        .append(")")
+        .toString();
+  }
+
+  @Nullable
+  static Object mockReturnType(Method method) {
+    return mockElement(method.getReturnType());
+  }
+
+  static Object[] mockParams(Method method) {
+    var params = method.getParameters();
+    var instances = new Object[method.getParameterCount()];
+
+    for (var i = 0; i < instances.length; ++i) {
+      instances[i] = mockElement(params[i].getType());
+    }
+
+    return instances;
+  }
+
+  static boolean isVoidReturnType(Method method) {
+    var type = method.getReturnType();
+    return type.equals(Void.class) || type.equals(void.class);
+  }
+
+  @Nullable
+  static Object mockElement(Class<?> type) {
+    if (type.isArray()) {
+      var items = Array.newInstance(type.getComponentType(), someInt(1, 5));
+      for (var i = 0; i < Array.getLength(items); ++i) {
+        Array.set(items, i, mockElement(type.getComponentType()));
+      }
+      return items;
+    }
+    if (type.equals(Byte.class) || type.equals(byte.class)) {
+      return (byte) someInt(Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+    if (type.equals(Short.class) || type.equals(short.class)) {
+      return (short) someInt(Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+    if (type.equals(Integer.class) || type.equals(int.class)) {
+      return someInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+    if (type.equals(Long.class) || type.equals(long.class)) {
+      return someLong(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    if (type.equals(Character.class) || type.equals(char.class)) {
+      return (char) someInt(Character.MIN_VALUE, Character.MAX_VALUE);
+    }
+    if (type.equals(Boolean.class) || type.equals(boolean.class)) {
+      return someBoolean();
+    }
+    if (type.equals(String.class) || type.equals(CharSequence.class)) {
+      return someText();
+    }
+    if (Type.class.isAssignableFrom(type)) {
+      return oneOf(
+          StringBuilder.class, List.class, TestFactory.class, String.class, Object.class
+      );
+    }
+    return mock(type, withSettings()
+        .strictness(Strictness.LENIENT)
+        .defaultAnswer(Answers.RETURNS_DEEP_STUBS));
+  }
+}
@@ -25,7 +25,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetricsCollector;
 import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.containers.impl.ContainerGroupRepositoryImpl;
 import io.github.ascopes.jct.filemanagers.JctFileManager;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerAnnotationProcessorClassPathConfigurer;
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerConfigurer;
@@ -39,9 +41,13 @@ import io.github.ascopes.jct.filemanagers.config.JctFileManagerRequiredLocations
 import io.github.ascopes.jct.filemanagers.config.JctFileManagerWorkspaceConfigurer;
 import io.github.ascopes.jct.fixtures.Fixtures;
 import io.github.ascopes.jct.workspaces.Workspace;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -95,6 +101,66 @@ class JctFileManagerFactoryImplTest {
     }
   }
 
+  @DisplayName("Created file managers use the directory indexing setting")
+  @ParameterizedTest(name = "for directoryIndexing = {0}")
+  @ValueSource(booleans = {true, false})
+  void createdFileManagersUseTheDirectoryIndexingSetting(boolean directoryIndexing) {
+    // Given
+    var release = Fixtures.someRelease();
+    var arguments = new ArrayList<List<?>>();
+    when(compiler.getEffectiveRelease()).thenReturn(release);
+    when(compiler.isDirectoryIndexing()).thenReturn(directoryIndexing);
+
+    try (
+        var chain = configurerChainMock();
+        var repositoryCls = mockConstruction(
+            ContainerGroupRepositoryImpl.class,
+            (repository, ctx) -> arguments.add(ctx.arguments())
+        )
+    ) {
+      unused(chain);
+      unused(repositoryCls);
+
+      // When
+      factory.createFileManager(workspace);
+
+      // Then
+      assertThat(arguments)
+          .singleElement()
+          .isEqualTo(List.of(release, directoryIndexing, false));
+    }
+  }
+
+  @DisplayName("Created file managers use the content caching setting")
+  @ParameterizedTest(name = "for contentCaching = {0}")
+  @ValueSource(booleans = {true, false})
+  void createdFileManagersUseTheContentCachingSetting(boolean contentCaching) {
+    // Given
+    var release = Fixtures.someRelease();
+    var arguments = new ArrayList<List<?>>();
+    when(compiler.getEffectiveRelease()).thenReturn(release);
+    when(compiler.isContentCaching()).thenReturn(contentCaching);
+
+    try (
+        var chain = configurerChainMock();
+        var repositoryCls = mockConstruction(
+            ContainerGroupRepositoryImpl.class,
+            (repository, ctx) -> arguments.add(ctx.arguments())
+        )
+    ) {
+      unused(chain);
+      unused(repositoryCls);
+
+      // When
+      factory.createFileManager(workspace);
+
+      // Then
+      assertThat(arguments)
+          .singleElement()
+          .isEqualTo(List.of(release, false, contentCaching));
+    }
+  }
+
   @DisplayName("Created file managers are transformed by the configurer chain")
   @Test
   void createdFileManagersAreTransformedByTheConfigurerChain() {
@@ -117,9 +183,62 @@ class JctFileManagerFactoryImplTest {
 
       assertThat(chainCls.constructed())
           .singleElement()
-          .satisfies(chain -> verify(chain).configure(managerCls.constructed().get(0)));
+          .satisfies(chain -> verify(chain).configure(managerCls.constructed().get(0), null));
+
+      assertThat(fileManager).isSameAs(expectedFileManager);
+    }
+  }
+
+  @DisplayName("Created file managers record metrics when a collector is provided")
+  @Test
+  void createdFileManagersRecordMetricsWhenCollectorIsProvided() {
+    // Given
+    var expectedFileManager = mock(JctFileManager.class);
+    var metrics = new JctCompilationMetricsCollector();
+    when(compiler.isFileManagerCallCounting()).thenReturn(true);
+
+    try (
+        var chainCls = configurerChainMock(ctx -> expectedFileManager);
+        var managerCls = fileManagerMock()
+    ) {
+      // When
+      var fileManager = factory.createFileManager(workspace, metrics);
+      fileManager.getEffectiveRelease();
+
+      // Then
+      assertThat(chainCls.constructed())
+          .singleElement()
+          .satisfies(chain -> verify(chain).configure(managerCls.constructed().get(0), metrics));
+
+      verify(expectedFileManager).getEffectiveRelease();
+      assertThat(metrics.toMetrics().getFileManagerCallCounts())
+          .containsEntry("getEffectiveRelease", 1L);
+    }
+  }
+
+  @DisplayName("Created file managers are not wrapped unless call counting is enabled")
+  @Test
+  void createdFileManagersAreNotWrappedUnlessCallCountingIsEnabled() {
+    // Given
+    var expectedFileManager = mock(JctFileManager.class);
+    var metrics = new JctCompilationMetricsCollector();
+    when(compiler.isFileManagerCallCounting()).thenReturn(false);
+
+    try (
+        var chainCls = configurerChainMock(ctx -> expectedFileManager);
+        var managerCls = fileManagerMock()
+    ) {
+      // When
+      var fileManager = factory.createFileManager(workspace, metrics);
+      fileManager.getEffectiveRelease();
+
+      // Then
+      assertThat(chainCls.constructed())
+          .singleElement()
+          .satisfies(chain -> verify(chain).configure(managerCls.constructed().get(0), metrics));
 
       assertThat(fileManager).isSameAs(expectedFileManager);
+      assertThat(metrics.toMetrics().getFileManagerCallCounts()).isEmpty();
     }
   }
 
@@ -161,7 +280,10 @@ class JctFileManagerFactoryImplTest {
         withSettings()
             .defaultAnswer(Answers.RETURNS_SELF)
             .strictness(Strictness.LENIENT),
-        (instance, ctx) -> when(instance.configure(any())).then(configureResult)
+        (instance, ctx) -> {
+          when(instance.configure(any())).then(configureResult);
+          when(instance.configure(any(), any())).then(configureResult);
+        }
     );
   }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.filemanagers.impl;
+
+import static io.github.ascopes.jct.fixtures.Fixtures.someBoolean;
+import static io.github.ascopes.jct.fixtures.Fixtures.someLong;
+import static io.github.ascopes.jct.fixtures.Fixtures.someRealStackTrace;
+import static io.github.ascopes.jct.fixtures.Fixtures.someText;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.filemanagers.JctFileManager;
+import io.github.ascopes.jct.fixtures.Slf4jLoggerFake;
+import io.github.ascopes.jct.utils.LoomPolyfill;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+/**
+ * {@link LoggingFileManagerInterceptor} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("LoggingFileManagerInterceptor tests")
+@ExtendWith(MockitoExtension.class)
+@Isolated("Messes with static mocks and side effects")
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LoggingFileManagerInterceptorTest {
+
+  long threadId;
+  StackTraceElement[] stackTrace;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  Thread thread;
+
+  Slf4jLoggerFake slf4jLoggerFake;
+  MockedStatic<LoomPolyfill> loomPolyfillMockedStatic;
+  MockedStatic<LoggerFactory> loggerFactoryMockedStatic;
+
+  @BeforeEach
+  void setUp() {
+    threadId = someLong(66_666);
+    stackTrace = someRealStackTrace();
+    slf4jLoggerFake = new Slf4jLoggerFake();
+
+    when(thread.getStackTrace())
+        .thenReturn(stackTrace);
+
+    loomPolyfillMockedStatic = mockStatic(LoomPolyfill.class);
+    loomPolyfillMockedStatic.when(LoomPolyfill::getCurrentThread)
+        .thenReturn(thread);
+    loomPolyfillMockedStatic.when(() -> LoomPolyfill.getThreadId(thread))
+        .thenReturn(threadId);
+
+    loggerFactoryMockedStatic = mockStatic(LoggerFactory.class);
+    loggerFactoryMockedStatic.when(() -> LoggerFactory.getLogger(any(Class.class)))
+        .thenReturn(slf4jLoggerFake);
+  }
+
+  @AfterEach
+  void tearDown() {
+    loggerFactoryMockedStatic.close();
+    loomPolyfillMockedStatic.close();
+  }
+
+  @DisplayName("toString() returns the expected result")
+  @Test
+  void toStringReturnsTheExpectedResult() {
+    // Given
+    var stackTraces = someBoolean();
+    var interceptor = new LoggingFileManagerInterceptor(stackTraces);
+
+    // Then
+    assertThat(interceptor)
+        .hasToString("LoggingFileManagerInterceptor{stackTraces=%s}", stackTraces);
+  }
+
+  @DisplayName(".wrap(...) wraps the file manager in an intercepting file manager")
+  @Test
+  void wrapWrapsTheFileManagerInAnInterceptingFileManager() {
+    // Given
+    var impl = mock(JctFileManager.class);
+    var stackTraces = someBoolean();
+
+    // When
+    var result = LoggingFileManagerInterceptor.wrap(impl, stackTraces);
+
+    // Then
+    assertThat(result)
+        .isInstanceOf(InterceptingFileManager.class)
+        .hasToString(
+            "InterceptingFileManager{delegate=%s, "
+                + "interceptor=LoggingFileManagerInterceptor{stackTraces=%s}}",
+            impl,
+            stackTraces
+        );
+  }
+
+  @DisplayName("Arguments are inspected when debug logging is enabled")
+  @Test
+  void argumentsAreInspectedWhenDebugLoggingIsEnabled() {
+    // Given
+    var interceptor = new LoggingFileManagerInterceptor(someBoolean());
+
+    // Then
+    assertThat(interceptor.isInspectingArguments()).isTrue();
+  }
+
+  @DisplayName("Method invocations are logged without stacktraces")
+  @EnumSource(FileManagerMethod.class)
+  @ParameterizedTest(name = "for method {0}")
+  void methodInvocationsGetLoggedWithoutStacktraces(FileManagerMethod method) {
+    // Given
+    var args = new Object[]{someText(), someLong(1_000)};
+    var interceptor = new LoggingFileManagerInterceptor(false);
+
+    // When
+    interceptor.before(method, args);
+
+    // Then
+    slf4jLoggerFake.assertThatEntryLogged(
+        Level.DEBUG,
+        null,
+        ">>> [thread={}] {} {}({}) called with ({}){}",
+        threadId,
+        method.getReturnType(),
+        method.getMethodName(),
+        method.getParameterTypes(),
+        args[0] + ", " + args[1],
+        ""
+    );
+  }
+
+  @DisplayName("Method invocations are logged with stacktraces")
+  @EnumSource(FileManagerMethod.class)
+  @ParameterizedTest(name = "for method {0}")
+  void methodInvocationsGetLoggedWithStacktraces(FileManagerMethod method) {
+    // Given
+    var args = new Object[]{someText()};
+    var interceptor = new LoggingFileManagerInterceptor(true);
+
+    // When
+    interceptor.before(method, args);
+
+    // Then
+    slf4jLoggerFake.assertThatEntryLogged(
+        Level.DEBUG,
+        null,
+        ">>> [thread={}] {} {}({}) called with ({}){}",
+        threadId,
+        method.getReturnType(),
+        method.getMethodName(),
+        method.getParameterTypes(),
+        args[0],
+        Stream.of(stackTrace)
+            .map(Objects::toString)
+            .map("\n\t"::concat)
+            .collect(Collectors.joining())
+    );
+  }
+
+  @DisplayName("Method results are logged")
+  @EnumSource(FileManagerMethod.class)
+  @ParameterizedTest(name = "for method {0}")
+  void methodResultsGetLogged(FileManagerMethod method) {
+    // Given
+    var result = someText();
+    var interceptor = new LoggingFileManagerInterceptor(someBoolean());
+
+    // When
+    interceptor.afterReturning(method, 0, result);
+
+    // Then
+    if (method.getReturnType().equals("void")) {
+      slf4jLoggerFake.assertThatEntryLogged(
+          Level.DEBUG,
+          null,
+          "<<< [thread={}] {} {}({}) completed",
+          threadId,
+          method.getReturnType(),
+          method.getMethodName(),
+          method.getParameterTypes()
+      );
+    } else {
+      slf4jLoggerFake.assertThatEntryLogged(
+          Level.DEBUG,
+          null,
+          "<<< [thread={}] {} {}({}) returned {}",
+          threadId,
+          method.getReturnType(),
+          method.getMethodName(),
+          method.getParameterTypes(),
+          result
+      );
+    }
+  }
+
+  @DisplayName("Method exceptions are logged")
+  @EnumSource(FileManagerMethod.class)
+  @ParameterizedTest(name = "for method {0}")
+  void methodExceptionsGetLogged(FileManagerMethod method) {
+    // Given
+    var exception = new RuntimeException("Bang bang bang");
+    var interceptor = new LoggingFileManagerInterceptor(someBoolean());
+
+    // When
+    interceptor.afterThrowing(method, 0, exception);
+
+    // Then
+    slf4jLoggerFake.assertThatEntryLogged(
+        Level.DEBUG,
+        exception,
+        "!!! [thread={}] {} {}({}) threw exception",
+        threadId,
+        method.getReturnType(),
+        method.getMethodName(),
+        method.getParameterTypes()
+    );
+  }
+}
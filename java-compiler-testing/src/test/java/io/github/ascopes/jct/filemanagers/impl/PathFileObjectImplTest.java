@@ -35,12 +35,15 @@ import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.JavaFileObject.Kind;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -119,6 +122,31 @@ class PathFileObjectImplTest {
     }
   }
 
+  @DisplayName(".delete() notifies the change listener when the file is deleted")
+  @Test
+  void deleteNotifiesTheChangeListenerWhenTheFileIsDeleted() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var file = rootDir.resolve("Baz.txt");
+      final var relativeFile = rootDir.relativize(file);
+      final var changes = new ArrayList<Path>();
+
+      Files.createDirectories(rootDir);
+      Files.createFile(file);
+      final var fileObject = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .changeListener(changes::add)
+          .build();
+
+      // When
+      fileObject.delete();
+      fileObject.delete();
+
+      // Then
+      assertThat(changes).containsExactly(file);
+    }
+  }
+
   @DisplayName(".delete() will not delete a missing file")
   @Test
   void deleteWillNotDeleteMissingFile() throws IOException {
@@ -330,6 +358,105 @@ class PathFileObjectImplTest {
     }
   }
 
+  @DisplayName(".getCharContent(...) reuses the decoded content when caching is enabled")
+  @Test
+  void getCharContentReusesTheDecodedContentWhenCachingIsEnabled() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var file = rootDir.resolve("Foo.java");
+      final var relativeFile = rootDir.relativize(file);
+
+      Files.createDirectories(rootDir);
+      Files.writeString(file, someLinesOfText(), StandardCharsets.UTF_8);
+
+      final var fileObject = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .contentCache(new FileContentCache())
+          .build();
+
+      // When
+      final var first = fileObject.getCharContent(false);
+      final var second = fileObject.getCharContent(false);
+
+      // Then
+      assertThat(fileObject.isContentCaching()).isTrue();
+      assertThat(second).isSameAs(first);
+    }
+  }
+
+  @DisplayName(".getCharContent(...) rereads the file after it changes when caching is enabled")
+  @Test
+  void getCharContentRereadsTheFileAfterItChangesWhenCachingIsEnabled() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var file = rootDir.resolve("Foo.java");
+      final var relativeFile = rootDir.relativize(file);
+
+      Files.createDirectories(rootDir);
+      Files.writeString(file, "class Foo {}", StandardCharsets.UTF_8);
+
+      final var fileObject = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .contentCache(new FileContentCache())
+          .build();
+      fileObject.getCharContent(false);
+
+      // When
+      Files.writeString(file, "class Foo { int bar; }", StandardCharsets.UTF_8);
+      final var content = fileObject.getCharContent(false);
+
+      // Then
+      assertThat(content).isEqualTo("class Foo { int bar; }");
+    }
+  }
+
+  @DisplayName(".getCharContent(...) does not share content between different caches")
+  @Test
+  void getCharContentDoesNotShareContentBetweenDifferentCaches() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var file = rootDir.resolve("Foo.java");
+      final var relativeFile = rootDir.relativize(file);
+
+      Files.createDirectories(rootDir);
+      Files.writeString(file, someLinesOfText(), StandardCharsets.UTF_8);
+
+      final var first = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .contentCache(new FileContentCache())
+          .build();
+      final var second = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .contentCache(new FileContentCache())
+          .build();
+
+      // When
+      final var firstContent = first.getCharContent(false);
+      final var secondContent = second.getCharContent(false);
+
+      // Then
+      assertThat(secondContent)
+          .isEqualTo(firstContent)
+          .isNotSameAs(firstContent);
+    }
+  }
+
+  @DisplayName(".getCharContent(...) decodes files that are large enough to be mapped")
+  @Test
+  void getCharContentDecodesFilesThatAreLargeEnoughToBeMapped(
+      @TempDir Path rootDir
+  ) throws IOException {
+    // Given
+    final var file = rootDir.resolve("Large.java");
+    final var text = "// \u00e9\u4e2d\n".repeat((int) PathFileObjectImpl.MAPPED_READ_THRESHOLD / 4);
+    Files.writeString(file, text, StandardCharsets.UTF_8);
+
+    final var fileObject = new PathFileObjectImpl(someLocation(), rootDir, Path.of("Large.java"));
+
+    // Then
+    assertThat(Files.size(file)).isGreaterThanOrEqualTo(PathFileObjectImpl.MAPPED_READ_THRESHOLD);
+    assertThat(fileObject.getCharContent(false)).isEqualTo(text);
+  }
+
   @DisplayName(".getLastModified() returns the last modified timestamp")
   @Test
   void getLastModifiedReturnsTheLastModifiedTimestamp() throws Exception {
@@ -644,6 +771,33 @@ class PathFileObjectImplTest {
     }
   }
 
+  @DisplayName(".openReader(...) returns the cached content when caching is enabled")
+  @Test
+  void openReaderReturnsTheCachedContentWhenCachingIsEnabled() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var file = rootDir.resolve("Foo.java");
+      final var relativeFile = rootDir.relativize(file);
+
+      final var text = someLinesOfText();
+
+      Files.createDirectories(rootDir);
+      Files.writeString(file, text, StandardCharsets.UTF_8);
+
+      final var fileObject = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .contentCache(new FileContentCache())
+          .build();
+
+      // Then
+      try (final var reader = fileObject.openReader(false)) {
+        final var stringWriter = new StringWriter();
+        reader.transferTo(stringWriter);
+        assertThat(stringWriter.toString()).isEqualTo(text);
+      }
+    }
+  }
+
   @DisplayName(".openReader(...) ignores encoding errors when instructed")
   @SuppressWarnings("StatementWithEmptyBody")
   @Test
@@ -754,6 +908,33 @@ class PathFileObjectImplTest {
     }
   }
 
+  @DisplayName(".openOutputStream() and .openWriter() notify the change listener")
+  @Test
+  void openOutputStreamAndOpenWriterNotifyTheChangeListener() throws IOException {
+    // Given
+    try (final var fs = someTemporaryFileSystem()) {
+      final var rootDir = fs.getRootPath().resolve("root-a");
+      final var dir = rootDir.resolve("foo");
+      final var file = dir.resolve("Baz.txt");
+      final var relativeFile = rootDir.relativize(file);
+      final var changes = new ArrayList<Path>();
+      final var fileObject = PathFileObjectImpl.builder(someLocation(), rootDir, relativeFile)
+          .changeListener(changes::add)
+          .build();
+
+      // When
+      try (final var os = fileObject.openOutputStream()) {
+        os.write(someBinaryData());
+      }
+      try (final var writer = fileObject.openWriter()) {
+        writer.write(someLinesOfText());
+      }
+
+      // Then
+      assertThat(changes).containsExactly(file, file);
+    }
+  }
+
   @DisplayName(".toUri() returns the URI")
   @Test
   void toUriReturnsTheUri() {
@@ -16,7 +16,9 @@
 package io.github.ascopes.jct.integration.compilation;
 
 import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import io.github.ascopes.jct.compilers.JctCompilationMetrics.Phase;
 import io.github.ascopes.jct.compilers.JctCompiler;
 import io.github.ascopes.jct.integration.AbstractIntegrationTest;
 import io.github.ascopes.jct.junit.JavacCompilerTest;
@@ -73,4 +75,47 @@ class BasicLegacyCompilationIntegrationTest extends AbstractIntegrationTest {
           .isNotEmptyFile();
     }
   }
+
+  @DisplayName("Compilations record timings for each javac phase")
+  @JavacCompilerTest
+  void compilationsRecordTimingsForEachJavacPhase(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace
+          .createPackage(StandardLocation.SOURCE_PATH)
+          .createDirectory("com", "example")
+          .copyContentsFrom(resourcesDirectory());
+
+      var metrics = compiler
+          .fileManagerCallCounting(true)
+          .compile(workspace)
+          .getMetrics();
+
+      assertThat(metrics.getPhaseTimes())
+          .containsKeys(Phase.PARSE, Phase.ENTER, Phase.ANALYZE, Phase.GENERATE);
+      assertThat(metrics.getConfigurerTimes())
+          .isNotEmpty();
+      assertThat(metrics.getFileManagerCallCounts())
+          .containsKey("list");
+      assertThat(metrics.getTotalTime())
+          .isPositive();
+    }
+  }
+
+  @DisplayName("Compilations do not count file manager calls unless requested")
+  @JavacCompilerTest
+  void compilationsDoNotCountFileManagerCallsUnlessRequested(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      workspace
+          .createPackage(StandardLocation.SOURCE_PATH)
+          .createDirectory("com", "example")
+          .copyContentsFrom(resourcesDirectory());
+
+      var metrics = compiler.compile(workspace).getMetrics();
+
+      assertThat(metrics.getFileManagerCallCounts())
+          .isEmpty();
+      assertThat(metrics.getPhaseTimes())
+          .isNotEmpty();
+    }
+  }
 }
@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompilationCache;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.compilers.JctCompilers;
+import io.github.ascopes.jct.diagnostics.StackTraceCaptureMode;
+import io.github.ascopes.jct.diagnostics.TraceDiagnostic;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback.Action;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Compilation cache integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Compilation cache integration tests")
+class CompilationCacheIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Identical compilations are restored from the cache")
+  @JavacCompilerTest
+  void identicalCompilationsAreRestoredFromTheCache(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder().build();
+    var processor = new CountingProcessor();
+    compiler
+        .compilationCache(cache)
+        .addAnnotationProcessors(processor);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES)
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hello");
+
+      var firstCompilation = compiler.compile(firstWorkspace);
+      var secondCompilation = compiler.compile(secondWorkspace);
+
+      assertThatCompilation(firstCompilation).isSuccessfulWithoutWarnings();
+      assertThatCompilation(secondCompilation).isSuccessfulWithoutWarnings();
+      assertThatCompilation(secondCompilation)
+          .classOutputPackages()
+          .allFilesExist("org/example/HelloWorld.class", "org/example/Greeter.class");
+      assertThat(binaryNamesOf(secondCompilation))
+          .containsExactlyInAnyOrder("org.example.HelloWorld", "org.example.Greeter");
+      assertThat(secondCompilation.getOutputLines())
+          .isEqualTo(firstCompilation.getOutputLines());
+      assertThat(processor.runs).hasValue(1);
+      assertThat(cache.getHitCount()).isOne();
+      assertThat(cache.getMissCount()).isOne();
+    }
+  }
+
+  @DisplayName("Compilations with different sources are not restored from the cache")
+  @JavacCompilerTest
+  void compilationsWithDifferentSourcesAreNotRestoredFromTheCache(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder().build();
+    compiler.compilationCache(cache);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hey");
+
+      assertThatCompilation(compiler.compile(firstWorkspace)).isSuccessfulWithoutWarnings();
+      assertThatCompilation(compiler.compile(secondWorkspace)).isSuccessfulWithoutWarnings();
+
+      assertThat(cache.getHitCount()).isZero();
+      assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+  }
+
+  @DisplayName("Compilations with different flags are not restored from the cache")
+  @JavacCompilerTest
+  void compilationsWithDifferentFlagsAreNotRestoredFromTheCache(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder().build();
+    compiler.compilationCache(cache);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hello");
+
+      assertThatCompilation(compiler.compile(firstWorkspace)).isSuccessfulWithoutWarnings();
+      compiler.parameterInfoEnabled(!compiler.isParameterInfoEnabled());
+      assertThatCompilation(compiler.compile(secondWorkspace)).isSuccessfulWithoutWarnings();
+
+      assertThat(cache.getHitCount()).isZero();
+    }
+  }
+
+  @DisplayName("Diagnostics of failed compilations are restored from the cache")
+  @JavacCompilerTest
+  void diagnosticsOfFailedCompilationsAreRestoredFromTheCache(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder().build();
+    compiler.compilationCache(cache);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createBrokenSources(firstWorkspace.createSourcePathPackage());
+      createBrokenSources(secondWorkspace.createSourcePathPackage());
+
+      var firstCompilation = compiler.compile(firstWorkspace);
+      var secondCompilation = compiler.compile(secondWorkspace);
+
+      assertThatCompilation(firstCompilation).isFailure();
+      assertThatCompilation(secondCompilation).isFailure();
+      assertThat(cache.getHitCount()).isOne();
+      assertThat(describe(secondCompilation.getDiagnostics()))
+          .isNotEmpty()
+          .isEqualTo(describe(firstCompilation.getDiagnostics()));
+      assertThat(secondCompilation.getDiagnostics())
+          .allSatisfy(diagnostic -> assertThat(diagnostic.getSource())
+              .isInstanceOf(PathFileObject.class)
+              .extracting(source -> ((PathFileObject) source).getAbsolutePath().getFileSystem())
+              .isEqualTo(secondWorkspace.getSourcePathPackages().get(0).getPath().getFileSystem())
+          );
+    }
+  }
+
+  @DisplayName("Compilations are restored from the cache directory by other caches")
+  @JavacCompilerTest
+  void compilationsAreRestoredFromTheCacheDirectoryByOtherCaches(
+      JctCompiler compiler,
+      @TempDir Path directory
+  ) {
+    var firstCache = JctCompilationCache.builder().directory(directory).build();
+    var secondCache = JctCompilationCache.builder().directory(directory).build();
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hello");
+
+      assertThatCompilation(compiler.compilationCache(firstCache).compile(firstWorkspace))
+          .isSuccessfulWithoutWarnings();
+      var compilation = compiler.compilationCache(secondCache).compile(secondWorkspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .allFilesExist("org/example/HelloWorld.class", "org/example/Greeter.class");
+      assertThat(secondCache.getHitCount()).isOne();
+    }
+  }
+
+  @DisplayName("The cache directory is kept within its size limit")
+  @JavacCompilerTest
+  void theCacheDirectoryIsKeptWithinItsSizeLimit(
+      JctCompiler compiler,
+      @TempDir Path directory
+  ) {
+    var firstCache = JctCompilationCache.builder().directory(directory).maxDiskBytes(1).build();
+    var secondCache = JctCompilationCache.builder().directory(directory).build();
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hello");
+
+      compiler.compilationCache(firstCache).compile(firstWorkspace);
+      assertThat(directory).isEmptyDirectory();
+
+      compiler.compilationCache(secondCache).compile(secondWorkspace);
+      assertThat(secondCache.getHitCount()).isZero();
+    }
+  }
+
+  @DisplayName("Compilations using non-deterministic processors are never cached")
+  @JavacCompilerTest
+  void compilationsUsingNonDeterministicProcessorsAreNeverCached(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder()
+        .nonDeterministicProcessor(CountingProcessor.class)
+        .build();
+    var processor = new CountingProcessor();
+    compiler
+        .compilationCache(cache)
+        .addAnnotationProcessors(processor);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createSources(firstWorkspace.createSourcePathPackage(), "Hello");
+      createSources(secondWorkspace.createSourcePathPackage(), "Hello");
+
+      assertThatCompilation(compiler.compile(firstWorkspace)).isSuccessfulWithoutWarnings();
+      assertThatCompilation(compiler.compile(secondWorkspace)).isSuccessfulWithoutWarnings();
+
+      assertThat(processor.runs).hasValue(2);
+      assertThat(cache.getHitCount()).isZero();
+      assertThat(cache.getMissCount()).isZero();
+    }
+  }
+
+  @DisplayName("Compilations using a custom diagnostic callback are never cached")
+  @JavacCompilerTest
+  void compilationsUsingCustomDiagnosticCallbackAreNeverCached(JctCompiler compiler) {
+    var cache = JctCompilationCache.builder().build();
+    var callbacks = new AtomicInteger();
+    compiler
+        .compilationCache(cache)
+        .diagnosticCallback(diagnostic -> {
+          callbacks.incrementAndGet();
+          return Action.ABORT;
+        });
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createBrokenSources(firstWorkspace.createSourcePathPackage());
+      createBrokenSources(secondWorkspace.createSourcePathPackage());
+
+      assertThatCompilation(compiler.compile(firstWorkspace)).isFailure();
+      assertThatCompilation(compiler.compile(secondWorkspace)).isFailure();
+
+      assertThat(callbacks).hasValue(2);
+      assertThat(cache.getHitCount()).isZero();
+      assertThat(cache.getMissCount()).isZero();
+    }
+  }
+
+  @DisplayName("Diagnostic counts and stack traces are restored from the cache")
+  @EnumSource(value = StackTraceCaptureMode.class, names = {"LIMITED", "FULL"})
+  @ParameterizedTest(name = "for stack trace capture mode {0}")
+  void diagnosticCountsAndStackTracesAreRestoredFromTheCache(StackTraceCaptureMode mode) {
+    var cache = JctCompilationCache.builder().build();
+    var compiler = JctCompilers.newPlatformCompiler()
+        .compilationCache(cache)
+        .diagnosticStackTraceCaptureMode(mode);
+
+    try (
+        var firstWorkspace = Workspaces.newWorkspace();
+        var secondWorkspace = Workspaces.newWorkspace()
+    ) {
+      createBrokenSources(firstWorkspace.createSourcePathPackage());
+      createBrokenSources(secondWorkspace.createSourcePathPackage());
+
+      var firstCompilation = compiler.compile(firstWorkspace);
+      var secondCompilation = compiler.compile(secondWorkspace);
+
+      assertThat(cache.getHitCount()).isOne();
+      assertThat(secondCompilation.getDiagnosticCounts())
+          .isNotEmpty()
+          .isEqualTo(firstCompilation.getDiagnosticCounts());
+      assertThat(secondCompilation.getDiagnostics())
+          .extracting(TraceDiagnostic::getStackTrace)
+          .isEqualTo(firstCompilation.getDiagnostics()
+              .stream()
+              .map(TraceDiagnostic::getStackTrace)
+              .toList())
+          .allSatisfy(stackTrace -> assertThat(stackTrace).isNotEmpty());
+    }
+  }
+
+  private static List<String> binaryNamesOf(JctCompilation compilation) {
+    return compilation.getCompilationUnits()
+        .stream()
+        .map(PathFileObject.class::cast)
+        .map(PathFileObject::getBinaryName)
+        .toList();
+  }
+
+  private static List<String> describe(List<TraceDiagnostic<JavaFileObject>> diagnostics) {
+    return diagnostics.stream()
+        .map(diagnostic -> diagnostic.getKind()
+            + " " + diagnostic.getCode()
+            + " " + diagnostic.getLineNumber()
+            + ":" + diagnostic.getColumnNumber()
+            + " " + diagnostic.getMessage(Locale.ROOT)
+            + " " + relativePathOf(diagnostic.getSource()))
+        .toList();
+  }
+
+  private static @Nullable Path relativePathOf(@Nullable JavaFileObject source) {
+    return source instanceof PathFileObject pathFileObject
+        ? pathFileObject.getRelativePath()
+        : null;
+  }
+
+  private static void createSources(ManagedDirectory sources, String greeting) {
+    sources
+        .createFile("org", "example", "HelloWorld.java")
+        .withContents(
+            "package org.example;",
+            "public class HelloWorld {",
+            "  public static void main(String[] args) {",
+            "    System.out.println(new Greeter().greet(\"World\"));",
+            "  }",
+            "}"
+        );
+    sources
+        .createFile("org", "example", "Greeter.java")
+        .withContents(
+            "package org.example;",
+            "public class Greeter {",
+            "  public String greet(String name) {",
+            "    return \"" + greeting + ", \" + name + \"!\";",
+            "  }",
+            "}"
+        );
+  }
+
+  private static void createBrokenSources(ManagedDirectory sources) {
+    sources
+        .createFile("org", "example", "Broken.java")
+        .withContents(
+            "package org.example;",
+            "public class Broken {",
+            "  public int value() {",
+            "    return \"not a number\";",
+            "  }",
+            "}"
+        );
+  }
+
+  // Implements Processor directly, as AbstractProcessor can only be initialised once.
+  static final class CountingProcessor implements Processor {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Override
+    public Set<String> getSupportedOptions() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+      runs.incrementAndGet();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      return false;
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(
+        Element element,
+        AnnotationMirror annotation,
+        ExecutableElement member,
+        String userText
+    ) {
+      return List.of();
+    }
+  }
+}
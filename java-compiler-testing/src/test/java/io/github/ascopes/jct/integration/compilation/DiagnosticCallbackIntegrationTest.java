@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback;
+import io.github.ascopes.jct.diagnostics.TraceDiagnosticCallback.Action;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import javax.tools.Diagnostic.Kind;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Diagnostic callback integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Diagnostic callback integration tests")
+class DiagnosticCallbackIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Compilations abort on the first error when requested")
+  @JavacCompilerTest
+  void compilationsAbortOnTheFirstErrorWhenRequested(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSourcesWithErrors(workspace);
+
+      var compilation = compiler
+          .diagnosticCallback(TraceDiagnosticCallback.abortOnFirstError())
+          .compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isFailure()
+          .diagnostics()
+          .errors()
+          .hasSize(1);
+    }
+  }
+
+  @DisplayName("Compilations report all errors by default")
+  @JavacCompilerTest
+  void compilationsReportAllErrorsByDefault(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSourcesWithErrors(workspace);
+
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isFailure()
+          .diagnostics()
+          .errors()
+          .hasSize(2);
+    }
+  }
+
+  @DisplayName("Discarded diagnostics are not retained in the compilation")
+  @JavacCompilerTest
+  void discardedDiagnosticsAreNotRetainedInTheCompilation(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSourcesWithErrors(workspace);
+
+      var compilation = compiler
+          .diagnosticCallback(diagnostic -> diagnostic.getKind() == Kind.ERROR
+              ? Action.DISCARD
+              : Action.RETAIN)
+          .compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isFailure();
+      assertThat(compilation.getDiagnostics())
+          .noneMatch(diagnostic -> diagnostic.getKind() == Kind.ERROR);
+    }
+  }
+
+  private static void createSourcesWithErrors(Workspace workspace) {
+    workspace
+        .createSourcePathPackage()
+        .createFile("org", "example", "First.java")
+        .withContents(
+            "package org.example;",
+            "public class First {",
+            "  public int value() { return \"not an int\"; }",
+            "}"
+        )
+        .createFile("org", "example", "Second.java")
+        .withContents(
+            "package org.example;",
+            "public class Second {",
+            "  public String value() { return 123; }",
+            "}"
+        );
+  }
+}
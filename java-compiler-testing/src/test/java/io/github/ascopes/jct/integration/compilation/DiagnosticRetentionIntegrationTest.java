@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.diagnostics.DiagnosticRetentionPolicy;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import javax.tools.Diagnostic.Kind;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Diagnostic retention policy integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Diagnostic retention policy integration tests")
+class DiagnosticRetentionIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Only the first diagnostics of each kind are retained when requested")
+  @JavacCompilerTest
+  void onlyTheFirstDiagnosticsOfEachKindAreRetainedWhenRequested(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSourcesWithErrors(workspace, 5);
+
+      var compilation = compiler
+          .diagnosticRetentionPolicy(DiagnosticRetentionPolicy.firstPerKind(2))
+          .compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isFailure()
+          .diagnostics()
+          .errors()
+          .hasSize(2)
+          .reportedCount()
+          .isEqualTo(5);
+
+      assertThat(compilation.getDiagnosticCounts())
+          .containsEntry(Kind.ERROR, 5L);
+    }
+  }
+
+  @DisplayName("Errors that were not retained are still reported by assertions")
+  @JavacCompilerTest
+  void errorsThatWereNotRetainedAreStillReportedByAssertions(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSourcesWithErrors(workspace, 3);
+
+      var compilation = compiler
+          .diagnosticRetentionPolicy(DiagnosticRetentionPolicy.firstPerKind(0))
+          .compile(workspace);
+
+      assertThat(compilation.getDiagnostics()).isEmpty();
+      assertThatThrownBy(() -> assertThatCompilation(compilation).diagnostics().hasNoErrors())
+          .isInstanceOf(AssertionError.class)
+          .hasMessageContaining("3 were reported, of which 3 were not retained.");
+    }
+  }
+
+  private static void createSourcesWithErrors(Workspace workspace, int count) {
+    var sources = workspace.createSourcePathPackage();
+
+    for (var i = 0; i < count; ++i) {
+      sources
+          .createFile("org", "example", "Broken" + i + ".java")
+          .withContents(
+              "package org.example;",
+              "public class Broken" + i + " {",
+              "  public int value() { return \"not an int\"; }",
+              "}"
+          );
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Directory indexing integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Directory indexing integration tests")
+class DirectoryIndexingIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Sources across multiple packages can be compiled with directory indexing")
+  @JavacCompilerTest
+  void sourcesAcrossMultiplePackagesCanBeCompiledWithDirectoryIndexing(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES)) {
+      createSources(workspace);
+
+      var compilation = compiler
+          .directoryIndexing(true)
+          .compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings();
+
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .fileExists("org", "example", "HelloWorld.class")
+          .isNotEmptyFile();
+
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .fileExists("org", "example", "greetings", "Greeter.class")
+          .isNotEmptyFile();
+    }
+  }
+
+  @DisplayName("Files generated by annotation processors are visible with directory indexing")
+  @JavacCompilerTest
+  void filesGeneratedByAnnotationProcessorsAreVisibleWithDirectoryIndexing(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace);
+
+      var compilation = compiler
+          .directoryIndexing(true)
+          .addAnnotationProcessors(new ResourceGeneratingProcessor())
+          .compile(workspace);
+
+      assertThatCompilation(compilation)
+          .isSuccessfulWithoutWarnings();
+
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .fileExists("org", "example", "generated.txt")
+          .hasContent("Hello, World!");
+    }
+  }
+
+  @DisplayName("Files changed between compilations are visible with directory indexing")
+  @JavacCompilerTest
+  void filesChangedBetweenCompilationsAreVisibleWithDirectoryIndexing(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES)) {
+      createSources(workspace);
+      compiler.directoryIndexing(true);
+
+      assertThatCompilation(compiler.compile(workspace))
+          .isSuccessfulWithoutWarnings()
+          .classOutputPackages()
+          .fileDoesNotExist("org", "example", "Farewell.class");
+
+      workspace.createSourcePathPackage()
+          .createFile("org", "example", "Farewell.java")
+          .withContents(
+              "package org.example;",
+              "public class Farewell {",
+              "}"
+          );
+
+      assertThatCompilation(compiler.compile(workspace))
+          .isSuccessfulWithoutWarnings()
+          .classOutputPackages()
+          .fileExists("org", "example", "Farewell.class");
+    }
+  }
+
+  private static void createSources(Workspace workspace) {
+    var sources = workspace.createSourcePathPackage();
+    sources
+        .createFile("org", "example", "HelloWorld.java")
+        .withContents(
+            "package org.example;",
+            "import org.example.greetings.Greeter;",
+            "public class HelloWorld {",
+            "  public static void main(String[] args) {",
+            "    System.out.println(new Greeter().greet(\"World\"));",
+            "  }",
+            "}"
+        );
+    sources
+        .createFile("org", "example", "greetings", "Greeter.java")
+        .withContents(
+            "package org.example.greetings;",
+            "public class Greeter {",
+            "  public String greet(String name) {",
+            "    return \"Hello, \" + name + \"!\";",
+            "  }",
+            "}"
+        );
+  }
+
+  static final class ResourceGeneratingProcessor extends AbstractProcessor {
+
+    private boolean generated = false;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (generated) {
+        return false;
+      }
+
+      generated = true;
+
+      try (var writer = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "org.example", "generated.txt")
+          .openWriter()) {
+        writer.write("Hello, World!");
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+
+      return false;
+    }
+  }
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.DebuggingInfo;
+import io.github.ascopes.jct.compilers.JctCompilation;
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.filemanagers.PathFileObject;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Incremental compilation integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Incremental compilation integration tests")
+class IncrementalCompilationIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Only changed compilation units and their dependents are recompiled")
+  @JavacCompilerTest
+  void onlyChangedCompilationUnitsAndTheirDependentsAreRecompiled(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      compiler.incrementalCompilation(true);
+
+      var firstCompilation = compiler.compile(workspace);
+      assertThatCompilation(firstCompilation).isSuccessfulWithoutWarnings();
+      assertThat(binaryNamesOf(firstCompilation))
+          .containsExactlyInAnyOrder(
+              "org.example.HelloWorld",
+              "org.example.greetings.Greeter",
+              "org.example.Unrelated"
+          );
+
+      createGreeter(sources, "Hey");
+      var secondCompilation = compiler.compile(workspace);
+
+      assertThatCompilation(secondCompilation).isSuccessfulWithoutWarnings();
+      assertThat(binaryNamesOf(secondCompilation))
+          .containsExactlyInAnyOrder("org.example.HelloWorld", "org.example.greetings.Greeter");
+      assertThatCompilation(secondCompilation)
+          .classOutputPackages()
+          .allFilesExist(
+              "org/example/HelloWorld.class",
+              "org/example/greetings/Greeter.class",
+              "org/example/Unrelated.class"
+          );
+    }
+  }
+
+  @DisplayName("The previous compilation is returned if nothing has changed")
+  @JavacCompilerTest
+  void thePreviousCompilationIsReturnedIfNothingHasChanged(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace.createSourcePathPackage());
+      compiler.incrementalCompilation(true);
+
+      var firstCompilation = compiler.compile(workspace);
+      var secondCompilation = compiler.compile(workspace);
+
+      assertThat(secondCompilation).isSameAs(firstCompilation);
+    }
+  }
+
+  @DisplayName("Compilation units are recompiled if their outputs are deleted")
+  @JavacCompilerTest
+  void compilationUnitsAreRecompiledIfTheirOutputsAreDeleted(
+      JctCompiler compiler
+  ) throws IOException {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace.createSourcePathPackage());
+      compiler.incrementalCompilation(true);
+
+      var firstCompilation = compiler.compile(workspace);
+      assertThatCompilation(firstCompilation).isSuccessfulWithoutWarnings();
+
+      Files.delete(workspace.getClassOutputPackages().get(0).getPath()
+          .resolve("org/example/Unrelated.class"));
+      var secondCompilation = compiler.compile(workspace);
+
+      assertThat(secondCompilation).isNotSameAs(firstCompilation);
+      assertThatCompilation(secondCompilation).isSuccessfulWithoutWarnings();
+      assertThat(binaryNamesOf(secondCompilation)).containsExactly("org.example.Unrelated");
+      assertThatCompilation(secondCompilation)
+          .classOutputPackages()
+          .allFilesExist(
+              "org/example/HelloWorld.class",
+              "org/example/greetings/Greeter.class",
+              "org/example/Unrelated.class"
+          );
+    }
+  }
+
+  @DisplayName("Changing a compilation unit that declares constants recompiles everything")
+  @JavacCompilerTest
+  void changingCompilationUnitThatDeclaresConstantsRecompilesEverything(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      createConstants(sources, 1);
+      compiler.incrementalCompilation(true);
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+
+      createConstants(sources, 2);
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(binaryNamesOf(compilation)).hasSize(4);
+    }
+  }
+
+  @DisplayName("Deleting a compilation unit deletes its outputs and recompiles its dependents")
+  @JavacCompilerTest
+  void deletingCompilationUnitDeletesItsOutputsAndRecompilesItsDependents(
+      JctCompiler compiler
+  ) throws IOException {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      compiler.incrementalCompilation(true);
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+
+      Files.delete(sources.getPath().resolve("org/example/greetings/Greeter.java"));
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isFailure();
+      assertThat(binaryNamesOf(compilation)).containsExactly("org.example.HelloWorld");
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .fileDoesNotExist("org/example/greetings/Greeter.class");
+    }
+  }
+
+  @DisplayName("Annotation processors only see recompiled compilation units")
+  @JavacCompilerTest
+  void annotationProcessorsOnlySeeRecompiledCompilationUnits(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      var processor = new RootElementRecordingProcessor();
+      compiler
+          .incrementalCompilation(true)
+          .addAnnotationProcessors(processor);
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+      assertThat(processor.rootElements)
+          .containsExactlyInAnyOrder(
+              "org.example.HelloWorld",
+              "org.example.greetings.Greeter",
+              "org.example.Unrelated"
+          );
+
+      processor.rootElements.clear();
+      sources.createFile("org", "example", "Unrelated.java").withContents(
+          "package org.example;",
+          "public class Unrelated {",
+          "  public int value() {",
+          "    return 2;",
+          "  }",
+          "}"
+      );
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+      assertThat(processor.rootElements).containsExactly("org.example.Unrelated");
+    }
+  }
+
+  @DisplayName("Deleting a compilation unit without dependents does not recompile anything")
+  @JavacCompilerTest
+  void deletingCompilationUnitWithoutDependentsDoesNotRecompileAnything(
+      JctCompiler compiler
+  ) throws IOException {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      var processor = new RootElementRecordingProcessor();
+      compiler
+          .incrementalCompilation(true)
+          .addAnnotationProcessors(processor);
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+      processor.rootElements.clear();
+
+      Files.delete(sources.getPath().resolve("org/example/Unrelated.java"));
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(processor.rootElements).isEmpty();
+      assertThat(binaryNamesOf(compilation))
+          .containsExactlyInAnyOrder("org.example.HelloWorld", "org.example.greetings.Greeter");
+      assertThatCompilation(compilation)
+          .classOutputPackages()
+          .fileDoesNotExist("org/example/Unrelated.class")
+          .allFilesExist("org/example/HelloWorld.class", "org/example/greetings/Greeter.class");
+      assertThat(compiler.compile(workspace)).isSameAs(compilation);
+    }
+  }
+
+  @DisplayName("Compilation units are all recompiled if classes have no SourceFile attribute")
+  @JavacCompilerTest
+  void compilationUnitsAreAllRecompiledIfClassesHaveNoSourceFileAttribute(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      compiler
+          .incrementalCompilation(true)
+          .debuggingInfo(Set.of(DebuggingInfo.LINES, DebuggingInfo.VARS));
+
+      assertThatCompilation(compiler.compile(workspace)).isSuccessfulWithoutWarnings();
+
+      createGreeter(sources, "Hey");
+      var compilation = compiler.compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(binaryNamesOf(compilation))
+          .containsExactlyInAnyOrder(
+              "org.example.HelloWorld",
+              "org.example.greetings.Greeter",
+              "org.example.Unrelated"
+          );
+    }
+  }
+
+  @DisplayName("Stale outputs generated by annotation processors are deleted")
+  @JavacCompilerTest
+  void staleOutputsGeneratedByAnnotationProcessorsAreDeleted(
+      JctCompiler compiler
+  ) throws IOException {
+    try (var workspace = Workspaces.newWorkspace()) {
+      var sources = workspace.createSourcePathPackage();
+      createSources(sources);
+      compiler
+          .incrementalCompilation(true)
+          .addAnnotationProcessors(new InfoGeneratingProcessor());
+
+      var firstCompilation = compiler.compile(workspace);
+      assertThatCompilation(firstCompilation).isSuccessfulWithoutWarnings();
+      assertThatCompilation(firstCompilation)
+          .classOutputPackages()
+          .allFilesExist("org/example/UnrelatedInfo.class", "org/example/UnrelatedInfo.txt");
+
+      Files.delete(sources.getPath().resolve("org/example/Unrelated.java"));
+      var secondCompilation = compiler.compile(workspace);
+
+      assertThatCompilation(secondCompilation).isSuccessfulWithoutWarnings();
+      assertThatCompilation(secondCompilation)
+          .classOutputPackages()
+          .fileDoesNotExist("org/example/Unrelated.class")
+          .fileDoesNotExist("org/example/UnrelatedInfo.class")
+          .fileDoesNotExist("org/example/UnrelatedInfo.txt")
+          .allFilesExist("org/example/HelloWorldInfo.class", "org/example/HelloWorldInfo.txt");
+      assertThatCompilation(secondCompilation)
+          .sourceOutputPackages()
+          .fileDoesNotExist("org/example/UnrelatedInfo.java")
+          .allFilesExist("org/example/HelloWorldInfo.java");
+    }
+  }
+
+  private static List<String> binaryNamesOf(JctCompilation compilation) {
+    return compilation.getCompilationUnits()
+        .stream()
+        .map(PathFileObject.class::cast)
+        .map(PathFileObject::getBinaryName)
+        .toList();
+  }
+
+  private static void createSources(ManagedDirectory sources) {
+    sources
+        .createFile("org", "example", "HelloWorld.java")
+        .withContents(
+            "package org.example;",
+            "import org.example.greetings.Greeter;",
+            "public class HelloWorld {",
+            "  public static void main(String[] args) {",
+            "    System.out.println(new Greeter().greet(\"World\"));",
+            "  }",
+            "}"
+        );
+    sources
+        .createFile("org", "example", "Unrelated.java")
+        .withContents(
+            "package org.example;",
+            "public class Unrelated {",
+            "  public int value() {",
+            "    return 1;",
+            "  }",
+            "}"
+        );
+    createGreeter(sources, "Hello");
+  }
+
+  private static void createGreeter(ManagedDirectory sources, String greeting) {
+    sources
+        .createFile("org", "example", "greetings", "Greeter.java")
+        .withContents(
+            "package org.example.greetings;",
+            "public class Greeter {",
+            "  public String greet(String name) {",
+            "    return \"" + greeting + ", \" + name + \"!\";",
+            "  }",
+            "}"
+        );
+  }
+
+  private static void createConstants(ManagedDirectory sources, int value) {
+    sources
+        .createFile("org", "example", "Constants.java")
+        .withContents(
+            "package org.example;",
+            "public class Constants {",
+            "  public static final int VALUE = " + value + ";",
+            "}"
+        );
+  }
+
+  // Implements Processor directly, as AbstractProcessor can only be initialised once.
+  static final class RootElementRecordingProcessor implements Processor {
+
+    private final List<String> rootElements = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedOptions() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+      // Nothing to do.
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      for (var element : roundEnv.getRootElements()) {
+        rootElements.add(((TypeElement) element).getQualifiedName().toString());
+      }
+      return false;
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(
+        Element element,
+        AnnotationMirror annotation,
+        ExecutableElement member,
+        String userText
+    ) {
+      return List.of();
+    }
+  }
+
+  // Generates a class and a resource for each class in the workspace.
+  static final class InfoGeneratingProcessor implements Processor {
+
+    private @Nullable Filer filer;
+
+    @Override
+    public Set<String> getSupportedOptions() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+      filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      for (var element : roundEnv.getRootElements()) {
+        var type = (TypeElement) element;
+        if (type.getSimpleName().toString().endsWith("Info")) {
+          continue;
+        }
+
+        var className = type.getQualifiedName() + "Info";
+        var packageName = className.substring(0, className.lastIndexOf('.'));
+        var simpleName = className.substring(packageName.length() + 1);
+
+        try {
+          var source = requireNonNull(filer).createSourceFile(className, type);
+          try (var writer = source.openWriter()) {
+            writer.write("package " + packageName + "; class " + simpleName + " {}");
+          }
+
+          var resource = filer.createResource(
+              StandardLocation.CLASS_OUTPUT, packageName, simpleName + ".txt", type
+          );
+          try (var writer = resource.openWriter()) {
+            writer.append(type.getQualifiedName());
+          }
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(
+        Element element,
+        AnnotationMirror annotation,
+        ExecutableElement member,
+        String userText
+    ) {
+      return List.of();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.integration.compilation;
+
+import static io.github.ascopes.jct.assertions.JctAssertions.assertThatCompilation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.jct.compilers.JctCompiler;
+import io.github.ascopes.jct.diagnostics.OutputCaptureMode;
+import io.github.ascopes.jct.integration.AbstractIntegrationTest;
+import io.github.ascopes.jct.junit.JavacCompilerTest;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Output capture integration tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("Output capture integration tests")
+class OutputCaptureIntegrationTest extends AbstractIntegrationTest {
+
+  @DisplayName("Verbose output is captured by default")
+  @JavacCompilerTest
+  void verboseOutputIsCapturedByDefault(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace);
+
+      var compilation = compiler
+          .verbose(true)
+          .compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(compilation.getOutputLines()).isNotEmpty();
+      assertThat(compilation.getDiscardedOutputLineCount()).isZero();
+    }
+  }
+
+  @DisplayName("Verbose output is discarded when requested")
+  @JavacCompilerTest
+  void verboseOutputIsDiscardedWhenRequested(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace);
+
+      var compilation = compiler
+          .verbose(true)
+          .outputCaptureMode(OutputCaptureMode.DISCARD)
+          .compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(compilation.getOutputLines()).isEmpty();
+    }
+  }
+
+  @DisplayName("Only the last lines of verbose output are kept when requested")
+  @JavacCompilerTest
+  void onlyTheLastLinesOfVerboseOutputAreKeptWhenRequested(JctCompiler compiler) {
+    try (var workspace = Workspaces.newWorkspace()) {
+      createSources(workspace);
+
+      var compilation = compiler
+          .verbose(true)
+          .outputCaptureMode(OutputCaptureMode.CAPTURE_LAST_LINES)
+          .outputCaptureLineLimit(3)
+          .compile(workspace);
+
+      assertThatCompilation(compilation).isSuccessfulWithoutWarnings();
+      assertThat(compilation.getOutputLines()).hasSize(3);
+      assertThat(compilation.getDiscardedOutputLineCount()).isPositive();
+    }
+  }
+
+  private static void createSources(Workspace workspace) {
+    workspace
+        .createSourcePathPackage()
+        .createFile("org", "example", "HelloWorld.java")
+        .withContents(
+            "package org.example;",
+            "public class HelloWorld {",
+            "  public static void main(String[] args) {",
+            "    System.out.println(\"Hello, World!\");",
+            "  }",
+            "}"
+        );
+  }
+}
@@ -20,10 +20,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import io.github.ascopes.jct.junit.JctExtension;
@@ -54,10 +56,10 @@ import org.junit.platform.testkit.engine.EngineTestKit;
 @DisplayName("JctExtension integration tests")
 class JctExtensionIntegrationTest {
 
-  @DisplayName("Static workspaces are initialized and closed for all tests")
+  @DisplayName("Static workspaces are not created if no test uses them")
   @SuppressWarnings("resource")
   @Test
-  void staticWorkspacesAreInitializedAndClosedOnceForAllTests() {
+  void staticWorkspacesAreNotCreatedIfNoTestUsesThem() {
     var workspace = mock(Workspace.class);
 
     try (var workspacesMock = mockStatic(Workspaces.class)) {
@@ -68,7 +70,27 @@ class JctExtensionIntegrationTest {
           .execute();
 
       assertThat(results.testEvents().succeeded().count()).isEqualTo(7);
+      workspacesMock.verifyNoInteractions();
+      verifyNoInteractions(workspace);
+    }
+  }
+
+  @DisplayName("Static workspaces are created on first use and closed after all tests")
+  @SuppressWarnings("resource")
+  @Test
+  void staticWorkspacesAreCreatedOnFirstUseAndClosedAfterAllTests() {
+    var workspace = mock(Workspace.class);
+
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
+      workspacesMock.when(() -> Workspaces.newWorkspace(any())).thenReturn(workspace);
+
+      var results = testKit()
+          .selectors(selectClass(StaticUsageTestCase.class))
+          .execute();
+
+      assertThat(results.testEvents().succeeded().count()).isEqualTo(3);
       workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES));
+      verify(workspace, times(2)).getAllPaths();
       verify(workspace).close();
       workspacesMock.verifyNoMoreInteractions();
       verifyNoMoreInteractions(workspace);
@@ -99,9 +121,46 @@ class JctExtensionIntegrationTest {
     }
   }
 
-  @DisplayName("Instance workspaces are initialized and closed for each test case")
+  @Disabled("This is just test data")
+  @ExtendWith(JctExtension.class)
+  static class StaticUsageTestCase {
+
+    @Managed
+    @SuppressWarnings("NullAway")
+    static Workspace workspace;
+
+    @Test
+    void testWorkspaceIsUsed() {
+      assertThat(workspace.getAllPaths()).isNotNull();
+    }
+
+    @Test
+    void testWorkspaceIsUsedAgain() {
+      assertThat(workspace.getAllPaths()).isNotNull();
+    }
+
+    @Test
+    void testWorkspaceIsNotUsed() {
+      assertThat(workspace).isNotNull();
+    }
+  }
+
+  @DisplayName("Instance workspaces are not created if no test uses them")
+  @Test
+  void instanceWorkspacesAreNotCreatedIfNoTestUsesThem() {
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
+      var results = testKit()
+          .selectors(selectClass(InstanceLifecycleTestCase.class))
+          .execute();
+
+      assertThat(results.testEvents().succeeded().count()).isEqualTo(7);
+      workspacesMock.verifyNoInteractions();
+    }
+  }
+
+  @DisplayName("Instance workspaces are created on first use and closed for each test case")
   @Test
-  void instanceWorkspacesAreInitializedAndClosedForEachTest() {
+  void instanceWorkspacesAreCreatedOnFirstUseAndClosedForEachTest() {
     var workspaces = new ArrayList<Workspace>();
 
     try (var workspacesMock = mockStatic(Workspaces.class)) {
@@ -113,15 +172,17 @@ class JctExtensionIntegrationTest {
           });
 
       var results = testKit()
-          .selectors(selectClass(InstanceLifecycleTestCase.class))
+          .selectors(selectClass(InstanceUsageTestCase.class))
           .execute();
 
-      assertThat(results.testEvents().succeeded().count()).isEqualTo(7);
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(21));
+      assertThat(results.testEvents().succeeded().count()).isEqualTo(3);
+      // One workspace for the first test, two for the second, and none for the third.
+      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(3));
       workspacesMock.verifyNoMoreInteractions();
 
       assertThat(workspaces)
-          .hasSize(21)
+          .hasSize(3)
+          .allSatisfy(ws -> verify(ws, atLeastOnce()).getAllPaths())
           .allSatisfy(ws -> verify(ws).close())
           .allSatisfy(ws -> verifyNoMoreInteractions(ws));
     }
@@ -165,31 +226,47 @@ class JctExtensionIntegrationTest {
     }
   }
 
-  @DisplayName("Instance workspaces are initialized and closed for each parameterized test case")
-  @Test
-  void instanceWorkspacesAreInitializedAndClosedForEachParameterizedTest() {
-    var workspaces = new ArrayList<Workspace>();
+  @Disabled("This is just test data")
+  @ExtendWith(JctExtension.class)
+  static class InstanceUsageTestCase {
 
-    try (var workspacesMock = mockStatic(Workspaces.class)) {
-      workspacesMock.when(() -> Workspaces.newWorkspace(any()))
-          .then(ctx -> {
-            var workspace = mock(Workspace.class);
-            workspaces.add(workspace);
-            return workspace;
-          });
+    @Managed
+    @SuppressWarnings("NullAway")
+    Workspace workspace1;
+
+    @Managed
+    @SuppressWarnings("NullAway")
+    Workspace workspace2;
+
+    @Test
+    void testOneWorkspaceIsUsed() {
+      assertThat(workspace1.getAllPaths()).isNotNull();
+      assertThat(workspace1.getAllPaths()).isNotNull();
+    }
+
+    @Test
+    void testBothWorkspacesAreUsed() {
+      assertThat(workspace1.getAllPaths()).isNotNull();
+      assertThat(workspace2.getAllPaths()).isNotNull();
+    }
 
+    @Test
+    void testNoWorkspacesAreUsed() {
+      assertThat(workspace1).isNotNull();
+      assertThat(workspace2).isNotNull();
+    }
+  }
+
+  @DisplayName("Instance workspaces are not created for parameterized tests that do not use them")
+  @Test
+  void instanceWorkspacesAreNotCreatedForParameterizedTestsThatDoNotUseThem() {
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
       var results = testKit()
           .selectors(selectClass(ParameterizedLifecycleTestCase.class))
           .execute();
 
       assertThat(results.testEvents().succeeded().count()).isEqualTo(10);
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(10));
-      workspacesMock.verifyNoMoreInteractions();
-
-      assertThat(workspaces)
-          .hasSize(10)
-          .allSatisfy(ws -> verify(ws).close())
-          .allSatisfy(ws -> verifyNoMoreInteractions(ws));
+      workspacesMock.verifyNoInteractions();
     }
   }
 
@@ -210,31 +287,16 @@ class JctExtensionIntegrationTest {
     }
   }
 
-  @DisplayName("Instance workspaces are initialized and closed once for test factories")
+  @DisplayName("Instance workspaces are not created for test factories that do not use them")
   @Test
-  void instanceWorkspacesAreInitializedAndClosedOnceForTestFactories() {
-    var workspaces = new ArrayList<Workspace>();
-
+  void instanceWorkspacesAreNotCreatedForTestFactoriesThatDoNotUseThem() {
     try (var workspacesMock = mockStatic(Workspaces.class)) {
-      workspacesMock.when(() -> Workspaces.newWorkspace(any()))
-          .then(ctx -> {
-            var workspace = mock(Workspace.class);
-            workspaces.add(workspace);
-            return workspace;
-          });
-
       var results = testKit()
           .selectors(selectClass(DynamicLifecycleTestCase.class))
           .execute();
 
       assertThat(results.testEvents().succeeded().count()).isEqualTo(10);
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(1));
-      workspacesMock.verifyNoMoreInteractions();
-
-      assertThat(workspaces)
-          .hasSize(1)
-          .allSatisfy(ws -> verify(ws).close())
-          .allSatisfy(ws -> verifyNoMoreInteractions(ws));
+      workspacesMock.verifyNoInteractions();
     }
   }
 
@@ -269,11 +331,8 @@ class JctExtensionIntegrationTest {
           .execute();
 
       assertThat(results.testEvents().succeeded().count()).isEqualTo(1);
-      workspacesMock
-          .verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(2));
-      workspacesMock
-          .verify(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES), times(2));
-      workspacesMock.verifyNoMoreInteractions();
+      // The path strategy is known up front, so the workspaces never need creating.
+      workspacesMock.verifyNoInteractions();
     }
   }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.compilers.impl.JavacCompilerPool;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+
+/**
+ * {@link JavacCompilerPoolExtension} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("JavacCompilerPoolExtension tests")
+class JavacCompilerPoolExtensionTest {
+
+  @DisplayName("The beforeAll hook activates the pool in the root store and reports warm-up time")
+  @SuppressWarnings("unchecked")
+  @Test
+  void beforeAllHookActivatesThePoolInTheRootStore() {
+    // Given
+    var context = mock(ExtensionContext.class);
+    var root = mock(ExtensionContext.class);
+    var store = mock(Store.class);
+    var pool = mock(JavacCompilerPool.class);
+    when(context.getRoot()).thenReturn(root);
+    when(root.getStore(any())).thenReturn(store);
+    when(context.getConfigurationParameter(
+        eq(JavacCompilerPoolExtension.WARM_UP_ITERATIONS_PARAMETER),
+        any(Function.class)
+    )).thenReturn(Optional.of(5));
+    when(store.computeIfAbsent(any(), any(), any()))
+        .thenAnswer(ctx -> ctx.<Function<Object, Object>>getArgument(1).apply(ctx.getArgument(0)));
+    when(pool.getWarmUpIterations()).thenReturn(5);
+    when(pool.getWarmUpDuration()).thenReturn(Duration.ofMillis(1234));
+
+    try (var poolStatic = mockStatic(JavacCompilerPool.class)) {
+      poolStatic.when(() -> JavacCompilerPool.activate(5)).thenReturn(pool);
+
+      // When
+      new JavacCompilerPoolExtension().beforeAll(context);
+
+      // Then
+      poolStatic.verify(() -> JavacCompilerPool.activate(5));
+      verify(context).publishReportEntry(Map.of(
+          "jct.javac.pool.warmUpIterations", "5",
+          "jct.javac.pool.warmUpMillis", "1234"
+      ));
+    }
+  }
+
+  @DisplayName("The pool is released when the stored resource is closed")
+  @SuppressWarnings("unchecked")
+  @Test
+  void poolIsReleasedWhenStoredResourceIsClosed() throws Exception {
+    // Given
+    var context = mock(ExtensionContext.class);
+    var root = mock(ExtensionContext.class);
+    var store = mock(Store.class);
+    var pool = mock(JavacCompilerPool.class);
+    var resource = new Object[1];
+    when(context.getRoot()).thenReturn(root);
+    when(root.getStore(any())).thenReturn(store);
+    when(context.getConfigurationParameter(any(), any(Function.class)))
+        .thenReturn(Optional.empty());
+    when(store.computeIfAbsent(any(), any(), any())).thenAnswer(ctx -> {
+      resource[0] = ctx.<Function<Object, Object>>getArgument(1).apply(ctx.getArgument(0));
+      return resource[0];
+    });
+    when(pool.getWarmUpDuration()).thenReturn(Duration.ZERO);
+
+    try (var poolStatic = mockStatic(JavacCompilerPool.class)) {
+      poolStatic.when(() -> JavacCompilerPool.activate(
+          JavacCompilerPoolExtension.DEFAULT_WARM_UP_ITERATIONS
+      )).thenReturn(pool);
+      new JavacCompilerPoolExtension().beforeAll(context);
+    }
+
+    // When
+    assertThat(resource[0]).isInstanceOf(AutoCloseable.class);
+    ((AutoCloseable) resource[0]).close();
+
+    // Then
+    verify(pool).close();
+  }
+}
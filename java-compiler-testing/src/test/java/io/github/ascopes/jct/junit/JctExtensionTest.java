@@ -20,7 +20,6 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -30,6 +29,7 @@ import io.github.ascopes.jct.workspaces.PathStrategy;
 import io.github.ascopes.jct.workspaces.Workspace;
 import io.github.ascopes.jct.workspaces.Workspaces;
 import java.util.List;
+import javax.tools.StandardLocation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
@@ -61,10 +61,10 @@ class JctExtensionTest {
     extension = new JctExtension();
   }
 
-  @DisplayName("The beforeAll hook initialises annotated static workspace fields")
-  @SuppressWarnings("NullAway")
+  @DisplayName("The beforeAll hook lazily initialises annotated static workspace fields")
+  @SuppressWarnings({"DirectInvocationOnMock", "NullAway"})
   @Test
-  void beforeAllHookInitialisesAnnotatedStaticWorkspaceFields() {
+  void beforeAllHookLazilyInitialisesAnnotatedStaticWorkspaceFields() {
     // Given
     try (var workspacesMock = mockStatic(Workspaces.class, Answers.RETURNS_MOCKS)) {
       StaticWorkspaceTestCase.staticWorkspace1 = null;
@@ -73,11 +73,8 @@ class JctExtensionTest {
       StaticWorkspaceTestCase.someInvalidStaticWorkspace = null;
       StaticWorkspaceTestCase.someIgnoredStaticWorkspace = null;
 
-      var expectedWorkspace1 = mock(Workspace.class);
-      var expectedWorkspace2 = mock(Workspace.class);
-      var expectedWorkspace3 = mock(Workspace.class);
-      workspacesMock.when(() -> Workspaces.newWorkspace(any()))
-          .thenReturn(expectedWorkspace1, expectedWorkspace2, expectedWorkspace3);
+      var expectedWorkspace = mock(Workspace.class);
+      workspacesMock.when(() -> Workspaces.newWorkspace(any())).thenReturn(expectedWorkspace);
       when(extensionContext.getRequiredTestClass()).thenAnswer(
           ctx -> StaticWorkspaceTestCase.class);
 
@@ -86,18 +83,31 @@ class JctExtensionTest {
           .doesNotThrowAnyException();
 
       // Then
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(2));
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES));
-      workspacesMock.verifyNoMoreInteractions();
-
-      assertThat(List.of(
-          StaticWorkspaceTestCase.staticWorkspace1,
-          StaticWorkspaceTestCase.staticWorkspace2,
-          StaticWorkspaceTestCase.staticWorkspace3
-      )).containsExactlyInAnyOrder(expectedWorkspace1, expectedWorkspace2, expectedWorkspace3);
+      workspacesMock.verifyNoInteractions();
+
+      assertThat(StaticWorkspaceTestCase.staticWorkspace1)
+          .isInstanceOf(ManagedWorkspace.class)
+          .extracting(Workspace::getPathStrategy)
+          .isEqualTo(PathStrategy.RAM_DIRECTORIES);
+      assertThat(StaticWorkspaceTestCase.staticWorkspace2)
+          .isInstanceOf(ManagedWorkspace.class)
+          .extracting(Workspace::getPathStrategy)
+          .isEqualTo(PathStrategy.RAM_DIRECTORIES);
+      assertThat(StaticWorkspaceTestCase.staticWorkspace3)
+          .isInstanceOf(ManagedWorkspace.class)
+          .extracting(Workspace::getPathStrategy)
+          .isEqualTo(PathStrategy.TEMP_DIRECTORIES);
 
       assertThat(StaticWorkspaceTestCase.someInvalidStaticWorkspace).isNull();
       assertThat(StaticWorkspaceTestCase.someIgnoredStaticWorkspace).isNull();
+
+      // When
+      StaticWorkspaceTestCase.staticWorkspace3.createSourcePathPackage();
+
+      // Then
+      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES));
+      workspacesMock.verifyNoMoreInteractions();
+      verify(expectedWorkspace).createPackage(StandardLocation.SOURCE_PATH);
     }
   }
 
@@ -171,10 +181,10 @@ class JctExtensionTest {
     }
   }
 
-  @DisplayName("The beforeEach hook initialises annotated instance workspace fields")
+  @DisplayName("The beforeEach hook lazily initialises annotated instance workspace fields")
   @SuppressWarnings("NullAway")
   @Test
-  void beforeEachHookInitialisesAnnotatedInstanceWorkspaceFields() {
+  void beforeEachHookLazilyInitialisesAnnotatedInstanceWorkspaceFields() {
     // Given
     try (var workspacesMock = mockStatic(Workspaces.class, Answers.RETURNS_MOCKS)) {
       InstanceWorkspaceTestCase.someIgnoredStaticWorkspace = null;
@@ -182,25 +192,8 @@ class JctExtensionTest {
 
       var instance1 = new InstanceWorkspaceTestCase();
       var instance2 = new InstanceWorkspaceTestCase();
-      var instance3 = new InstanceWorkspaceTestCase();
       var testInstances = mock(TestInstances.class);
-      when(testInstances.getAllInstances()).thenReturn(List.of(instance1, instance2, instance3));
-
-      var expectedWorkspace1 = mock(Workspace.class);
-      var expectedWorkspace2 = mock(Workspace.class);
-      var expectedWorkspace3 = mock(Workspace.class);
-      var expectedWorkspace4 = mock(Workspace.class);
-      var expectedWorkspace5 = mock(Workspace.class);
-      var expectedWorkspace6 = mock(Workspace.class);
-      var expectedWorkspace7 = mock(Workspace.class);
-      var expectedWorkspace8 = mock(Workspace.class);
-      var expectedWorkspace9 = mock(Workspace.class);
-      workspacesMock.when(() -> Workspaces.newWorkspace(any()))
-          .thenReturn(
-              expectedWorkspace1, expectedWorkspace2, expectedWorkspace3, expectedWorkspace4,
-              expectedWorkspace5, expectedWorkspace6, expectedWorkspace7, expectedWorkspace8,
-              expectedWorkspace9
-          );
+      when(testInstances.getAllInstances()).thenReturn(List.of(instance1, instance2));
       when(extensionContext.getRequiredTestInstances())
           .thenReturn(testInstances);
 
@@ -209,28 +202,33 @@ class JctExtensionTest {
           .doesNotThrowAnyException();
 
       // Then
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES), times(6));
-      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES), times(3));
-      workspacesMock.verifyNoMoreInteractions();
+      workspacesMock.verifyNoInteractions();
+
+      for (var instance : List.of(instance1, instance2)) {
+        assertThat(List.of(instance.workspace1, instance.workspace2, instance.workspace3))
+            .allSatisfy(workspace -> assertThat(workspace)
+                .isInstanceOf(ManagedWorkspace.class)
+                .extracting(ManagedWorkspace.class::cast)
+                .returns(false, ManagedWorkspace::isInitialized))
+            .extracting(Workspace::getPathStrategy)
+            .containsExactly(
+                PathStrategy.RAM_DIRECTORIES,
+                PathStrategy.RAM_DIRECTORIES,
+                PathStrategy.TEMP_DIRECTORIES
+            );
+      }
 
       assertThat(List.of(
           instance1.workspace1,
           instance1.workspace2,
-          instance1.workspace3
-      )).containsExactlyInAnyOrder(expectedWorkspace1, expectedWorkspace2, expectedWorkspace3);
-
-      assertThat(List.of(
+          instance1.workspace3,
           instance2.workspace1,
           instance2.workspace2,
           instance2.workspace3
-      )).containsExactlyInAnyOrder(expectedWorkspace4, expectedWorkspace5, expectedWorkspace6);
-
-      assertThat(List.of(
-          instance3.workspace1,
-          instance3.workspace2,
-          instance3.workspace3
-      )).containsExactlyInAnyOrder(expectedWorkspace7, expectedWorkspace8, expectedWorkspace9);
+      )).doesNotHaveDuplicates();
 
+      assertThat(instance1.someIgnoredInstanceWorkspace).isNull();
+      assertThat(instance1.someInvalidInstanceWorkspace).isNull();
       assertThat(InstanceWorkspaceTestCase.someIgnoredStaticWorkspace).isNull();
       assertThat(InstanceWorkspaceTestCase.someInvalidStaticWorkspace).isNull();
     }
@@ -348,31 +346,41 @@ class JctExtensionTest {
   @DisplayName("The beforeEach hook will initialise workspaces in any superclasses")
   @Test
   void beforeEachHookWillInitialiseWorkspacesInAnySuperClasses() {
+    // Given
+    var instance = new TestCaseImpl();
+    var testInstances = mock(TestInstances.class);
+    when(testInstances.getAllInstances()).thenReturn(List.of(instance));
+    when(extensionContext.getRequiredTestInstances()).thenReturn(testInstances);
+
+    // When
+    assertThatCode(() -> extension.beforeEach(extensionContext))
+        .doesNotThrowAnyException();
+
+    // Then
+    assertThat(instance.testCaseImplWorkspace).isInstanceOf(ManagedWorkspace.class);
+    assertThat(instance.testCaseBase3Workspace).isInstanceOf(ManagedWorkspace.class);
+    assertThat(instance.testCaseBase2Workspace).isInstanceOf(ManagedWorkspace.class);
+    assertThat(instance.testCaseBase1Workspace).isInstanceOf(ManagedWorkspace.class);
+  }
+
+  @DisplayName("The afterEach hook does not create workspaces that were never used")
+  @SuppressWarnings("DirectInvocationOnMock")
+  @Test
+  void afterEachHookDoesNotCreateWorkspacesThatWereNeverUsed() throws Exception {
     // Given
     try (var workspacesMock = mockStatic(Workspaces.class, Answers.RETURNS_MOCKS)) {
       var instance = new TestCaseImpl();
       var testInstances = mock(TestInstances.class);
       when(testInstances.getAllInstances()).thenReturn(List.of(instance));
       when(extensionContext.getRequiredTestInstances()).thenReturn(testInstances);
-
-      var expectedWorkspace1 = mock(Workspace.class);
-      var expectedWorkspace2 = mock(Workspace.class);
-      var expectedWorkspace3 = mock(Workspace.class);
-      var expectedWorkspace4 = mock(Workspace.class);
-
-      workspacesMock.when(() -> Workspaces.newWorkspace(any()))
-          .thenReturn(expectedWorkspace1, expectedWorkspace2, expectedWorkspace3,
-              expectedWorkspace4);
+      extension.beforeEach(extensionContext);
 
       // When
-      assertThatCode(() -> extension.beforeEach(extensionContext))
-          .doesNotThrowAnyException();
+      extension.afterEach(extensionContext);
 
       // Then
-      assertThat(instance.testCaseImplWorkspace).isSameAs(expectedWorkspace1);
-      assertThat(instance.testCaseBase3Workspace).isSameAs(expectedWorkspace2);
-      assertThat(instance.testCaseBase2Workspace).isSameAs(expectedWorkspace3);
-      assertThat(instance.testCaseBase1Workspace).isSameAs(expectedWorkspace4);
+      workspacesMock.verifyNoInteractions();
+      assertThat(instance.testCaseImplWorkspace.isClosed()).isTrue();
     }
   }
 
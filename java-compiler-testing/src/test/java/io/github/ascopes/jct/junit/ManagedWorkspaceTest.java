@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+/**
+ * {@link ManagedWorkspace} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("ManagedWorkspace tests")
+@Isolated("Messes with static mocks")
+class ManagedWorkspaceTest {
+
+  @DisplayName("The workspace is not created until it is first used")
+  @Test
+  void theWorkspaceIsNotCreatedUntilItIsFirstUsed() {
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
+      // Given
+      var delegate = mock(Workspace.class);
+      var directory = mock(ManagedDirectory.class);
+      workspacesMock.when(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES))
+          .thenReturn(delegate);
+      given(delegate.createPackage(StandardLocation.SOURCE_PATH)).willReturn(directory);
+      var workspace = new ManagedWorkspace(PathStrategy.TEMP_DIRECTORIES);
+
+      // Then
+      assertThat(workspace.getPathStrategy()).isEqualTo(PathStrategy.TEMP_DIRECTORIES);
+      assertThat(workspace.isInitialized()).isFalse();
+      workspacesMock.verifyNoInteractions();
+
+      // When
+      var first = workspace.createSourcePathPackage();
+      var second = workspace.createSourcePathPackage();
+
+      // Then
+      assertThat(first).isSameAs(directory);
+      assertThat(second).isSameAs(directory);
+      assertThat(workspace.isInitialized()).isTrue();
+      workspacesMock.verify(() -> Workspaces.newWorkspace(PathStrategy.TEMP_DIRECTORIES));
+      workspacesMock.verifyNoMoreInteractions();
+    }
+  }
+
+  @DisplayName("Closing the workspace closes the created workspace")
+  @Test
+  void closingTheWorkspaceClosesTheCreatedWorkspace() {
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
+      // Given
+      var delegate = mock(Workspace.class);
+      workspacesMock.when(() -> Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES))
+          .thenReturn(delegate);
+      var workspace = new ManagedWorkspace(PathStrategy.RAM_DIRECTORIES);
+      workspace.getAllPaths();
+
+      // When
+      workspace.close();
+
+      // Then
+      then(delegate).should().close();
+      assertThat(workspace.isClosed()).isTrue();
+    }
+  }
+
+  @DisplayName("Closing an unused workspace does not create it")
+  @Test
+  void closingAnUnusedWorkspaceDoesNotCreateIt() {
+    try (var workspacesMock = mockStatic(Workspaces.class)) {
+      // Given
+      var workspace = new ManagedWorkspace(PathStrategy.RAM_DIRECTORIES);
+
+      // When
+      workspace.close();
+
+      // Then
+      workspacesMock.verifyNoInteractions();
+      assertThat(workspace.isClosed()).isTrue();
+      assertThatThrownBy(workspace::getAllPaths)
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessage("Managed workspace has been closed");
+    }
+  }
+
+  @DisplayName("Managed workspaces can be frozen and forked")
+  @Test
+  void managedWorkspacesCanBeFrozenAndForked() {
+    // Given
+    var workspace = new ManagedWorkspace(PathStrategy.RAM_DIRECTORIES);
+    workspace.createSourcePathPackage().createFile("Foo.java").withContents("class Foo {}");
+
+    try {
+      // When
+      try (var template = Workspaces.freeze(workspace);
+          var fork = template.fork()) {
+
+        // Then
+        assertThat(fork.getSourcePathPackages())
+            .singleElement()
+            .extracting(root -> root.getPath().resolve("Foo.java"))
+            .satisfies(file -> assertThat(file).hasContent("class Foo {}"));
+      }
+
+      // Closing the template must leave the managed workspace usable by the test.
+      assertThat(workspace.isClosed()).isFalse();
+      workspace.createSourcePathPackage().createFile("Bar.java").withContents("class Bar {}");
+    } finally {
+      workspace.close();
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package io.github.ascopes.jct.utils;
 
 import static io.github.ascopes.jct.utils.LoomPolyfill.getCurrentThread;
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -87,4 +88,32 @@ class LoomPolyfillTest implements UtilityClassTestTemplate {
     assertThat(getCurrentThread())
         .isSameAs(Thread.currentThread());
   }
+
+  @DisplayName(".newVirtualThreadPerTaskExecutor() on JRE <= 20 returns null")
+  @EnabledForJreRange(max = JRE.JAVA_20)
+  @Test
+  void newVirtualThreadPerTaskExecutorOnJre20AndOlderReturnsNull() {
+    // Then
+    assertThat(LoomPolyfill.newVirtualThreadPerTaskExecutor()).isNull();
+  }
+
+  @DisplayName(".newVirtualThreadPerTaskExecutor() on JRE >= 21 runs tasks on virtual threads")
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  @Test
+  void newVirtualThreadPerTaskExecutorOnJre21AndNewerRunsTasksOnVirtualThreads() throws Throwable {
+    // Given
+    var executor = requireNonNull(LoomPolyfill.newVirtualThreadPerTaskExecutor());
+
+    try {
+      // When
+      var isVirtual = executor.submit(() -> (boolean) Thread.class
+          .getDeclaredMethod("isVirtual")
+          .invoke(Thread.currentThread()));
+
+      // Then
+      assertThat(isVirtual.get()).isTrue();
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link WorkspaceDumpOptions} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("WorkspaceDumpOptions tests")
+class WorkspaceDumpOptionsTest {
+
+  @DisplayName(".unlimited() does not limit anything")
+  @Test
+  void unlimitedDoesNotLimitAnything() {
+    // When
+    var options = WorkspaceDumpOptions.unlimited();
+
+    // Then
+    assertThat(options.getMaxDepth()).isEqualTo(Integer.MAX_VALUE);
+    assertThat(options.getMaxEntriesPerDirectory()).isEqualTo(Integer.MAX_VALUE);
+    assertThat(options.isFileSizes()).isFalse();
+    assertThat(options.getGlob()).isNull();
+  }
+
+  @DisplayName("The builder sets every option")
+  @Test
+  void theBuilderSetsEveryOption() {
+    // When
+    var options = WorkspaceDumpOptions.builder()
+        .maxDepth(3)
+        .maxEntriesPerDirectory(10)
+        .fileSizes(true)
+        .glob("**/*.class")
+        .build();
+
+    // Then
+    assertThat(options.getMaxDepth()).isEqualTo(3);
+    assertThat(options.getMaxEntriesPerDirectory()).isEqualTo(10);
+    assertThat(options.isFileSizes()).isTrue();
+    assertThat(options.getGlob()).isEqualTo("**/*.class");
+  }
+
+  @DisplayName(".maxDepth(int) rejects negative values")
+  @ParameterizedTest(name = "for maxDepth = {0}")
+  @ValueSource(ints = {-1, Integer.MIN_VALUE})
+  void maxDepthRejectsNegativeValues(int maxDepth) {
+    // Given
+    var builder = WorkspaceDumpOptions.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.maxDepth(maxDepth))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxDepth cannot be negative");
+  }
+
+  @DisplayName(".maxEntriesPerDirectory(int) rejects values less than 1")
+  @ParameterizedTest(name = "for maxEntriesPerDirectory = {0}")
+  @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+  void maxEntriesPerDirectoryRejectsValuesLessThanOne(int maxEntriesPerDirectory) {
+    // Given
+    var builder = WorkspaceDumpOptions.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.maxEntriesPerDirectory(maxEntriesPerDirectory))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxEntriesPerDirectory must be at least 1");
+  }
+
+  @DisplayName(".glob(String) rejects invalid globs")
+  @Test
+  void globRejectsInvalidGlobs() {
+    // Given
+    var builder = WorkspaceDumpOptions.builder();
+
+    // Then
+    assertThatThrownBy(() -> builder.glob("foo/{bar"))
+        .isInstanceOf(PatternSyntaxException.class);
+  }
+}
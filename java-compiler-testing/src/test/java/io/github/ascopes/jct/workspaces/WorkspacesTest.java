@@ -20,8 +20,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.github.ascopes.jct.workspaces.impl.WorkspaceImpl;
+import io.github.ascopes.jct.workspaces.impl.WorkspaceTemplateImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -73,4 +77,46 @@ class WorkspacesTest {
 
     }
   }
+
+  @DisplayName("freeze(Workspace) returns a new WorkspaceTemplateImpl")
+  @Test
+  void freezeReturnsNewWorkspaceTemplateImpl() {
+    // Given
+    try (var workspace = Workspaces.newWorkspace()) {
+      // When
+      var template = Workspaces.freeze(workspace);
+
+      // Then
+      assertThat(template).isInstanceOf(WorkspaceTemplateImpl.class);
+      assertThat(((WorkspaceImpl) workspace).isFrozen()).isTrue();
+    }
+  }
+
+  @DisplayName("freeze(Workspace) copies workspaces not created by Workspaces")
+  @Test
+  void freezeCopiesForeignWorkspaces() {
+    // Given
+    try (var original = Workspaces.newWorkspace()) {
+      original.createSourcePathPackage().createFile("Foo.java").withContents("class Foo {}");
+      var workspace = mock(Workspace.class);
+      when(workspace.getPathStrategy()).thenReturn(original.getPathStrategy());
+      when(workspace.getAllPaths()).thenReturn(original.getAllPaths());
+
+      // When
+      try (var template = Workspaces.freeze(workspace);
+          var fork = template.fork()) {
+
+        // Then
+        assertThat(fork.getSourcePathPackages())
+            .singleElement()
+            .extracting(root -> root.getPath().resolve("Foo.java"))
+            .satisfies(file -> assertThat(file).hasContent("class Foo {}"));
+      }
+
+      verify(workspace, never()).close();
+      assertThat(((WorkspaceImpl) original).isFrozen()).isFalse();
+      assertThat(original.getSourcePathPackages().get(0).getPath().resolve("Foo.java"))
+          .hasContent("class Foo {}");
+    }
+  }
 }
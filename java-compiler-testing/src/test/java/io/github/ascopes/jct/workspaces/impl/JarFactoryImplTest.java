@@ -20,15 +20,24 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
 import io.github.ascopes.jct.fixtures.Fixtures;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * {@link JarFactoryImpl} tests.
@@ -157,6 +166,114 @@ class JarFactoryImplTest {
     }
   }
 
+  @DisplayName("Uncompressed JARs store every entry without compression")
+  @Test
+  void uncompressedJarsStoreEveryEntryWithoutCompression() throws IOException {
+    // Given
+    try (var fs = Fixtures.someTemporaryFileSystem()) {
+      var inputsDir = Files.createDirectories(fs.getRootPath().resolve("inputs"));
+      final var outputJar = fs.getRootPath().resolve("output.jar");
+      Files.createDirectories(inputsDir.resolve("foo"));
+      Files.writeString(inputsDir.resolve("foo").resolve("bar.txt"), "Foo! Bar!");
+      Files.writeString(inputsDir.resolve("baz.txt"), "Baz!".repeat(1_000));
+
+      // When
+      JarFactoryImpl.getInstance().createJarFrom(outputJar, inputsDir, false);
+
+      // Then
+      var entries = readEntries(outputJar);
+      assertThat(entries)
+          .extracting(ZipEntry::getName)
+          .containsExactly("baz.txt", "foo/bar.txt");
+      assertThat(entries)
+          .allSatisfy(entry -> assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED));
+
+      withinJar(outputJar, jarFs -> {
+        var root = jarFs.getRootDirectories().iterator().next();
+        assertThat(root.resolve("foo").resolve("bar.txt")).hasContent("Foo! Bar!");
+        assertThat(root.resolve("baz.txt")).hasContent("Baz!".repeat(1_000));
+      });
+    }
+  }
+
+  @DisplayName("JARs created from identical directories are identical")
+  @ParameterizedTest(name = "when compressed = {0}")
+  @ValueSource(booleans = {true, false})
+  void jarsCreatedFromIdenticalDirectoriesAreIdentical(boolean compressed) throws IOException {
+    // Given
+    try (var fs = Fixtures.someTemporaryFileSystem()) {
+      var inputsDir = Files.createDirectories(fs.getRootPath().resolve("inputs"));
+      for (var name : List.of("zzz.txt", "aaa.txt", "mmm/nnn.txt", "bbb/ccc/ddd.txt")) {
+        var file = inputsDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "Contents of " + name);
+      }
+
+      var first = new ByteArrayOutputStream();
+      var second = new ByteArrayOutputStream();
+
+      // When
+      JarFactoryImpl.getInstance().createJarFrom(first, inputsDir, compressed);
+      Files.setLastModifiedTime(inputsDir.resolve("aaa.txt"), FileTime.fromMillis(0));
+      JarFactoryImpl.getInstance().createJarFrom(second, inputsDir, compressed);
+
+      // Then
+      assertThat(second.toByteArray()).isEqualTo(first.toByteArray());
+    }
+  }
+
+  @DisplayName("JARs with many entries contain every entry in order")
+  @ParameterizedTest(name = "when compressed = {0}")
+  @ValueSource(booleans = {true, false})
+  void jarsWithManyEntriesContainEveryEntryInOrder(boolean compressed) throws IOException {
+    // Given
+    try (var fs = Fixtures.someTemporaryFileSystem()) {
+      var inputsDir = Files.createDirectories(fs.getRootPath().resolve("inputs"));
+      final var outputJar = fs.getRootPath().resolve("output.jar");
+      var expectedNames = new ArrayList<String>();
+
+      for (var i = 0; i < JarFactoryImpl.READ_AHEAD_MIN_FILES * 4; ++i) {
+        var name = String.format("pkg%d/File%03d.class", i % 3, i);
+        var file = inputsDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, name);
+        expectedNames.add(name);
+      }
+
+      // Too large to be read ahead, so it is streamed instead.
+      var largeContent = "large".repeat((int) JarFactoryImpl.READ_AHEAD_MAX_FILE_SIZE);
+      Files.writeString(inputsDir.resolve("large.bin"), largeContent);
+      expectedNames.add("large.bin");
+      Collections.sort(expectedNames);
+
+      // When
+      JarFactoryImpl.getInstance().createJarFrom(outputJar, inputsDir, compressed);
+
+      // Then
+      assertThat(readEntries(outputJar))
+          .extracting(ZipEntry::getName)
+          .containsExactlyElementsOf(expectedNames);
+
+      withinJar(outputJar, jarFs -> {
+        var root = jarFs.getRootDirectories().iterator().next();
+        assertThat(root.resolve("large.bin")).hasContent(largeContent);
+        expectedNames.stream()
+            .filter(name -> name.endsWith(".class"))
+            .forEach(name -> assertThat(root.resolve(name)).hasContent(name));
+      });
+    }
+  }
+
+  private static List<ZipEntry> readEntries(Path jar) throws IOException {
+    var entries = new ArrayList<ZipEntry>();
+    try (var input = new ZipInputStream(Files.newInputStream(jar))) {
+      for (var entry = input.getNextEntry(); entry != null; entry = input.getNextEntry()) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+
   private static void withinJar(Path jar, ThrowingFileSystemConsumer consumer) throws IOException {
     var provider = FileSystemProvider
         .installedProviders()
@@ -200,6 +200,152 @@ class MemoryFileSystemProviderImplTest {
     }
   }
 
+  @DisplayName("File system pooling tests")
+  @Nested
+  class PoolingTest {
+
+    @DisplayName("Released file systems are wiped and handed out again")
+    @Test
+    void releasedFileSystemsAreWipedAndHandedOutAgain() throws IOException {
+      // Given
+      var provider = new MemoryFileSystemProvider(4, 1_024);
+      var directory = provider.acquireDirectory();
+      var fileSystem = directory.getFileSystem();
+      var dir = Files.createDirectories(directory.resolve("foo").resolve("bar"));
+      Files.writeString(dir.resolve("baz.txt"), "Hello, World!");
+      Files.createSymbolicLink(directory.resolve("link"), dir);
+
+      // When
+      provider.releaseDirectory(directory);
+      var reacquired = provider.acquireDirectory();
+
+      // Then
+      try {
+        assertThat(reacquired.getFileSystem()).isSameAs(fileSystem);
+        assertThat(fileSystem.isOpen()).isTrue();
+        assertThat(provider.getReuseCount()).isOne();
+        try (var list = Files.list(fileSystem.getPath("/"))) {
+          assertThat(list).containsExactly(reacquired);
+        }
+        try (var list = Files.list(reacquired)) {
+          assertThat(list).isEmpty();
+        }
+      } finally {
+        provider.clearPool();
+        fileSystem.close();
+      }
+    }
+
+    @DisplayName("Paths from a released directory cannot see the next lease's contents")
+    @Test
+    void pathsFromReleasedDirectoryCannotSeeTheNextLeasesContents() throws IOException {
+      // Given
+      var provider = new MemoryFileSystemProvider(4, 1_024);
+      var directory = provider.acquireDirectory();
+      var stalePath = Files.writeString(directory.resolve("Foo.java"), "class Foo {}");
+      var staleUri = stalePath.toUri();
+
+      // When
+      provider.releaseDirectory(directory);
+      var reacquired = provider.acquireDirectory();
+      var path = Files.writeString(reacquired.resolve("Foo.java"), "class Bar {}");
+
+      // Then
+      try {
+        assertThat(reacquired.getFileSystem()).isSameAs(directory.getFileSystem());
+        assertThat(reacquired).isNotEqualTo(directory);
+        assertThat(path.toUri()).isNotEqualTo(staleUri);
+        assertThat(stalePath).doesNotExist();
+        assertThat(Path.of(staleUri)).doesNotExist();
+      } finally {
+        provider.clearPool();
+        reacquired.getFileSystem().close();
+      }
+    }
+
+    @DisplayName("File systems are closed when the pool is full")
+    @Test
+    void fileSystemsAreClosedWhenThePoolIsFull() throws IOException {
+      // Given
+      var provider = new MemoryFileSystemProvider(1, 1_024);
+      var first = provider.acquireDirectory();
+      var second = provider.acquireDirectory();
+
+      // When
+      provider.releaseDirectory(first);
+      provider.releaseDirectory(second);
+
+      // Then
+      assertThat(first.getFileSystem().isOpen()).isTrue();
+      assertThat(second.getFileSystem().isOpen()).isFalse();
+      assertThat(provider.getPooledFileSystemCount()).isOne();
+
+      provider.clearPool();
+      assertThat(first.getFileSystem().isOpen()).isFalse();
+      assertThat(provider.getPooledFileSystemCount()).isZero();
+    }
+
+    @DisplayName("File systems that held too much data are closed")
+    @Test
+    void fileSystemsThatHeldTooMuchDataAreClosed() throws IOException {
+      // Given
+      var provider = new MemoryFileSystemProvider(4, 4);
+      var directory = provider.acquireDirectory();
+      Files.writeString(directory.resolve("big.txt"), "more than four bytes");
+
+      // When
+      provider.releaseDirectory(directory);
+
+      // Then
+      assertThat(directory.getFileSystem().isOpen()).isFalse();
+      assertThat(provider.getPooledFileSystemCount()).isZero();
+    }
+
+    @DisplayName("Closed file systems are not pooled or handed out")
+    @Test
+    void closedFileSystemsAreNotPooledOrHandedOut() throws IOException {
+      // Given
+      var provider = new MemoryFileSystemProvider(4, 1_024);
+      var closedBeforeRelease = provider.acquireDirectory();
+      var closedAfterRelease = provider.acquireDirectory();
+      closedBeforeRelease.getFileSystem().close();
+      provider.releaseDirectory(closedAfterRelease);
+      closedAfterRelease.getFileSystem().close();
+
+      // When
+      provider.releaseDirectory(closedBeforeRelease);
+      var directory = provider.acquireDirectory();
+
+      // Then
+      try {
+        assertThat(directory.getFileSystem())
+            .isNotSameAs(closedBeforeRelease.getFileSystem())
+            .isNotSameAs(closedAfterRelease.getFileSystem());
+        assertThat(directory.getFileSystem().isOpen()).isTrue();
+        assertThat(provider.getReuseCount()).isZero();
+      } finally {
+        directory.getFileSystem().close();
+      }
+    }
+
+    @DisplayName("RAM directories release their file system to the pool")
+    @Test
+    void ramDirectoriesReleaseTheirFileSystemToThePool() throws IOException {
+      // Given
+      var dir = RamDirectoryImpl.newRamDirectory(someText());
+      var fileSystem = dir.getPath().getFileSystem();
+
+      // When
+      dir.close();
+      dir.close();
+
+      // Then
+      assertThat(fileSystem.isOpen())
+          .as("file system was pooled rather than closed")
+          .isTrue();
+    }
+  }
+
   @DisplayName("MemoryFileSystemUrlHandlerProvider tests")
   @Nested
   class MemoryFileSystemUrlHandlerProviderTest {
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link TempDirectoryReaper} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("TempDirectoryReaper tests")
+class TempDirectoryReaperTest {
+
+  // Larger than any process ID that an operating system will hand out.
+  private static final long DEAD_PID = Long.MAX_VALUE;
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir
+  Path tempRoot;
+
+  TempDirectoryReaper reaper;
+
+  @BeforeEach
+  void setUp() {
+    reaper = new TempDirectoryReaper(tempRoot, 2);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    reaper.shutdown(TIMEOUT);
+  }
+
+  @DisplayName(".reap(Path) moves the directory away and deletes it in the background")
+  @Test
+  void reapMovesTheDirectoryAwayAndDeletesItInTheBackground() throws Exception {
+    // Given
+    var directory = Files.createTempDirectory(tempRoot, reaper.directoryPrefix("foo"));
+    Files.createDirectories(directory.resolve("foo").resolve("bar"));
+    Files.writeString(directory.resolve("foo").resolve("bar").resolve("Baz.java"), "class Baz {}");
+    Files.writeString(directory.resolve("Bork.java"), "class Bork {}");
+
+    // When
+    reaper.reap(directory);
+
+    // Then
+    assertThat(directory).doesNotExist();
+    assertThat(reaper.awaitPending(TIMEOUT)).isTrue();
+    assertThat(tempRoot).isEmptyDirectory();
+  }
+
+  @DisplayName(".reap(Path) raises an exception if the directory does not exist")
+  @Test
+  void reapRaisesAnExceptionIfTheDirectoryDoesNotExist() {
+    // Given
+    var directory = tempRoot.resolve("does-not-exist");
+
+    // Then
+    assertThatThrownBy(() -> reaper.reap(directory))
+        .isInstanceOf(NoSuchFileException.class);
+  }
+
+  @DisplayName(".reap(Path) deletes the directory immediately once shut down")
+  @Test
+  void reapDeletesTheDirectoryImmediatelyOnceShutDown() throws Exception {
+    // Given
+    var directory = Files.createTempDirectory(tempRoot, reaper.directoryPrefix("foo"));
+    Files.writeString(directory.resolve("Bork.java"), "class Bork {}");
+    reaper.shutdown(TIMEOUT);
+
+    // When
+    reaper.reap(directory);
+
+    // Then
+    assertThat(tempRoot).isEmptyDirectory();
+  }
+
+  @DisplayName(".cleanUpOrphans() deletes tombstones and directories of dead processes")
+  @Test
+  void cleanUpOrphansDeletesTombstonesAndDirectoriesOfDeadProcesses() throws Exception {
+    // Given
+    final var tombstone = Files.createDirectories(
+        tempRoot.resolve("jct-foo_" + DEAD_PID + "_2.tombstone")
+    );
+    Files.writeString(tombstone.resolve("Foo.java"), "class Foo {}");
+    final var liveTombstone = Files.createDirectories(
+        tempRoot.resolve("jct-foo_" + ProcessHandle.current().pid() + "_5.tombstone")
+    );
+    final var orphan = Files.createDirectories(tempRoot.resolve("jct-bar_" + DEAD_PID + "_3"));
+    Files.writeString(orphan.resolve("Bar.java"), "class Bar {}");
+    final var owned = Files.createTempDirectory(tempRoot, reaper.directoryPrefix("baz"));
+    final var legacy = Files.createDirectories(tempRoot.resolve("jct-bork_1234567"));
+    final var unrelated = Files.createDirectories(tempRoot.resolve("other_" + DEAD_PID + "_4"));
+
+    // When
+    reaper.cleanUpOrphans();
+
+    // Then
+    assertThat(reaper.awaitPending(TIMEOUT)).isTrue();
+    assertThat(tombstone).doesNotExist();
+    assertThat(liveTombstone).isDirectory();
+    assertThat(orphan).doesNotExist();
+    assertThat(owned).isDirectory();
+    assertThat(legacy).isDirectory();
+    assertThat(unrelated).isDirectory();
+  }
+
+  @DisplayName(".cleanUpOrphans() does nothing once shut down")
+  @Test
+  void cleanUpOrphansDoesNothingOnceShutDown() throws Exception {
+    // Given
+    var orphan = Files.createDirectories(tempRoot.resolve("jct-bar_" + DEAD_PID + "_3"));
+    reaper.shutdown(TIMEOUT);
+
+    // When
+    reaper.cleanUpOrphans();
+
+    // Then
+    assertThat(orphan).isDirectory();
+  }
+
+  @DisplayName(".directoryPrefix(String) produces names that are not orphans")
+  @ParameterizedTest(name = "for name = \"{0}\"")
+  @ValueSource(strings = {"foo", "foo_bar", "foo_123_456", "foo-fork1"})
+  void directoryPrefixProducesNamesThatAreNotOrphans(String name) throws IOException {
+    // Given
+    var directory = Files.createTempDirectory(tempRoot, reaper.directoryPrefix(name));
+
+    // Then
+    assertThat(directory.getFileName().toString())
+        .startsWith("jct-" + name + "_" + ProcessHandle.current().pid() + "_")
+        .satisfies(fileName -> assertThat(TempDirectoryReaper.isOrphan(fileName)).isFalse());
+  }
+
+  @DisplayName(".isOrphan(String) only matches names owned by dead processes")
+  @ParameterizedTest(name = "for fileName = \"{0}\" -> {1}")
+  @CsvSource({
+      "jct-foo_9223372036854775807_1.tombstone,  true",
+      "jct-foo_9223372036854775807_1,            true",
+      "jct-foo.tombstone,                        false",
+      "jct-foo_99999999999999999999_1,           false",
+      "jct-foo_12345,                            false",
+      "jct-foo,                                  false",
+  })
+  void isOrphanOnlyMatchesNamesOwnedByDeadProcesses(
+      String fileName,
+      boolean expected
+  ) {
+    // Then
+    assertThat(TempDirectoryReaper.isOrphan(fileName)).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.WorkspaceDumpOptions;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * {@link WorkspaceDumper} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("WorkspaceDumper tests")
+class WorkspaceDumperTest {
+
+  Workspace workspace;
+
+  @BeforeEach
+  void setUp() {
+    workspace = Workspaces.newWorkspace(PathStrategy.RAM_DIRECTORIES);
+    workspace.createSourcePathPackage()
+        .createFile("com", "example", "Foo.java").withContents("class Foo {}")
+        .createFile("com", "example", "Bar.java").withContents("class Bar {}")
+        .createFile("com", "example", "Baz.java").withContents("class Baz {}")
+        .createFile("com", "example", "nested", "Bork.java").withContents("class Bork {}")
+        .createFile("com", "example", "nested", "notes.txt").withContents("x".repeat(2048))
+        .createFile("module-info.java").withContents("module example {}");
+  }
+
+  @AfterEach
+  void tearDown() {
+    workspace.close();
+  }
+
+  @DisplayName("Unlimited dumps list every entry in name order")
+  @Test
+  void unlimitedDumpsListEveryEntryInNameOrder() {
+    // Given
+    var output = new StringBuilder();
+
+    // When
+    workspace.dump(output, WorkspaceDumpOptions.unlimited());
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("""
+               com/
+                 example/
+                   Bar.java
+                   Baz.java
+                   Foo.java
+                   nested/
+                     Bork.java
+                     notes.txt
+               module-info.java
+        """);
+  }
+
+  @DisplayName(".dump(Appendable) produces the same output as unlimited dumps")
+  @Test
+  void dumpProducesTheSameOutputAsUnlimitedDumps() {
+    // Given
+    var expected = new StringBuilder();
+    var actual = new StringBuilder();
+
+    // When
+    workspace.dump(expected, WorkspaceDumpOptions.unlimited());
+    workspace.dump(actual);
+
+    // Then
+    assertThat(actual).hasToString(expected.toString());
+  }
+
+  @DisplayName("Other workspace implementations are dumped in the same format by default")
+  @Test
+  void otherWorkspaceImplementationsAreDumpedInTheSameFormatByDefault() {
+    // Given
+    var otherWorkspace = mock(Workspace.class);
+    when(otherWorkspace.getAllPaths()).thenReturn(workspace.getAllPaths());
+    doCallRealMethod().when(otherWorkspace).dump(any());
+    doCallRealMethod().when(otherWorkspace).dump(any(), any());
+    var expected = new StringBuilder();
+    var actual = new StringBuilder();
+
+    // When
+    workspace.dump(expected);
+    otherWorkspace.dump(actual);
+
+    // Then
+    assertThat(treeOf(actual)).isEqualTo(treeOf(expected));
+  }
+
+  @DisplayName("Directories below the maximum depth are not expanded")
+  @Test
+  void directoriesBelowTheMaximumDepthAreNotExpanded() {
+    // Given
+    var output = new StringBuilder();
+    var options = WorkspaceDumpOptions.builder()
+        .maxDepth(1)
+        .build();
+
+    // When
+    workspace.dump(output, options);
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("""
+               com/
+                 example/ [[not expanded]]
+               module-info.java
+        """);
+  }
+
+  @DisplayName("Entries beyond the per-directory limit are summarised")
+  @Test
+  void entriesBeyondThePerDirectoryLimitAreSummarised() {
+    // Given
+    var output = new StringBuilder();
+    var options = WorkspaceDumpOptions.builder()
+        .maxEntriesPerDirectory(2)
+        .build();
+
+    // When
+    workspace.dump(output, options);
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("""
+               com/
+                 example/
+                   Bar.java
+                   Baz.java
+                   ... 2 more
+               module-info.java
+        """);
+  }
+
+  @DisplayName("File sizes and totals are included when requested")
+  @Test
+  void fileSizesAndTotalsAreIncludedWhenRequested() {
+    // Given
+    var output = new StringBuilder();
+    var options = WorkspaceDumpOptions.builder()
+        .maxEntriesPerDirectory(4)
+        .fileSizes(true)
+        .build();
+
+    // When
+    workspace.dump(output, options);
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("""
+               com/
+                 example/
+                   Bar.java (12 B)
+                   Baz.java (12 B)
+                   Foo.java (12 B)
+                   nested/
+                     Bork.java (13 B)
+                     notes.txt (2.0 KiB)
+               module-info.java (17 B)
+               [[total: 6 files, 2.1 KiB]]
+        """);
+  }
+
+  @DisplayName("Only files matching the glob and their parent directories are listed")
+  @Test
+  void onlyFilesMatchingTheGlobAndTheirParentDirectoriesAreListed() {
+    // Given
+    var output = new StringBuilder();
+    var options = WorkspaceDumpOptions.builder()
+        .glob("**/*.txt")
+        .build();
+
+    // When
+    workspace.dump(output, options);
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("""
+               com/
+                 example/
+                   nested/
+                     notes.txt
+        """);
+  }
+
+  @DisplayName("Path roots with nothing to list are marked as empty")
+  @Test
+  void pathRootsWithNothingToListAreMarkedAsEmpty() {
+    // Given
+    var output = new StringBuilder();
+    var options = WorkspaceDumpOptions.builder()
+        .glob("**/*.class")
+        .build();
+
+    // When
+    workspace.dump(output, options);
+
+    // Then
+    assertThat(treeOf(output)).isEqualTo("         [[empty]]\n");
+  }
+
+  @DisplayName(".formatSize(long) formats sizes in binary units")
+  @ParameterizedTest(name = "for size = {0}")
+  @CsvSource({
+      "0,             0 B",
+      "1023,          1023 B",
+      "1024,          1.0 KiB",
+      "1536,          1.5 KiB",
+      "1048576,       1.0 MiB",
+      "5368709120,    5.0 GiB",
+  })
+  void formatSizeFormatsSizesInBinaryUnits(long size, String expected) {
+    // Then
+    assertThat(WorkspaceDumper.formatSize(size)).isEqualTo(expected);
+  }
+
+  // Strip the workspace, location, and path root headers, and the trailing blank line.
+  private static String treeOf(CharSequence output) {
+    var tree = new StringBuilder();
+    output.toString().lines()
+        .skip(3)
+        .filter(line -> !line.isEmpty())
+        .forEach(line -> tree.append(line).append("\n"));
+    return tree.toString();
+  }
+}
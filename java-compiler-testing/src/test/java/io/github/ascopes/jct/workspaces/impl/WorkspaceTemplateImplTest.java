@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.jct.workspaces.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.ascopes.jct.ex.JctIllegalInputException;
+import io.github.ascopes.jct.workspaces.ManagedDirectory;
+import io.github.ascopes.jct.workspaces.PathStrategy;
+import io.github.ascopes.jct.workspaces.Workspace;
+import io.github.ascopes.jct.workspaces.Workspaces;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * {@link WorkspaceTemplateImpl} tests.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("WorkspaceTemplateImpl tests")
+class WorkspaceTemplateImplTest {
+
+  @DisplayName("Forks contain the files of the template")
+  @EnumSource(PathStrategy.class)
+  @ParameterizedTest(name = "for {0}")
+  void forksContainTheFilesOfTheTemplate(PathStrategy pathStrategy) throws IOException {
+    // Given
+    try (var template = newTemplate(pathStrategy);
+        var fork = template.fork()) {
+      // When
+      var sourcePath = fork.getSourcePathPackages().get(0).getPath();
+      var classOutput = fork.getClassOutputPackages().get(0).getPath();
+
+      // Then
+      assertThat(sourcePath.resolve("org").resolve("example").resolve("Foo.java"))
+          .hasContent("class Foo {}");
+      assertThat(classOutput.resolve("existing.txt"))
+          .hasContent("existing");
+      assertThat(fork.getPathStrategy()).isSameAs(pathStrategy);
+    }
+  }
+
+  @DisplayName("Modifying files in place in a fork does not affect the template or other forks")
+  @EnumSource(PathStrategy.class)
+  @ParameterizedTest(name = "for {0}")
+  void modifyingFilesInPlaceInForkDoesNotAffectTheTemplateOrOtherForks(
+      PathStrategy pathStrategy
+  ) throws IOException {
+    // Given
+    try (var template = newTemplate(pathStrategy);
+        var fork = template.fork();
+        var otherFork = template.fork()) {
+      var forkOutput = fork.getClassOutputPackages().get(0).getPath().resolve("existing.txt");
+
+      // When
+      Files.writeString(sourceFile(fork), "class Foo { int y; }");
+      Files.writeString(forkOutput, "changed");
+
+      // Then
+      assertThat(sourceFile(otherFork))
+          .hasContent("class Foo {}");
+      assertThat(otherFork.getClassOutputPackages().get(0).getPath().resolve("existing.txt"))
+          .hasContent("existing");
+
+      try (var newFork = template.fork()) {
+        assertThat(sourceFile(newFork))
+            .hasContent("class Foo {}");
+      }
+    }
+  }
+
+  @DisplayName("Writing and deleting files in forks does not affect the template")
+  @EnumSource(PathStrategy.class)
+  @ParameterizedTest(name = "for {0}")
+  void writingAndDeletingFilesInForksDoesNotAffectTheTemplate(
+      PathStrategy pathStrategy
+  ) throws IOException {
+    // Given
+    try (var template = newTemplate(pathStrategy)) {
+      try (var fork = template.fork()) {
+        var forkRoot = (ManagedDirectory) fork.getSourcePathPackages().get(0);
+
+        // When
+        forkRoot.createFile("org", "example", "Foo.java").withContents("class Foo { int x; }");
+        Files.delete(forkRoot.getPath().resolve("org").resolve("example").resolve("Bar.java"));
+
+        // Then
+        assertThat(sourceFile(fork)).hasContent("class Foo { int x; }");
+      }
+
+      try (var otherFork = template.fork()) {
+        var otherRoot = otherFork.getSourcePathPackages().get(0).getPath();
+        assertThat(sourceFile(otherFork)).hasContent("class Foo {}");
+        assertThat(otherRoot.resolve("org").resolve("example").resolve("Bar.java"))
+            .hasContent("class Bar {}");
+      }
+    }
+  }
+
+  @DisplayName("Closing a fork deletes its files but keeps the template")
+  @EnumSource(PathStrategy.class)
+  @ParameterizedTest(name = "for {0}")
+  void closingForkDeletesItsFilesButKeepsTheTemplate(PathStrategy pathStrategy) {
+    // Given
+    try (var template = newTemplate(pathStrategy)) {
+      var fork = template.fork();
+      var forkRoot = fork.getSourcePathPackages().get(0).getPath();
+
+      // When
+      fork.close();
+
+      // Then
+      assertThat(forkRoot).doesNotExist();
+
+      try (var otherFork = template.fork()) {
+        assertThat(sourceFile(otherFork)).hasContent("class Foo {}");
+      }
+    }
+  }
+
+  @DisplayName("Closing the template does not affect existing forks")
+  @EnumSource(PathStrategy.class)
+  @ParameterizedTest(name = "for {0}")
+  void closingTheTemplateDoesNotAffectExistingForks(PathStrategy pathStrategy) {
+    // Given
+    var template = newTemplate(pathStrategy);
+
+    try (var fork = template.fork()) {
+      // When
+      template.close();
+
+      // Then
+      assertThat(sourceFile(fork)).hasContent("class Foo {}");
+      assertThat(fork.getClassOutputPackages().get(0).getPath().resolve("existing.txt"))
+          .hasContent("existing");
+    }
+  }
+
+  @DisplayName("Forks share paths that the template does not manage")
+  @Test
+  void forksSharePathsThatTheTemplateDoesNotManage(@TempDir Path tempDir) {
+    // Given
+    var workspace = Workspaces.newWorkspace();
+    workspace.addClassPathPackage(tempDir);
+
+    try (var template = Workspaces.freeze(workspace);
+        var fork = template.fork()) {
+      // Then
+      assertThat(fork.getClassPathPackages())
+          .singleElement()
+          .satisfies(root -> assertThat(root.getPath()).isEqualTo(tempDir));
+    }
+  }
+
+  @DisplayName("Frozen workspaces cannot be modified")
+  @Test
+  void frozenWorkspacesCannotBeModified() {
+    // Given
+    var workspace = Workspaces.newWorkspace();
+
+    try (var template = Workspaces.freeze(workspace)) {
+      // Then
+      assertThatThrownBy(workspace::createSourcePathPackage)
+          .isInstanceOf(JctIllegalInputException.class)
+          .hasMessageEndingWith("is frozen as a template");
+      assertThat(template.isClosed()).isFalse();
+    }
+
+    assertThat(workspace.isClosed()).isTrue();
+  }
+
+  @DisplayName("Closed templates cannot be forked")
+  @Test
+  void closedTemplatesCannotBeForked() {
+    // Given
+    var template = Workspaces.freeze(Workspaces.newWorkspace());
+
+    // When
+    template.close();
+
+    // Then
+    assertThat(template.isClosed()).isTrue();
+    assertThatThrownBy(template::fork)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Workspace template has been closed");
+  }
+
+  @DisplayName("Closed workspaces cannot be frozen")
+  @Test
+  void closedWorkspacesCannotBeFrozen() {
+    // Given
+    var workspace = new WorkspaceImpl(PathStrategy.RAM_DIRECTORIES);
+    workspace.close();
+
+    // Then
+    assertThatThrownBy(() -> new WorkspaceTemplateImpl(workspace))
+        .isInstanceOf(JctIllegalInputException.class)
+        .hasMessage("Cannot freeze a closed workspace");
+  }
+
+  @DisplayName("Templates of other workspaces do not see later changes to the original")
+  @Test
+  void templatesOfOtherWorkspacesDoNotSeeLaterChangesToTheOriginal() {
+    // Given
+    try (var original = new WorkspaceImpl(PathStrategy.RAM_DIRECTORIES)) {
+      var sources = original.createSourcePathPackage();
+      sources.createFile("Foo.java").withContents("class Foo {}");
+      var workspace = mock(Workspace.class);
+      when(workspace.getPathStrategy()).thenReturn(original.getPathStrategy());
+      when(workspace.getAllPaths()).thenReturn(original.getAllPaths());
+
+      try (var template = new WorkspaceTemplateImpl(workspace)) {
+        // When
+        sources.createFile("Foo.java").withContents("class Foo { int bar; }");
+
+        try (var fork = template.fork()) {
+          // Then
+          assertThat(fork.getSourcePathPackages().get(0).getPath().resolve("Foo.java"))
+              .hasContent("class Foo {}");
+        }
+      }
+    }
+  }
+
+  private static WorkspaceTemplateImpl newTemplate(PathStrategy pathStrategy) {
+    var workspace = new WorkspaceImpl(pathStrategy);
+    workspace.createSourcePathPackage()
+        .createFile("org", "example", "Foo.java").withContents("class Foo {}")
+        .createFile("org", "example", "Bar.java").withContents("class Bar {}");
+    workspace.createClassOutputPackage()
+        .createFile("existing.txt").withContents("existing");
+    return new WorkspaceTemplateImpl(workspace);
+  }
+
+  private static Path sourceFile(Workspace workspace) {
+    return workspace.getSourcePathPackages().get(0).getPath()
+        .resolve("org")
+        .resolve("example")
+        .resolve("Foo.java");
+  }
+}